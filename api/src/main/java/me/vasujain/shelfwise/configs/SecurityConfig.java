@@ -2,8 +2,11 @@ package me.vasujain.shelfwise.configs;
 
 import lombok.RequiredArgsConstructor;
 import me.vasujain.shelfwise.filters.JwtAuthenticationFilter;
+import me.vasujain.shelfwise.util.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -51,11 +54,12 @@ public class SecurityConfig {
      * </ul>
      *
      * @param http the {@link HttpSecurity} builder
+     * @param authenticationProvider the provider checking usernames and passwords
      * @return the {@link SecurityFilterChain} instance
      * @throws Exception if something goes wrong
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
         http
                 // Disable CSRF since we're using tokens and not cookies for session
                 .csrf(AbstractHttpConfigurer::disable)
@@ -75,6 +79,10 @@ public class SecurityConfig {
                                 "/webjars/**"
                         ).permitAll()
 
+                        // Actuator health is public; metrics and the rest are for super admins only
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("SUPER_ADMIN")
+
                         // Allow all other routes through; rely on @PreAuthorize for method security
                         .anyRequest().permitAll()
                 )
@@ -85,7 +93,7 @@ public class SecurityConfig {
                 )
 
                 // Register authentication provider for username/password auth
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
 
                 // Add JWT validation filter before Spring Security's authentication filter
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
@@ -98,13 +106,35 @@ public class SecurityConfig {
      * <p>BCrypt is a robust hashing algorithm with built-in salt.
      * Strength 12 ensures strong hashing without excessive performance cost.
      *
+     * <p>Used as is only by the password hashing pool of user imports; requests go through
+     * {@link #passwordEncoder}.
+     *
      * @return a BCrypt {@link PasswordEncoder}
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder bcryptPasswordEncoder() {
         return new BCryptPasswordEncoder(12);
     }
 
+    /**
+     * The password encoder of logins, registrations and password changes: BCrypt run on a pool of
+     * its own, so that bursts of logins cannot take every core from the rest of the API. Checks beyond
+     * the pool's queue are refused with 503.
+     *
+     * @param threads       threads checking passwords; 0 uses half of the CPU cores
+     * @param queueCapacity checks waiting for a thread beyond which new ones are refused
+     * @return a bounded {@link PasswordEncoder}
+     */
+    @Bean
+    @Primary
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.password-hashing.request-threads:0}") int threads,
+            @Value("${app.password-hashing.request-queue-capacity:32}") int queueCapacity
+    ) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(bcryptPasswordEncoder(), poolSize, queueCapacity);
+    }
+
     /**
      * Authentication provider integrating our UserDetailsService and password encoder.
      * <p>This provider handles:
@@ -113,13 +143,14 @@ public class SecurityConfig {
      *   <li>Verifying passwords with BCrypt</li>
      * </ul>
      *
+     * @param passwordEncoder the bounded password encoder
      * @return a configured {@link AuthenticationProvider}
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
@@ -64,9 +64,10 @@ public class AuthenticationController {
     @ApiResponse(responseCode = "200", description = "Logout successful")
     public ResponseEntity<CustomApiResponse<Void>> logout(
             @CookieValue("accessToken") String accessToken,
+            @CookieValue(value = "refreshToken", required = false) String refreshToken,
             HttpServletResponse response) {
         log.info("Attempting to logout");
-        authenticationService.logout(accessToken, response);
+        authenticationService.logout(accessToken, refreshToken, response);
         return ResponseUtil.ok(null, "Logout successful");
     }
 
@@ -1,14 +1,21 @@
 // BookController.java
 package me.vasujain.shelfwise.controllers;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import me.vasujain.shelfwise.dtos.BookCreateDTO;
 import me.vasujain.shelfwise.dtos.BookDTO;
+import me.vasujain.shelfwise.dtos.BookFacetedSearchDTO;
+import me.vasujain.shelfwise.dtos.BookSearchDTO;
+import me.vasujain.shelfwise.dtos.BookSuggestionDTO;
+import me.vasujain.shelfwise.enums.SuggestionType;
 import me.vasujain.shelfwise.dtos.BookUpdateDTO;
+import me.vasujain.shelfwise.dtos.BookValueCountDTO;
+import me.vasujain.shelfwise.enums.BookValueField;
 import me.vasujain.shelfwise.response.CustomApiResponse;
 import me.vasujain.shelfwise.response.ResponseUtil;
+import me.vasujain.shelfwise.util.CursorPageRequest;
 import me.vasujain.shelfwise.services.BookService;
+import me.vasujain.shelfwise.services.BookSuggestionService;
+import me.vasujain.shelfwise.services.BookValueDictionary;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,10 +33,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -42,8 +45,10 @@ import java.util.UUID;
 public class BookController {
 
     private final BookService bookService;
-    private final ObjectMapper objectMapper;
-    private static final String UPLOAD_DIR = "uploads";
+    private final BookSuggestionService bookSuggestionService;
+    private final BookValueDictionary bookValueDictionary;
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_SUMMARY = "summary";
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
@@ -58,7 +63,8 @@ public class BookController {
 
     @PostMapping("/bulk")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
-    @Operation(summary = "Register bulk books", description = "Registers multiple books by uploading a JSON file containing an array of book data.")
+    @Operation(summary = "Register bulk books", description = "Registers multiple books by uploading a JSON file containing an array of book data. " +
+            "The array is read as it is uploaded and saved in committed batches, so books saved before a failure are kept.")
     @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "A JSON file containing an array of BookCreateDTO objects.", required = true,
             content = @io.swagger.v3.oas.annotations.media.Content(mediaType = "multipart/form-data",
                     schema = @io.swagger.v3.oas.annotations.media.Schema(type = "string", format = "binary")))
@@ -69,25 +75,8 @@ public class BookController {
             return ResponseUtil.badRequest(null, "File is empty");
         }
 
-        Path uploadPath = Paths.get(UPLOAD_DIR).toAbsolutePath().normalize();
-        try {
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-        } catch (IOException e) {
-            log.error("Could not create upload directory", e);
-            return ResponseUtil.internalServerError(null, "Could not create upload directory");
-        }
-
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = uploadPath.resolve(fileName);
-
         try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
-            log.info("File uploaded successfully to: {}", filePath.toString());
-
-            List<BookCreateDTO> bookCreateDTOs = objectMapper.readValue(filePath.toFile(), new TypeReference<List<BookCreateDTO>>() {});
-            Map<String, Object> result = bookService.registerBulkBooks(bookCreateDTOs);
+            Map<String, Object> result = bookService.registerBulkBooks(inputStream);
 
             int createdCount = (int) result.get("booksCreated");
             List<String> failedAccessionNumbers = (List<String>) result.get("failedAccessionNumbers");
@@ -102,15 +91,6 @@ public class BookController {
         } catch (IOException e) {
             log.error("Failed to process uploaded file", e);
             return ResponseUtil.internalServerError(null, "Failed to process file");
-        } finally {
-            try {
-                if (Files.exists(filePath)) {
-                    Files.delete(filePath);
-                    log.info("Deleted temporary file: {}", filePath.toString());
-                }
-            } catch (IOException e) {
-                log.error("Could not delete temporary file: {}", filePath.toString(), e);
-            }
         }
     }
 
@@ -124,38 +104,152 @@ public class BookController {
         return ResponseUtil.ok(book);
     }
 
+    /**
+     * Lists all books.
+     * Pass an empty {@code cursor} to switch to keyset pagination: each response then carries the cursor
+     * of the next page instead of page numbers, and the total is only counted when {@code withCount} is set.
+     * With {@code view=summary} only the columns shown in book lists are returned (and, for page-numbered
+     * requests, read from the database).
+     */
     @GetMapping
     @Operation(summary = "Get all books", description = "Retrieves a paginated list of all books.")
     @ApiResponse(responseCode = "200", description = "Books retrieved successfully")
-    public ResponseEntity<CustomApiResponse<List<BookDTO>>> getAllBooks(
+    public ResponseEntity<? extends CustomApiResponse<? extends List<?>>> getAllBooks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "title") String sortBy,
-            @RequestParam(defaultValue = "ASC") Sort.Direction sortDir) {
+            @RequestParam(defaultValue = "ASC") Sort.Direction sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
 
         log.debug("Fetching all books with pagination");
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
-        Page<BookDTO> result = bookService.getAllBooks(pageable);
-        return ResponseUtil.okPage(result);
+        boolean summary = isSummaryView(view);
+        Sort sort = Sort.by(sortDir, sortBy);
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return summary
+                    ? ResponseUtil.okPage(bookService.getAllBookSummaries(request))
+                    : ResponseUtil.okPage(bookService.getAllBooks(request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
+        return summary
+                ? ResponseUtil.okPage(bookService.getAllBookSummaries(pageable))
+                : ResponseUtil.okPage(bookService.getAllBooks(pageable));
     }
 
     /**
      * Unified search endpoint for books.
      * Searches against title, author, publisher, accession number, and keywords.
+     * Results are ranked by relevance unless another sort field is requested.
+     * With {@code view=summary} only the columns shown in book lists are read and returned.
      */
     @GetMapping("/search")
     @Operation(summary = "Search for books", description = "Searches for books based on a query string.")
     @ApiResponse(responseCode = "200", description = "Books found")
-    public ResponseEntity<CustomApiResponse<List<BookDTO>>> searchBooks(
+    public ResponseEntity<? extends CustomApiResponse<? extends List<?>>> searchBooks(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "relevance") String sortBy,
+            @RequestParam(defaultValue = "ASC") Sort.Direction sortDir,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        log.debug("Searching books with query: '{}'", query);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
+        return isSummaryView(view)
+                ? ResponseUtil.okPage(bookService.searchSummaries(query, pageable))
+                : ResponseUtil.okPage(bookService.search(query, pageable));
+    }
+
+    /**
+     * Faceted catalog browse.
+     * Applies every filter set on the criteria and returns the matching page together with
+     * the number of matches per type, status, language, publisher, publication decade and shelf.
+     */
+    @PostMapping("/search/faceted")
+    @Operation(summary = "Faceted book search", description = "Filters books by multiple criteria and returns facet counts for the matching books.")
+    @ApiResponse(responseCode = "200", description = "Books found")
+    @ApiResponse(responseCode = "400", description = "Invalid search criteria")
+    public ResponseEntity<CustomApiResponse<BookFacetedSearchDTO>> facetedSearch(
+            @Valid @RequestBody BookSearchDTO criteria,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "title") String sortBy,
             @RequestParam(defaultValue = "ASC") Sort.Direction sortDir) {
-        log.debug("Searching books with query: '{}'", query);
+        log.debug("Faceted search with criteria: {}", criteria);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
-        Page<BookDTO> result = bookService.search(query, pageable);
-        return ResponseUtil.okPage(result);
+        BookFacetedSearchDTO result = bookService.facetedSearch(criteria, pageable);
+        return ResponseUtil.okPage(result, pageable, result.getTotalElements());
+    }
+
+    /**
+     * Search-as-you-type suggestions for titles, authors and publishers.
+     * Served from memory; the prefix also matches the start of any word within a value.
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest search completions", description = "Returns the most common titles, authors and publishers starting with the given prefix.")
+    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    public ResponseEntity<CustomApiResponse<List<BookSuggestionDTO>>> suggest(
+            @RequestParam(name = "q") String prefix,
+            @RequestParam(required = false) SuggestionType type,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<BookSuggestionDTO> suggestions = bookSuggestionService.suggest(prefix, type, Math.max(1, Math.min(limit, 50)));
+        return ResponseUtil.ok(suggestions);
+    }
+
+    @GetMapping("/publishers")
+    @Operation(summary = "List publishers", description = "Returns every distinct publisher in the catalog, in alphabetical order.")
+    @ApiResponse(responseCode = "200", description = "Publishers retrieved successfully")
+    public ResponseEntity<CustomApiResponse<List<String>>> getPublishers() {
+        return ResponseUtil.ok(bookValueDictionary.values(BookValueField.PUBLISHER));
+    }
+
+    @GetMapping("/authors")
+    @Operation(summary = "List authors", description = "Returns every distinct primary author in the catalog, in alphabetical order.")
+    @ApiResponse(responseCode = "200", description = "Authors retrieved successfully")
+    public ResponseEntity<CustomApiResponse<List<String>>> getAuthors() {
+        return ResponseUtil.ok(bookValueDictionary.values(BookValueField.AUTHOR));
+    }
+
+    @GetMapping("/vendors")
+    @Operation(summary = "List vendors", description = "Returns every distinct vendor in the catalog, in alphabetical order.")
+    @ApiResponse(responseCode = "200", description = "Vendors retrieved successfully")
+    public ResponseEntity<CustomApiResponse<List<String>>> getVendors() {
+        return ResponseUtil.ok(bookValueDictionary.values(BookValueField.VENDOR));
+    }
+
+    @GetMapping("/languages")
+    @Operation(summary = "List languages", description = "Returns every distinct language in the catalog, in alphabetical order.")
+    @ApiResponse(responseCode = "200", description = "Languages retrieved successfully")
+    public ResponseEntity<CustomApiResponse<List<String>>> getLanguages() {
+        return ResponseUtil.ok(bookValueDictionary.values(BookValueField.LANGUAGE));
+    }
+
+    /**
+     * Paged variant of the distinct value lists above, for fields with too many values to ship whole.
+     * Served from memory.
+     */
+    @GetMapping("/values/{field}")
+    @Operation(summary = "Page through distinct values", description = "Returns a page of the distinct values of a book field starting with the given prefix, with the number of books carrying each.")
+    @ApiResponse(responseCode = "200", description = "Values retrieved successfully")
+    public ResponseEntity<CustomApiResponse<List<BookValueCountDTO>>> getValues(
+            @PathVariable BookValueField field,
+            @RequestParam(name = "q", required = false) String prefix,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Page<BookValueCountDTO> values = bookValueDictionary.values(field, prefix, PageRequest.of(page, Math.max(1, Math.min(size, 500))));
+        return ResponseUtil.okPage(values);
+    }
+
+    @PostMapping("/search-index/rebuild")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Rebuild the search index", description = "Drops the book search index and rebuilds it from the database.")
+    @ApiResponse(responseCode = "200", description = "Search index rebuilt successfully")
+    @ApiResponse(responseCode = "409", description = "Search index is unavailable or already being rebuilt")
+    public ResponseEntity<CustomApiResponse<Long>> rebuildSearchIndex() {
+        log.info("Rebuilding book search index");
+        long indexed = bookService.rebuildSearchIndex();
+        return ResponseUtil.ok(indexed, String.format("Search index rebuilt with %d books", indexed));
     }
 
     @PutMapping("/{id}")
@@ -182,4 +276,14 @@ public class BookController {
         bookService.deleteBook(id);
         return ResponseUtil.ok(null, "Book soft-deleted successfully");
     }
-}
\ No newline at end of file
+
+    private boolean isSummaryView(String view) {
+        if (VIEW_SUMMARY.equalsIgnoreCase(view)) {
+            return true;
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unknown view '" + view + "'; expected 'full' or 'summary'");
+    }
+}
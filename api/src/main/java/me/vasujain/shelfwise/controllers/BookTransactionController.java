@@ -3,6 +3,7 @@ package me.vasujain.shelfwise.controllers;
 import me.vasujain.shelfwise.dtos.*;
 import me.vasujain.shelfwise.response.CustomApiResponse;
 import me.vasujain.shelfwise.response.ResponseUtil;
+import me.vasujain.shelfwise.util.CursorPageRequest;
 import me.vasujain.shelfwise.services.BookTransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -74,6 +75,11 @@ public class BookTransactionController {
         return ResponseUtil.ok(transaction);
     }
 
+    /**
+     * Lists all transactions. The other transaction listings accept the same cursor parameters.
+     * Pass an empty {@code cursor} to switch to keyset pagination: each response then carries the cursor
+     * of the next page instead of page numbers, and the total is only counted when {@code withCount} is set.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
     @Operation(summary = "Get all transactions", description = "Retrieves a paginated list of all book transactions.")
@@ -82,10 +88,17 @@ public class BookTransactionController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "issueDate") String sortBy,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir) {
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount) {
 
         log.debug("Fetching all transactions with pagination");
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
+        Sort sort = Sort.by(sortDir, sortBy);
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return ResponseUtil.okPage(transactionService.getAllTransactions(request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         Page<BookTransactionDTO> result = transactionService.getAllTransactions(pageable);
         return ResponseUtil.okPage(result);
     }
@@ -99,9 +112,16 @@ public class BookTransactionController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "issueDate") String sortBy,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir) {
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount) {
         log.debug("Searching transactions with query: '{}'", query);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
+        Sort sort = Sort.by(sortDir, sortBy);
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return ResponseUtil.okPage(transactionService.search(query, request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         Page<BookTransactionDTO> result = transactionService.search(query, pageable);
         return ResponseUtil.okPage(result);
     }
@@ -114,10 +134,17 @@ public class BookTransactionController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "issueDate") String sortBy,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir) {
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount) {
 
         log.debug("Fetching active transactions with pagination");
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
+        Sort sort = Sort.by(sortDir, sortBy);
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return ResponseUtil.okPage(transactionService.getActiveTransactions(request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         Page<BookTransactionDTO> result = transactionService.getActiveTransactions(pageable);
         return ResponseUtil.okPage(result);
     }
@@ -129,10 +156,17 @@ public class BookTransactionController {
     public ResponseEntity<CustomApiResponse<List<BookTransactionDTO>>> getActiveTransactionsByUserId(
             @PathVariable UUID userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount) {
 
         log.debug("Fetching active transactions for user ID: {}", userId);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "issueDate"));
+        Sort sort = Sort.by(Sort.Direction.DESC, "issueDate");
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return ResponseUtil.okPage(transactionService.getActiveTransactionsByUserId(userId, request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         Page<BookTransactionDTO> result = transactionService.getActiveTransactionsByUserId(userId, pageable);
         return ResponseUtil.okPage(result);
     }
@@ -144,10 +178,17 @@ public class BookTransactionController {
     public ResponseEntity<CustomApiResponse<List<BookTransactionDTO>>> getTransactionsByBookId(
             @PathVariable UUID bookId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount) {
 
         log.debug("Fetching transactions for book ID: {}", bookId);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "issueDate"));
+        Sort sort = Sort.by(Sort.Direction.DESC, "issueDate");
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return ResponseUtil.okPage(transactionService.getTransactionsByBookId(bookId, request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         Page<BookTransactionDTO> result = transactionService.getTransactionsByBookId(bookId, pageable);
         return ResponseUtil.okPage(result);
     }
@@ -159,10 +200,17 @@ public class BookTransactionController {
     public ResponseEntity<CustomApiResponse<List<BookTransactionDTO>>> getTransactionsByUserId(
             @PathVariable UUID userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount) {
 
         log.debug("Fetching transactions for user ID: {}", userId);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "issueDate"));
+        Sort sort = Sort.by(Sort.Direction.DESC, "issueDate");
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return ResponseUtil.okPage(transactionService.getTransactionsByUserId(userId, request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         Page<BookTransactionDTO> result = transactionService.getTransactionsByUserId(userId, pageable);
         return ResponseUtil.okPage(result);
     }
@@ -173,10 +221,17 @@ public class BookTransactionController {
     @ApiResponse(responseCode = "200", description = "Overdue transactions retrieved successfully")
     public ResponseEntity<CustomApiResponse<List<BookTransactionDTO>>> getOverdueTransactions(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount) {
 
         log.debug("Fetching overdue transactions");
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "dueDate"));
+        Sort sort = Sort.by(Sort.Direction.ASC, "dueDate");
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return ResponseUtil.okPage(transactionService.getOverdueTransactions(request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         Page<BookTransactionDTO> result = transactionService.getOverdueTransactions(pageable);
         return ResponseUtil.okPage(result);
     }
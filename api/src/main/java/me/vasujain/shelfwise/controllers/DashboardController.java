@@ -2,7 +2,7 @@ package me.vasujain.shelfwise.controllers;
 
 import me.vasujain.shelfwise.dtos.AdminDashboardDTO;
 import me.vasujain.shelfwise.dtos.MemberDashboardDTO;
-import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.models.UserPrincipal;
 import me.vasujain.shelfwise.response.CustomApiResponse;
 import me.vasujain.shelfwise.response.ResponseUtil;
 import me.vasujain.shelfwise.services.DashboardService;
@@ -70,8 +70,8 @@ public class DashboardController {
                     @ApiResponse(responseCode = "403", description = "Forbidden")
             }
     )
-    public ResponseEntity<CustomApiResponse<MemberDashboardDTO>> getMemberDashboard(@AuthenticationPrincipal User user) {
-        MemberDashboardDTO memberDashboard = dashboardService.getMemberDashboard(user);
+    public ResponseEntity<CustomApiResponse<MemberDashboardDTO>> getMemberDashboard(@AuthenticationPrincipal UserPrincipal principal) {
+        MemberDashboardDTO memberDashboard = dashboardService.getMemberDashboard(principal.id());
         return ResponseUtil.ok(memberDashboard, "Member dashboard data retrieved successfully.");
     }
 
@@ -1,72 +1,219 @@
 package me.vasujain.shelfwise.controllers;
 
+import me.vasujain.shelfwise.enums.ExportFormat;
+import me.vasujain.shelfwise.enums.ExportType;
 import me.vasujain.shelfwise.services.DataExportService;
+import me.vasujain.shelfwise.services.ExportSnapshotStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * The format of an export is taken from the {@code format} parameter or else from the {@code Accept}
+ * header, defaulting to CSV when there is none; a header accepting none of the formats is answered with
+ * 406. CSV and NDJSON are gzip-compressed on the fly for clients accepting it.
+ *
+ * <p>CSV exports are served from the latest {@link ExportSnapshotStore snapshot} when snapshots are
+ * enabled, with its time as {@code Last-Modified}. Other formats, and {@code fresh=true}, always
+ * read the database.
+ */
 @RestController
 @RequestMapping("/api/export")
-@Tag(name = "Data Export", description = "APIs for exporting data to CSV files")
+@Tag(name = "Data Export", description = "APIs for exporting data to CSV, NDJSON and XLSX files")
 public class DataExportController {
 
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     @Autowired
     private DataExportService dataExportService;
 
+    @Autowired
+    private ExportSnapshotStore exportSnapshotStore;
+
     @GetMapping("/books")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
-    @Operation(summary = "Export all books to a CSV file", responses = {
-            @ApiResponse(responseCode = "200", description = "CSV file of books"),
+    @Operation(summary = "Export all books", description = "format: csv, ndjson or xlsx.", responses = {
+            @ApiResponse(responseCode = "200", description = "File of books"),
+            @ApiResponse(responseCode = "304", description = "The snapshot has not changed since If-Modified-Since"),
+            @ApiResponse(responseCode = "406", description = "The Accept header accepts none of the formats"),
             @ApiResponse(responseCode = "500", description = "Error generating the file")
     })
-    public ResponseEntity<Resource> exportBooks() throws Exception {
-        File file = dataExportService.exportBooksToCsv();
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(resource);
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(required = false) String format,
+                                                             @RequestParam(defaultValue = "false") boolean fresh,
+                                                             WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        return export(ExportType.BOOKS, format, fresh, request);
     }
 
     @GetMapping("/users")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
-    @Operation(summary = "Export all users to a CSV file", responses = {
-            @ApiResponse(responseCode = "200", description = "CSV file of users"),
+    @Operation(summary = "Export all users", description = "format: csv, ndjson or xlsx.", responses = {
+            @ApiResponse(responseCode = "200", description = "File of users"),
+            @ApiResponse(responseCode = "304", description = "The snapshot has not changed since If-Modified-Since"),
+            @ApiResponse(responseCode = "406", description = "The Accept header accepts none of the formats"),
             @ApiResponse(responseCode = "500", description = "Error generating the file")
     })
-    public ResponseEntity<Resource> exportUsers() throws Exception {
-        File file = dataExportService.exportUsersToCsv();
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(resource);
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String format,
+                                                             @RequestParam(defaultValue = "false") boolean fresh,
+                                                             WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        return export(ExportType.USERS, format, fresh, request);
     }
 
     @GetMapping("/transactions")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
-    @Operation(summary = "Export all transactions to a CSV file", responses = {
-            @ApiResponse(responseCode = "200", description = "CSV file of transactions"),
+    @Operation(summary = "Export all transactions", description = "format: csv, ndjson or xlsx.", responses = {
+            @ApiResponse(responseCode = "200", description = "File of transactions"),
+            @ApiResponse(responseCode = "304", description = "The snapshot has not changed since If-Modified-Since"),
+            @ApiResponse(responseCode = "406", description = "The Accept header accepts none of the formats"),
             @ApiResponse(responseCode = "500", description = "Error generating the file")
     })
-    public ResponseEntity<Resource> exportTransactions() throws Exception {
-        File file = dataExportService.exportTransactionsToCsv();
-        Resource resource = new FileSystemResource(file);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(resource);
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(required = false) String format,
+                                                                    @RequestParam(defaultValue = "false") boolean fresh,
+                                                                    WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        return export(ExportType.TRANSACTIONS, format, fresh, request);
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    /**
+     * The body is written to the client from a request thread of its own, after this method has returned.
+     */
+    private ResponseEntity<StreamingResponseBody> export(ExportType type, String format, boolean fresh, WebRequest request)
+            throws HttpMediaTypeNotAcceptableException {
+        ExportFormat resolved = format != null
+                ? ExportFormat.fromParameter(format)
+                : negotiateFormat(request.getHeader(HttpHeaders.ACCEPT));
+        boolean gzip = resolved != ExportFormat.XLSX && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder response = attachment(type, resolved, gzip);
+
+        Optional<ExportSnapshotStore.Snapshot> acquired = fresh || resolved != ExportFormat.CSV
+                ? Optional.empty()
+                : exportSnapshotStore.acquire(type);
+        if (acquired.isEmpty()) {
+            return response.body(out -> write(out, gzip, target -> dataExportService.export(type, resolved, target)));
+        }
+
+        ExportSnapshotStore.Snapshot snapshot = acquired.get();
+        if (request.checkNotModified(snapshot.createdAt().toEpochMilli())) {
+            snapshot.close();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        response.lastModified(snapshot.createdAt());
+        if (!gzip) {
+            response.contentLength(snapshot.size());
+        }
+        return response.body(out -> {
+            try (snapshot; InputStream in = Files.newInputStream(snapshot.file())) {
+                write(out, gzip, in::transferTo);
+            }
+        });
+    }
+
+    private ResponseEntity.BodyBuilder attachment(ExportType type, ExportFormat format, boolean gzip) {
+        String fileName = type.name().toLowerCase() + "_export." + format.getExtension();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType(format.getMediaType()));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response;
+    }
+
+    private static void write(OutputStream out, boolean gzip, StreamingResponseBody body) throws IOException {
+        if (!gzip) {
+            body.writeTo(out);
+            return;
+        }
+        GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        body.writeTo(compressed);
+        compressed.finish();
+    }
+
+    /**
+     * Picks the format the {@code Accept} header rates highest. A format takes the quality of the most specific
+     * media range that matches it, so {@code text/csv;q=0} excludes CSV even alongside {@code *}{@code /*}.
+     * Among formats of equal quality, the one matched by the more specific range wins, then the first one listed.
+     *
+     * @throws HttpMediaTypeNotAcceptableException if the header rates every format 0 or matches none of them
+     */
+    private static ExportFormat negotiateFormat(String accept) throws HttpMediaTypeNotAcceptableException {
+        if (accept == null || accept.isBlank()) {
+            return ExportFormat.CSV;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        ExportFormat best = null;
+        double bestQuality = 0;
+        int bestSpecificity = -1;
+        for (ExportFormat format : ExportFormat.values()) {
+            MediaType mediaType = MediaType.parseMediaType(format.getMediaType());
+            Optional<MediaType> range = accepted.stream()
+                    .filter(candidate -> candidate.includes(mediaType))
+                    .max(Comparator.comparingInt(DataExportController::specificity));
+            if (range.isEmpty()) {
+                continue;
+            }
+            double quality = range.get().getQualityValue();
+            int specificity = specificity(range.get());
+            if (quality > bestQuality || (quality == bestQuality && quality > 0 && specificity > bestSpecificity)) {
+                best = format;
+                bestQuality = quality;
+                bestSpecificity = specificity;
+            }
+        }
+        if (best == null) {
+            throw new HttpMediaTypeNotAcceptableException(Arrays.stream(ExportFormat.values())
+                    .map(format -> MediaType.parseMediaType(format.getMediaType()))
+                    .toList());
+        }
+        return best;
+    }
+
+    /**
+     * Ranks a media range by how narrowly it matches: {@code *}{@code /*}, then {@code type/*}, then a full type,
+     * each made narrower by parameters other than the quality.
+     */
+    private static int specificity(MediaType range) {
+        int parameters = range.getParameters().size() - (range.getParameter("q") != null ? 1 : 0);
+        int type = range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+        return type * 100 + parameters;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
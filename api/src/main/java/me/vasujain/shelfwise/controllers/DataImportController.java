@@ -37,12 +37,13 @@ public class DataImportController {
 
     @PostMapping("/users")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
-    @Operation(summary = "Import users from a CSV file", responses = {
+    @Operation(summary = "Import users from a CSV file", description = "With preHashedPasswords=true, passwords of the form {bcrypt}<hash> are stored as the given BCrypt hash, for migrations from systems that only have the hashes.", responses = {
             @ApiResponse(responseCode = "200", description = "Users imported successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DataImportResultDTO.class))),
             @ApiResponse(responseCode = "500", description = "Error importing users")
     })
-    public ResponseEntity<DataImportResultDTO> importUsers(@RequestParam("file") MultipartFile file) throws Exception {
-        DataImportResultDTO result = dataImportService.importUsersFromCsv(file);
+    public ResponseEntity<DataImportResultDTO> importUsers(@RequestParam("file") MultipartFile file,
+                                                           @RequestParam(value = "preHashedPasswords", defaultValue = "false") boolean preHashedPasswords) throws Exception {
+        DataImportResultDTO result = dataImportService.importUsersFromCsv(file, preHashedPasswords);
         return ResponseEntity.ok(result);
     }
 
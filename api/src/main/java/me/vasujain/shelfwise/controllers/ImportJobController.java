@@ -0,0 +1,112 @@
+package me.vasujain.shelfwise.controllers;
+
+import me.vasujain.shelfwise.dtos.ImportJobDTO;
+import me.vasujain.shelfwise.dtos.ImportJobErrorDTO;
+import me.vasujain.shelfwise.enums.ImportJobType;
+import me.vasujain.shelfwise.response.CustomApiResponse;
+import me.vasujain.shelfwise.response.ResponseUtil;
+import me.vasujain.shelfwise.services.ImportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background counterpart of {@link DataImportController}: uploads return a job at once, whose progress
+ * and failed rows can then be followed.
+ */
+@RestController
+@RequestMapping("/api/import/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Import Jobs", description = "APIs for importing CSV files in the background")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    @PostMapping("/books")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Queue a book import", description = "Stores the CSV file and imports it in the background.")
+    @ApiResponse(responseCode = "202", description = "Import job queued")
+    @ApiResponse(responseCode = "409", description = "Too many import jobs pending")
+    public ResponseEntity<CustomApiResponse<ImportJobDTO>> importBooks(@RequestParam("file") MultipartFile file) throws IOException {
+        ImportJobDTO job = importJobService.submitJob(ImportJobType.BOOKS, file, false);
+        return ResponseUtil.accepted(job, "Book import queued");
+    }
+
+    @PostMapping("/users")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Queue a user import", description = "Stores the CSV file and imports it in the background. With preHashedPasswords=true, passwords of the form {bcrypt}<hash> are stored as the given BCrypt hash.")
+    @ApiResponse(responseCode = "202", description = "Import job queued")
+    @ApiResponse(responseCode = "409", description = "Too many import jobs pending")
+    public ResponseEntity<CustomApiResponse<ImportJobDTO>> importUsers(@RequestParam("file") MultipartFile file,
+                                                                      @RequestParam(value = "preHashedPasswords", defaultValue = "false") boolean preHashedPasswords) throws IOException {
+        ImportJobDTO job = importJobService.submitJob(ImportJobType.USERS, file, preHashedPasswords);
+        return ResponseUtil.accepted(job, "User import queued");
+    }
+
+    @PostMapping("/transactions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Queue a transaction import", description = "Stores the CSV file and imports it in the background.")
+    @ApiResponse(responseCode = "202", description = "Import job queued")
+    @ApiResponse(responseCode = "409", description = "Too many import jobs pending")
+    public ResponseEntity<CustomApiResponse<ImportJobDTO>> importTransactions(@RequestParam("file") MultipartFile file) throws IOException {
+        ImportJobDTO job = importJobService.submitJob(ImportJobType.TRANSACTIONS, file, false);
+        return ResponseUtil.accepted(job, "Transaction import queued");
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Get import jobs", description = "Retrieves a paginated list of import jobs, newest first.")
+    @ApiResponse(responseCode = "200", description = "Import jobs retrieved successfully")
+    public ResponseEntity<CustomApiResponse<List<ImportJobDTO>>> getJobs(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Page<ImportJobDTO> jobs = importJobService.getJobs(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+        return ResponseUtil.okPage(jobs);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Get an import job", description = "Retrieves the status, progress and throughput of an import job.")
+    @ApiResponse(responseCode = "200", description = "Import job found")
+    @ApiResponse(responseCode = "404", description = "Import job not found")
+    public ResponseEntity<CustomApiResponse<ImportJobDTO>> getJob(@PathVariable UUID id) {
+        return ResponseUtil.ok(importJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/errors")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Get the failed rows of an import job", description = "Retrieves the rows that could not be imported, with the reason, up to the job's last checkpoint.")
+    @ApiResponse(responseCode = "200", description = "Failed rows retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Import job not found")
+    public ResponseEntity<CustomApiResponse<List<ImportJobErrorDTO>>> getJobErrors(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseUtil.okPage(importJobService.getJobErrors(id, PageRequest.of(page, size)));
+    }
+
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    @Operation(summary = "Cancel an import job", description = "Stops a queued or running import job. Rows already imported are kept.")
+    @ApiResponse(responseCode = "200", description = "Cancellation requested")
+    @ApiResponse(responseCode = "404", description = "Import job not found")
+    @ApiResponse(responseCode = "409", description = "Import job already finished")
+    public ResponseEntity<CustomApiResponse<ImportJobDTO>> cancelJob(@PathVariable UUID id) {
+        log.info("Cancelling import job {}", id);
+        return ResponseUtil.ok(importJobService.cancelJob(id), "Cancellation requested");
+    }
+}
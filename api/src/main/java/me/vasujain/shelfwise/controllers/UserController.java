@@ -5,6 +5,7 @@ import me.vasujain.shelfwise.dtos.*;
 import me.vasujain.shelfwise.enums.UserStatus;
 import me.vasujain.shelfwise.response.CustomApiResponse;
 import me.vasujain.shelfwise.response.ResponseUtil;
+import me.vasujain.shelfwise.util.CursorPageRequest;
 import me.vasujain.shelfwise.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -54,6 +55,11 @@ public class UserController {
         return ResponseUtil.ok(user);
     }
 
+    /**
+     * Lists all users.
+     * Pass an empty {@code cursor} to switch to keyset pagination: each response then carries the cursor
+     * of the next page instead of page numbers, and the total is only counted when {@code withCount} is set.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
     @Operation(summary = "Get all users", description = "Retrieves a paginated list of all users.")
@@ -62,10 +68,17 @@ public class UserController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "fullName") String sortBy,
-            @RequestParam(defaultValue = "ASC") Sort.Direction sortDir) {
+            @RequestParam(defaultValue = "ASC") Sort.Direction sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withCount) {
 
         log.debug("Fetching all users");
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
+        Sort sort = Sort.by(sortDir, sortBy);
+        if (cursor != null) {
+            CursorPageRequest request = CursorPageRequest.of(cursor, size, sort, withCount);
+            return ResponseUtil.okPage(userService.getAllUsers(request));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort);
         Page<UserDTO> result = userService.getAllUsers(pageable);
         return ResponseUtil.okPage(result);
     }
@@ -0,0 +1,16 @@
+package me.vasujain.shelfwise.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetedSearchDTO {
+    private List<BookDTO> books;
+    private BookFacetsDTO facets;
+    private long totalElements;
+}
@@ -0,0 +1,22 @@
+package me.vasujain.shelfwise.dtos;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Number of matching books per facet value, for the most frequent values. Each facet ignores the
+ * filters on its own field. Values are ordered by count, except publication years, which are
+ * bucketed by decade and ordered chronologically.
+ */
+@Data
+@Builder
+public class BookFacetsDTO {
+    private Map<String, Long> bookType;
+    private Map<String, Long> bookStatus;
+    private Map<String, Long> language;
+    private Map<String, Long> publisher;
+    private Map<String, Long> publicationYear;
+    private Map<String, Long> locationShelf;
+}
@@ -0,0 +1,15 @@
+package me.vasujain.shelfwise.dtos;
+
+import me.vasujain.shelfwise.enums.SuggestionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestionDTO {
+    private String text;
+    private SuggestionType type;
+    private int bookCount;
+}
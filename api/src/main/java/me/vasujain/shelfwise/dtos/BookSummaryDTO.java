@@ -0,0 +1,33 @@
+package me.vasujain.shelfwise.dtos;
+
+import me.vasujain.shelfwise.enums.BookStatus;
+import me.vasujain.shelfwise.enums.BookType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * The book columns shown in catalog lists. Constructed directly by list queries, so the
+ * constructor's parameter order is part of the query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSummaryDTO {
+    private UUID id;
+    private String accessionNumber;
+    private String isbn;
+    private String title;
+    private String authorPrimary;
+    private String publisher;
+    private Integer publicationYear;
+    private String locationShelf;
+    private String locationRack;
+    private BookStatus bookStatus;
+    private BookType bookType;
+    private Integer totalCopies;
+    private Integer availableCopies;
+    private Boolean isReferenceOnly;
+}
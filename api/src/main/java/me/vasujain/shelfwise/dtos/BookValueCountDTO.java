@@ -0,0 +1,13 @@
+package me.vasujain.shelfwise.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookValueCountDTO {
+    private String value;
+    private int bookCount;
+}
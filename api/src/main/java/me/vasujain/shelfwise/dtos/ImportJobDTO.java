@@ -0,0 +1,33 @@
+package me.vasujain.shelfwise.dtos;
+
+import me.vasujain.shelfwise.enums.ImportJobStatus;
+import me.vasujain.shelfwise.enums.ImportJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobDTO {
+    private UUID id;
+    private ImportJobType jobType;
+    private ImportJobStatus status;
+    private String fileName;
+    private String submittedBy;
+    private Long totalRows;
+    private Long processedRows;
+    private Long successfulRows;
+    private Long failedRows;
+    private Double rowsPerSecond;
+    private Boolean cancelRequested;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,16 @@
+package me.vasujain.shelfwise.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobErrorDTO {
+    private Long rowNumber;
+    private String identifier;
+    private String reason;
+}
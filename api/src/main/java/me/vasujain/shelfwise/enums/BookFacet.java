@@ -0,0 +1,5 @@
+package me.vasujain.shelfwise.enums;
+
+public enum BookFacet {
+    BOOK_TYPE, BOOK_STATUS, LANGUAGE, PUBLISHER, PUBLICATION_DECADE, LOCATION_SHELF
+}
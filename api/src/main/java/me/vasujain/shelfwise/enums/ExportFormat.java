@@ -0,0 +1,29 @@
+package me.vasujain.shelfwise.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String mediaType;
+    private final String extension;
+
+    /**
+     * Reads a {@code format} request parameter, ignoring case.
+     *
+     * @throws IllegalArgumentException If the parameter names no format.
+     */
+    public static ExportFormat fromParameter(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value + ". Use csv, ndjson or xlsx");
+    }
+}
@@ -0,0 +1,5 @@
+package me.vasujain.shelfwise.enums;
+
+public enum ExportType {
+    BOOKS, USERS, TRANSACTIONS
+}
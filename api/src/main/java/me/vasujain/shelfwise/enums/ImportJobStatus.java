@@ -0,0 +1,5 @@
+package me.vasujain.shelfwise.enums;
+
+public enum ImportJobStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+}
@@ -0,0 +1,5 @@
+package me.vasujain.shelfwise.enums;
+
+public enum ImportJobType {
+    BOOKS, USERS, TRANSACTIONS
+}
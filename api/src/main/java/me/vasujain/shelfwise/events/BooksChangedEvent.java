@@ -0,0 +1,17 @@
+package me.vasujain.shelfwise.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.vasujain.shelfwise.models.Book;
+
+import java.util.List;
+
+/**
+ * Published whenever books are created or modified so that in-memory and on-disk
+ * catalog indexes can be brought up to date once the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class BooksChangedEvent {
+    private final List<Book> books;
+}
@@ -4,8 +4,10 @@ package me.vasujain.shelfwise.exceptions;
 import me.vasujain.shelfwise.response.CustomApiResponse;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -194,6 +196,44 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<CustomApiResponse<Void>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        logger.error("Too many requests: {}", ex.getMessage());
+
+        CustomApiResponse<Void> response = CustomApiResponse.<Void>builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .message(ex.getMessage())
+                .timestamp(LocalDate.from(LocalDateTime.now()))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<CustomApiResponse<Void>> handleServerBusyException(ServerBusyException ex) {
+        logger.error("Server busy: {}", ex.getMessage());
+
+        CustomApiResponse<Void> response = CustomApiResponse.<Void>builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .message(ex.getMessage())
+                .timestamp(LocalDate.from(LocalDateTime.now()))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<Void> handleHttpMediaTypeNotAcceptableException(HttpMediaTypeNotAcceptableException ex) {
+        logger.error("Not acceptable: {}", ex.getMessage());
+
+        // No body: the client accepts none of the types it could be written in
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<CustomApiResponse<Void>> handleRuntimeException(RuntimeException ex) {
         logger.error("Unhandled runtime exception", ex);
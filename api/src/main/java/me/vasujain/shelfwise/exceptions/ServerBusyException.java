@@ -0,0 +1,10 @@
+package me.vasujain.shelfwise.exceptions;
+
+/**
+ * Thrown when work is refused because the resources reserved for it are all in use.
+ */
+public class ServerBusyException extends RuntimeException {
+    public ServerBusyException(String message) {
+        super(message);
+    }
+}
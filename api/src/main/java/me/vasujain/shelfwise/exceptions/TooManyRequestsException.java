@@ -0,0 +1,18 @@
+package me.vasujain.shelfwise.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a caller has used up its allowance of requests of some kind.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    /** Seconds until the caller may try again. */
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
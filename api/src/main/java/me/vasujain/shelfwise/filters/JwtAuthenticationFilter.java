@@ -1,17 +1,21 @@
 package me.vasujain.shelfwise.filters;
 
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.models.UserPrincipal;
 import me.vasujain.shelfwise.services.JwtService;
+import me.vasujain.shelfwise.services.TokenRevocationList;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -22,6 +26,11 @@ import java.io.IOException;
 /**
  * Filter responsible for JWT-based authentication in the Spring Security filter chain.
  * Handles both cookie-based and Authorization header JWT tokens.
+ *
+ * <p>By default the principal is read from the claims of the access token, so that authenticating a
+ * request makes no query; refresh tokens, and tokens revoked through {@link TokenRevocationList}, are
+ * refused. With {@code app.security.stateless-principal: false} the user is loaded from the database on
+ * every request.
  */
 @Component
 @RequiredArgsConstructor
@@ -29,6 +38,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationList tokenRevocationList;
+
+    @Value("${app.security.stateless-principal:true}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(
@@ -47,23 +60,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Extract username from the JWT token
-            final String username = jwtService.extractUsername(jwt);
+            // Verify the JWT token once and read the username from its claims
+            final Claims claims = jwtService.verifyToken(jwt);
+            final String username = claims.getSubject();
 
             // Only proceed with authentication if:
             // 1. Username was successfully extracted from token
             // 2. User isn't already authenticated
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Load user details from the database
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                // Validate the token against the user details
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            // 3. The token is an access token, not a refresh token
+            // 4. The token hasn't been revoked by a logout or a change to the user
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && jwtService.isAccessToken(claims) && !tokenRevocationList.isRevoked(claims)) {
+                UserPrincipal principal = loadPrincipal(claims, username);
+
+                // Validate the token against the principal, and refuse users who may no longer sign in
+                if (jwtService.isTokenValid(claims, principal) && principal.isEnabled() && principal.isAccountNonLocked()) {
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null, // credentials (null since we don't need them after authentication)
-                            userDetails.getAuthorities() // user's granted authorities/roles
+                            principal.getAuthorities() // user's granted authorities/roles
                     );
 
                     // Add request details to authentication token
@@ -85,6 +101,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Reads the principal from the token's claims, or loads the user from the database when stateless
+     * principals are disabled or the token does not carry one.
+     */
+    private UserPrincipal loadPrincipal(Claims claims, String username) {
+        UserPrincipal principal = statelessPrincipal ? jwtService.readPrincipal(claims) : null;
+        if (principal != null) {
+            return principal;
+        }
+        return UserPrincipal.of((User) userDetailsService.loadUserByUsername(username));
+    }
+
     /**
      * Helper method to extract JWT token from cookies or Authorization header.
      */
@@ -1,6 +1,7 @@
 package me.vasujain.shelfwise.mapper;
 
 import me.vasujain.shelfwise.dtos.BookDTO;
+import me.vasujain.shelfwise.dtos.BookSummaryDTO;
 import me.vasujain.shelfwise.models.Book;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -13,6 +14,8 @@ public interface BookMapper {
 
     BookDTO toDto(Book book);
 
+    BookSummaryDTO toSummaryDto(Book book);
+
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "transactions", ignore = true)
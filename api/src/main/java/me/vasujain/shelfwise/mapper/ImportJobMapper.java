@@ -0,0 +1,35 @@
+package me.vasujain.shelfwise.mapper;
+
+import me.vasujain.shelfwise.dtos.ImportJobDTO;
+import me.vasujain.shelfwise.dtos.ImportJobErrorDTO;
+import me.vasujain.shelfwise.models.ImportJob;
+import me.vasujain.shelfwise.models.ImportJobError;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Mapper(componentModel = "spring")
+public interface ImportJobMapper {
+
+    ImportJobMapper INSTANCE = Mappers.getMapper(ImportJobMapper.class);
+
+    @Mapping(target = "rowsPerSecond", expression = "java(rowsPerSecond(job))")
+    ImportJobDTO toDto(ImportJob job);
+
+    ImportJobErrorDTO toErrorDto(ImportJobError error);
+
+    /**
+     * Throughput over the time the job has been running, up to now or to when it finished.
+     */
+    default Double rowsPerSecond(ImportJob job) {
+        if (job.getStartedAt() == null) {
+            return null;
+        }
+        LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+        long millis = Duration.between(job.getStartedAt(), end).toMillis();
+        return millis > 0 ? job.getProcessedRows() * 1000.0 / millis : null;
+    }
+}
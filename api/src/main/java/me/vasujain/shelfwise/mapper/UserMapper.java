@@ -18,6 +18,5 @@ public interface UserMapper {
     @Mapping(target = "issuedTransactions", ignore = true)
     @Mapping(target = "returnedTransactions", ignore = true)
     @Mapping(target = "password", ignore = true)
-    @Mapping(target = "refreshToken", ignore = true)
     User toEntity(UserDTO userDTO);
 }
\ No newline at end of file
@@ -13,6 +13,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@NamedEntityGraph(name = BookTransaction.WITH_PARTIES, attributeNodes = {
+        @NamedAttributeNode("book"),
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("issuedBy"),
+        @NamedAttributeNode("returnedTo")
+})
 @Table(name = "book_transactions", indexes = {
         @Index(name = "idx_book_user", columnList = "book_id, user_id"),
         @Index(name = "idx_status", columnList = "status"),
@@ -27,6 +33,17 @@ import java.time.LocalDateTime;
 @SuperBuilder
 public class BookTransaction extends BaseEntity {
 
+    /**
+     * Entity graph fetching the book and the users a transaction refers to, which is everything
+     * {@code BookTransactionDTO} needs besides the transaction itself.
+     */
+    public static final String WITH_PARTIES = "BookTransaction.withParties";
+
+    /**
+     * The associations of {@link #WITH_PARTIES}, for queries that take attribute paths.
+     */
+    public static final String[] PARTIES = {"book", "user", "issuedBy", "returnedTo"};
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", nullable = false)
     private Book book;
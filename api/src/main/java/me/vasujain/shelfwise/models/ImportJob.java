@@ -0,0 +1,77 @@
+package me.vasujain.shelfwise.models;
+
+import me.vasujain.shelfwise.enums.ImportJobStatus;
+import me.vasujain.shelfwise.enums.ImportJobType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * A CSV import run in the background. The counters are updated at every checkpoint, so that a job
+ * interrupted by a restart resumes after {@code processedRows}.
+ */
+@Entity
+@Table(name = "import_jobs", indexes = {
+        @Index(name = "idx_import_job_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class ImportJob extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false)
+    private ImportJobType jobType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ImportJobStatus status;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "stored_file", nullable = false)
+    private String storedFile;
+
+    @Column(name = "accept_pre_hashed_passwords", nullable = false)
+    @lombok.Builder.Default
+    private Boolean acceptPreHashedPasswords = false;
+
+    @Column(name = "submitted_by", nullable = false, length = 50)
+    private String submittedBy;
+
+    @Column(name = "total_rows")
+    private Long totalRows;
+
+    @Column(name = "processed_rows", nullable = false)
+    @lombok.Builder.Default
+    private Long processedRows = 0L;
+
+    @Column(name = "successful_rows", nullable = false)
+    @lombok.Builder.Default
+    private Long successfulRows = 0L;
+
+    @Column(name = "failed_rows", nullable = false)
+    @lombok.Builder.Default
+    private Long failedRows = 0L;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "cancel_requested", nullable = false)
+    @lombok.Builder.Default
+    private Boolean cancelRequested = false;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+}
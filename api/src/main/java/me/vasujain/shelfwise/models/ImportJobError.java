@@ -0,0 +1,36 @@
+package me.vasujain.shelfwise.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * A row of an {@link ImportJob} that could not be imported.
+ */
+@Entity
+@Table(name = "import_job_errors", indexes = {
+        @Index(name = "idx_import_job_error_job_row", columnList = "job_id, row_index")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class ImportJobError extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private ImportJob job;
+
+    @Column(name = "row_index", nullable = false)
+    private Long rowNumber;
+
+    @Column(name = "identifier")
+    private String identifier;
+
+    @Column(name = "reason", length = 1000)
+    private String reason;
+}
@@ -0,0 +1,48 @@
+package me.vasujain.shelfwise.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A refresh token issued to a user, stored by its SHA-256 digest. Each login starts a family of
+ * tokens, one per device or session, to which the tokens it is refreshed with belong. A used token is
+ * kept until it expires, so that presenting it again can be recognised as a stolen token.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_token_digest", columnList = "token_digest", unique = true),
+        @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class RefreshToken extends BaseEntity {
+
+    @Column(name = "token_digest", nullable = false, columnDefinition = "CHAR(64)")
+    private String tokenDigest;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** When the token was exchanged for a new one; null while it can still be used. */
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+}
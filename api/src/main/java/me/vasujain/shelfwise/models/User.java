@@ -101,9 +101,6 @@ public class User extends BaseEntity implements UserDetails {
     @Column(nullable = false)
     private String password;
 
-    @Column(name = "refresh_token", length = 512)
-    private String refreshToken;
-
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<BookTransaction> borrowedBooks;
 
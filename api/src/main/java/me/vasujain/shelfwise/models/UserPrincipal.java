@@ -0,0 +1,47 @@
+package me.vasujain.shelfwise.models;
+
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.enums.UserStatus;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The authenticated user of a request, as carried by its access token. It holds only what
+ * authorization needs, so it can be built from the token's claims without loading the {@link User}.
+ */
+public record UserPrincipal(UUID id, String employeeId, UserRole role, UserStatus status) implements UserDetails {
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getEmployeeId(), user.getUserRole(), user.getUserStatus());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return employeeId;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return status != UserStatus.SUSPENDED;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return status == UserStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,26 @@
+package me.vasujain.shelfwise.repositories;
+
+import me.vasujain.shelfwise.enums.BookFacet;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.projections.BookFacetCount;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository fragment for facet counts, which need a GROUP BY over a dynamic filter.
+ */
+public interface BookFacetRepository {
+
+    /**
+     * Counts the books per value of several faceted columns, each over a filter of its own, in a single
+     * statement.
+     *
+     * @param specs The facets to count, with the filter to apply to each.
+     * @param limit The maximum number of values to return per facet.
+     * @return The most frequent values of each facet with their counts, most frequent first. Values are
+     * returned as text; publication years are grouped by decade, as the first year of the decade.
+     */
+    Map<BookFacet, List<BookFacetCount>> countByFacets(Map<BookFacet, Specification<Book>> specs, int limit);
+}
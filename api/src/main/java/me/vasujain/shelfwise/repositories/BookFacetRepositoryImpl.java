@@ -0,0 +1,89 @@
+package me.vasujain.shelfwise.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import me.vasujain.shelfwise.enums.BookFacet;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.projections.BookFacetCount;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaExpression;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class BookFacetRepositoryImpl implements BookFacetRepository {
+
+    private static final BookFacet[] FACETS = BookFacet.values();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Runs a UNION ALL of one GROUP BY per facet. Each branch tags its rows with the ordinal of its
+     * facet and returns its values as text, so that all branches share one row type.
+     */
+    @Override
+    public Map<BookFacet, List<BookFacetCount>> countByFacets(Map<BookFacet, Specification<Book>> specs, int limit) {
+        Map<BookFacet, List<BookFacetCount>> counts = new EnumMap<>(BookFacet.class);
+        if (specs.isEmpty()) {
+            return counts;
+        }
+
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        List<JpaCriteriaQuery<Tuple>> branches = new ArrayList<>(specs.size());
+        specs.forEach((facet, spec) -> {
+            branches.add(countQuery(cb, facet, spec, limit));
+            counts.put(facet, new ArrayList<>());
+        });
+        JpaCriteriaQuery<Tuple> query = branches.size() == 1
+                ? branches.get(0)
+                : cb.unionAll(branches.get(0), branches.subList(1, branches.size()).toArray(JpaCriteriaQuery[]::new));
+
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            BookFacet facet = FACETS[row.get(0, Integer.class)];
+            counts.get(facet).add(new BookFacetCount(row.get(1, String.class), row.get(2, Long.class)));
+        }
+        return counts;
+    }
+
+    private JpaCriteriaQuery<Tuple> countQuery(HibernateCriteriaBuilder cb, BookFacet facet,
+                                               Specification<Book> spec, int limit) {
+        JpaCriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        Expression<String> value = cb.cast(facetValue(cb, root, facet), String.class);
+        Expression<Long> count = cb.count(root);
+        query.multiselect(cb.literal(facet.ordinal()), value, count)
+                .groupBy(value)
+                .orderBy(cb.desc(count), cb.asc(value));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.fetch(limit);
+        return query;
+    }
+
+    private JpaExpression<?> facetValue(HibernateCriteriaBuilder cb, Root<Book> root, BookFacet facet) {
+        return switch (facet) {
+            case BOOK_TYPE -> (JpaExpression<?>) root.get("bookType");
+            case BOOK_STATUS -> (JpaExpression<?>) root.get("bookStatus");
+            case LANGUAGE -> (JpaExpression<?>) root.get("language");
+            case PUBLISHER -> (JpaExpression<?>) root.get("publisher");
+            case LOCATION_SHELF -> (JpaExpression<?>) root.get("locationShelf");
+            case PUBLICATION_DECADE -> {
+                Path<Integer> year = root.get("publicationYear");
+                yield cb.diff(year, cb.mod(year, cb.literal(10)));
+            }
+        };
+    }
+}
@@ -1,25 +1,35 @@
 package me.vasujain.shelfwise.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import me.vasujain.shelfwise.enums.BookCondition;
 import me.vasujain.shelfwise.enums.BookStatus;
 import me.vasujain.shelfwise.enums.BookType;
 import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.projections.BookIdentifiers;
+import me.vasujain.shelfwise.repositories.projections.BookSuggestionFields;
+import me.vasujain.shelfwise.repositories.projections.BookValueFields;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, UUID>, JpaSpecificationExecutor<Book> {
+public interface BookRepository extends JpaRepository<Book, UUID>, JpaSpecificationExecutor<Book>, BookFacetRepository, BookSummaryRepository {
 
     Optional<Book> findByAccessionNumber(String accessionNumber);
 
@@ -59,21 +69,19 @@ public interface BookRepository extends JpaRepository<Book, UUID>, JpaSpecificat
 
     Page<Book> findByVendorNameIgnoreCase(String vendorName, Pageable pageable);
 
-    @Query("SELECT DISTINCT b.publisher FROM Book b ORDER BY b.publisher")
-    List<String> findDistinctPublishers();
+    Page<Book> findByLanguageIgnoreCase(String language, Pageable pageable);
 
-    @Query("SELECT DISTINCT b.authorPrimary FROM Book b ORDER BY b.authorPrimary")
-    List<String> findDistinctAuthors();
+    boolean existsByAccessionNumber(String accessionNumber);
 
-    @Query("SELECT DISTINCT b.vendorName FROM Book b ORDER BY b.vendorName")
-    List<String> findDistinctVendors();
+    List<BookIdentifiers> findIdentifiersBy();
 
-    @Query("SELECT DISTINCT b.language FROM Book b ORDER BY b.language")
-    List<String> findDistinctLanguages();
+    List<BookIdentifiers> findIdentifiersByUpdatedAtAfter(LocalDateTime since);
 
-    Page<Book> findByLanguageIgnoreCase(String language, Pageable pageable);
+    List<BookIdentifiers> findIdentifiersByAccessionNumberIn(Collection<String> accessionNumbers);
 
-    boolean existsByAccessionNumber(String accessionNumber);
+    List<BookSuggestionFields> findSuggestionFieldsBy();
+
+    List<BookValueFields> findValueFieldsBy();
 
     @Modifying
     @Query("UPDATE Book b SET b.bookStatus = :status WHERE b.id IN :bookIds")
@@ -83,10 +91,55 @@ public interface BookRepository extends JpaRepository<Book, UUID>, JpaSpecificat
     @Query("UPDATE Book b SET b.bookCondition = :condition WHERE b.id IN :bookIds")
     int updateConditionForIds(@Param("condition") BookCondition condition, @Param("bookIds") List<UUID> bookIds);
 
+    /**
+     * Reads books and locks their rows until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id IN :ids")
+    List<Book> findAllForUpdateByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Takes one copy of an available, lendable book, marking it as issued when that was the last copy.
+     * The status is assigned first so that it sees the old count on databases that, like MySQL,
+     * evaluate assignments left to right.
+     *
+     * @return 1 if a copy was taken, 0 if the book has no copy left to issue
+     */
+    @Modifying
+    @Query("UPDATE Book b SET b.bookStatus = CASE WHEN b.availableCopies = 1 THEN :issued ELSE b.bookStatus END, " +
+            "b.availableCopies = b.availableCopies - 1 " +
+            "WHERE b.id = :id AND b.availableCopies > 0 AND b.bookStatus = :available " +
+            "AND (b.isReferenceOnly IS NULL OR b.isReferenceOnly = false)")
+    int issueCopy(@Param("id") UUID id, @Param("available") BookStatus available, @Param("issued") BookStatus issued);
+
+    /**
+     * Puts one copy of a book back, making an issued book available again.
+     *
+     * @return 1 if the book exists, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Book b SET b.bookStatus = CASE WHEN b.bookStatus = :issued THEN :available ELSE b.bookStatus END, " +
+            "b.availableCopies = b.availableCopies + 1 " +
+            "WHERE b.id = :id")
+    int returnCopy(@Param("id") UUID id, @Param("available") BookStatus available, @Param("issued") BookStatus issued);
+
     @Query("SELECT COUNT(DISTINCT b.isbn) FROM Book b")
     long countDistinctByIsbn();
 
     long countByBookStatus(BookStatus bookStatus);
 
     long countByCreatedAtAfter(LocalDateTime date);
+
+    /**
+     * Reads the export columns of every book as plain values, fetching them from the database a
+     * thousand rows at a time, so that exporting the catalog neither loads nor keeps entities.
+     * Must be consumed and closed within a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id, b.accessionNumber, b.isbn, b.title, b.subtitle, b.authorPrimary, b.authorSecondary, " +
+            "b.publisher, b.publicationPlace, b.publicationYear, b.edition, b.pages, b.language, b.price, " +
+            "b.billNumber, b.vendorName, b.purchaseDate, b.keywords, b.classificationNumber, b.locationShelf, " +
+            "b.locationRack, b.bookCondition, b.bookStatus, b.totalCopies, b.availableCopies, b.bookType, " +
+            "b.isReferenceOnly, b.registrationDate, b.notes FROM Book b")
+    Stream<Object[]> streamExportRows();
 }
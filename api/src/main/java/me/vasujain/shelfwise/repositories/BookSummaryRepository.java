@@ -0,0 +1,35 @@
+package me.vasujain.shelfwise.repositories;
+
+import me.vasujain.shelfwise.dtos.BookSummaryDTO;
+import me.vasujain.shelfwise.models.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository fragment for list queries that select only the summary columns of a book instead
+ * of the whole entity.
+ */
+public interface BookSummaryRepository {
+
+    /**
+     * Finds a page of book summaries matching the specification.
+     *
+     * @param spec     The filter to apply, or null for all books.
+     * @param pageable Pagination and sort information.
+     * @return The page of summaries.
+     */
+    Page<BookSummaryDTO> findSummaries(Specification<Book> spec, Pageable pageable);
+
+    /**
+     * Finds the summaries of the given books, in no particular order.
+     *
+     * @param ids The book IDs.
+     * @return The summaries of the books that exist.
+     */
+    List<BookSummaryDTO> findSummariesByIdIn(Collection<UUID> ids);
+}
@@ -0,0 +1,74 @@
+package me.vasujain.shelfwise.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import me.vasujain.shelfwise.dtos.BookSummaryDTO;
+import me.vasujain.shelfwise.models.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public class BookSummaryRepositoryImpl implements BookSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BookSummaryDTO> findSummaries(Specification<Book> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookSummaryDTO> query = cb.createQuery(BookSummaryDTO.class);
+        Root<Book> root = query.from(Book.class);
+
+        query.select(cb.construct(BookSummaryDTO.class,
+                root.get("id"), root.get("accessionNumber"), root.get("isbn"), root.get("title"),
+                root.get("authorPrimary"), root.get("publisher"), root.get("publicationYear"),
+                root.get("locationShelf"), root.get("locationRack"), root.get("bookStatus"),
+                root.get("bookType"), root.get("totalCopies"), root.get("availableCopies"),
+                root.get("isReferenceOnly")));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<BookSummaryDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<BookSummaryDTO> findSummariesByIdIn(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Specification<Book> idIn = (root, query, cb) -> root.get("id").in(ids);
+        return findSummaries(idIn, Pageable.unpaged()).getContent();
+    }
+
+    private long count(Specification<Book> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+
+        query.select(cb.count(root));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
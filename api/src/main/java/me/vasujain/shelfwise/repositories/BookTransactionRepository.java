@@ -1,29 +1,60 @@
 package me.vasujain.shelfwise.repositories;
 
+import jakarta.persistence.QueryHint;
 import me.vasujain.shelfwise.enums.TransactionStatus;
 import me.vasujain.shelfwise.models.Book;
 import me.vasujain.shelfwise.models.BookTransaction;
 import me.vasujain.shelfwise.models.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Every query returning transactions to be mapped to {@code BookTransactionDTO}s fetches the book
+ * and users with the transaction through the {@link BookTransaction#WITH_PARTIES} entity graph,
+ * so that listing a page costs a constant number of statements instead of one per association and row.
+ */
 public interface BookTransactionRepository extends JpaRepository<BookTransaction, UUID>, JpaSpecificationExecutor<BookTransaction> {
 
+    @Override
+    @EntityGraph(BookTransaction.WITH_PARTIES)
+    Optional<BookTransaction> findById(UUID id);
+
+    @Override
+    @EntityGraph(BookTransaction.WITH_PARTIES)
+    List<BookTransaction> findAll();
+
+    @Override
+    @EntityGraph(BookTransaction.WITH_PARTIES)
+    Page<BookTransaction> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(BookTransaction.WITH_PARTIES)
+    Page<BookTransaction> findAll(Specification<BookTransaction> spec, Pageable pageable);
+
     long countByUserAndStatus(User user, TransactionStatus status);
 
     long countByUserAndStatusAndDueDateBefore(User user, TransactionStatus status, LocalDateTime date);
 
+    @EntityGraph(BookTransaction.WITH_PARTIES)
     List<BookTransaction> findByUserAndStatusAndDueDateBefore(User user, TransactionStatus status, LocalDateTime date);
 
+    @EntityGraph(BookTransaction.WITH_PARTIES)
     List<BookTransaction> findByStatusAndDueDateBefore(TransactionStatus status, LocalDateTime date);
 
     @Query("SELECT COUNT(bt) FROM BookTransaction bt WHERE bt.status = :status AND bt.dueDate < :date")
@@ -34,18 +65,38 @@ public interface BookTransactionRepository extends JpaRepository<BookTransaction
     @Query("SELECT bt.book FROM BookTransaction bt WHERE bt.status = 'ACTIVE' AND bt.dueDate < :currentDate")
     Page<Book> findOverdueBooks(@Param("currentDate") LocalDate currentDate, Pageable pageable);
 
+    @EntityGraph(BookTransaction.WITH_PARTIES)
     Page<BookTransaction> findByBookId(UUID bookId, Pageable pageable);
 
+    @EntityGraph(BookTransaction.WITH_PARTIES)
     Page<BookTransaction> findByUserId(UUID userId, Pageable pageable);
 
+    @EntityGraph(BookTransaction.WITH_PARTIES)
     Page<BookTransaction> findPageByStatusAndDueDateBefore(TransactionStatus status, LocalDateTime date, Pageable pageable);
 
+    @EntityGraph(BookTransaction.WITH_PARTIES)
     List<BookTransaction> findByUserIdOrderByIssueDateDesc(UUID userId);
 
+    /**
+     * Closes a transaction that is still in the given status, so that a concurrent return of the same
+     * transaction finds nothing left to close.
+     *
+     * @return 1 if the transaction was closed, 0 if it was no longer in {@code from}
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookTransaction bt SET bt.status = :to, bt.returnDate = :returnDate, bt.returnedTo = :returnedTo, " +
+            "bt.transactionNotes = COALESCE(:notes, bt.transactionNotes) " +
+            "WHERE bt.id = :id AND bt.status = :from")
+    int closeTransaction(@Param("id") UUID id, @Param("from") TransactionStatus from, @Param("to") TransactionStatus to,
+                         @Param("returnDate") LocalDateTime returnDate, @Param("returnedTo") User returnedTo,
+                         @Param("notes") String notes);
+
     boolean existsByBookIdAndUserIdAndStatus(UUID bookId, UUID userId, TransactionStatus status);
 
+	@EntityGraph(BookTransaction.WITH_PARTIES)
 	Page<BookTransaction> findByStatus(TransactionStatus status, Pageable pageable);
 
+	@EntityGraph(BookTransaction.WITH_PARTIES)
 	Page<BookTransaction> findByUserIdAndStatus(UUID userId, TransactionStatus status, Pageable pageable);
 
     @Query(value = "SELECT DATE_FORMAT(bt.created_at, '%Y-%m-%d') as date, COUNT(bt.id) as count FROM book_transactions bt WHERE bt.transaction_type = 'ISSUE' AND bt.created_at >= :startDate GROUP BY date ORDER BY date", nativeQuery = true)
@@ -56,4 +107,17 @@ public interface BookTransactionRepository extends JpaRepository<BookTransaction
 
     @Query("SELECT bt.book.title as title, COUNT(bt.id) as count FROM BookTransaction bt WHERE bt.status = 'OVERDUE' GROUP BY title")
     List<java.util.Map<String, Object>> countOverdueBooks();
+
+    /**
+     * Reads the export columns of every transaction as plain values, joined with the accession number
+     * and employee IDs they refer to, a thousand rows at a time. Must be consumed and closed within a
+     * transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT bt.id, b.accessionNumber, u.employeeId, bt.transactionType, bt.status, " +
+            "CAST(bt.issueDate AS LocalDate), CAST(bt.dueDate AS LocalDate), CAST(bt.returnDate AS LocalDate), " +
+            "bt.transactionNotes, ib.employeeId, rt.employeeId " +
+            "FROM BookTransaction bt JOIN bt.book b JOIN bt.user u " +
+            "LEFT JOIN bt.issuedBy ib LEFT JOIN bt.returnedTo rt")
+    Stream<Object[]> streamExportRows();
 }
@@ -0,0 +1,15 @@
+package me.vasujain.shelfwise.repositories;
+
+import me.vasujain.shelfwise.models.ImportJobError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, UUID> {
+
+    Page<ImportJobError> findByJobId(UUID jobId, Pageable pageable);
+}
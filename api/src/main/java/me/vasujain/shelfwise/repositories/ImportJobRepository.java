@@ -0,0 +1,30 @@
+package me.vasujain.shelfwise.repositories;
+
+import jakarta.persistence.LockModeType;
+import me.vasujain.shelfwise.enums.ImportJobStatus;
+import me.vasujain.shelfwise.models.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+
+    /**
+     * Reads a job and locks its row until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM ImportJob j WHERE j.id = :id")
+    Optional<ImportJob> findForUpdateById(@Param("id") UUID id);
+
+    long countByStatusIn(Collection<ImportJobStatus> statuses);
+
+    List<ImportJob> findByStatusInOrderByCreatedAtAsc(Collection<ImportJobStatus> statuses);
+}
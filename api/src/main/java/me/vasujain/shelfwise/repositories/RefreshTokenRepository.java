@@ -0,0 +1,45 @@
+package me.vasujain.shelfwise.repositories;
+
+import me.vasujain.shelfwise.models.RefreshToken;
+import me.vasujain.shelfwise.models.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Finds a token by its digest, with its user.
+     */
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenDigest = :digest")
+    Optional<RefreshToken> findByTokenDigest(@Param("digest") String digest);
+
+    /**
+     * Marks a token as used, unless it already was.
+     *
+     * @return 1 if the token was marked, 0 if it had been used before
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :usedAt WHERE t.id = :id AND t.usedAt IS NULL")
+    int markUsed(@Param("id") UUID id, @Param("usedAt") LocalDateTime usedAt);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user = :user")
+    int deleteByUser(@Param("user") User user);
+
+    @Query("SELECT t.id FROM RefreshToken t WHERE t.expiresAt < :now")
+    List<UUID> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -1,21 +1,29 @@
 package me.vasujain.shelfwise.repositories;
 
+import jakarta.persistence.QueryHint;
 import me.vasujain.shelfwise.enums.TransactionStatus;
 import me.vasujain.shelfwise.enums.UserRole;
 import me.vasujain.shelfwise.enums.UserStatus;
 import me.vasujain.shelfwise.models.BookTransaction;
 import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.projections.UserIdentifiers;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
@@ -27,7 +35,7 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
 
     Optional<User> findByEmail(String email);
 
-    Optional<User> findByRefreshToken(String refreshToken);
+    List<UserIdentifiers> findIdentifiersByEmployeeIdIn(Collection<String> employeeIds);
 
     // Search methods with case-insensitive matching
     Page<User> findByFullNameContainingIgnoreCase(String fullName, Pageable pageable);
@@ -123,25 +131,32 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
      */
     Page<User> findByUserStatusIn(java.util.List<UserStatus> statuses, Pageable pageable);
 
+    
+
     /**
-     * Find users with null or empty refresh token
+     * Get users with high book borrowing activity
      */
-    @Query("SELECT u FROM User u WHERE u.refreshToken IS NULL OR u.refreshToken = ''")
-    Page<User> findUsersWithoutRefreshToken(Pageable pageable);
+    @Query("SELECT u FROM User u WHERE u.booksIssued >= :minBooks ORDER BY u.booksIssued DESC")
+    Page<User> findHighActivityUsers(@Param("minBooks") Integer minBooks, Pageable pageable);
 
     /**
-     * Find users with active refresh tokens
+     * Counts one more book issued to a user, unless they already hold as many as a user may borrow.
+     *
+     * @return 1 if the count was raised, 0 if the user does not exist or holds {@code max} books
      */
-    @Query("SELECT u FROM User u WHERE u.refreshToken IS NOT NULL AND u.refreshToken != ''")
-    Page<User> findUsersWithActiveRefreshToken(Pageable pageable);
-
-    
+    @Modifying
+    @Query("UPDATE User u SET u.booksIssued = COALESCE(u.booksIssued, 0) + 1 " +
+            "WHERE u.id = :id AND COALESCE(u.booksIssued, 0) < :max")
+    int addIssuedBook(@Param("id") UUID id, @Param("max") int max);
 
     /**
-     * Get users with high book borrowing activity
+     * Counts one book fewer issued to a user.
+     *
+     * @return 1 if the count was lowered, 0 if the user does not exist or holds no books
      */
-    @Query("SELECT u FROM User u WHERE u.booksIssued >= :minBooks ORDER BY u.booksIssued DESC")
-    Page<User> findHighActivityUsers(@Param("minBooks") Integer minBooks, Pageable pageable);
+    @Modifying
+    @Query("UPDATE User u SET u.booksIssued = u.booksIssued - 1 WHERE u.id = :id AND u.booksIssued > 0")
+    int removeIssuedBook(@Param("id") UUID id);
 
     /**
      * Find users by designation (job title)
@@ -168,4 +183,15 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
      */
     @Query("SELECT u FROM User u WHERE u.registrationDate >= :sinceDate ORDER BY u.registrationDate DESC")
     Page<User> findRecentlyRegisteredUsers(@Param("sinceDate") java.time.LocalDateTime sinceDate, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Reads the export columns of every user as plain values, a thousand rows at a time.
+     * Must be consumed and closed within a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id, u.employeeId, u.fullName, u.email, u.phoneMobile, u.phoneOffice, u.division, " +
+            "u.department, u.designation, u.floorNumber, u.officeRoom, u.address, u.userRole, u.userStatus, " +
+            "u.booksIssued, u.registrationDate, u.expirationDate, u.photoPath, u.emergencyContact, " +
+            "u.emergencyPhone, u.remarks, u.password FROM User u")
+    Stream<Object[]> streamExportRows();
+}
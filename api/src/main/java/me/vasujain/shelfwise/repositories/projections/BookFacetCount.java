@@ -0,0 +1,7 @@
+package me.vasujain.shelfwise.repositories.projections;
+
+/**
+ * Number of books sharing one value of a faceted column.
+ */
+public record BookFacetCount(String value, long count) {
+}
@@ -0,0 +1,14 @@
+package me.vasujain.shelfwise.repositories.projections;
+
+import java.util.UUID;
+
+/**
+ * Projection carrying only the identifying columns of a book.
+ */
+public interface BookIdentifiers {
+    UUID getId();
+
+    String getAccessionNumber();
+
+    String getIsbn();
+}
@@ -0,0 +1,16 @@
+package me.vasujain.shelfwise.repositories.projections;
+
+import java.util.UUID;
+
+/**
+ * Projection carrying the book columns offered as search suggestions.
+ */
+public interface BookSuggestionFields {
+    UUID getId();
+
+    String getTitle();
+
+    String getAuthorPrimary();
+
+    String getPublisher();
+}
@@ -0,0 +1,18 @@
+package me.vasujain.shelfwise.repositories.projections;
+
+import java.util.UUID;
+
+/**
+ * Projection carrying the book columns offered as distinct-value dropdowns.
+ */
+public interface BookValueFields {
+    UUID getId();
+
+    String getPublisher();
+
+    String getAuthorPrimary();
+
+    String getVendorName();
+
+    String getLanguage();
+}
@@ -0,0 +1,12 @@
+package me.vasujain.shelfwise.repositories.projections;
+
+import java.util.UUID;
+
+/**
+ * Projection carrying only the identifying columns of a user.
+ */
+public interface UserIdentifiers {
+    UUID getId();
+
+    String getEmployeeId();
+}
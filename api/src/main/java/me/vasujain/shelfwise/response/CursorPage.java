@@ -0,0 +1,30 @@
+package me.vasujain.shelfwise.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of results read with keyset pagination.
+ * The total is only known when it was explicitly requested.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+    private final int pageSize;
+    private final Long totalElements;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPage<>(mapped, nextCursor, pageSize, totalElements);
+    }
+}
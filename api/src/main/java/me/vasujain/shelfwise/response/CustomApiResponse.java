@@ -16,6 +16,7 @@ public class CustomApiResponse<T> {
     private T data;
     private LocalDate timestamp;
     private PaginationMetadata pagination;
+    private CursorMetadata cursor;
 
     @Data
     @Builder
@@ -25,4 +26,14 @@ public class CustomApiResponse<T> {
         private int currentPage;
         private int pageSize;
     }
+
+    @Data
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class CursorMetadata {
+        private String nextCursor;
+        private boolean hasNext;
+        private int pageSize;
+        private Long totalElements;
+    }
 }
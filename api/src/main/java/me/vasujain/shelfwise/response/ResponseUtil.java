@@ -1,6 +1,7 @@
 package me.vasujain.shelfwise.response;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -49,6 +50,16 @@ public class ResponseUtil {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    public static <T> ResponseEntity<CustomApiResponse<T>> accepted(T data, String message) {
+        CustomApiResponse<T> response = CustomApiResponse.<T>builder()
+                .status(HttpStatus.ACCEPTED)
+                .message(message)
+                .data(data)
+                .timestamp(LocalDate.from(LocalDateTime.now()))
+                .build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     public static <T> ResponseEntity<CustomApiResponse<List<T>>> okPage(Page<T> page) {
         CustomApiResponse<List<T>> response = CustomApiResponse.<List<T>>builder()
                 .status(HttpStatus.OK)
@@ -64,6 +75,36 @@ public class ResponseUtil {
         return ResponseEntity.ok(response);
     }
 
+    public static <T> ResponseEntity<CustomApiResponse<List<T>>> okPage(CursorPage<T> page) {
+        CustomApiResponse<List<T>> response = CustomApiResponse.<List<T>>builder()
+                .status(HttpStatus.OK)
+                .data(page.getContent())
+                .cursor(CustomApiResponse.CursorMetadata.builder()
+                        .nextCursor(page.getNextCursor())
+                        .hasNext(page.hasNext())
+                        .pageSize(page.getPageSize())
+                        .totalElements(page.getTotalElements())
+                        .build())
+                .timestamp(LocalDate.from(LocalDateTime.now()))
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    public static <T> ResponseEntity<CustomApiResponse<T>> okPage(T data, Pageable pageable, long totalElements) {
+        CustomApiResponse<T> response = CustomApiResponse.<T>builder()
+                .status(HttpStatus.OK)
+                .data(data)
+                .pagination(CustomApiResponse.PaginationMetadata.builder()
+                        .totalElements((int) totalElements)
+                        .totalPages((int) ((totalElements + pageable.getPageSize() - 1) / pageable.getPageSize()))
+                        .currentPage(pageable.getPageNumber())
+                        .pageSize(pageable.getPageSize())
+                        .build())
+                .timestamp(LocalDate.from(LocalDateTime.now()))
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     public static <T> ResponseEntity<CustomApiResponse<T>> badRequest(T data, String message) {
         CustomApiResponse<T> response = CustomApiResponse.<T>builder()
                 .status(HttpStatus.BAD_REQUEST)
@@ -27,12 +27,13 @@ public interface AuthenticationService {
     AuthenticationResponse refreshToken(String refreshToken, HttpServletResponse response);
 
     /**
-     * Logs out the user by clearing cookies and removing their refresh token from the database.
+     * Logs out the user by clearing cookies and revoking the refresh token family of this device.
      *
-     * @param jwt      the JWT token used to identify the user
-     * @param response the HTTP response to which cookie-clearing commands will be added
+     * @param jwt          the JWT token used to identify the user
+     * @param refreshToken the refresh token of this device, or null if the client has none
+     * @param response     the HTTP response to which cookie-clearing commands will be added
      */
-    void logout(String jwt, HttpServletResponse response);
+    void logout(String jwt, String refreshToken, HttpServletResponse response);
 
     /**
      * Retrieves the currently authenticated user's profile information.
@@ -0,0 +1,21 @@
+package me.vasujain.shelfwise.services;
+
+/**
+ * Limits how often passwords can be checked, per principal at each client address, per principal and
+ * per client address, so that one client cannot keep the password checking threads busy for everyone
+ * else. The tight allowance of a principal is kept per address so that failing to sign in as someone
+ * from one client does not lock them out of the others; a larger one across all addresses bounds
+ * guessing their password from many clients.
+ */
+public interface AuthenticationThrottle {
+
+    /**
+     * Takes one attempt from the allowance of a principal at the address the current request came
+     * from, from that of the principal and from that of the address. Outside of a request only the
+     * principal is limited.
+     *
+     * @param principal The employee ID whose password is about to be checked.
+     * @throws me.vasujain.shelfwise.exceptions.TooManyRequestsException If either allowance is used up.
+     */
+    void acquire(String principal);
+}
@@ -0,0 +1,46 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.models.Book;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory substring index over book accession numbers and ISBNs.
+ */
+public interface BookIdentifierIndex {
+
+    /**
+     * A book whose accession number or ISBN contains the searched fragment.
+     *
+     * @param id              The book ID.
+     * @param accessionNumber The book's accession number.
+     * @param rank            0 for an exact match, 1 for a prefix match, 2 for any other substring match.
+     */
+    record Match(UUID id, String accessionNumber, int rank) {
+    }
+
+    /**
+     * Finds all books whose accession number or ISBN contains the given fragment.
+     *
+     * @param fragment The partial identifier typed by the user.
+     * @return The matching books, or empty if the fragment is too short to be resolved by the index
+     *         or the index is not loaded yet.
+     */
+    Optional<List<Match>> findBySubstring(String fragment);
+
+    /**
+     * Adds or replaces the identifiers of the given books.
+     *
+     * @param books The books to index.
+     */
+    void index(Collection<Book> books);
+
+    /**
+     * Loads the index, restoring the snapshot file when one is configured and catching up with
+     * books changed since it was written, or scanning the books table otherwise.
+     */
+    void load();
+}
@@ -0,0 +1,60 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.models.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Pluggable full-text search engine for the book catalog.
+ * The database remains the source of truth; the engine only resolves a query to an
+ * ordered page of book IDs which the caller hydrates from the repository.
+ */
+public interface BookSearchEngine {
+
+    /**
+     * Sort property that orders results by relevance score instead of a book field.
+     */
+    String RELEVANCE = "relevance";
+
+    /**
+     * Whether the engine is open, built and able to serve queries.
+     *
+     * @return true if searches can be answered from the index.
+     */
+    boolean isAvailable();
+
+    /**
+     * Resolves a query to a ranked page of book IDs.
+     *
+     * @param query    The user's search string.
+     * @param pageable Pagination and sort information.
+     * @return The page of matching IDs, or empty if the engine cannot answer this query
+     *         (unavailable, or an unsupported sort) and the caller should fall back.
+     */
+    Optional<Page<UUID>> search(String query, Pageable pageable);
+
+    /**
+     * Adds or replaces the given books in the index.
+     *
+     * @param books The books to index.
+     */
+    void index(Collection<Book> books);
+
+    /**
+     * Drops the current index and rebuilds it from the books table.
+     *
+     * @return The number of books indexed.
+     */
+    long rebuild();
+
+    /**
+     * Number of documents currently in the index.
+     *
+     * @return The document count, or 0 if the engine is unavailable.
+     */
+    long size();
+}
@@ -4,10 +4,17 @@ package me.vasujain.shelfwise.services;
 import me.vasujain.shelfwise.dtos.BookCreateDTO;
 import me.vasujain.shelfwise.dtos.BookUpdateDTO;
 import me.vasujain.shelfwise.dtos.BookDTO;
+import me.vasujain.shelfwise.dtos.BookFacetedSearchDTO;
+import me.vasujain.shelfwise.dtos.BookSearchDTO;
+import me.vasujain.shelfwise.dtos.BookSummaryDTO;
 import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.response.CursorPage;
+import me.vasujain.shelfwise.util.CursorPageRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -34,6 +41,18 @@ public interface BookService {
      */
     Map<String, Object> registerBulkBooks(List<BookCreateDTO> bookCreateDTOs);
 
+    /**
+     * Registers the books of a JSON array, read one element at a time from the stream. Books are saved
+     * in batches that commit on their own, so a failure only loses the books of its own batch.
+     *
+     * @param json A stream holding a JSON array of BookCreateDTO objects; it is not closed.
+     * @return A map containing the number of books created and a list of failed accession numbers.
+     * @throws IOException If the stream cannot be read.
+     * @throws IllegalArgumentException If the stream does not hold a well-formed JSON array; books read before
+     *                                  the malformed part are kept.
+     */
+    Map<String, Object> registerBulkBooks(InputStream json) throws IOException;
+
     /**
      * Updates an existing book's details.
      *
@@ -52,6 +71,30 @@ public interface BookService {
      */
     Page<BookDTO> getAllBooks(Pageable pageable);
 
+    /**
+     * Retrieves all books with keyset pagination.
+     *
+     * @param request Cursor, page size and sort.
+     * @return A page of BookDTOs with the cursor of the next page.
+     */
+    CursorPage<BookDTO> getAllBooks(CursorPageRequest request);
+
+    /**
+     * Retrieves all books with pagination, reading only the columns shown in lists.
+     *
+     * @param pageable Pagination information.
+     * @return A page of BookSummaryDTOs.
+     */
+    Page<BookSummaryDTO> getAllBookSummaries(Pageable pageable);
+
+    /**
+     * Retrieves all books with keyset pagination as summaries.
+     *
+     * @param request Cursor, page size and sort.
+     * @return A page of BookSummaryDTOs with the cursor of the next page.
+     */
+    CursorPage<BookSummaryDTO> getAllBookSummaries(CursorPageRequest request);
+
     /**
      * Retrieves a single book by its ID.
      *
@@ -70,9 +113,35 @@ public interface BookService {
      */
     Page<BookDTO> search(String query, Pageable pageable);
 
+    /**
+     * Searches for books like {@link #search(String, Pageable)}, reading only the columns shown in lists.
+     *
+     * @param query    The search string.
+     * @param pageable Pagination information.
+     * @return A page of matching BookSummaryDTOs.
+     */
+    Page<BookSummaryDTO> searchSummaries(String query, Pageable pageable);
+
+    /**
+     * Filters books by the given criteria and counts the matches per facet value
+     * (type, status, language, publisher, publication decade and shelf).
+     *
+     * @param criteria The filters to apply; null fields are ignored.
+     * @param pageable Pagination and sorting information.
+     * @return The requested page of matching books together with the facet counts.
+     */
+    BookFacetedSearchDTO facetedSearch(BookSearchDTO criteria, Pageable pageable);
+
     /**
      * Soft deletes a book by marking it as unavailable.
      * @param id The UUID of the book to delete.
      */
     void deleteBook(UUID id);
+
+    /**
+     * Drops the book search index and rebuilds it from the database.
+     *
+     * @return The number of books indexed.
+     */
+    long rebuildSearchIndex();
 }
\ No newline at end of file
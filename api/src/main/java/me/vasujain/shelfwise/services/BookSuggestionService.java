@@ -0,0 +1,37 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.dtos.BookSuggestionDTO;
+import me.vasujain.shelfwise.enums.SuggestionType;
+import me.vasujain.shelfwise.models.Book;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service interface for search-as-you-type suggestions over book titles, authors and publishers.
+ */
+public interface BookSuggestionService {
+
+    /**
+     * Returns the most popular values starting with the given prefix. Besides the start of a value,
+     * the prefix also matches the start of any later word in it.
+     *
+     * @param prefix The text typed so far.
+     * @param type   The kind of value to suggest, or null for all kinds.
+     * @param limit  The maximum number of suggestions.
+     * @return The suggestions, ordered by the number of books carrying the value.
+     */
+    List<BookSuggestionDTO> suggest(String prefix, SuggestionType type, int limit);
+
+    /**
+     * Adds or replaces the suggestion values of the given books.
+     *
+     * @param books The books to index.
+     */
+    void index(Collection<Book> books);
+
+    /**
+     * Loads the suggestion values of all books from the database.
+     */
+    void load();
+}
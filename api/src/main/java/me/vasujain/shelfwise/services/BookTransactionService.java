@@ -3,6 +3,8 @@ package me.vasujain.shelfwise.services;
 import me.vasujain.shelfwise.dtos.*;
 import me.vasujain.shelfwise.exceptions.BookNotFoundException;
 import me.vasujain.shelfwise.exceptions.UserNotFoundException;
+import me.vasujain.shelfwise.response.CursorPage;
+import me.vasujain.shelfwise.util.CursorPageRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -59,6 +61,14 @@ public interface BookTransactionService {
      */
     Page<BookTransactionDTO> getAllTransactions(Pageable pageable);
 
+    /**
+     * Retrieves all transactions with keyset pagination.
+     *
+     * @param request Cursor, page size and sort.
+     * @return A page of transaction DTOs with the cursor of the next page.
+     */
+    CursorPage<BookTransactionDTO> getAllTransactions(CursorPageRequest request);
+
     /**
      * Searches for transactions based on specified criteria.
      *
@@ -68,6 +78,15 @@ public interface BookTransactionService {
      */
     Page<BookTransactionDTO> search(String query, Pageable pageable);
 
+    /**
+     * Searches for transactions with keyset pagination.
+     *
+     * @param query   The search string.
+     * @param request Cursor, page size and sort.
+     * @return A page of matching transaction DTOs with the cursor of the next page.
+     */
+    CursorPage<BookTransactionDTO> search(String query, CursorPageRequest request);
+
     /**
      * Retrieves all transactions for a specific book.
      *
@@ -77,6 +96,15 @@ public interface BookTransactionService {
      */
     Page<BookTransactionDTO> getTransactionsByBookId(UUID bookId, Pageable pageable);
 
+    /**
+     * Retrieves all transactions for a specific book with keyset pagination.
+     *
+     * @param bookId  The ID of the book.
+     * @param request Cursor, page size and sort.
+     * @return A page of transaction DTOs for the book with the cursor of the next page.
+     */
+    CursorPage<BookTransactionDTO> getTransactionsByBookId(UUID bookId, CursorPageRequest request);
+
     /**
      * Retrieves all transactions for a specific user.
      *
@@ -86,6 +114,15 @@ public interface BookTransactionService {
      */
     Page<BookTransactionDTO> getTransactionsByUserId(UUID userId, Pageable pageable);
 
+    /**
+     * Retrieves all transactions for a specific user with keyset pagination.
+     *
+     * @param userId  The ID of the user.
+     * @param request Cursor, page size and sort.
+     * @return A page of transaction DTOs for the user with the cursor of the next page.
+     */
+    CursorPage<BookTransactionDTO> getTransactionsByUserId(UUID userId, CursorPageRequest request);
+
     /**
      * Retrieves all overdue transactions.
      *
@@ -94,6 +131,14 @@ public interface BookTransactionService {
      */
     Page<BookTransactionDTO> getOverdueTransactions(Pageable pageable);
 
+    /**
+     * Retrieves all overdue transactions with keyset pagination.
+     *
+     * @param request Cursor, page size and sort.
+     * @return A page of overdue transaction DTOs with the cursor of the next page.
+     */
+    CursorPage<BookTransactionDTO> getOverdueTransactions(CursorPageRequest request);
+
     /**
      * Retrieves the complete transaction history for a user.
      *
@@ -121,9 +166,23 @@ public interface BookTransactionService {
 
 	Page<BookTransactionDTO> getActiveTransactions(Pageable pageable);
 
+	CursorPage<BookTransactionDTO> getActiveTransactions(CursorPageRequest request);
+
 	Page<BookTransactionDTO> getActiveTransactionsByUserId(UUID userId, Pageable pageable);
 
+	CursorPage<BookTransactionDTO> getActiveTransactionsByUserId(UUID userId, CursorPageRequest request);
+
 	DataImportResultDTO issueBooks(List<BookIssueDTO> issueDTOs);
 
 	DataImportResultDTO issueBooks(List<BookIssueDTO> issueDTOs, boolean isImport);
+
+	/**
+	 * Issues the books as one chunk within the caller's transaction, which must exist, so that the caller can
+	 * commit other changes (such as the progress of an import job) together with the issued rows.
+	 *
+	 * @param issueDTOs The rows to issue.
+	 * @param isImport  Whether the rows come from an import, which skips the availability checks.
+	 * @return The number of rows issued and the book IDs of the rows that were not.
+	 */
+	DataImportResultDTO issueBooksInCurrentTransaction(List<BookIssueDTO> issueDTOs, boolean isImport);
 }
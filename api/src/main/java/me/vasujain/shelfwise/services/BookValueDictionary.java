@@ -0,0 +1,48 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.dtos.BookValueCountDTO;
+import me.vasujain.shelfwise.enums.BookValueField;
+import me.vasujain.shelfwise.models.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service interface for the distinct publishers, authors, vendors and languages of the catalog,
+ * each with the number of books carrying it.
+ */
+public interface BookValueDictionary {
+
+    /**
+     * Returns every distinct value of a field, in alphabetical order.
+     *
+     * @param field The book field.
+     * @return The distinct values.
+     */
+    List<String> values(BookValueField field);
+
+    /**
+     * Returns a page of the distinct values of a field starting with the given prefix, in
+     * alphabetical order. The prefix is matched case-insensitively.
+     *
+     * @param field    The book field.
+     * @param prefix   The prefix to filter by, or null for all values.
+     * @param pageable The page to return; its sort is ignored.
+     * @return The values with their book counts.
+     */
+    Page<BookValueCountDTO> values(BookValueField field, String prefix, Pageable pageable);
+
+    /**
+     * Adds or replaces the values of the given books.
+     *
+     * @param books The books to index.
+     */
+    void index(Collection<Book> books);
+
+    /**
+     * Loads the values of all books from the database.
+     */
+    void load();
+}
@@ -0,0 +1,34 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.models.Book;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Vocabulary of the words used in book titles and primary author names, used to tolerate
+ * misspelled and differently transliterated search terms.
+ */
+public interface BookVocabulary {
+
+    /**
+     * Finds other catalog words within a small edit distance of a search term: one edit for terms of
+     * four or more characters, two for eight or more.
+     *
+     * @param term An analysed (lowercased, folded) search term.
+     * @return The closest words, nearest and most frequent first; empty when the term is too short.
+     */
+    List<String> variants(String term);
+
+    /**
+     * Adds or replaces the words of the given books.
+     *
+     * @param books The books to index.
+     */
+    void index(Collection<Book> books);
+
+    /**
+     * Loads the words of all books from the database.
+     */
+    void load();
+}
@@ -2,7 +2,8 @@ package me.vasujain.shelfwise.services;
 
 import me.vasujain.shelfwise.dtos.AdminDashboardDTO;
 import me.vasujain.shelfwise.dtos.MemberDashboardDTO;
-import me.vasujain.shelfwise.models.User;
+
+import java.util.UUID;
 
 public interface DashboardService {
 
@@ -16,10 +17,10 @@ public interface DashboardService {
     /**
      * Get dashboard data for a member user.
      *
-     * @param user The user for whom to get the dashboard data.
+     * @param userId The ID of the user for whom to get the dashboard data.
      * @return MemberDashboardDTO containing user-specific statistics.
      */
-    MemberDashboardDTO getMemberDashboard(User user);
+    MemberDashboardDTO getMemberDashboard(UUID userId);
 
     /**
      * Scheduled job to update the dashboard statistics.
@@ -1,9 +1,20 @@
 package me.vasujain.shelfwise.services;
 
-import java.io.File;
+import me.vasujain.shelfwise.enums.ExportFormat;
+import me.vasujain.shelfwise.enums.ExportType;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes whole tables as CSV, NDJSON or XLSX. Rows are read from the database and written out one
+ * at a time, so memory use does not grow with the size of the table and output starts with the
+ * header row. The stream is flushed but left open.
+ */
 public interface DataExportService {
-    File exportBooksToCsv() throws Exception;
-    File exportUsersToCsv() throws Exception;
-    File exportTransactionsToCsv() throws Exception;
+    void exportBooksToCsv(OutputStream out) throws IOException;
+    void exportUsersToCsv(OutputStream out) throws IOException;
+    void exportTransactionsToCsv(OutputStream out) throws IOException;
+    void exportToCsv(ExportType type, OutputStream out) throws IOException;
+    void export(ExportType type, ExportFormat format, OutputStream out) throws IOException;
 }
@@ -1,10 +1,15 @@
 package me.vasujain.shelfwise.services;
 
 import me.vasujain.shelfwise.dtos.DataImportResultDTO;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface DataImportService {
     DataImportResultDTO importBooksFromCsv(MultipartFile file) throws Exception;
+    DataImportResultDTO importBooksFromCsv(InputStreamSource source, ImportProgressListener listener) throws Exception;
     DataImportResultDTO importUsersFromCsv(MultipartFile file) throws Exception;
+    DataImportResultDTO importUsersFromCsv(MultipartFile file, boolean acceptPreHashedPasswords) throws Exception;
+    DataImportResultDTO importUsersFromCsv(InputStreamSource source, boolean acceptPreHashedPasswords, ImportProgressListener listener) throws Exception;
     DataImportResultDTO importTransactionsFromCsv(MultipartFile file) throws Exception;
+    DataImportResultDTO importTransactionsFromCsv(InputStreamSource source, ImportProgressListener listener) throws Exception;
 }
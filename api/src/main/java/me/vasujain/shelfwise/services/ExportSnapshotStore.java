@@ -0,0 +1,52 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.enums.ExportType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Keeps a pre-generated CSV file of each export, remade on a schedule, so that downloads can be
+ * served from disk instead of querying the database on every request.
+ *
+ * <p>Each snapshot is written to a file of its own. A snapshot replaced by a newer one is deleted
+ * once the last download reading it has closed it, or when its retention period has passed.
+ */
+public interface ExportSnapshotStore {
+
+    /**
+     * Takes a reference to the latest snapshot of an export, which keeps its file until the
+     * snapshot is closed.
+     *
+     * @param type The export.
+     * @return The snapshot, or empty if snapshots are disabled or none has been made yet.
+     */
+    Optional<Snapshot> acquire(ExportType type);
+
+    /**
+     * Writes a new snapshot of an export, replacing the current one.
+     */
+    void refresh(ExportType type) throws IOException;
+
+    /**
+     * Adopts the snapshots left by the last run of the application and makes the missing ones.
+     */
+    void load();
+
+    interface Snapshot extends AutoCloseable {
+
+        Path file();
+
+        Instant createdAt();
+
+        long size();
+
+        /**
+         * Releases the reference taken by {@link #acquire(ExportType)}.
+         */
+        @Override
+        void close();
+    }
+}
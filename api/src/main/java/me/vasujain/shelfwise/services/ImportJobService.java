@@ -0,0 +1,59 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.dtos.ImportJobDTO;
+import me.vasujain.shelfwise.dtos.ImportJobErrorDTO;
+import me.vasujain.shelfwise.enums.ImportJobType;
+import me.vasujain.shelfwise.exceptions.ResourceNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Service interface for CSV imports run in the background.
+ * Jobs are queued for a small pool of workers, record their progress and failed rows as they go,
+ * can be cancelled, and resume from their last checkpoint after a restart.
+ */
+public interface ImportJobService {
+
+    /**
+     * Stores an uploaded file and queues a job importing it.
+     *
+     * @param jobType                  What the file holds.
+     * @param file                     The CSV file.
+     * @param acceptPreHashedPasswords For user imports, whether {@code {bcrypt}}-prefixed passwords are stored as given.
+     * @return DTO of the queued job.
+     * @throws IllegalStateException if too many jobs are already waiting or running.
+     */
+    ImportJobDTO submitJob(ImportJobType jobType, MultipartFile file, boolean acceptPreHashedPasswords) throws IOException;
+
+    /**
+     * @throws ResourceNotFoundException if the job does not exist.
+     */
+    ImportJobDTO getJob(UUID jobId);
+
+    Page<ImportJobDTO> getJobs(Pageable pageable);
+
+    /**
+     * Retrieves the rows of a job that could not be imported, in row order.
+     *
+     * @throws ResourceNotFoundException if the job does not exist.
+     */
+    Page<ImportJobErrorDTO> getJobErrors(UUID jobId, Pageable pageable);
+
+    /**
+     * Asks a job to stop. A queued job is cancelled at once; a running one stops before its next row,
+     * keeping the rows already imported.
+     *
+     * @throws ResourceNotFoundException if the job does not exist.
+     * @throws IllegalStateException     if the job has already finished.
+     */
+    ImportJobDTO cancelJob(UUID jobId);
+
+    /**
+     * Queues again the jobs left queued or running by a previous run of the application.
+     */
+    void resumeInterruptedJobs();
+}
@@ -0,0 +1,65 @@
+package me.vasujain.shelfwise.services;
+
+/**
+ * Follows a CSV import as it runs: where it starts, how often it checkpoints, when it has to stop
+ * and what became of its rows. Imports run within a request use {@link #NONE}; import jobs use it
+ * to record progress and to resume or cancel.
+ *
+ * <p>Rows are numbered from 1, not counting the header.
+ */
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = new ImportProgressListener() {
+    };
+
+    /**
+     * @return The number of leading rows handled by an earlier run, which are skipped.
+     */
+    default long resumeAfter() {
+        return 0;
+    }
+
+    /**
+     * @return The number of rows between two checkpoints.
+     */
+    default int checkpointInterval() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Called once the rows of the file have been counted, before any row is imported.
+     *
+     * @param totalRows The number of rows in the file.
+     */
+    default void onStart(long totalRows) {
+    }
+
+    /**
+     * Called for each row that could not be imported.
+     *
+     * @param rowNumber  The number of the row.
+     * @param identifier The key of the row (accession number, employee ID or book ID).
+     * @param reason     Why the row was rejected.
+     */
+    default void onRowFailed(long rowNumber, String identifier, String reason) {
+    }
+
+    /**
+     * Called once every row up to {@code processedRows} has been saved or reported as failed, after
+     * every {@link #checkpointInterval()} rows and when the import stops. Transaction imports also
+     * checkpoint after each chunk they issue, and call this within the database transaction that
+     * issued it, so that progress saved in the same transaction is committed with the issued rows.
+     *
+     * @param processedRows  The number of the last row handled.
+     * @param successfulRows The number of rows imported by this run so far.
+     */
+    default void onCheckpoint(long processedRows, int successfulRows) {
+    }
+
+    /**
+     * Checked before each row; the import stops with a final checkpoint once this returns true.
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
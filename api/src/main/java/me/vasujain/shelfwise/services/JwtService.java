@@ -1,13 +1,25 @@
 package me.vasujain.shelfwise.services;
 
+import me.vasujain.shelfwise.models.UserPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.Date;
 
 public interface JwtService {
 
+    /**
+     * Verifies the signature and expiry of a token and returns its claims. A token is parsed and verified
+     * once; until it expires, later calls with the same token are answered from a cache.
+     *
+     * @param token the JWT token
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+     */
+    io.jsonwebtoken.Claims verifyToken(String token);
+
     /**
      * Extracts the username (subject) from the given JWT token.
      *
@@ -60,4 +72,42 @@ public interface JwtService {
      * @return true if the token is valid, false otherwise
      */
     boolean isTokenValid(String token, UserDetails userDetails);
+
+    /**
+     * Checks claims returned by {@link #verifyToken(String)} against the given user details.
+     *
+     * @param claims the verified claims
+     * @param userDetails the user details
+     * @return true if the claims belong to the user and have not expired, false otherwise
+     */
+    boolean isTokenValid(io.jsonwebtoken.Claims claims, UserDetails userDetails);
+
+    /**
+     * Tells access tokens from refresh tokens, which are signed with the same key and must not be
+     * accepted in their place.
+     *
+     * @param claims the verified claims
+     * @return true if the claims are those of an access token; false for refresh tokens and for tokens
+     * issued before they carried their type
+     */
+    boolean isAccessToken(io.jsonwebtoken.Claims claims);
+
+    /**
+     * Reads when a token was issued, to the millisecond. The standard {@code iat} claim only holds whole
+     * seconds, so tokens also carry the time in milliseconds.
+     *
+     * @param claims the verified claims
+     * @return the time the token was issued; to the second for tokens issued before they carried
+     * milliseconds, or null if the token does not say
+     */
+    Instant readIssuedAt(io.jsonwebtoken.Claims claims);
+
+    /**
+     * Reads the principal carried by the claims of an access token.
+     *
+     * @param claims the verified claims
+     * @return the principal, or null if the token does not carry one (refresh tokens, and access tokens
+     * issued before principals were added to them)
+     */
+    UserPrincipal readPrincipal(io.jsonwebtoken.Claims claims);
 }
@@ -0,0 +1,25 @@
+package me.vasujain.shelfwise.services;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Hashes passwords off the calling thread, so that callers hashing many passwords (such as user
+ * imports) can keep every core busy while they go on parsing and saving.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Hashes a password with the application's {@code PasswordEncoder} on the hashing pool. When the
+     * pool's queue is full the password is hashed on the calling thread instead, which slows the
+     * caller down to the pace of the pool.
+     *
+     * @param rawPassword The password to hash.
+     * @return The encoded password; completes exceptionally if encoding fails.
+     */
+    CompletableFuture<String> hash(String rawPassword);
+
+    /**
+     * @return The number of passwords hashed at the same time.
+     */
+    int parallelism();
+}
@@ -0,0 +1,53 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.models.User;
+
+/**
+ * Issues, rotates and revokes refresh tokens. Every refresh exchanges the token for a new one of the
+ * same family; a token presented after it has been exchanged is taken as stolen, and ends its family.
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Starts a new family of refresh tokens, as on login from a new device.
+     *
+     * @param user The user signing in.
+     * @return The refresh token.
+     */
+    String issue(User user);
+
+    /**
+     * Exchanges a refresh token for a new one of the same family.
+     *
+     * @param refreshToken The refresh token presented.
+     * @return The user of the token and the token replacing it.
+     * @throws me.vasujain.shelfwise.exceptions.InvalidTokenException If the token is unknown, expired,
+     * belongs to a user who may no longer sign in, or has already been used, in which case its family
+     * is revoked.
+     */
+    Rotation rotate(String refreshToken);
+
+    /**
+     * Revokes the family of a refresh token, as on logout. Unknown tokens are ignored.
+     */
+    void revoke(String refreshToken);
+
+    /**
+     * Revokes every refresh token of a user, on all devices.
+     */
+    void revokeAll(User user);
+
+    /**
+     * Deletes expired refresh tokens.
+     *
+     * @return The number of tokens deleted.
+     */
+    int purgeExpired();
+
+    /**
+     * @param user         The user the token was issued to.
+     * @param refreshToken The refresh token replacing the one presented.
+     */
+    record Rotation(User user, String refreshToken) {
+    }
+}
@@ -0,0 +1,36 @@
+package me.vasujain.shelfwise.services;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Access tokens that must no longer be honoured although they have not expired. Requests are
+ * authorized from the claims of their token alone, so a token keeps the role and status of its user
+ * as they were when it was issued; this list is how logouts and changes to a user take effect before
+ * the token expires.
+ *
+ * <p>Entries are only kept for the lifetime of an access token, after which the tokens they revoke
+ * have expired anyway.
+ */
+public interface TokenRevocationList {
+
+    /**
+     * Revokes every token issued to a user up to now, after their status or role has changed or they
+     * have been deleted.
+     *
+     * @param employeeId The subject of the user's tokens.
+     */
+    void revokeUser(String employeeId);
+
+    /**
+     * Revokes a single token, as on logout.
+     *
+     * @param claims The verified claims of the token.
+     */
+    void revokeToken(Claims claims);
+
+    /**
+     * @param claims The verified claims of a token.
+     * @return true if the token has been revoked, by itself or with the other tokens of its user.
+     */
+    boolean isRevoked(Claims claims);
+}
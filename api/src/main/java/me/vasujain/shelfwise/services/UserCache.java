@@ -0,0 +1,30 @@
+package me.vasujain.shelfwise.services;
+
+import me.vasujain.shelfwise.models.User;
+
+import java.util.Optional;
+
+/**
+ * Users looked up by employee ID to authenticate and authorize requests, kept for a short time so
+ * that the accounts serving at the desk are not read from the database on every call.
+ *
+ * <p>The users returned are detached, even when looked up inside a transaction, and shared between
+ * requests, so they must not be modified; load the user from the repository to change it, and evict it
+ * once changed.
+ */
+public interface UserCache {
+
+    /**
+     * @param employeeId The employee ID of the user.
+     * @return The user, or empty if there is no such user. Missing users are not cached.
+     */
+    Optional<User> findByEmployeeId(String employeeId);
+
+    /**
+     * Drops a user whose row has changed. Inside a transaction the user is dropped again once it
+     * commits, so that a read made before the commit is not kept.
+     *
+     * @param employeeId The employee ID of the user.
+     */
+    void evict(String employeeId);
+}
@@ -7,6 +7,8 @@ import me.vasujain.shelfwise.dtos.UserUpdateDTO;
 import me.vasujain.shelfwise.dtos.PasswordUpdateDTO;
 import me.vasujain.shelfwise.dtos.PasswordResetDTO;
 import me.vasujain.shelfwise.enums.UserStatus;
+import me.vasujain.shelfwise.response.CursorPage;
+import me.vasujain.shelfwise.util.CursorPageRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -56,6 +58,13 @@ public interface UserService {
      */
     Page<UserDTO> getAllUsers(Pageable pageable);
 
+    /**
+     * Retrieves all users with keyset pagination.
+     * @param request Cursor, page size and sort.
+     * @return A page of user DTOs with the cursor of the next page.
+     */
+    CursorPage<UserDTO> getAllUsers(CursorPageRequest request);
+
     /**
      * Performs a unified search for users across multiple fields:
      * full name, employee ID, email, department, and division.
@@ -74,7 +83,7 @@ public interface UserService {
     UserDTO updateUserStatus(UUID userId, UserStatus status);
 
     /**
-     * Updates a user's password after verifying the current one.
+     * Updates a user's password after verifying the current one, and revokes the user's refresh tokens.
      * @param userId The UUID of the user.
      * @param passwordUpdateDTO DTO containing current and new passwords.
      * @return The updated user's DTO.
@@ -88,14 +97,16 @@ public interface UserService {
     void deleteUser(UUID id);
 	
 	/**
-     * Changes the password for the currently authenticated user.
+     * Changes the password for the currently authenticated user, and revokes their refresh tokens on
+     * every device.
      *
      * @param passwordUpdateDTO DTO containing the old and new passwords.
      */
     void changePassword(PasswordUpdateDTO passwordUpdateDTO);
 
     /**
-     * Resets the password for a given user.
+     * Resets the password for a given user, and ends their sessions: their refresh tokens are deleted
+     * and their access tokens revoked.
      *
      * @param userId            The ID of the user whose password is to be reset.
      * @param passwordResetDTO  DTO containing the new password.
@@ -3,7 +3,11 @@ package me.vasujain.shelfwise.services.impl;
 import me.vasujain.shelfwise.dtos.UserDTO;
 import me.vasujain.shelfwise.mapper.UserMapper;
 import me.vasujain.shelfwise.services.AuthenticationService;
+import me.vasujain.shelfwise.services.AuthenticationThrottle;
 import me.vasujain.shelfwise.services.JwtService;
+import me.vasujain.shelfwise.services.RefreshTokenService;
+import me.vasujain.shelfwise.services.TokenRevocationList;
+import me.vasujain.shelfwise.services.UserCache;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +15,6 @@ import me.vasujain.shelfwise.dtos.AuthenticationResponse;
 import me.vasujain.shelfwise.dtos.LoginRequest;
 import me.vasujain.shelfwise.exceptions.InvalidTokenException;
 import me.vasujain.shelfwise.models.User;
-import me.vasujain.shelfwise.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,10 +28,13 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class AuthenticationServiceImpl implements AuthenticationService {
 
-    private final UserRepository userRepository;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserCache userCache;
+    private final AuthenticationThrottle authenticationThrottle;
+    private final RefreshTokenService refreshTokenService;
 
     @Value("${app.cookie.domain}")
     private String cookieDomain;
@@ -46,6 +52,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      * Authenticates a user and sets up their session with secure HTTP-only cookies.
      */
     public AuthenticationResponse login(LoginRequest request, HttpServletResponse response) {
+        // Limit password checks per account and per client before doing one
+        authenticationThrottle.acquire(request.getUsername());
+
         // Authenticate the user
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -54,16 +63,13 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 )
         );
 
-        User user = userRepository.findByEmployeeId(request.getUsername())
+        // Authentication has just read the user through the cache
+        User user = userCache.findByEmployeeId(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Generate tokens
+        // Generate tokens, starting a new refresh token family for this device
         String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
-
-        // Store refresh token
-        user.setRefreshToken(refreshToken);
-        userRepository.save(user);
+        String refreshToken = refreshTokenService.issue(user);
 
         // Set secure cookies
         setCookie(response, "accessToken", accessToken, accessTokenExpiration);
@@ -74,25 +80,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     /**
      * Refreshes the access token and updates the HTTP-only cookie.
+     * A reused refresh token revokes its family, which must be committed although the refresh fails.
      */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
     public AuthenticationResponse refreshToken(String refreshToken, HttpServletResponse response) {
-        String username = jwtService.extractUsername(refreshToken);
-
-        User user = userRepository.findByEmployeeId(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Validate refresh token
-        if (!refreshToken.equals(user.getRefreshToken()) || !jwtService.isTokenValid(refreshToken, user)) {
-            throw new InvalidTokenException("Invalid or expired refresh token");
-        }
+        // Exchange the refresh token for the next one of its family
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.user();
 
         // Generate new tokens
         String newAccessToken = jwtService.generateAccessToken(user);
-        String newRefreshToken = jwtService.generateRefreshToken(user);
-
-        // Update refresh token
-        user.setRefreshToken(newRefreshToken);
-        userRepository.save(user);
+        String newRefreshToken = rotation.refreshToken();
 
         // Set secure cookies
         setCookie(response, "accessToken", newAccessToken, accessTokenExpiration);
@@ -102,16 +100,16 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     }
 
     /**
-     * Logs out the user by clearing their session cookies and refresh token.
+     * Logs out the user by clearing their session cookies and revoking the tokens of this device.
      */
-    public void logout(String jwt, HttpServletResponse response) {
-        String username = jwtService.extractUsername(jwt);
-        User user = userRepository.findByEmployeeId(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public void logout(String jwt, String refreshToken, HttpServletResponse response) {
+        // Revoke the refresh token family of this device; other devices stay signed in
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
 
-        // Clear refresh token
-        user.setRefreshToken(null);
-        userRepository.save(user);
+        // Refuse the access token for the rest of its lifetime
+        tokenRevocationList.revokeToken(jwtService.verifyToken(jwt));
 
         // Clear cookies
         clearCookie(response, "accessToken");
@@ -125,7 +123,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         String username = userDetails.getUsername();
 
-        User user = userRepository.findByEmployeeId(username)
+        User user = userCache.findByEmployeeId(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         return user;
@@ -4,32 +4,76 @@ package me.vasujain.shelfwise.services.impl;
 import me.vasujain.shelfwise.dtos.BookCreateDTO;
 import me.vasujain.shelfwise.dtos.BookUpdateDTO;
 import me.vasujain.shelfwise.dtos.BookDTO;
+import me.vasujain.shelfwise.dtos.BookFacetedSearchDTO;
+import me.vasujain.shelfwise.dtos.BookFacetsDTO;
+import me.vasujain.shelfwise.dtos.BookSearchDTO;
+import me.vasujain.shelfwise.dtos.BookSummaryDTO;
+import me.vasujain.shelfwise.enums.BookFacet;
 import me.vasujain.shelfwise.enums.BookStatus;
+import me.vasujain.shelfwise.events.BooksChangedEvent;
 import me.vasujain.shelfwise.exceptions.BookNotFoundException;
 import me.vasujain.shelfwise.exceptions.DuplicateAccessionNumberException;
 import me.vasujain.shelfwise.models.Book;
 import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.response.CursorPage;
+import me.vasujain.shelfwise.repositories.projections.BookFacetCount;
+import me.vasujain.shelfwise.repositories.projections.BookIdentifiers;
+import me.vasujain.shelfwise.services.BookIdentifierIndex;
+import me.vasujain.shelfwise.services.BookSearchEngine;
 import me.vasujain.shelfwise.services.BookService;
+import me.vasujain.shelfwise.services.BookVocabulary;
 import me.vasujain.shelfwise.mapper.BookMapper;
+import me.vasujain.shelfwise.util.CursorPageRequest;
+import me.vasujain.shelfwise.util.FieldParsers;
+import me.vasujain.shelfwise.util.KeysetPaging;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,8 +82,24 @@ import java.util.stream.Collectors;
 @Transactional
 public class BookServiceImpl implements BookService {
 
+    private static final int FACET_VALUE_LIMIT = 25;
+    // Most matched IDs bound into one query; broader fragments are matched with LIKE in the database instead
+    private static final int MAX_IDENTIFIER_IDS_IN_QUERY = 500;
+    private static final String UNKNOWN_FACET_VALUE = "Unknown";
+    private static final String MISSING_ACCESSION_NUMBER = "MISSING_ACCESSION_NUMBER";
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
+    private final BookSearchEngine bookSearchEngine;
+    private final BookIdentifierIndex bookIdentifierIndex;
+    private final BookVocabulary bookVocabulary;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
 
     @Override
     public BookDTO registerBook(BookCreateDTO bookCreateDTO) {
@@ -48,99 +108,58 @@ public class BookServiceImpl implements BookService {
         }
 
         log.info("Registering a new book with title: {}", bookCreateDTO.getTitle());
-        // Basic builder pattern for entity creation
-        Book book = Book.builder()
-                .accessionNumber(bookCreateDTO.getAccessionNumber())
-                .isbn(bookCreateDTO.getIsbn())
-                .title(bookCreateDTO.getTitle())
-                .subtitle(bookCreateDTO.getSubtitle())
-                .authorPrimary(bookCreateDTO.getAuthorPrimary())
-                .authorSecondary(bookCreateDTO.getAuthorSecondary())
-                .publisher(bookCreateDTO.getPublisher())
-                .publicationPlace(bookCreateDTO.getPublicationPlace())
-                .publicationYear(bookCreateDTO.getPublicationYear())
-                .edition(bookCreateDTO.getEdition())
-                .pages(bookCreateDTO.getPages())
-                .language(bookCreateDTO.getLanguage())
-                .price(bookCreateDTO.getPrice())
-                .billNumber(bookCreateDTO.getBillNumber())
-                .vendorName(bookCreateDTO.getVendorName())
-                .purchaseDate(parseFlexibleDate(bookCreateDTO.getPurchaseDate()))
-                .keywords(bookCreateDTO.getKeywords())
-                .classificationNumber(bookCreateDTO.getClassificationNumber())
-                .locationShelf(bookCreateDTO.getLocationShelf())
-                .locationRack(bookCreateDTO.getLocationRack())
-                .bookCondition(bookCreateDTO.getBookCondition())
-                .bookStatus(bookCreateDTO.getBookStatus())
-                .totalCopies(bookCreateDTO.getTotalCopies())
-                .availableCopies(bookCreateDTO.getAvailableCopies())
-                .bookType(bookCreateDTO.getBookType())
-                .isReferenceOnly(bookCreateDTO.getIsReferenceOnly())
-                .notes(bookCreateDTO.getNotes())
-                .registrationDate(LocalDateTime.now())
-                .build();
-        return bookMapper.toDto(bookRepository.save(book));
+        Book book = toBook(bookCreateDTO);
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BooksChangedEvent(List.of(savedBook)));
+        return bookMapper.toDto(savedBook);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> registerBulkBooks(List<BookCreateDTO> bookCreateDTOs) {
         log.info("Registering {} new books in bulk", bookCreateDTOs.size());
-        List<String> failedAccessionNumbers = new ArrayList<>();
-        int createdCount = 0;
+        BulkRegistration registration = new BulkRegistration();
+        for (int from = 0; from < bookCreateDTOs.size(); from += chunkSize) {
+            registration.addAll(bookCreateDTOs.subList(from, Math.min(from + chunkSize, bookCreateDTOs.size())));
+            registration.flush();
+        }
+        return registration.result();
+    }
 
-        for (BookCreateDTO bookCreateDTO : bookCreateDTOs) {
-            try {
-                if (bookRepository.existsByAccessionNumber(bookCreateDTO.getAccessionNumber())) {
-                    log.warn("Book with accession number {} already exists. Skipping.", bookCreateDTO.getAccessionNumber());
-                    failedAccessionNumbers.add(bookCreateDTO.getAccessionNumber());
-                    continue;
+    /**
+     * Reads the array with a streaming parser, so only the books of the current batch are held in memory
+     * whatever the size of the upload. An element that cannot be bound to a BookCreateDTO fails on its own;
+     * malformed JSON ends the upload, keeping the books read before it.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> registerBulkBooks(InputStream json) throws IOException {
+        log.info("Registering new books in bulk from a JSON stream");
+        BulkRegistration registration = new BulkRegistration();
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("The file must contain a JSON array of books");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode element = parser.readValueAsTree();
+                try {
+                    registration.add(objectMapper.treeToValue(element, BookCreateDTO.class));
+                } catch (JsonProcessingException e) {
+                    String accessionNumber = element.path("accessionNumber").asText(MISSING_ACCESSION_NUMBER);
+                    log.warn("Book with accession number {} could not be read: {}", accessionNumber, e.getOriginalMessage());
+                    registration.failed(accessionNumber);
+                }
+                if (registration.pending() >= chunkSize) {
+                    registration.flush();
                 }
-
-                log.info("Attempting to register book with accession number: {}", bookCreateDTO.getAccessionNumber());
-                Book book = Book.builder()
-                        .accessionNumber(bookCreateDTO.getAccessionNumber())
-                        .isbn(bookCreateDTO.getIsbn())
-                        .title(bookCreateDTO.getTitle())
-                        .subtitle(bookCreateDTO.getSubtitle())
-                        .authorPrimary(bookCreateDTO.getAuthorPrimary())
-                        .authorSecondary(bookCreateDTO.getAuthorSecondary())
-                        .publisher(bookCreateDTO.getPublisher())
-                        .publicationPlace(bookCreateDTO.getPublicationPlace())
-                        .publicationYear(bookCreateDTO.getPublicationYear())
-                        .edition(bookCreateDTO.getEdition())
-                        .pages(bookCreateDTO.getPages())
-                        .language(bookCreateDTO.getLanguage())
-                        .price(bookCreateDTO.getPrice())
-                        .billNumber(bookCreateDTO.getBillNumber())
-                        .vendorName(bookCreateDTO.getVendorName())
-                        .purchaseDate(parseFlexibleDate(bookCreateDTO.getPurchaseDate()))
-                        .keywords(bookCreateDTO.getKeywords())
-                        .classificationNumber(bookCreateDTO.getClassificationNumber())
-                        .locationShelf(bookCreateDTO.getLocationShelf())
-                        .locationRack(bookCreateDTO.getLocationRack())
-                        .bookCondition(bookCreateDTO.getBookCondition())
-                        .bookStatus(bookCreateDTO.getBookStatus())
-                        .totalCopies(bookCreateDTO.getTotalCopies())
-                        .availableCopies(bookCreateDTO.getAvailableCopies())
-                        .bookType(bookCreateDTO.getBookType())
-                        .isReferenceOnly(bookCreateDTO.getIsReferenceOnly())
-                        .notes(bookCreateDTO.getNotes())
-                        .registrationDate(LocalDateTime.now())
-                        .build();
-
-                bookRepository.save(book);
-                createdCount++;
-            } catch (Exception e) {
-                log.error("Failed to register book with accession number {}: {}", bookCreateDTO.getAccessionNumber(), e.getMessage());
-                failedAccessionNumbers.add(bookCreateDTO.getAccessionNumber());
             }
+        } catch (JsonProcessingException e) {
+            registration.flush();
+            throw new IllegalArgumentException(String.format("Invalid JSON at line %d, column %d: %s. %d books before it were created.",
+                    e.getLocation().getLineNr(), e.getLocation().getColumnNr(), e.getOriginalMessage(), registration.created()));
         }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("booksCreated", createdCount);
-        result.put("failedAccessionNumbers", failedAccessionNumbers);
-
-        return result;
+        registration.flush();
+        return registration.result();
     }
 
     @Override
@@ -174,7 +193,9 @@ public class BookServiceImpl implements BookService {
         book.setBookType(bookUpdateDTO.getBookType());
         book.setIsReferenceOnly(bookUpdateDTO.getIsReferenceOnly());
         book.setNotes(bookUpdateDTO.getNotes());
-        return bookMapper.toDto(bookRepository.save(book));
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BooksChangedEvent(List.of(savedBook)));
+        return bookMapper.toDto(savedBook);
     }
 
     @Override
@@ -183,6 +204,24 @@ public class BookServiceImpl implements BookService {
         return bookRepository.findAll(pageable).map(bookMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookDTO> getAllBooks(CursorPageRequest request) {
+        return KeysetPaging.scroll(bookRepository, null, request).map(bookMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookSummaryDTO> getAllBookSummaries(Pageable pageable) {
+        return bookRepository.findSummaries(null, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookSummaryDTO> getAllBookSummaries(CursorPageRequest request) {
+        return KeysetPaging.scroll(bookRepository, null, request).map(bookMapper::toSummaryDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookDTO getBook(UUID id) {
@@ -192,9 +231,33 @@ public class BookServiceImpl implements BookService {
     @Override
     @Transactional(readOnly = true)
     public Page<BookDTO> search(String query, Pageable pageable) {
-        log.debug("Performing a unified search for query: {}", query);
-        Specification<Book> spec = createSearchSpecification(query);
-        return bookRepository.findAll(spec, pageable).map(bookMapper::toDto);
+        return search(query, pageable, entityRows()).map(bookMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookSummaryDTO> searchSummaries(String query, Pageable pageable) {
+        return search(query, pageable, summaryRows());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookFacetedSearchDTO facetedSearch(BookSearchDTO criteria, Pageable pageable) {
+        log.debug("Performing a faceted search with criteria: {}", criteria);
+        Specification<Book> spec = createFilterSpecification(criteria);
+        long total = bookRepository.count(spec);
+
+        List<BookDTO> books = List.of();
+        if (total > pageable.getOffset()) {
+            books = bookRepository.findBy(spec, query -> query
+                            .sortBy(pageable.getSort())
+                            .limit(pageable.getPageSize())
+                            .scroll(pageable.toScrollPosition()))
+                    .getContent().stream()
+                    .map(bookMapper::toDto)
+                    .collect(Collectors.toList());
+        }
+        return new BookFacetedSearchDTO(books, buildFacets(criteria), total);
     }
 
     @Override
@@ -202,18 +265,384 @@ public class BookServiceImpl implements BookService {
         log.info("Soft deleting book with ID: {}", id);
         Book book = getBookById(id);
         book.setBookStatus(BookStatus.UNAVAILABLE); // Assuming soft delete logic
-        bookRepository.save(book);
+        eventPublisher.publishEvent(new BooksChangedEvent(List.of(bookRepository.save(book))));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuildSearchIndex() {
+        log.info("Rebuilding book search index on request");
+        return bookSearchEngine.rebuild();
     }
 
     // ===============================
     // PRIVATE HELPER METHODS
     // ===============================
 
+    private Book toBook(BookCreateDTO bookCreateDTO) {
+        // Basic builder pattern for entity creation
+        return Book.builder()
+                .accessionNumber(bookCreateDTO.getAccessionNumber())
+                .isbn(bookCreateDTO.getIsbn())
+                .title(bookCreateDTO.getTitle())
+                .subtitle(bookCreateDTO.getSubtitle())
+                .authorPrimary(bookCreateDTO.getAuthorPrimary())
+                .authorSecondary(bookCreateDTO.getAuthorSecondary())
+                .publisher(bookCreateDTO.getPublisher())
+                .publicationPlace(bookCreateDTO.getPublicationPlace())
+                .publicationYear(bookCreateDTO.getPublicationYear())
+                .edition(bookCreateDTO.getEdition())
+                .pages(bookCreateDTO.getPages())
+                .language(bookCreateDTO.getLanguage())
+                .price(bookCreateDTO.getPrice())
+                .billNumber(bookCreateDTO.getBillNumber())
+                .vendorName(bookCreateDTO.getVendorName())
+                .purchaseDate(parseFlexibleDate(bookCreateDTO.getPurchaseDate()))
+                .keywords(bookCreateDTO.getKeywords())
+                .classificationNumber(bookCreateDTO.getClassificationNumber())
+                .locationShelf(bookCreateDTO.getLocationShelf())
+                .locationRack(bookCreateDTO.getLocationRack())
+                .bookCondition(bookCreateDTO.getBookCondition())
+                .bookStatus(bookCreateDTO.getBookStatus())
+                .totalCopies(bookCreateDTO.getTotalCopies())
+                .availableCopies(bookCreateDTO.getAvailableCopies())
+                .bookType(bookCreateDTO.getBookType())
+                .isReferenceOnly(bookCreateDTO.getIsReferenceOnly())
+                .notes(bookCreateDTO.getNotes())
+                .registrationDate(LocalDateTime.now())
+                .build();
+    }
+
+    private <R> Page<R> search(String query, Pageable pageable, BookRows<R> rows) {
+        log.debug("Performing a unified search for query: {}", query);
+        Optional<Page<R>> identifierHits = searchIdentifiers(query, pageable, rows);
+        if (identifierHits.isPresent()) {
+            return identifierHits.get();
+        }
+
+        Optional<Page<UUID>> hits = bookSearchEngine.search(query, pageable);
+        if (hits.isPresent()) {
+            return hydrate(hits.get(), rows);
+        }
+
+        log.debug("Search index unavailable for this query, using database search");
+        Specification<Book> spec = createSearchSpecification(query);
+        return rows.find().apply(spec, withoutRelevanceSort(pageable));
+    }
+
+    private BookRows<Book> entityRows() {
+        return new BookRows<>(bookRepository::findAll, bookRepository::findAllById, Book::getId);
+    }
+
+    private BookRows<BookSummaryDTO> summaryRows() {
+        return new BookRows<>(bookRepository::findSummaries, bookRepository::findSummariesByIdIn, BookSummaryDTO::getId);
+    }
+
     private Book getBookById(UUID id) {
         return bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + id));
     }
 
+    /**
+     * Resolves identifier-shaped queries, such as a partial accession number or ISBN, through the
+     * substring index. Relevance and accession number orderings are applied in memory so only the
+     * requested page is loaded; other orderings are left to the database over the matched IDs, or
+     * over a LIKE on the identifiers when too many books match to bind their IDs.
+     *
+     * @return The matching books, or empty when the query should go through the regular search.
+     */
+    private <R> Optional<Page<R>> searchIdentifiers(String query, Pageable pageable, BookRows<R> rows) {
+        if (!looksLikeIdentifier(query)) {
+            return Optional.empty();
+        }
+        List<BookIdentifierIndex.Match> matches = bookIdentifierIndex.findBySubstring(query).orElse(List.of());
+        if (matches.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Sort sort = pageable.getSort();
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.by(BookSearchEngine.RELEVANCE));
+        boolean byRelevance = BookSearchEngine.RELEVANCE.equals(order.getProperty());
+        if (sort.stream().count() > 1 || (!byRelevance && !"accessionNumber".equals(order.getProperty()))) {
+            if (matches.size() > MAX_IDENTIFIER_IDS_IN_QUERY) {
+                return Optional.of(rows.find().apply(createIdentifierSpecification(query), pageable));
+            }
+            List<UUID> ids = matches.stream().map(BookIdentifierIndex.Match::id).collect(Collectors.toList());
+            Specification<Book> idIn = (root, q, cb) -> root.get("id").in(ids);
+            return Optional.of(rows.find().apply(idIn, pageable));
+        }
+
+        Comparator<BookIdentifierIndex.Match> byAccession =
+                Comparator.comparing(BookIdentifierIndex.Match::accessionNumber, String.CASE_INSENSITIVE_ORDER);
+        Comparator<BookIdentifierIndex.Match> comparator = byRelevance
+                ? Comparator.comparingInt(BookIdentifierIndex.Match::rank).thenComparing(byAccession)
+                : order.isAscending() ? byAccession : byAccession.reversed();
+        List<UUID> page = matches.stream()
+                .sorted(comparator)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(BookIdentifierIndex.Match::id)
+                .collect(Collectors.toList());
+        return Optional.of(hydrate(new PageImpl<>(page, pageable, matches.size()), rows));
+    }
+
+    /**
+     * A single token of at least three characters containing a digit, other than a bare
+     * four-digit number, which is more likely a publication year than an identifier fragment.
+     */
+    private boolean looksLikeIdentifier(String query) {
+        if (!StringUtils.hasText(query)) {
+            return false;
+        }
+        String trimmed = query.trim();
+        return trimmed.length() >= 3
+                && !StringUtils.containsWhitespace(trimmed)
+                && trimmed.chars().anyMatch(Character::isDigit)
+                && !trimmed.matches("\\d{4}");
+    }
+
+    /**
+     * Loads the rows for a page of IDs returned by the search engine in a single query,
+     * preserving the engine's ordering.
+     */
+    private <R> Page<R> hydrate(Page<UUID> ids, BookRows<R> rows) {
+        Map<UUID, R> booksById = rows.findAllById().apply(ids.getContent()).stream()
+                .collect(Collectors.toMap(rows.id(), Function.identity()));
+        List<R> books = ids.getContent().stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(books, ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Relevance ordering only exists in the search index; the database fallback orders by title instead.
+     */
+    private Pageable withoutRelevanceSort(Pageable pageable) {
+        if (pageable.getSort().getOrderFor(BookSearchEngine.RELEVANCE) == null) {
+            return pageable;
+        }
+        List<Sort.Order> orders = pageable.getSort().stream()
+                .filter(order -> !BookSearchEngine.RELEVANCE.equals(order.getProperty()))
+                .collect(Collectors.toList());
+        Sort sort = orders.isEmpty() ? Sort.by("title") : Sort.by(orders);
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    /**
+     * Counts every facet in one statement, each over every filter except those on the facet's own
+     * field, so the other values of a filtered field still show how many books choosing them would give.
+     */
+    private BookFacetsDTO buildFacets(BookSearchDTO criteria) {
+        Map<BookFacet, Specification<Book>> specs = new EnumMap<>(BookFacet.class);
+        for (BookFacet facet : BookFacet.values()) {
+            specs.put(facet, createFilterSpecification(withoutFilterOn(criteria, facet)));
+        }
+        Map<BookFacet, Map<String, Long>> facets = new EnumMap<>(BookFacet.class);
+        bookRepository.countByFacets(specs, FACET_VALUE_LIMIT).forEach((facet, counts) ->
+                facets.put(facet, facet == BookFacet.PUBLICATION_DECADE ? byDecade(counts) : byCount(counts)));
+
+        return BookFacetsDTO.builder()
+                .bookType(facets.get(BookFacet.BOOK_TYPE))
+                .bookStatus(facets.get(BookFacet.BOOK_STATUS))
+                .language(facets.get(BookFacet.LANGUAGE))
+                .publisher(facets.get(BookFacet.PUBLISHER))
+                .publicationYear(facets.get(BookFacet.PUBLICATION_DECADE))
+                .locationShelf(facets.get(BookFacet.LOCATION_SHELF))
+                .build();
+    }
+
+    private BookSearchDTO withoutFilterOn(BookSearchDTO criteria, BookFacet facet) {
+        BookSearchDTO copy = new BookSearchDTO();
+        BeanUtils.copyProperties(criteria, copy);
+        switch (facet) {
+            case BOOK_TYPE -> copy.setBookType(null);
+            case BOOK_STATUS -> copy.setBookStatus(null);
+            case LANGUAGE -> copy.setLanguage(null);
+            case PUBLISHER -> copy.setPublisher(null);
+            case LOCATION_SHELF -> copy.setLocationShelf(null);
+            case PUBLICATION_DECADE -> {
+                copy.setPublicationYear(null);
+                copy.setPublicationYearFrom(null);
+                copy.setPublicationYearTo(null);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Labels decades as "1990-1999", in chronological order, with books of unknown year last.
+     */
+    private Map<String, Long> byDecade(List<BookFacetCount> counts) {
+        Map<Integer, Long> decades = new TreeMap<>();
+        long unknownYear = 0;
+        for (BookFacetCount count : counts) {
+            if (count.value() == null) {
+                unknownYear += count.count();
+            } else {
+                decades.merge(Integer.parseInt(count.value()), count.count(), Long::sum);
+            }
+        }
+
+        Map<String, Long> publicationYears = new LinkedHashMap<>();
+        decades.forEach((decade, count) -> publicationYears.put(decade + "-" + (decade + 9), count));
+        if (unknownYear > 0) {
+            publicationYears.put(UNKNOWN_FACET_VALUE, unknownYear);
+        }
+        return publicationYears;
+    }
+
+    private String facetValue(String value) {
+        return StringUtils.hasText(value) ? value : UNKNOWN_FACET_VALUE;
+    }
+
+    /**
+     * Orders facet values by descending count, with missing and blank values counted together.
+     */
+    private Map<String, Long> byCount(List<BookFacetCount> counts) {
+        Map<String, Long> merged = new HashMap<>();
+        for (BookFacetCount count : counts) {
+            merged.merge(facetValue(count.value()), count.count(), Long::sum);
+        }
+        return merged.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(FACET_VALUE_LIMIT)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * Creates a JPA Specification combining every filter set on the search criteria.
+     * Text filters are case-insensitive substring matches; ranges are inclusive.
+     *
+     * @param criteria The search criteria.
+     * @return A Specification matching all criteria.
+     */
+    private Specification<Book> createFilterSpecification(BookSearchDTO criteria) {
+        Integer minPages = parsePageCount(criteria.getMinPages(), "minPages");
+        Integer maxPages = parsePageCount(criteria.getMaxPages(), "maxPages");
+
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            addContains(predicates, criteriaBuilder, root.get("title"), criteria.getTitle());
+            if (StringUtils.hasText(criteria.getAuthor())) {
+                String author = "%" + criteria.getAuthor().trim().toLowerCase() + "%";
+                predicates.add(criteriaBuilder.or(
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("authorPrimary")), author),
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("authorSecondary")), author)));
+            }
+            addContains(predicates, criteriaBuilder, root.get("isbn"), criteria.getIsbn());
+            addContains(predicates, criteriaBuilder, root.get("publisher"), criteria.getPublisher());
+            addContains(predicates, criteriaBuilder, root.get("keywords"), criteria.getKeywords());
+            addContains(predicates, criteriaBuilder, root.get("accessionNumber"), criteria.getAccessionNumber());
+            addContains(predicates, criteriaBuilder, root.get("classificationNumber"), criteria.getClassificationNumber());
+            addEqualsIgnoreCase(predicates, criteriaBuilder, root.get("language"), criteria.getLanguage());
+            addEqualsIgnoreCase(predicates, criteriaBuilder, root.get("vendorName"), criteria.getVendorName());
+            addEqualsIgnoreCase(predicates, criteriaBuilder, root.get("locationShelf"), criteria.getLocationShelf());
+            addEqualsIgnoreCase(predicates, criteriaBuilder, root.get("locationRack"), criteria.getLocationRack());
+
+            if (criteria.getPublicationYear() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("publicationYear"), criteria.getPublicationYear()));
+            }
+            if (criteria.getPublicationYearFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("publicationYear"), criteria.getPublicationYearFrom()));
+            }
+            if (criteria.getPublicationYearTo() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("publicationYear"), criteria.getPublicationYearTo()));
+            }
+            if (criteria.getPriceFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), criteria.getPriceFrom()));
+            }
+            if (criteria.getPriceTo() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), criteria.getPriceTo()));
+            }
+            if (criteria.getPurchaseDateFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("purchaseDate"), criteria.getPurchaseDateFrom()));
+            }
+            if (criteria.getPurchaseDateTo() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("purchaseDate"), criteria.getPurchaseDateTo()));
+            }
+            if (criteria.getRegistrationDateFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("registrationDate"), criteria.getRegistrationDateFrom().atStartOfDay()));
+            }
+            if (criteria.getRegistrationDateTo() != null) {
+                predicates.add(criteriaBuilder.lessThan(root.get("registrationDate"), criteria.getRegistrationDateTo().plusDays(1).atStartOfDay()));
+            }
+
+            if (criteria.getBookType() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("bookType"), criteria.getBookType()));
+            }
+            if (criteria.getBookStatus() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("bookStatus"), criteria.getBookStatus()));
+            }
+            if (criteria.getBookCondition() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("bookCondition"), criteria.getBookCondition()));
+            }
+            if (criteria.getIsReferenceOnly() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("isReferenceOnly"), criteria.getIsReferenceOnly()));
+            }
+            if (criteria.getIsAvailable() != null) {
+                Predicate available = criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("bookStatus"), BookStatus.AVAILABLE),
+                        criteriaBuilder.greaterThan(root.get("availableCopies"), 0));
+                predicates.add(criteria.getIsAvailable() ? available : criteriaBuilder.not(available));
+            }
+
+            // Page counts are stored as free text; compare their numeric value
+            if (minPages != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("pages").as(Integer.class), minPages));
+            }
+            if (maxPages != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("pages").as(Integer.class), maxPages));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private void addContains(List<Predicate> predicates, CriteriaBuilder criteriaBuilder,
+                             Expression<String> field, String value) {
+        if (StringUtils.hasText(value)) {
+            predicates.add(criteriaBuilder.like(criteriaBuilder.lower(field), "%" + value.trim().toLowerCase() + "%"));
+        }
+    }
+
+    private void addEqualsIgnoreCase(List<Predicate> predicates, CriteriaBuilder criteriaBuilder,
+                                     Expression<String> field, String value) {
+        if (StringUtils.hasText(value)) {
+            predicates.add(criteriaBuilder.equal(criteriaBuilder.lower(field), value.trim().toLowerCase()));
+        }
+    }
+
+    private Integer parsePageCount(String value, String name) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number: " + value);
+        }
+    }
+
+    /**
+     * Matches the same books as the identifier index: the fragment within an accession number, or
+     * within an ISBN once hyphens and spaces are removed from both.
+     */
+    private Specification<Book> createIdentifierSpecification(String query) {
+        String accessionFragment = "%" + query.trim().toLowerCase(Locale.ROOT) + "%";
+        String isbnFragment = "%" + query.replaceAll("[^0-9A-Za-z]", "").toLowerCase(Locale.ROOT) + "%";
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            Expression<String> isbn = criteriaBuilder.lower(root.get("isbn"));
+            for (String separator : List.of("-", " ")) {
+                isbn = criteriaBuilder.function("replace", String.class, isbn,
+                        criteriaBuilder.literal(separator), criteriaBuilder.literal(""));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("accessionNumber")), accessionFragment),
+                    criteriaBuilder.like(isbn, isbnFragment));
+        };
+    }
+
     /**
      * Creates a JPA Specification for a unified, multi-field search.
      * This method builds a query that searches the provided term across title, authors,
@@ -240,6 +669,13 @@ public class BookServiceImpl implements BookService {
             predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("accessionNumber")), fuzzyQuery));
             predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("keywords")), fuzzyQuery));
             predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("isbn")), fuzzyQuery));
+            // Single words also match close spellings found in titles and author names
+            if (!StringUtils.containsWhitespace(query.trim())) {
+                for (String variant : bookVocabulary.variants(query.trim().toLowerCase())) {
+                    predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), "%" + variant + "%"));
+                    predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("authorPrimary")), "%" + variant + "%"));
+                }
+            }
             try {
                 Integer publicationYear = Integer.parseInt(query);
                 predicates.add(criteriaBuilder.equal(root.get("publicationYear"), publicationYear));
@@ -255,36 +691,121 @@ public class BookServiceImpl implements BookService {
             return null;
         }
 
-        try {
-            // Handle long (epoch seconds) to LocalDate
-            if (dateStr.matches("^\\d+$")) {
-                long epochSeconds = Long.parseLong(dateStr);
-                if (epochSeconds == 0) return null;
-                return LocalDate.ofEpochDay(epochSeconds / 86400);
+        String text = dateStr.trim();
+        // Book JSON from the old catalogue writes purchase dates as epoch seconds
+        LocalDate date = FieldParsers.parseDate(text);
+        if (date == null) {
+            date = FieldParsers.parseEpochSeconds(text);
+        }
+        if (date == null) {
+            log.warn("Could not parse date: {}", dateStr);
+        }
+        return date;
+    }
+
+    /**
+     * How search results are read: as whole entities or as summary rows.
+     */
+    private record BookRows<R>(BiFunction<Specification<Book>, Pageable, Page<R>> find,
+                               Function<List<UUID>, List<R>> findAllById,
+                               Function<R, UUID> id) {
+    }
+
+    /**
+     * One bulk registration. Valid books wait in {@code pending} until {@link #flush()} saves them in a
+     * transaction of their own; only the accession numbers of the whole upload are kept, to reject duplicates.
+     */
+    private class BulkRegistration {
+        private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        private final List<BookCreateDTO> pending = new ArrayList<>();
+        private final Set<String> seenAccessionNumbers = new HashSet<>();
+        private final List<String> failedAccessionNumbers = new ArrayList<>();
+        private int createdCount;
+
+        void add(BookCreateDTO bookCreateDTO) {
+            String accessionNumber = bookCreateDTO.getAccessionNumber();
+            Set<ConstraintViolation<BookCreateDTO>> violations = validator.validate(bookCreateDTO);
+            if (!violations.isEmpty()) {
+                log.warn("Book with accession number {} is invalid: {}", accessionNumber, violations.iterator().next().getMessage());
+                failed(accessionNumber != null ? accessionNumber : MISSING_ACCESSION_NUMBER);
+            } else if (!seenAccessionNumbers.add(accessionNumber)) {
+                log.warn("Book with accession number {} appears more than once. Skipping.", accessionNumber);
+                failed(accessionNumber);
+            } else {
+                pending.add(bookCreateDTO);
             }
+        }
+
+        void addAll(List<BookCreateDTO> bookCreateDTOs) {
+            bookCreateDTOs.forEach(this::add);
+        }
+
+        void failed(String accessionNumber) {
+            failedAccessionNumbers.add(accessionNumber);
+        }
 
-            // Handle various date formats
-            DateTimeFormatter formatter1 = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            DateTimeFormatter formatter2 = DateTimeFormatter.ofPattern("yyyy-M-d");
-            DateTimeFormatter formatter3 = DateTimeFormatter.ofPattern("M/d/yyyy");
+        int pending() {
+            return pending.size();
+        }
+
+        int created() {
+            return createdCount;
+        }
+
+        /**
+         * Saves the pending books whose accession numbers are not taken, looked up with one query. Should the
+         * batch fail, its books are saved one per transaction so that only the offending ones are reported.
+         */
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Set<String> existingAccessionNumbers = bookRepository.findIdentifiersByAccessionNumberIn(
+                            pending.stream().map(BookCreateDTO::getAccessionNumber).toList()).stream()
+                    .map(BookIdentifiers::getAccessionNumber)
+                    .collect(Collectors.toSet());
+            List<BookCreateDTO> batch = new ArrayList<>();
+            for (BookCreateDTO bookCreateDTO : pending) {
+                if (existingAccessionNumbers.contains(bookCreateDTO.getAccessionNumber())) {
+                    log.warn("Book with accession number {} already exists. Skipping.", bookCreateDTO.getAccessionNumber());
+                    failed(bookCreateDTO.getAccessionNumber());
+                } else {
+                    batch.add(bookCreateDTO);
+                }
+            }
+            pending.clear();
 
             try {
-                return LocalDate.parse(dateStr, formatter1);
-            } catch (DateTimeParseException e1) {
-                try {
-                    return LocalDate.parse(dateStr, formatter2);
-                } catch (DateTimeParseException e2) {
+                transactionTemplate.executeWithoutResult(status -> save(batch));
+                createdCount += batch.size();
+            } catch (Exception e) {
+                log.warn("Failed to save a batch of {} books, saving them one at a time. Reason: {}", batch.size(), e.getMessage());
+                for (BookCreateDTO bookCreateDTO : batch) {
                     try {
-                        return LocalDate.parse(dateStr, formatter3);
-                    } catch (DateTimeParseException e3) {
-                        log.warn("Could not parse date: {}", dateStr);
-                        return null;
+                        transactionTemplate.executeWithoutResult(status -> save(List.of(bookCreateDTO)));
+                        createdCount++;
+                    } catch (Exception ex) {
+                        log.error("Failed to register book with accession number {}: {}", bookCreateDTO.getAccessionNumber(), ex.getMessage());
+                        failed(bookCreateDTO.getAccessionNumber());
                     }
                 }
             }
-        } catch (Exception e) {
-            log.error("An unexpected error occurred while parsing date string: {}", dateStr, e);
-            return null;
+            log.info("Bulk book registration progress: {} books created, {} failed", createdCount, failedAccessionNumbers.size());
+        }
+
+        Map<String, Object> result() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("booksCreated", createdCount);
+            result.put("failedAccessionNumbers", failedAccessionNumbers);
+            return result;
+        }
+
+        private void save(List<BookCreateDTO> bookCreateDTOs) {
+            if (bookCreateDTOs.isEmpty()) {
+                return;
+            }
+            List<Book> books = bookRepository.saveAll(bookCreateDTOs.stream().map(BookServiceImpl.this::toBook).toList());
+            eventPublisher.publishEvent(new BooksChangedEvent(books));
         }
     }
 }
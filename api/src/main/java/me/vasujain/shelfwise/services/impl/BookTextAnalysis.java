@@ -0,0 +1,296 @@
+package me.vasujain.shelfwise.services.impl;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.DecimalDigitFilter;
+import org.apache.lucene.analysis.hi.HindiNormalizationFilter;
+import org.apache.lucene.analysis.in.IndicNormalizationFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text analysis shared by the search index and the in-memory vocabularies built from book text,
+ * so that both agree on what a term is.
+ *
+ * <p>Terms are NFKC-normalised, Devanagari spelling variants (nukta, chandrabindu, long and short
+ * vowel signs, Devanagari digits) are folded the way Lucene's Hindi analyzer does, and Latin text
+ * is lowercased and stripped of diacritics. On top of that, {@link #phoneticKey(String)} maps
+ * Devanagari terms and their casual romanisations to a common Latin key.
+ */
+final class BookTextAnalysis {
+
+    /**
+     * Identifies the analysis chain and the index layout built with it. Must be changed whenever
+     * either changes, so that existing indexes are rebuilt.
+     */
+    static final String VERSION = "2";
+
+    private static final String[] CONSONANTS = new String[0x80];
+    private static final String[] VOWELS = new String[0x80];
+    private static final String[] VOWEL_SIGNS = new String[0x80];
+    private static final char VIRAMA = '्';
+
+    static {
+        String[][] consonants = {
+                {"क", "k"}, {"ख", "kh"}, {"ग", "g"}, {"घ", "gh"}, {"ङ", "n"},
+                {"च", "ch"}, {"छ", "chh"}, {"ज", "j"}, {"झ", "jh"}, {"ञ", "n"},
+                {"ट", "t"}, {"ठ", "th"}, {"ड", "d"}, {"ढ", "dh"}, {"ण", "n"},
+                {"त", "t"}, {"थ", "th"}, {"द", "d"}, {"ध", "dh"}, {"न", "n"}, {"ऩ", "n"},
+                {"प", "p"}, {"फ", "ph"}, {"ब", "b"}, {"भ", "bh"}, {"म", "m"},
+                {"य", "y"}, {"र", "r"}, {"ऱ", "r"}, {"ल", "l"}, {"ळ", "l"}, {"ऴ", "l"}, {"व", "v"},
+                {"श", "sh"}, {"ष", "sh"}, {"स", "s"}, {"ह", "h"}
+        };
+        String[][] vowels = {
+                {"अ", "a"}, {"आ", "aa"}, {"इ", "i"}, {"ई", "ee"}, {"उ", "u"}, {"ऊ", "oo"}, {"ऋ", "ri"}, {"ॠ", "ri"},
+                {"ऌ", "li"}, {"ऍ", "e"}, {"ऎ", "e"}, {"ए", "e"}, {"ऐ", "ai"}, {"ऑ", "o"}, {"ऒ", "o"}, {"ओ", "o"}, {"औ", "au"}
+        };
+        String[][] vowelSigns = {
+                {"ा", "aa"}, {"ि", "i"}, {"ी", "ee"}, {"ु", "u"}, {"ू", "oo"}, {"ृ", "ri"}, {"ॄ", "ri"},
+                {"ॅ", "e"}, {"ॆ", "e"}, {"े", "e"}, {"ै", "ai"}, {"ॉ", "o"}, {"ॊ", "o"}, {"ो", "o"}, {"ौ", "au"}
+        };
+        for (String[] entry : consonants) {
+            CONSONANTS[entry[0].charAt(0) - 0x900] = entry[1];
+        }
+        for (String[] entry : vowels) {
+            VOWELS[entry[0].charAt(0) - 0x900] = entry[1];
+        }
+        for (String[] entry : vowelSigns) {
+            VOWEL_SIGNS[entry[0].charAt(0) - 0x900] = entry[1];
+        }
+    }
+
+    private BookTextAnalysis() {
+    }
+
+    /**
+     * Analyzer for the text fields of the index and for search terms.
+     */
+    static Analyzer createAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer source = new StandardTokenizer();
+                return new TokenStreamComponents(source, filter(source));
+            }
+
+            @Override
+            protected TokenStream normalize(String fieldName, TokenStream in) {
+                return filter(in);
+            }
+        };
+    }
+
+    /**
+     * Analyzer for the field holding the {@link #phoneticKey(String) phonetic keys} of book text.
+     */
+    static Analyzer createPhoneticAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer source = new StandardTokenizer();
+                return new TokenStreamComponents(source, new PhoneticKeyFilter(filter(source)));
+            }
+        };
+    }
+
+    static List<String> terms(Analyzer analyzer, String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream("title", text)) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    /**
+     * Reduces an analysed term to a key shared by its Devanagari spelling and the usual ways of
+     * romanising it, e.g. प्रेमचंद, "premchand" and "premacanda" all become "prencnd".
+     *
+     * <p>Devanagari is first transliterated letter by letter. The Latin result (or the term itself)
+     * then loses what romanisations (and Lucene's Hindi normalisation) disagree on: aspiration
+     * ({@code kh}/{@code k}, {@code ch}/{@code c}, {@code sh}/{@code s}), vowel length ({@code ee}/{@code i},
+     * {@code oo}/{@code u}), diphthongs ({@code ai}/{@code e}, {@code au}/{@code ou}/{@code o}), every
+     * other {@code a} after the first letter (inherent vowels, {@code aa}/{@code a}), {@code w}/{@code v},
+     * {@code z}/{@code j}, {@code q}/{@code k}, {@code f}/{@code p}, a final {@code y}/{@code i}, a nasal
+     * {@code m}/{@code n} before a consonant, and doubled letters.
+     */
+    static String phoneticKey(String term) {
+        String latin = transliterate(term);
+        StringBuilder reduced = new StringBuilder(latin.length());
+        for (int i = 0; i < latin.length(); i++) {
+            char c = latin.charAt(i);
+            char next = i + 1 < latin.length() ? latin.charAt(i + 1) : 0;
+            if (c == 'a' && next == 'i') {
+                c = 'e';
+                i++;
+            } else if ((c == 'a' || c == 'o') && next == 'u') {
+                c = 'o';
+                i++;
+            } else if ((c == 'e' && next == 'e') || (c == 'o' && next == 'o')) {
+                c = c == 'e' ? 'i' : 'u';
+                i++;
+            } else if (i > 0 && (c == 'a' || (c == 'h' && isConsonant(latin.charAt(i - 1))))) {
+                continue;
+            }
+            switch (c) {
+                case 'w' -> c = 'v';
+                case 'z' -> c = 'j';
+                case 'q' -> c = 'k';
+                case 'f' -> c = 'p';
+                case 'y' -> c = i == latin.length() - 1 && i > 0 ? 'i' : 'y';
+                default -> {
+                }
+            }
+            reduced.append(c);
+        }
+
+        StringBuilder key = new StringBuilder(reduced.length());
+        for (int i = 0; i < reduced.length(); i++) {
+            char c = reduced.charAt(i);
+            if (c == 'm' && i + 1 < reduced.length() && isConsonant(reduced.charAt(i + 1))) {
+                c = 'n';
+            }
+            if (key.isEmpty() || key.charAt(key.length() - 1) != c) {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Whether a term contains Devanagari letters.
+     */
+    static boolean isDevanagari(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.UnicodeBlock.of(term.charAt(i)) == Character.UnicodeBlock.DEVANAGARI) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private static TokenStream filter(TokenStream in) {
+        TokenStream stream = new UnicodeNormalizationFilter(in);
+        stream = new DecimalDigitFilter(stream);
+        stream = new IndicNormalizationFilter(stream);
+        stream = new HindiNormalizationFilter(stream);
+        stream = new LowerCaseFilter(stream);
+        return new ASCIIFoldingFilter(stream);
+    }
+
+    /**
+     * Transliterates the Devanagari letters of a term, adding the inherent vowel after every
+     * consonant not followed by a vowel sign or virama. Other characters are kept as they are.
+     */
+    private static String transliterate(String term) {
+        StringBuilder latin = null;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c < 0x900 || c > 0x97F) {
+                if (latin != null) {
+                    latin.append(c);
+                }
+                continue;
+            }
+            if (latin == null) {
+                latin = new StringBuilder(term.length() * 2).append(term, 0, i);
+            }
+
+            int index = c - 0x900;
+            if (CONSONANTS[index] != null) {
+                latin.append(CONSONANTS[index]);
+                char next = i + 1 < term.length() ? term.charAt(i + 1) : 0;
+                if (next == '़') {
+                    next = i + 2 < term.length() ? term.charAt(i + 2) : 0;
+                }
+                boolean vowelFollows = next >= 0x900 && next <= 0x97F && (VOWEL_SIGNS[next - 0x900] != null || next == VIRAMA);
+                if (!vowelFollows) {
+                    latin.append('a');
+                }
+            } else if (VOWELS[index] != null) {
+                latin.append(VOWELS[index]);
+            } else if (VOWEL_SIGNS[index] != null) {
+                latin.append(VOWEL_SIGNS[index]);
+            } else if (c == 'ँ' || c == 'ं') {
+                latin.append('n');
+            } else if (c == 'ः') {
+                latin.append('h');
+            }
+            // Virama, nukta, avagraha and punctuation add nothing
+        }
+        return latin == null ? term : latin.toString();
+    }
+
+    private static boolean isConsonant(char c) {
+        return c >= 'a' && c <= 'z' && "aeiou".indexOf(c) < 0;
+    }
+
+    /**
+     * Applies Unicode compatibility normalisation (NFKC) to each term.
+     */
+    private static final class UnicodeNormalizationFilter extends TokenFilter {
+
+        private final CharTermAttribute termAttribute = addAttribute(CharTermAttribute.class);
+
+        private UnicodeNormalizationFilter(TokenStream input) {
+            super(input);
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (!input.incrementToken()) {
+                return false;
+            }
+            if (!Normalizer.isNormalized(termAttribute, Normalizer.Form.NFKC)) {
+                String normalized = Normalizer.normalize(termAttribute, Normalizer.Form.NFKC);
+                termAttribute.setEmpty().append(normalized);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Replaces each term with its {@link #phoneticKey(String) phonetic key}.
+     */
+    private static final class PhoneticKeyFilter extends TokenFilter {
+
+        private final CharTermAttribute termAttribute = addAttribute(CharTermAttribute.class);
+
+        private PhoneticKeyFilter(TokenStream input) {
+            super(input);
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (!input.incrementToken()) {
+                return false;
+            }
+            String key = phoneticKey(termAttribute.toString());
+            termAttribute.setEmpty().append(key);
+            return true;
+        }
+    }
+}
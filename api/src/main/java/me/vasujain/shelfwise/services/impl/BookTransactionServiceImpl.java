@@ -15,24 +15,36 @@ import me.vasujain.shelfwise.models.User;
 import me.vasujain.shelfwise.repositories.BookRepository;
 import me.vasujain.shelfwise.repositories.BookTransactionRepository;
 import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.response.CursorPage;
 import me.vasujain.shelfwise.services.BookTransactionService;
+import me.vasujain.shelfwise.services.UserCache;
 import me.vasujain.shelfwise.mapper.BookTransactionMapper;
+import me.vasujain.shelfwise.util.CursorPageRequest;
+import me.vasujain.shelfwise.util.KeysetPaging;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,24 +56,37 @@ public class BookTransactionServiceImpl implements BookTransactionService {
     private final BookTransactionRepository transactionRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookTransactionMapper transactionMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.circulation.max-books-per-user:10}")
+    private int maxBooksPerUser;
 
     @Override
     public BookTransactionDTO issueBook(BookIssueDTO issueDTO) throws BookNotFoundException, UserNotFoundException {
         log.info("Attempting to issue book ID: {} to user ID: {}", issueDTO.getBookId(), issueDTO.getUserId());
 
-        Book book = getBookById(issueDTO.getBookId());
-        User user = getUserById(issueDTO.getUserId());
-        User issuedBy = getCurrentUser();
-
-        validateBookAvailabilityForIssue(book, user);
-
-        book.setAvailableCopies(book.getAvailableCopies() - 1);
-        user.setBooksIssued(user.getBooksIssued() + 1);
+        UUID bookId = issueDTO.getBookId();
+        UUID userId = issueDTO.getUserId();
 
-        if (book.getAvailableCopies() == 0) {
-            book.setBookStatus(BookStatus.ISSUED);
+        // The UPDATEs check and move both counters at once, so concurrent desks cannot overdraw either
+        if (bookRepository.issueCopy(bookId, BookStatus.AVAILABLE, BookStatus.ISSUED) == 0) {
+            Book book = getBookById(bookId);
+            validateBookAvailabilityForIssue(book);
+            throw new BookAlreadyIssuedException("No available copies for book: " + book.getTitle());
         }
+        if (userRepository.addIssuedBook(userId, maxBooksPerUser) == 0) {
+            getUserById(userId);
+            throw new IllegalStateException("User already has the maximum of " + maxBooksPerUser + " books issued");
+        }
+        Book book = getBookById(bookId);
+        User user = getUserById(userId);
+        User issuedBy = getCurrentUser();
+        userCache.evict(user.getEmployeeId());
 
         BookTransaction transaction = BookTransaction.builder()
                 .book(book)
@@ -74,8 +99,6 @@ public class BookTransactionServiceImpl implements BookTransactionService {
                 .transactionNotes(issueDTO.getTransactionNotes())
                 .build();
 
-        bookRepository.save(book);
-        userRepository.save(user);
         BookTransaction savedTransaction = transactionRepository.save(transaction);
 
         log.info("Successfully issued book ID: {} to user ID: {}. Transaction ID: {}",
@@ -93,25 +116,27 @@ public class BookTransactionServiceImpl implements BookTransactionService {
 
         validateTransactionForReturn(transaction);
 
-        Book book = transaction.getBook();
-        book.setAvailableCopies(book.getAvailableCopies() + 1);
-        if (book.getBookStatus() == BookStatus.ISSUED) {
-            book.setBookStatus(BookStatus.AVAILABLE);
+        LocalDateTime returnDate = LocalDateTime.now();
+        String notes = StringUtils.hasText(returnDTO.getTransactionNotes()) ? returnDTO.getTransactionNotes() : null;
+        // Closing the transaction detaches the entities read so far, so the changes below only shape the response
+        if (transactionRepository.closeTransaction(transaction.getId(), TransactionStatus.ACTIVE, TransactionStatus.COMPLETED,
+                returnDate, returnedTo, notes) == 0) {
+            throw new BookNotIssuedException("Transaction is no longer active: " + transaction.getId());
         }
+        bookRepository.returnCopy(transaction.getBook().getId(), BookStatus.AVAILABLE, BookStatus.ISSUED);
+        userRepository.removeIssuedBook(transaction.getUser().getId());
+        userCache.evict(transaction.getUser().getEmployeeId());
 
         transaction.setStatus(TransactionStatus.COMPLETED);
-        transaction.setReturnDate(LocalDateTime.now());
+        transaction.setReturnDate(returnDate);
         transaction.setReturnedTo(returnedTo);
-        if (StringUtils.hasText(returnDTO.getTransactionNotes())) {
-            transaction.setTransactionNotes(returnDTO.getTransactionNotes());
+        if (notes != null) {
+            transaction.setTransactionNotes(notes);
         }
 
-        bookRepository.save(book);
-        BookTransaction updatedTransaction = transactionRepository.save(transaction);
-
-        log.info("Successfully returned book for transaction ID: {}", updatedTransaction.getId());
+        log.info("Successfully returned book for transaction ID: {}", transaction.getId());
 
-        return transactionMapper.toDto(updatedTransaction);
+        return transactionMapper.toDto(transaction);
     }
 
     @Override
@@ -149,23 +174,20 @@ public class BookTransactionServiceImpl implements BookTransactionService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<BookTransactionDTO> search(String query, Pageable pageable) {
-        Specification<BookTransaction> spec = (root, q, cb) -> {
-            if (!StringUtils.hasText(query)) {
-                return cb.conjunction();
-            }
-
-            String lowercaseQuery = query.toLowerCase();
-
-            Predicate bookTitlePredicate = cb.like(cb.lower(root.get("book").get("title")), "%" + lowercaseQuery + "%");
-            Predicate bookAccPredicate = cb.like(cb.lower(root.get("book").get("accessionNumber")), "%" + lowercaseQuery + "%");
-            Predicate userFullNamePredicate = cb.like(cb.lower(root.get("user").get("fullName")), "%" + lowercaseQuery + "%");
-            Predicate userEmpPredicate = cb.like(cb.lower(root.get("user").get("employeeId")), "%" + lowercaseQuery + "%");
+    public CursorPage<BookTransactionDTO> getAllTransactions(CursorPageRequest request) {
+        return KeysetPaging.scroll(transactionRepository, null, request, BookTransaction.PARTIES).map(transactionMapper::toDto);
+    }
 
-            return cb.or(bookTitlePredicate, userFullNamePredicate, bookAccPredicate, userEmpPredicate);
-        };
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookTransactionDTO> search(String query, Pageable pageable) {
+        return transactionRepository.findAll(createSearchSpecification(query), pageable).map(transactionMapper::toDto);
+    }
 
-        return transactionRepository.findAll(spec, pageable).map(transactionMapper::toDto);
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookTransactionDTO> search(String query, CursorPageRequest request) {
+        return KeysetPaging.scroll(transactionRepository, createSearchSpecification(query), request, BookTransaction.PARTIES).map(transactionMapper::toDto);
     }
 
     @Override
@@ -174,12 +196,25 @@ public class BookTransactionServiceImpl implements BookTransactionService {
         return transactionRepository.findByBookId(bookId, pageable).map(transactionMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookTransactionDTO> getTransactionsByBookId(UUID bookId, CursorPageRequest request) {
+        Specification<BookTransaction> spec = (root, q, cb) -> cb.equal(root.get("book").get("id"), bookId);
+        return KeysetPaging.scroll(transactionRepository, spec, request, BookTransaction.PARTIES).map(transactionMapper::toDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<BookTransactionDTO> getTransactionsByUserId(UUID userId, Pageable pageable) {
         return transactionRepository.findByUserId(userId, pageable).map(transactionMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookTransactionDTO> getTransactionsByUserId(UUID userId, CursorPageRequest request) {
+        return KeysetPaging.scroll(transactionRepository, forUser(userId), request, BookTransaction.PARTIES).map(transactionMapper::toDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<BookTransactionDTO> getOverdueTransactions(Pageable pageable) {
@@ -187,6 +222,15 @@ public class BookTransactionServiceImpl implements BookTransactionService {
                 .map(transactionMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookTransactionDTO> getOverdueTransactions(CursorPageRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        Specification<BookTransaction> spec = withStatus(TransactionStatus.ACTIVE)
+                .and((root, q, cb) -> cb.lessThan(root.get("dueDate"), now));
+        return KeysetPaging.scroll(transactionRepository, spec, request, BookTransaction.PARTIES).map(transactionMapper::toDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<BookTransactionDTO> getUserTransactionHistory(UUID userId) {
@@ -214,16 +258,54 @@ public class BookTransactionServiceImpl implements BookTransactionService {
         return transactionRepository.findByStatus(TransactionStatus.ACTIVE, pageable).map(transactionMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookTransactionDTO> getActiveTransactions(CursorPageRequest request) {
+        return KeysetPaging.scroll(transactionRepository, withStatus(TransactionStatus.ACTIVE), request, BookTransaction.PARTIES).map(transactionMapper::toDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<BookTransactionDTO> getActiveTransactionsByUserId(UUID userId, Pageable pageable) {
         return transactionRepository.findByUserIdAndStatus(userId, TransactionStatus.ACTIVE, pageable).map(transactionMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookTransactionDTO> getActiveTransactionsByUserId(UUID userId, CursorPageRequest request) {
+        Specification<BookTransaction> spec = forUser(userId).and(withStatus(TransactionStatus.ACTIVE));
+        return KeysetPaging.scroll(transactionRepository, spec, request, BookTransaction.PARTIES).map(transactionMapper::toDto);
+    }
+
     // ===============================
     // PRIVATE HELPER METHODS
     // ===============================
 
+    private Specification<BookTransaction> createSearchSpecification(String query) {
+        return (root, q, cb) -> {
+            if (!StringUtils.hasText(query)) {
+                return cb.conjunction();
+            }
+
+            String lowercaseQuery = query.toLowerCase();
+
+            Predicate bookTitlePredicate = cb.like(cb.lower(root.get("book").get("title")), "%" + lowercaseQuery + "%");
+            Predicate bookAccPredicate = cb.like(cb.lower(root.get("book").get("accessionNumber")), "%" + lowercaseQuery + "%");
+            Predicate userFullNamePredicate = cb.like(cb.lower(root.get("user").get("fullName")), "%" + lowercaseQuery + "%");
+            Predicate userEmpPredicate = cb.like(cb.lower(root.get("user").get("employeeId")), "%" + lowercaseQuery + "%");
+
+            return cb.or(bookTitlePredicate, userFullNamePredicate, bookAccPredicate, userEmpPredicate);
+        };
+    }
+
+    private Specification<BookTransaction> forUser(UUID userId) {
+        return (root, q, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    private Specification<BookTransaction> withStatus(TransactionStatus status) {
+        return (root, q, cb) -> cb.equal(root.get("status"), status);
+    }
+
     private BookTransaction getTransactionEntityById(UUID transactionId) {
         return transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new BookNotFoundException("Transaction not found with ID: " + transactionId));
@@ -241,11 +323,11 @@ public class BookTransactionServiceImpl implements BookTransactionService {
 
     private User getCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmployeeId(username)
+        return userCache.findByEmployeeId(username)
                 .orElseThrow(() -> new UserNotFoundException("Authenticated user not found in database"));
     }
 
-    private void validateBookAvailabilityForIssue(Book book, User user) {
+    private void validateBookAvailabilityForIssue(Book book) {
         if (Boolean.TRUE.equals(book.getIsReferenceOnly())) {
             throw new BookIsReferenceOnlyException("Book with accession number " + book.getAccessionNumber() + " is for reference only and cannot be issued.");
         }
@@ -271,32 +353,96 @@ public class BookTransactionServiceImpl implements BookTransactionService {
     }
 
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public DataImportResultDTO issueBooks(List<BookIssueDTO> issueDTOs) {
 		return issueBooks(issueDTOs, false);
 	}
 
+	/**
+	 * Issues the books in chunks of {@code app.import.chunk-size} rows, each committed on its own, so that a
+	 * large import neither holds one long transaction nor keeps every entity it touched in memory. The books
+	 * and users of a chunk are read with one query each, and the books are locked until the chunk commits
+	 * so that desk issues of the same books wait instead of being overwritten.
+	 */
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public DataImportResultDTO issueBooks(List<BookIssueDTO> issueDTOs, boolean isImport) {
 		int successCount = 0;
 		List<String> failedIdentifiers = new ArrayList<>();
-		List<BookTransaction> transactionsToSave = new ArrayList<>();
-		List<Book> booksToSave = new ArrayList<>();
-		List<User> usersToSave = new ArrayList<>();
+		User issuedBy = getCurrentUser();
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		int chunks = (issueDTOs.size() + chunkSize - 1) / chunkSize;
 
-		for (BookIssueDTO issueDTO : issueDTOs) {
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			List<BookIssueDTO> rows = issueDTOs.subList(chunk * chunkSize, Math.min((chunk + 1) * chunkSize, issueDTOs.size()));
+			List<String> chunkFailures = new ArrayList<>();
 			try {
-				log.info("Attempting to issue book ID: {} to user ID: {}", issueDTO.getBookId(), issueDTO.getUserId());
+				Integer issued = transactionTemplate.execute(status -> issueChunk(rows, isImport, issuedBy, chunkFailures));
+				successCount += issued != null ? issued : 0;
+				failedIdentifiers.addAll(chunkFailures);
+			} catch (Exception e) {
+				log.error("Failed to save chunk {} of {}. Reason: {}", chunk + 1, chunks, e.getMessage());
+				rows.forEach(row -> failedIdentifiers.add(String.valueOf(row.getBookId())));
+			}
+			log.info("Bulk issue progress: {} of {} rows processed ({} issued, {} failed)",
+					chunk * chunkSize + rows.size(), issueDTOs.size(), successCount, failedIdentifiers.size());
+		}
+
+		return new DataImportResultDTO(successCount, failedIdentifiers.size(), failedIdentifiers,
+				"Transaction import process completed.");
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public DataImportResultDTO issueBooksInCurrentTransaction(List<BookIssueDTO> issueDTOs, boolean isImport) {
+		List<String> failedIdentifiers = new ArrayList<>();
+		int successCount = issueChunk(issueDTOs, isImport, getCurrentUser(), failedIdentifiers);
+		return new DataImportResultDTO(successCount, failedIdentifiers.size(), failedIdentifiers,
+				"Transaction import process completed.");
+	}
+
+	/**
+	 * Issues one chunk of rows inside the current transaction, adding the book ID of every row that could not
+	 * be issued to {@code failedIdentifiers}.
+	 *
+	 * @return the number of rows issued
+	 */
+	private int issueChunk(List<BookIssueDTO> rows, boolean isImport, User issuedBy, List<String> failedIdentifiers) {
+		Set<UUID> bookIds = new HashSet<>();
+		Set<UUID> userIds = new HashSet<>();
+		for (BookIssueDTO row : rows) {
+			bookIds.add(row.getBookId());
+			userIds.add(row.getUserId());
+		}
+		bookIds.remove(null);
+		userIds.remove(null);
+		Map<UUID, Book> books = bookRepository.findAllForUpdateByIdIn(bookIds).stream()
+				.collect(Collectors.toMap(Book::getId, Function.identity()));
+		Map<UUID, User> users = userRepository.findAllById(userIds).stream()
+				.collect(Collectors.toMap(User::getId, Function.identity()));
 
-				Book book = getBookById(issueDTO.getBookId());
-				User user = getUserById(issueDTO.getUserId());
-				User issuedBy = getCurrentUser();
+		List<BookTransaction> transactionsToSave = new ArrayList<>();
+		for (BookIssueDTO issueDTO : rows) {
+			try {
+				Book book = books.get(issueDTO.getBookId());
+				if (book == null) {
+					throw new BookNotFoundException("Book not found with ID: " + issueDTO.getBookId());
+				}
+				User user = users.get(issueDTO.getUserId());
+				if (user == null) {
+					throw new UserNotFoundException("User not found with ID: " + issueDTO.getUserId());
+				}
 
 				if (!isImport) {
-					validateBookAvailabilityForIssue(book, user);
+					validateBookAvailabilityForIssue(book);
+					if (user.getBooksIssued() >= maxBooksPerUser) {
+						throw new IllegalStateException("User already has the maximum of " + maxBooksPerUser + " books issued");
+					}
 				}
 
 				book.setAvailableCopies(book.getAvailableCopies() - 1);
 				user.setBooksIssued(user.getBooksIssued() + 1);
+				userCache.evict(user.getEmployeeId());
 
 				if (book.getAvailableCopies() == 0) {
 					book.setBookStatus(BookStatus.ISSUED);
@@ -308,24 +454,15 @@ public class BookTransactionServiceImpl implements BookTransactionService {
 						.issuedBy(issuedBy).transactionNotes(issueDTO.getTransactionNotes()).build();
 
 				transactionsToSave.add(transaction);
-				booksToSave.add(book);
-				usersToSave.add(user);
-
-				successCount++;
 			} catch (Exception e) {
 				log.error("Failed to issue book ID: {} to user ID: {}. Reason: {}", issueDTO.getBookId(),
 						issueDTO.getUserId(), e.getMessage());
-				failedIdentifiers.add(issueDTO.getBookId().toString());
+				failedIdentifiers.add(String.valueOf(issueDTO.getBookId()));
 			}
 		}
 
-		if (!transactionsToSave.isEmpty()) {
-			bookRepository.saveAll(booksToSave);
-			userRepository.saveAll(usersToSave);
-			transactionRepository.saveAll(transactionsToSave);
-		}
-
-		return new DataImportResultDTO(successCount, failedIdentifiers.size(), failedIdentifiers,
-				"Transaction import process completed.");
+		// Books and users are managed, so their changes are flushed (batched) with the inserts on commit
+		transactionRepository.saveAll(transactionsToSave);
+		return transactionsToSave.size();
 	}
 }
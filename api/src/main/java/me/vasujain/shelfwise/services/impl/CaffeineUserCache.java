@@ -0,0 +1,73 @@
+package me.vasujain.shelfwise.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.UserCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps up to {@code app.user-cache.max-size} users for {@code app.user-cache.ttl} after they were
+ * read. Hits and misses are published as {@code cache.gets} for the {@code users} cache.
+ *
+ * <p>Users are read in a read-only transaction of their own, even when the caller has one open: its
+ * persistence context closes with it, so the user cached is detached and is not the instance the
+ * caller's transaction reads and changes.
+ */
+@Service
+public class CaffeineUserCache implements UserCache {
+
+    private static final String USERS_CACHE = "users";
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate loader;
+    private final Cache<String, User> users;
+
+    public CaffeineUserCache(UserRepository userRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.user-cache.max-size:1000}") long maxSize,
+                             @Value("${app.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.loader = new TransactionTemplate(transactionManager);
+        this.loader.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loader.setReadOnly(true);
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, USERS_CACHE);
+    }
+
+    @Override
+    public Optional<User> findByEmployeeId(String employeeId) {
+        return Optional.ofNullable(users.get(employeeId,
+                key -> loader.execute(status -> userRepository.findByEmployeeId(key).orElse(null))));
+    }
+
+    @Override
+    public void evict(String employeeId) {
+        users.invalidate(employeeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.invalidate(employeeId);
+                }
+            });
+        }
+    }
+}
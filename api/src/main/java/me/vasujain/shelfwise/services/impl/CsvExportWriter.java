@@ -0,0 +1,40 @@
+package me.vasujain.shelfwise.services.impl;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes an export as CSV, flushing the header at once so that the download starts before the first rows arrive.
+ */
+final class CsvExportWriter implements ExportWriter {
+
+    private final OutputStream out;
+    private CSVPrinter printer;
+
+    CsvExportWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(String[] headers) throws IOException {
+        printer = new CSVPrinter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+                CSVFormat.DEFAULT.withHeader(headers));
+        printer.flush();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        printer.printRecord(values);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        printer.flush();
+    }
+}
@@ -20,6 +20,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -58,7 +59,9 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
-    public MemberDashboardDTO getMemberDashboard(User user) {
+    public MemberDashboardDTO getMemberDashboard(UUID userId) {
+        // The user is only needed for its ID in the queries below, so it is not loaded
+        User user = userRepository.getReferenceById(userId);
         long borrowedBooksCount = bookTransactionRepository.countByUserAndStatus(user, TransactionStatus.ACTIVE);
         long overdueBooksCount = bookTransactionRepository.countByUserAndStatusAndDueDateBefore(user, TransactionStatus.OVERDUE, LocalDateTime.now());
         return MemberDashboardDTO.builder()
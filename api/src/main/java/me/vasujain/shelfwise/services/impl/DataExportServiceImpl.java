@@ -1,24 +1,27 @@
 package me.vasujain.shelfwise.services.impl;
 
-import me.vasujain.shelfwise.models.Book;
-import me.vasujain.shelfwise.models.User;
-import me.vasujain.shelfwise.models.BookTransaction;
+import me.vasujain.shelfwise.enums.ExportFormat;
+import me.vasujain.shelfwise.enums.ExportType;
 import me.vasujain.shelfwise.repositories.BookRepository;
 import me.vasujain.shelfwise.repositories.UserRepository;
 import me.vasujain.shelfwise.repositories.BookTransactionRepository;
 import me.vasujain.shelfwise.services.DataExportService;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Service
 public class DataExportServiceImpl implements DataExportService {
 
+    private static final String[] BOOK_HEADERS = {"id", "accessionNumber", "isbn", "title", "subtitle", "authorPrimary", "authorSecondary", "publisher", "publicationPlace", "publicationYear", "edition", "pages", "language", "price", "billNumber", "vendorName", "purchaseDate", "keywords", "classificationNumber", "locationShelf", "locationRack", "bookCondition", "bookStatus", "totalCopies", "availableCopies", "bookType", "isReferenceOnly", "registrationDate", "notes"};
+    private static final String[] USER_HEADERS = {"id", "employeeId", "fullName", "email", "phoneMobile", "phoneOffice", "division", "department", "designation", "floorNumber", "officeRoom", "address", "userRole", "userStatus", "booksIssued", "registrationDate", "expirationDate", "photoPath", "emergencyContact", "emergencyPhone", "remarks", "password"};
+    private static final String[] TRANSACTION_HEADERS = {"id", "bookAccessionNumber", "userEmployeeId", "transactionType", "status", "issueDate", "dueDate", "returnDate", "transactionNotes", "issuedByEmployeeId", "returnedToEmployeeId"};
+
     @Autowired
     private BookRepository bookRepository;
 
@@ -28,67 +31,49 @@ public class DataExportServiceImpl implements DataExportService {
     @Autowired
     private BookTransactionRepository bookTransactionRepository;
 
-    private final String TEMP_CSV_PATH = "temp_csvs/";
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooksToCsv(OutputStream out) throws IOException {
+        export(ExportType.BOOKS, ExportFormat.CSV, out);
+    }
 
-    private void ensureDirectoryExists() {
-        File directory = new File(TEMP_CSV_PATH);
-        if (!directory.exists()) {
-            directory.mkdirs();
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsersToCsv(OutputStream out) throws IOException {
+        export(ExportType.USERS, ExportFormat.CSV, out);
     }
 
     @Override
-    public File exportBooksToCsv() throws Exception {
-        ensureDirectoryExists();
-        List<Book> books = bookRepository.findAll();
-        File csvFile = new File(TEMP_CSV_PATH + "books_export.csv");
-        try (FileWriter out = new FileWriter(csvFile);
-             CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withHeader("id", "accessionNumber", "isbn", "title", "subtitle", "authorPrimary", "authorSecondary", "publisher", "publicationPlace", "publicationYear", "edition", "pages", "language", "price", "billNumber", "vendorName", "purchaseDate", "keywords", "classificationNumber", "locationShelf", "locationRack", "bookCondition", "bookStatus", "totalCopies", "availableCopies", "bookType", "isReferenceOnly", "registrationDate", "notes")))
-        {
-            for (Book book : books) {
-                printer.printRecord(book.getId(), book.getAccessionNumber(), book.getIsbn(), book.getTitle(), book.getSubtitle(), book.getAuthorPrimary(), book.getAuthorSecondary(), book.getPublisher(), book.getPublicationPlace(), book.getPublicationYear(), book.getEdition(), book.getPages(), book.getLanguage(), book.getPrice(), book.getBillNumber(), book.getVendorName(), book.getPurchaseDate(), book.getKeywords(), book.getClassificationNumber(), book.getLocationShelf(), book.getLocationRack(), book.getBookCondition(), book.getBookStatus(), book.getTotalCopies(), book.getAvailableCopies(), book.getBookType(), book.getIsReferenceOnly(), book.getRegistrationDate(), book.getNotes());
-            }
-        }
-        return csvFile;
+    @Transactional(readOnly = true)
+    public void exportTransactionsToCsv(OutputStream out) throws IOException {
+        export(ExportType.TRANSACTIONS, ExportFormat.CSV, out);
     }
 
     @Override
-    public File exportUsersToCsv() throws Exception {
-        ensureDirectoryExists();
-        List<User> users = userRepository.findAll();
-        File csvFile = new File(TEMP_CSV_PATH + "users_export.csv");
-        try (FileWriter out = new FileWriter(csvFile);
-             CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withHeader("id", "employeeId", "fullName", "email", "phoneMobile", "phoneOffice", "division", "department", "designation", "floorNumber", "officeRoom", "address", "userRole", "userStatus", "booksIssued", "registrationDate", "expirationDate", "photoPath", "emergencyContact", "emergencyPhone", "remarks", "password")))
-        {
-            for (User user : users) {
-                printer.printRecord(user.getId(), user.getEmployeeId(), user.getFullName(), user.getEmail(), user.getPhoneMobile(), user.getPhoneOffice(), user.getDivision(), user.getDepartment(), user.getDesignation(), user.getFloorNumber(), user.getOfficeRoom(), user.getAddress(), user.getUserRole(), user.getUserStatus(), user.getBooksIssued(), user.getRegistrationDate(), user.getExpirationDate(), user.getPhotoPath(), user.getEmergencyContact(), user.getEmergencyPhone(), user.getRemarks(), user.getPassword());
-            }
-        }
-        return csvFile;
+    @Transactional(readOnly = true)
+    public void exportToCsv(ExportType type, OutputStream out) throws IOException {
+        export(type, ExportFormat.CSV, out);
     }
 
     @Override
-    public File exportTransactionsToCsv() throws Exception {
-        ensureDirectoryExists();
-        List<BookTransaction> transactions = bookTransactionRepository.findAll();
-        File csvFile = new File(TEMP_CSV_PATH + "transactions_export.csv");
-        try (FileWriter out = new FileWriter(csvFile);
-             CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withHeader("id", "bookAccessionNumber", "userEmployeeId", "transactionType", "status", "issueDate", "dueDate", "returnDate", "transactionNotes", "issuedByEmployeeId", "returnedToEmployeeId")))
-        {
-            for (BookTransaction transaction : transactions) {
-                printer.printRecord(transaction.getId(), 
-                                    transaction.getBook().getAccessionNumber(), 
-                                    transaction.getUser().getEmployeeId(), 
-                                    transaction.getTransactionType(), 
-                                    transaction.getStatus(), 
-                                    transaction.getIssueDate().toLocalDate(), 
-                                    transaction.getDueDate().toLocalDate(), 
-                                    transaction.getReturnDate() != null ? transaction.getReturnDate().toLocalDate() : null, 
-                                    transaction.getTransactionNotes(),
-                                    transaction.getIssuedBy() != null ? transaction.getIssuedBy().getEmployeeId() : "",
-                                    transaction.getReturnedTo() != null ? transaction.getReturnedTo().getEmployeeId() : "");
+    @Transactional(readOnly = true)
+    public void export(ExportType type, ExportFormat format, OutputStream out) throws IOException {
+        String[] headers = switch (type) {
+            case BOOKS -> BOOK_HEADERS;
+            case USERS -> USER_HEADERS;
+            case TRANSACTIONS -> TRANSACTION_HEADERS;
+        };
+        try (Stream<Object[]> rows = switch (type) {
+            case BOOKS -> bookRepository.streamExportRows();
+            case USERS -> userRepository.streamExportRows();
+            case TRANSACTIONS -> bookTransactionRepository.streamExportRows();
+        }) {
+            ExportWriter writer = ExportWriter.create(format, out);
+            writer.writeHeader(headers);
+            for (Iterator<Object[]> iterator = rows.iterator(); iterator.hasNext(); ) {
+                writer.writeRow(iterator.next());
             }
+            writer.finish();
         }
-        return csvFile;
     }
-}
\ No newline at end of file
+}
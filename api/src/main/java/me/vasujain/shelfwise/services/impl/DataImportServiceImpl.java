@@ -1,35 +1,123 @@
 package me.vasujain.shelfwise.services.impl;
 
+import lombok.extern.slf4j.Slf4j;
 import me.vasujain.shelfwise.dtos.BookIssueDTO;
 import me.vasujain.shelfwise.dtos.DataImportResultDTO;
 import me.vasujain.shelfwise.enums.*;
+import me.vasujain.shelfwise.events.BooksChangedEvent;
 import me.vasujain.shelfwise.models.Book;
 import me.vasujain.shelfwise.models.BookTransaction;
 import me.vasujain.shelfwise.models.User;
 import me.vasujain.shelfwise.repositories.BookRepository;
 import me.vasujain.shelfwise.repositories.BookTransactionRepository;
 import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.repositories.projections.BookIdentifiers;
+import me.vasujain.shelfwise.repositories.projections.UserIdentifiers;
 import me.vasujain.shelfwise.services.BookTransactionService;
 import me.vasujain.shelfwise.services.DataImportService;
+import me.vasujain.shelfwise.services.ImportProgressListener;
+import me.vasujain.shelfwise.services.PasswordHasher;
+import me.vasujain.shelfwise.services.UserCache;
+import me.vasujain.shelfwise.util.CsvRecordBinder;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-
-import static me.vasujain.shelfwise.util.CsvUtils.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class DataImportServiceImpl implements DataImportService {
 
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final int HASHING_WINDOW_PER_THREAD = 4;
+    private static final String BCRYPT_PREFIX = "{bcrypt}";
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    private static final CsvRecordBinder<Book> BOOK_BINDER = CsvRecordBinder.<Book>builder()
+            .string("accessionNumber", Book::setAccessionNumber)
+            .string("isbn", Book::setIsbn)
+            .string("title", Book::setTitle)
+            .string("subtitle", Book::setSubtitle)
+            .string("authorPrimary", Book::setAuthorPrimary)
+            .string("authorSecondary", Book::setAuthorSecondary)
+            .string("publisher", Book::setPublisher)
+            .string("publicationPlace", Book::setPublicationPlace)
+            .integer("publicationYear", Book::setPublicationYear)
+            .string("edition", Book::setEdition)
+            .string("pages", Book::setPages)
+            .string("language", Book::setLanguage)
+            .decimal("price", Book::setPrice)
+            .string("billNumber", Book::setBillNumber)
+            .string("vendorName", Book::setVendorName)
+            .date("purchaseDate", Book::setPurchaseDate)
+            .string("keywords", Book::setKeywords)
+            .string("classificationNumber", Book::setClassificationNumber)
+            .string("locationShelf", Book::setLocationShelf)
+            .string("locationRack", Book::setLocationRack)
+            .enumeration("bookCondition", BookCondition.class, Book::setBookCondition)
+            .enumeration("bookStatus", BookStatus.class, Book::setBookStatus)
+            .integer("totalCopies", Book::setTotalCopies)
+            .integer("availableCopies", Book::setAvailableCopies)
+            .enumeration("bookType", BookType.class, Book::setBookType)
+            .bool("isReferenceOnly", Book::setIsReferenceOnly)
+            .dateTime("registrationDate", Book::setRegistrationDate)
+            .string("notes", Book::setNotes)
+            .build();
+
+    private static final CsvRecordBinder<User> USER_BINDER = CsvRecordBinder.<User>builder()
+            .string("employeeId", User::setEmployeeId)
+            .string("fullName", User::setFullName)
+            .string("email", User::setEmail)
+            .string("phoneMobile", User::setPhoneMobile)
+            .string("phoneOffice", User::setPhoneOffice)
+            .string("division", User::setDivision)
+            .string("department", User::setDepartment)
+            .string("designation", User::setDesignation)
+            .string("floorNumber", User::setFloorNumber)
+            .string("officeRoom", User::setOfficeRoom)
+            .string("address", User::setAddress)
+            .enumeration("userRole", UserRole.class, User::setUserRole)
+            .enumeration("userStatus", UserStatus.class, User::setUserStatus)
+            .integer("booksIssued", User::setBooksIssued)
+            .dateTime("registrationDate", User::setRegistrationDate)
+            .date("expirationDate", User::setExpirationDate)
+            .string("photoPath", User::setPhotoPath)
+            .string("emergencyContact", User::setEmergencyContact)
+            .string("emergencyPhone", User::setEmergencyPhone)
+            .string("remarks", User::setRemarks)
+            .build();
+
+    private static final CsvRecordBinder<BookIssueDTO> ISSUE_BINDER = CsvRecordBinder.<BookIssueDTO>builder()
+            .date("dueDate", BookIssueDTO::setDueDate)
+            .date("issueDate", BookIssueDTO::setIssueDate)
+            .string("transactionNotes", BookIssueDTO::setTransactionNotes)
+            .build();
+
     @Autowired
     private BookRepository bookRepository;
 
@@ -37,7 +125,10 @@ public class DataImportServiceImpl implements DataImportService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private UserCache userCache;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private BookTransactionService bookTransactionService;
@@ -45,128 +136,389 @@ public class DataImportServiceImpl implements DataImportService {
     @Autowired
     private BookTransactionRepository bookTransactionRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
     @Override
     public DataImportResultDTO importBooksFromCsv(MultipartFile file) throws Exception {
+        return importBooksFromCsv(file, ImportProgressListener.NONE);
+    }
+
+    @Override
+    public DataImportResultDTO importBooksFromCsv(InputStreamSource source, ImportProgressListener listener) throws Exception {
         int successCount = 0;
         List<String> failedIdentifiers = new ArrayList<>();
-        try (Reader reader = new InputStreamReader(file.getInputStream());
+        List<Book> importedBooks = new ArrayList<>();
+        CsvKeys keys = collectKeys(source, "accessionNumber");
+        Set<String> existingAccessionNumbers = findInChunks(keys.values().get("accessionNumber"),
+                bookRepository::findIdentifiersByAccessionNumberIn).stream()
+                .map(identifiers -> key(identifiers.getAccessionNumber()))
+                .collect(Collectors.toCollection(HashSet::new));
+        listener.onStart(keys.rows());
+        long rowNumber = 0;
+        try (Reader reader = new InputStreamReader(source.getInputStream());
              CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim())) {
+            CsvRecordBinder.Plan<Book> plan = BOOK_BINDER.compile(csvParser.getHeaderMap());
+            int accessionNumberColumn = plan.column("accessionNumber");
             for (CSVRecord csvRecord : csvParser) {
-                String accessionNumber = getString(csvRecord, "accessionNumber");
-                if (accessionNumber == null || bookRepository.findByAccessionNumber(accessionNumber).isPresent()) {
-                    failedIdentifiers.add(accessionNumber != null ? accessionNumber : "MISSING_ACCESSION_NUMBER");
+                if (rowNumber < listener.resumeAfter()) {
+                    rowNumber++;
                     continue;
                 }
-                try {
+                if (listener.isCancelled()) {
+                    break;
+                }
+                rowNumber++;
+                String accessionNumber = CsvRecordBinder.value(csvRecord, accessionNumberColumn);
+                if (accessionNumber == null) {
+                    fail(failedIdentifiers, listener, rowNumber, "MISSING_ACCESSION_NUMBER", "Missing accession number");
+                } else if (existingAccessionNumbers.contains(key(accessionNumber))) {
+                    fail(failedIdentifiers, listener, rowNumber, accessionNumber, "Accession number already exists");
+                } else {
                     Book book = new Book();
-                    book.setAccessionNumber(accessionNumber);
-                    book.setIsbn(getString(csvRecord, "isbn"));
-                    book.setTitle(getString(csvRecord, "title"));
-                    book.setSubtitle(getString(csvRecord, "subtitle"));
-                    book.setAuthorPrimary(getString(csvRecord, "authorPrimary"));
-                    book.setAuthorSecondary(getString(csvRecord, "authorSecondary"));
-                    book.setPublisher(getString(csvRecord, "publisher"));
-                    book.setPublicationPlace(getString(csvRecord, "publicationPlace"));
-                    book.setPublicationYear(getInteger(csvRecord, "publicationYear"));
-                    book.setEdition(getString(csvRecord, "edition"));
-                    book.setPages(getString(csvRecord, "pages"));
-                    book.setLanguage(getString(csvRecord, "language"));
-                    book.setPrice(getBigDecimal(csvRecord, "price"));
-                    book.setBillNumber(getString(csvRecord, "billNumber"));
-                    book.setVendorName(getString(csvRecord, "vendorName"));
-                    book.setPurchaseDate(getLocalDate(csvRecord, "purchaseDate"));
-                    book.setKeywords(getString(csvRecord, "keywords"));
-                    book.setClassificationNumber(getString(csvRecord, "classificationNumber"));
-                    book.setLocationShelf(getString(csvRecord, "locationShelf"));
-                    book.setLocationRack(getString(csvRecord, "locationRack"));
-                    book.setBookCondition(getEnum(csvRecord, "bookCondition", BookCondition.class));
-                    book.setBookStatus(getEnum(csvRecord, "bookStatus", BookStatus.class));
-                    book.setTotalCopies(getInteger(csvRecord, "totalCopies"));
-                    book.setAvailableCopies(getInteger(csvRecord, "availableCopies"));
-                    book.setBookType(getEnum(csvRecord, "bookType", BookType.class));
-                    book.setIsReferenceOnly(getBoolean(csvRecord, "isReferenceOnly"));
-                    book.setRegistrationDate(getLocalDateTime(csvRecord, "registrationDate"));
-                    book.setNotes(getString(csvRecord, "notes"));
-                    bookRepository.save(book);
-                    successCount++;
-                } catch (Exception e) {
-                    failedIdentifiers.add(accessionNumber);
+                    List<CsvRecordBinder.FieldError> errors = plan.bind(csvRecord, book);
+                    if (!errors.isEmpty()) {
+                        fail(failedIdentifiers, listener, rowNumber, accessionNumber, describe(errors));
+                    } else {
+                        try {
+                            importedBooks.add(bookRepository.save(book));
+                            existingAccessionNumbers.add(key(accessionNumber));
+                            successCount++;
+                        } catch (Exception e) {
+                            fail(failedIdentifiers, listener, rowNumber, accessionNumber, e.getMessage());
+                        }
+                    }
+                }
+                if (rowNumber % listener.checkpointInterval() == 0) {
+                    publishImportedBooks(importedBooks);
+                    listener.onCheckpoint(rowNumber, successCount);
                 }
             }
+        } finally {
+            publishImportedBooks(importedBooks);
         }
+        listener.onCheckpoint(rowNumber, successCount);
         return new DataImportResultDTO(successCount, failedIdentifiers.size(), failedIdentifiers, "Book import process completed.");
     }
 
     @Override
     public DataImportResultDTO importUsersFromCsv(MultipartFile file) throws Exception {
+        return importUsersFromCsv(file, false);
+    }
+
+    @Override
+    public DataImportResultDTO importUsersFromCsv(MultipartFile file, boolean acceptPreHashedPasswords) throws Exception {
+        return importUsersFromCsv(file, acceptPreHashedPasswords, ImportProgressListener.NONE);
+    }
+
+    /**
+     * Passwords are hashed on the {@link PasswordHasher} pool while the following rows are parsed. Up to
+     * {@value #HASHING_WINDOW_PER_THREAD} users per hashing thread wait for their hash, and are saved in
+     * file order as their hashes complete.
+     */
+    @Override
+    public DataImportResultDTO importUsersFromCsv(InputStreamSource source, boolean acceptPreHashedPasswords,
+                                                  ImportProgressListener listener) throws Exception {
         int successCount = 0;
         List<String> failedIdentifiers = new ArrayList<>();
-        try (Reader reader = new InputStreamReader(file.getInputStream());
+        CsvKeys keys = collectKeys(source, "employeeId");
+        Set<String> existingEmployeeIds = findInChunks(keys.values().get("employeeId"),
+                userRepository::findIdentifiersByEmployeeIdIn).stream()
+                .map(identifiers -> key(identifiers.getEmployeeId()))
+                .collect(Collectors.toCollection(HashSet::new));
+        listener.onStart(keys.rows());
+        Deque<PendingUser> pendingUsers = new ArrayDeque<>();
+        int window = passwordHasher.parallelism() * HASHING_WINDOW_PER_THREAD;
+        long rowNumber = 0;
+        try (Reader reader = new InputStreamReader(source.getInputStream());
              CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim())) {
+            CsvRecordBinder.Plan<User> plan = USER_BINDER.compile(csvParser.getHeaderMap());
+            int employeeIdColumn = plan.column("employeeId");
+            int passwordColumn = plan.column("password");
             for (CSVRecord csvRecord : csvParser) {
-                String employeeId = getString(csvRecord, "employeeId");
-                if (employeeId == null || userRepository.findByEmployeeId(employeeId).isPresent()) {
-                    failedIdentifiers.add(employeeId != null ? employeeId : "MISSING_EMPLOYEE_ID");
+                if (rowNumber < listener.resumeAfter()) {
+                    rowNumber++;
                     continue;
                 }
-                try {
+                if (listener.isCancelled()) {
+                    break;
+                }
+                rowNumber++;
+                String employeeId = CsvRecordBinder.value(csvRecord, employeeIdColumn);
+                if (employeeId == null) {
+                    fail(failedIdentifiers, listener, rowNumber, "MISSING_EMPLOYEE_ID", "Missing employee ID");
+                } else if (existingEmployeeIds.contains(key(employeeId))) {
+                    fail(failedIdentifiers, listener, rowNumber, employeeId, "Employee ID already exists");
+                } else {
                     User user = new User();
-                    user.setEmployeeId(employeeId);
-                    user.setFullName(getString(csvRecord, "fullName"));
-                    user.setEmail(getString(csvRecord, "email"));
-                    user.setPhoneMobile(getString(csvRecord, "phoneMobile"));
-                    user.setPhoneOffice(getString(csvRecord, "phoneOffice"));
-                    user.setDivision(getString(csvRecord, "division"));
-                    user.setDepartment(getString(csvRecord, "department"));
-                    user.setDesignation(getString(csvRecord, "designation"));
-                    user.setFloorNumber(getString(csvRecord, "floorNumber"));
-                    user.setOfficeRoom(getString(csvRecord, "officeRoom"));
-                    user.setAddress(getString(csvRecord, "address"));
-                    user.setUserRole(getEnum(csvRecord, "userRole", UserRole.class));
-                    user.setUserStatus(getEnum(csvRecord, "userStatus", UserStatus.class));
-                    user.setBooksIssued(getInteger(csvRecord, "booksIssued"));
-                    user.setRegistrationDate(getLocalDateTime(csvRecord, "registrationDate"));
-                    user.setExpirationDate(getLocalDate(csvRecord, "expirationDate"));
-                    user.setPhotoPath(getString(csvRecord, "photoPath"));
-                    user.setEmergencyContact(getString(csvRecord, "emergencyContact"));
-                    user.setEmergencyPhone(getString(csvRecord, "emergencyPhone"));
-                    user.setRemarks(getString(csvRecord, "remarks"));
-                    user.setPassword(passwordEncoder.encode(getString(csvRecord, "password")));
-                    userRepository.save(user);
-                    successCount++;
-                } catch (Exception e) {
-                    failedIdentifiers.add(employeeId);
+                    List<CsvRecordBinder.FieldError> errors = plan.bind(csvRecord, user);
+                    if (!errors.isEmpty()) {
+                        fail(failedIdentifiers, listener, rowNumber, employeeId, describe(errors));
+                    } else {
+                        try {
+                            pendingUsers.add(new PendingUser(rowNumber, user,
+                                    encodePassword(CsvRecordBinder.value(csvRecord, passwordColumn), acceptPreHashedPasswords)));
+                            existingEmployeeIds.add(key(employeeId));
+                        } catch (Exception e) {
+                            fail(failedIdentifiers, listener, rowNumber, employeeId, e.getMessage());
+                        }
+                    }
+                }
+                boolean checkpoint = rowNumber % listener.checkpointInterval() == 0;
+                successCount += savePendingUsers(pendingUsers, checkpoint ? 0 : window, failedIdentifiers, listener);
+                if (checkpoint) {
+                    listener.onCheckpoint(rowNumber, successCount);
                 }
             }
+        } finally {
+            successCount += savePendingUsers(pendingUsers, 0, failedIdentifiers, listener);
         }
+        listener.onCheckpoint(rowNumber, successCount);
         return new DataImportResultDTO(successCount, failedIdentifiers.size(), failedIdentifiers, "User import process completed.");
     }
 
     @Override
     public DataImportResultDTO importTransactionsFromCsv(MultipartFile file) throws Exception {
+        return importTransactionsFromCsv(file, ImportProgressListener.NONE);
+    }
+
+    /**
+     * Rows are issued in batches of at most one chunk, each committed together with the checkpoint that follows it,
+     * so that a resumed job never issues a row twice. Rows naming an unknown book or user, or holding invalid dates,
+     * are skipped; they are only reported to the listener.
+     */
+    @Override
+    public DataImportResultDTO importTransactionsFromCsv(InputStreamSource source, ImportProgressListener listener) throws Exception {
+        int successCount = 0;
+        List<String> failedIdentifiers = new ArrayList<>();
         List<BookIssueDTO> issueDTOs = new ArrayList<>();
-        try (Reader reader = new InputStreamReader(file.getInputStream());
+        List<Long> issueRows = new ArrayList<>();
+        CsvKeys keys = collectKeys(source, "bookAccessionNumber", "userEmployeeId");
+        Map<String, UUID> bookIds = findInChunks(keys.values().get("bookAccessionNumber"), bookRepository::findIdentifiersByAccessionNumberIn).stream()
+                .collect(Collectors.toMap(identifiers -> key(identifiers.getAccessionNumber()), BookIdentifiers::getId, (first, second) -> first));
+        Map<String, UUID> userIds = findInChunks(keys.values().get("userEmployeeId"), userRepository::findIdentifiersByEmployeeIdIn).stream()
+                .collect(Collectors.toMap(identifiers -> key(identifiers.getEmployeeId()), UserIdentifiers::getId, (first, second) -> first));
+        listener.onStart(keys.rows());
+        long rowNumber = 0;
+        try (Reader reader = new InputStreamReader(source.getInputStream());
              CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim())) {
+            CsvRecordBinder.Plan<BookIssueDTO> plan = ISSUE_BINDER.compile(csvParser.getHeaderMap());
+            int bookAccessionNumberColumn = plan.column("bookAccessionNumber");
+            int userEmployeeIdColumn = plan.column("userEmployeeId");
             for (CSVRecord csvRecord : csvParser) {
-                String bookAccessionNumber = getString(csvRecord, "bookAccessionNumber");
-                String userEmployeeId = getString(csvRecord, "userEmployeeId");
-                if (bookAccessionNumber == null || userEmployeeId == null) {
+                if (rowNumber < listener.resumeAfter()) {
+                    rowNumber++;
                     continue;
                 }
-                Book book = bookRepository.findByAccessionNumber(bookAccessionNumber).orElse(null);
-                User user = userRepository.findByEmployeeId(userEmployeeId).orElse(null);
+                if (listener.isCancelled()) {
+                    break;
+                }
+                rowNumber++;
+                String bookAccessionNumber = CsvRecordBinder.value(csvRecord, bookAccessionNumberColumn);
+                String userEmployeeId = CsvRecordBinder.value(csvRecord, userEmployeeIdColumn);
+                UUID bookId = bookAccessionNumber != null ? bookIds.get(key(bookAccessionNumber)) : null;
+                UUID userId = userEmployeeId != null ? userIds.get(key(userEmployeeId)) : null;
 
-                if (book != null && user != null) {
+                if (bookId != null && userId != null) {
                     BookIssueDTO issueDTO = new BookIssueDTO();
-                    issueDTO.setBookId(book.getId());
-                    issueDTO.setUserId(user.getId());
-                    issueDTO.setDueDate(getLocalDate(csvRecord, "dueDate"));
-                    issueDTO.setIssueDate(getLocalDate(csvRecord, "issueDate"));
-                    issueDTO.setTransactionNotes(getString(csvRecord, "transactionNotes"));
-                    issueDTOs.add(issueDTO);
+                    issueDTO.setBookId(bookId);
+                    issueDTO.setUserId(userId);
+                    List<CsvRecordBinder.FieldError> errors = plan.bind(csvRecord, issueDTO);
+                    if (errors.isEmpty()) {
+                        issueDTOs.add(issueDTO);
+                        issueRows.add(rowNumber);
+                    } else {
+                        listener.onRowFailed(rowNumber, bookAccessionNumber, describe(errors));
+                    }
+                } else {
+                    listener.onRowFailed(rowNumber, bookAccessionNumber,
+                            bookId == null ? "Unknown book accession number" : "Unknown user employee ID");
+                }
+                if (rowNumber % listener.checkpointInterval() == 0 || issueDTOs.size() >= chunkSize) {
+                    successCount = issueBooks(issueDTOs, issueRows, rowNumber, successCount, failedIdentifiers, listener);
+                }
+            }
+        }
+        successCount = issueBooks(issueDTOs, issueRows, rowNumber, successCount, failedIdentifiers, listener);
+        return new DataImportResultDTO(successCount, failedIdentifiers.size(), failedIdentifiers,
+                "Transaction import process completed.");
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    /**
+     * Reads the file once, counting its rows and collecting the distinct non-empty values of the given
+     * columns, so that the rows can then be matched against the database with a few bulk queries
+     * instead of one per row.
+     */
+    private CsvKeys collectKeys(InputStreamSource source, String... columns) throws Exception {
+        Map<String, Set<String>> keys = new HashMap<>();
+        for (String column : columns) {
+            keys.put(column, new HashSet<>());
+        }
+        long rows = 0;
+        try (Reader reader = new InputStreamReader(source.getInputStream());
+             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim())) {
+            int[] indexes = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                indexes[i] = csvParser.getHeaderMap().getOrDefault(columns[i], -1);
+            }
+            for (CSVRecord csvRecord : csvParser) {
+                rows++;
+                for (int i = 0; i < columns.length; i++) {
+                    String value = CsvRecordBinder.value(csvRecord, indexes[i]);
+                    if (value != null) {
+                        keys.get(columns[i]).add(value);
+                    }
+                }
+            }
+        }
+        return new CsvKeys(rows, keys);
+    }
+
+    /**
+     * The form under which accession numbers and employee IDs are matched. The database compares them with a
+     * case-insensitive collation that ignores trailing spaces, so the lookups here must too: otherwise a row
+     * differing only in case from a stored one passes the duplicate check and then fails on the unique key,
+     * or a transaction row misses the book the database returned for it.
+     */
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void fail(List<String> failedIdentifiers, ImportProgressListener listener, long rowNumber,
+                      String identifier, String reason) {
+        failedIdentifiers.add(identifier);
+        listener.onRowFailed(rowNumber, identifier, reason);
+    }
+
+    private static String describe(List<CsvRecordBinder.FieldError> errors) {
+        return errors.stream().map(CsvRecordBinder.FieldError::toString).collect(Collectors.joining("; "));
+    }
+
+    private void publishImportedBooks(List<Book> importedBooks) {
+        if (!importedBooks.isEmpty()) {
+            eventPublisher.publishEvent(new BooksChangedEvent(List.copyOf(importedBooks)));
+            importedBooks.clear();
+        }
+    }
+
+    /**
+     * Issues and clears a batch of transaction rows, then checkpoints at {@code rowNumber}. Both happen in one
+     * database transaction: a job interrupted in between resumes after the previous checkpoint with none of
+     * the batch issued, instead of issuing it again. Failures reported by the bulk issue are matched back to
+     * their rows by book ID; if the batch cannot be committed, all of its rows are reported as failed.
+     *
+     * @return the number of rows issued by this run so far
+     */
+    private int issueBooks(List<BookIssueDTO> issueDTOs, List<Long> issueRows, long rowNumber, int successCount,
+                           List<String> failedIdentifiers, ImportProgressListener listener) {
+        List<String> batchFailures = new ArrayList<>();
+        int issued;
+        try {
+            Integer result = new TransactionTemplate(transactionManager).execute(status -> {
+                int batchIssued = 0;
+                if (!issueDTOs.isEmpty()) {
+                    DataImportResultDTO batch = bookTransactionService.issueBooksInCurrentTransaction(issueDTOs, true);
+                    reportFailedRows(batch.getFailedRecordIdentifiers(), issueDTOs, issueRows, batchFailures, listener);
+                    batchIssued = batch.getSuccessfulImports();
+                }
+                listener.onCheckpoint(rowNumber, successCount + batchIssued);
+                return batchIssued;
+            });
+            issued = result != null ? result : 0;
+        } catch (Exception e) {
+            log.error("Failed to issue {} imported rows up to row {}. Reason: {}", issueDTOs.size(), rowNumber, e.getMessage());
+            batchFailures.clear();
+            for (int i = 0; i < issueDTOs.size(); i++) {
+                String bookId = String.valueOf(issueDTOs.get(i).getBookId());
+                batchFailures.add(bookId);
+                listener.onRowFailed(issueRows.get(i), bookId, "Could not be issued");
+            }
+            issued = 0;
+            listener.onCheckpoint(rowNumber, successCount);
+        }
+        failedIdentifiers.addAll(batchFailures);
+        issueDTOs.clear();
+        issueRows.clear();
+        return successCount + issued;
+    }
+
+    private void reportFailedRows(List<String> failedBookIds, List<BookIssueDTO> issueDTOs, List<Long> issueRows,
+                                  List<String> failedIdentifiers, ImportProgressListener listener) {
+        boolean[] reported = new boolean[issueDTOs.size()];
+        for (String bookId : failedBookIds) {
+            failedIdentifiers.add(bookId);
+            for (int i = 0; i < issueDTOs.size(); i++) {
+                if (!reported[i] && bookId.equals(String.valueOf(issueDTOs.get(i).getBookId()))) {
+                    reported[i] = true;
+                    listener.onRowFailed(issueRows.get(i), bookId, "Could not be issued");
+                    break;
                 }
             }
         }
-        return bookTransactionService.issueBooks(issueDTOs, true);
+    }
+
+    /**
+     * Hashes a password from the file, or takes it as it is if it is a {@code {bcrypt}}-prefixed hash and
+     * the caller trusts the file to carry hashes.
+     */
+    private CompletableFuture<String> encodePassword(String password, boolean acceptPreHashedPasswords) {
+        if (acceptPreHashedPasswords && password != null && password.startsWith(BCRYPT_PREFIX)) {
+            String hash = password.substring(BCRYPT_PREFIX.length());
+            if (!BCRYPT_HASH.matcher(hash).matches()) {
+                throw new IllegalArgumentException("Malformed bcrypt hash");
+            }
+            return CompletableFuture.completedFuture(hash);
+        }
+        return passwordHasher.hash(password);
+    }
+
+    /**
+     * Saves users from the head of the queue, waiting for their hashes, until at most {@code keep} remain.
+     *
+     * @return the number of users saved
+     */
+    private int savePendingUsers(Deque<PendingUser> pendingUsers, int keep, List<String> failedIdentifiers,
+                                 ImportProgressListener listener) {
+        int saved = 0;
+        while (pendingUsers.size() > keep) {
+            PendingUser pending = pendingUsers.poll();
+            try {
+                pending.user().setPassword(pending.password().join());
+                userRepository.save(pending.user());
+                userCache.evict(pending.user().getEmployeeId());
+                saved++;
+            } catch (Exception e) {
+                fail(failedIdentifiers, listener, pending.rowNumber(), pending.user().getEmployeeId(), e.getMessage());
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Runs an {@code IN} query over a set of keys, at most {@value #LOOKUP_CHUNK_SIZE} keys at a time.
+     */
+    private static <T> List<T> findInChunks(Set<String> keys, Function<Collection<String>, List<T>> query) {
+        List<T> rows = new ArrayList<>();
+        List<String> remaining = new ArrayList<>(keys);
+        for (int from = 0; from < remaining.size(); from += LOOKUP_CHUNK_SIZE) {
+            rows.addAll(query.apply(remaining.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, remaining.size()))));
+        }
+        return rows;
+    }
+
+    private record CsvKeys(long rows, Map<String, Set<String>> values) {
+    }
+
+    private record PendingUser(long rowNumber, User user, CompletableFuture<String> password) {
     }
 }
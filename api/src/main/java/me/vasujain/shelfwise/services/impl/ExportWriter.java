@@ -0,0 +1,29 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the rows of an export in one format as they are read, keeping no more than a buffer in memory.
+ */
+interface ExportWriter {
+
+    void writeHeader(String[] headers) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * Writes whatever the format needs after the last row and flushes, leaving the stream open.
+     */
+    void finish() throws IOException;
+
+    static ExportWriter create(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvExportWriter(out);
+            case NDJSON -> new NdjsonExportWriter(out);
+            case XLSX -> new XlsxExportWriter(out);
+        };
+    }
+}
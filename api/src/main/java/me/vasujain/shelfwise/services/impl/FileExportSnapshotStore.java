@@ -0,0 +1,252 @@
+package me.vasujain.shelfwise.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.enums.ExportType;
+import me.vasujain.shelfwise.services.DataExportService;
+import me.vasujain.shelfwise.services.ExportSnapshotStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link ExportSnapshotStore} keeping the snapshots as {@code <type>-<epoch millis>.csv} files in one
+ * directory. Reference counts are only changed under the store's lock, so that a snapshot cannot be
+ * deleted between being looked up and being acquired.
+ */
+@Service
+@Slf4j
+public class FileExportSnapshotStore implements ExportSnapshotStore {
+
+    private static final String SUFFIX = ".csv";
+
+    private final DataExportService dataExportService;
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration retention;
+    private final Map<ExportType, StoredSnapshot> current = new EnumMap<>(ExportType.class);
+    private final Set<StoredSnapshot> retired = new HashSet<>();
+
+    public FileExportSnapshotStore(DataExportService dataExportService,
+                                   @Value("${app.export.snapshots.enabled:false}") boolean enabled,
+                                   @Value("${app.export.snapshots.dir:export-snapshots}") String directory,
+                                   @Value("${app.export.snapshots.retention:6h}") Duration retention) {
+        this.dataExportService = dataExportService;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.retention = retention;
+    }
+
+    @Override
+    public synchronized Optional<Snapshot> acquire(ExportType type) {
+        StoredSnapshot snapshot = current.get(type);
+        if (!enabled || snapshot == null) {
+            return Optional.empty();
+        }
+        snapshot.references++;
+        return Optional.of(new Reference(snapshot));
+    }
+
+    @Override
+    public void refresh(ExportType type) throws IOException {
+        Files.createDirectories(directory);
+        Instant createdAt = Instant.now();
+        Path target = directory.resolve(type.name().toLowerCase() + "-" + createdAt.toEpochMilli() + SUFFIX);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                dataExportService.exportToCsv(type, out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        replace(type, new StoredSnapshot(target, createdAt, Files.size(target)));
+        log.info("Export snapshot of {} written to {}", type, target);
+    }
+
+    @Override
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        for (ExportType type : ExportType.values()) {
+            try {
+                Optional<Path> latest = latestFile(type);
+                if (latest.isPresent()) {
+                    Path file = latest.get();
+                    replace(type, new StoredSnapshot(file, Files.getLastModifiedTime(file).toInstant(), Files.size(file)));
+                    log.info("Using export snapshot {}", file);
+                } else {
+                    refresh(type);
+                }
+            } catch (IOException e) {
+                log.error("Failed to load the export snapshot of {}: {}", type, e.getMessage(), e);
+            }
+        }
+        cleanup();
+    }
+
+    @Scheduled(cron = "${app.export.snapshots.cron:0 0 2 * * *}")
+    public void refreshAll() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Refreshing export snapshots...");
+        for (ExportType type : ExportType.values()) {
+            try {
+                refresh(type);
+            } catch (Exception e) {
+                log.error("Failed to refresh the export snapshot of {}: {}", type, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Deletes replaced snapshots that are no longer read or have outlived their retention period, and
+     * files of this store's directory that belong to no snapshot, such as those of an interrupted refresh.
+     */
+    @Scheduled(fixedRate = 1, timeUnit = TimeUnit.HOURS)
+    public void cleanup() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Instant expiry = Instant.now().minus(retention);
+        Set<Path> kept = new HashSet<>();
+        synchronized (this) {
+            for (Iterator<StoredSnapshot> iterator = retired.iterator(); iterator.hasNext(); ) {
+                StoredSnapshot snapshot = iterator.next();
+                if (snapshot.references == 0 || snapshot.retiredAt.isBefore(expiry)) {
+                    iterator.remove();
+                    delete(snapshot.file);
+                } else {
+                    kept.add(snapshot.file);
+                }
+            }
+            current.values().forEach(snapshot -> kept.add(snapshot.file));
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!kept.contains(file) && Files.getLastModifiedTime(file).toInstant().isBefore(expiry)) {
+                    delete(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up export snapshots in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private synchronized void replace(ExportType type, StoredSnapshot snapshot) {
+        StoredSnapshot previous = current.put(type, snapshot);
+        if (previous != null) {
+            previous.retiredAt = Instant.now();
+            if (previous.references == 0) {
+                delete(previous.file);
+            } else {
+                retired.add(previous);
+            }
+        }
+    }
+
+    private synchronized void release(StoredSnapshot snapshot) {
+        snapshot.references--;
+        if (snapshot.references == 0 && retired.remove(snapshot)) {
+            delete(snapshot.file);
+        }
+    }
+
+    private Optional<Path> latestFile(ExportType type) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        Path latest = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, type.name().toLowerCase() + "-*" + SUFFIX)) {
+            for (Path file : files) {
+                if (latest == null || Files.getLastModifiedTime(file).compareTo(Files.getLastModifiedTime(latest)) > 0) {
+                    latest = file;
+                }
+            }
+        }
+        return Optional.ofNullable(latest);
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class StoredSnapshot {
+
+        private final Path file;
+        private final Instant createdAt;
+        private final long size;
+        private int references;
+        private Instant retiredAt;
+
+        private StoredSnapshot(Path file, Instant createdAt, long size) {
+            this.file = file;
+            this.createdAt = createdAt;
+            this.size = size;
+        }
+    }
+
+    /**
+     * One reference to a snapshot, released at most once.
+     */
+    private final class Reference implements Snapshot {
+
+        private final StoredSnapshot snapshot;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Reference(StoredSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public Path file() {
+            return snapshot.file;
+        }
+
+        @Override
+        public Instant createdAt() {
+            return snapshot.createdAt;
+        }
+
+        @Override
+        public long size() {
+            return snapshot.size;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(snapshot);
+            }
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package me.vasujain.shelfwise.services.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.dtos.ImportJobDTO;
+import me.vasujain.shelfwise.dtos.ImportJobErrorDTO;
+import me.vasujain.shelfwise.enums.ImportJobStatus;
+import me.vasujain.shelfwise.enums.ImportJobType;
+import me.vasujain.shelfwise.exceptions.ResourceNotFoundException;
+import me.vasujain.shelfwise.mapper.ImportJobMapper;
+import me.vasujain.shelfwise.models.ImportJob;
+import me.vasujain.shelfwise.models.ImportJobError;
+import me.vasujain.shelfwise.repositories.ImportJobErrorRepository;
+import me.vasujain.shelfwise.repositories.ImportJobRepository;
+import me.vasujain.shelfwise.services.DataImportService;
+import me.vasujain.shelfwise.services.ImportJobService;
+import me.vasujain.shelfwise.services.ImportProgressListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ImportJobService} running jobs on a fixed pool of worker threads. Uploaded files are kept in
+ * the job directory until their job finishes, and each job saves its counters and failed rows every
+ * checkpoint interval, so that it can pick up after the last checkpoint when the application restarts.
+ * Jobs are resumed by the instance that starts up, so the application is expected to run as a single
+ * instance.
+ */
+@Service
+@Slf4j
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private static final List<ImportJobStatus> UNFINISHED = List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING);
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final ImportJobMapper importJobMapper;
+    private final DataImportService dataImportService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path jobDirectory;
+    private final int maxPendingJobs;
+    private final int checkpointInterval;
+    private final ThreadPoolExecutor executor;
+    private final Set<UUID> cancelledJobs = ConcurrentHashMap.newKeySet();
+    private volatile boolean shuttingDown;
+
+    public ImportJobServiceImpl(ImportJobRepository importJobRepository,
+                                ImportJobErrorRepository importJobErrorRepository,
+                                ImportJobMapper importJobMapper,
+                                DataImportService dataImportService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.import.jobs.dir:import-jobs}") String jobDirectory,
+                                @Value("${app.import.jobs.workers:2}") int workers,
+                                @Value("${app.import.jobs.max-pending:10}") int maxPendingJobs,
+                                @Value("${app.import.jobs.checkpoint-interval:1000}") int checkpointInterval) {
+        this.importJobRepository = importJobRepository;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.importJobMapper = importJobMapper;
+        this.dataImportService = dataImportService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobDirectory = Paths.get(jobDirectory);
+        this.maxPendingJobs = maxPendingJobs;
+        this.checkpointInterval = checkpointInterval;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "import-job-" + threadNumber.incrementAndGet()));
+    }
+
+    @Override
+    public ImportJobDTO submitJob(ImportJobType jobType, MultipartFile file, boolean acceptPreHashedPasswords) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("The uploaded file is empty");
+        }
+        if (importJobRepository.countByStatusIn(UNFINISHED) >= maxPendingJobs) {
+            throw new IllegalStateException("Too many import jobs are waiting or running, try again later");
+        }
+
+        Files.createDirectories(jobDirectory);
+        Path storedFile = jobDirectory.resolve(UUID.randomUUID() + ".csv").toAbsolutePath();
+        file.transferTo(storedFile);
+
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .jobType(jobType)
+                .status(ImportJobStatus.QUEUED)
+                .fileName(file.getOriginalFilename())
+                .storedFile(storedFile.toString())
+                .acceptPreHashedPasswords(acceptPreHashedPasswords)
+                .submittedBy(SecurityContextHolder.getContext().getAuthentication().getName())
+                .build());
+        log.info("Queued {} import job {} for file {}", jobType, job.getId(), file.getOriginalFilename());
+        schedule(job.getId());
+        return importJobMapper.toDto(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ImportJobDTO getJob(UUID jobId) {
+        return importJobMapper.toDto(findJob(jobId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ImportJobDTO> getJobs(Pageable pageable) {
+        return importJobRepository.findAll(pageable).map(importJobMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ImportJobErrorDTO> getJobErrors(UUID jobId, Pageable pageable) {
+        findJob(jobId);
+        Pageable byRow = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("rowNumber"));
+        return importJobErrorRepository.findByJobId(jobId, byRow).map(importJobMapper::toErrorDto);
+    }
+
+    @Override
+    @Transactional
+    public ImportJobDTO cancelJob(UUID jobId) {
+        ImportJob job = importJobRepository.findForUpdateById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with ID: " + jobId));
+        if (!UNFINISHED.contains(job.getStatus())) {
+            throw new IllegalStateException("Import job has already finished: " + jobId);
+        }
+        job.setCancelRequested(true);
+        if (job.getStatus() == ImportJobStatus.QUEUED) {
+            finish(job, ImportJobStatus.CANCELLED, "Cancelled before it started");
+        } else {
+            cancelledJobs.add(jobId);
+        }
+        log.info("Cancellation requested for import job {}", jobId);
+        return importJobMapper.toDto(job);
+    }
+
+    @Override
+    public void resumeInterruptedJobs() {
+        List<ImportJob> jobs = importJobRepository.findByStatusInOrderByCreatedAtAsc(UNFINISHED);
+        for (ImportJob job : jobs) {
+            log.info("Resuming {} import job {} after row {}", job.getJobType(), job.getId(), job.getProcessedRows());
+            schedule(job.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Running jobs stop at their next row and stay RUNNING, to be resumed on the next startup
+        shuttingDown = true;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private ImportJob findJob(UUID jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with ID: " + jobId));
+    }
+
+    private void schedule(UUID jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    private void run(UUID jobId) {
+        if (shuttingDown) {
+            return;
+        }
+        ImportJob job = transactionTemplate.execute(status -> start(jobId));
+        if (job == null) {
+            return;
+        }
+
+        JobProgress progress = new JobProgress(job);
+        FileSystemResource source = new FileSystemResource(job.getStoredFile());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(job.getSubmittedBy(), null, List.of()));
+        try {
+            switch (job.getJobType()) {
+                case BOOKS -> dataImportService.importBooksFromCsv(source, progress);
+                case USERS -> dataImportService.importUsersFromCsv(source, job.getAcceptPreHashedPasswords(), progress);
+                case TRANSACTIONS -> dataImportService.importTransactionsFromCsv(source, progress);
+            }
+            if (shuttingDown) {
+                log.info("Import job {} interrupted by shutdown, it will resume after row {}", jobId, progress.processedRows);
+                return;
+            }
+            boolean cancelled = progress.isCancelled();
+            progress.complete(cancelled ? ImportJobStatus.CANCELLED : ImportJobStatus.COMPLETED,
+                    cancelled ? "Cancelled after row " + progress.processedRows : "Import completed");
+            log.info("Import job {} {}", jobId, cancelled ? "cancelled" : "completed");
+        } catch (Exception e) {
+            if (shuttingDown) {
+                log.warn("Import job {} interrupted by shutdown: {}", jobId, e.getMessage());
+                return;
+            }
+            log.error("Import job {} failed: {}", jobId, e.getMessage(), e);
+            progress.complete(ImportJobStatus.FAILED, e.getMessage());
+        } finally {
+            SecurityContextHolder.clearContext();
+            cancelledJobs.remove(jobId);
+        }
+    }
+
+    /**
+     * Marks a job as running, or returns null if it has finished or been cancelled in the meantime.
+     */
+    private ImportJob start(UUID jobId) {
+        ImportJob job = importJobRepository.findForUpdateById(jobId).orElse(null);
+        if (job == null || !UNFINISHED.contains(job.getStatus())) {
+            return null;
+        }
+        if (job.getCancelRequested()) {
+            finish(job, ImportJobStatus.CANCELLED, "Cancelled before it started");
+            return null;
+        }
+        job.setStatus(ImportJobStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        return job;
+    }
+
+    private void finish(ImportJob job, ImportJobStatus status, String message) {
+        job.setStatus(status);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setMessage(truncate(message));
+        try {
+            Files.deleteIfExists(Paths.get(job.getStoredFile()));
+        } catch (IOException e) {
+            log.warn("Could not delete the file of import job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private static String truncate(String text) {
+        return text != null && text.length() > MAX_MESSAGE_LENGTH ? text.substring(0, MAX_MESSAGE_LENGTH) : text;
+    }
+
+    /**
+     * Records the progress of one run of a job. Failed rows are kept in memory until the next checkpoint,
+     * which saves them together with the counters.
+     */
+    private final class JobProgress implements ImportProgressListener {
+
+        private final UUID jobId;
+        private final long resumeAfter;
+        private final long previouslySuccessful;
+        private final List<ImportJobError> errors = new ArrayList<>();
+        private volatile long processedRows;
+
+        private JobProgress(ImportJob job) {
+            this.jobId = job.getId();
+            this.resumeAfter = job.getProcessedRows();
+            this.previouslySuccessful = job.getSuccessfulRows();
+            this.processedRows = job.getProcessedRows();
+        }
+
+        @Override
+        public long resumeAfter() {
+            return resumeAfter;
+        }
+
+        @Override
+        public int checkpointInterval() {
+            return checkpointInterval;
+        }
+
+        @Override
+        public void onStart(long totalRows) {
+            transactionTemplate.executeWithoutResult(status -> lockJob().setTotalRows(totalRows));
+        }
+
+        @Override
+        public void onRowFailed(long rowNumber, String identifier, String reason) {
+            errors.add(ImportJobError.builder()
+                    .rowNumber(rowNumber)
+                    .identifier(identifier)
+                    .reason(truncate(reason))
+                    .build());
+        }
+
+        @Override
+        public void onCheckpoint(long processedRows, int successfulRows) {
+            transactionTemplate.executeWithoutResult(status -> {
+                ImportJob job = lockJob();
+                saveErrors(job);
+                job.setProcessedRows(processedRows);
+                job.setSuccessfulRows(previouslySuccessful + successfulRows);
+                if (job.getCancelRequested()) {
+                    cancelledJobs.add(jobId);
+                }
+            });
+            this.processedRows = processedRows;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return shuttingDown || cancelledJobs.contains(jobId);
+        }
+
+        private void complete(ImportJobStatus status, String message) {
+            transactionTemplate.executeWithoutResult(transactionStatus -> {
+                ImportJob job = lockJob();
+                saveErrors(job);
+                finish(job, status, message);
+            });
+        }
+
+        private ImportJob lockJob() {
+            return importJobRepository.findForUpdateById(jobId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Import job not found with ID: " + jobId));
+        }
+
+        private void saveErrors(ImportJob job) {
+            errors.forEach(error -> error.setJob(job));
+            importJobErrorRepository.saveAll(errors);
+            job.setFailedRows(job.getFailedRows() + errors.size());
+            errors.clear();
+        }
+    }
+}
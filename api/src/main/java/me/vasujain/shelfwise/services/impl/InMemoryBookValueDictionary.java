@@ -0,0 +1,209 @@
+package me.vasujain.shelfwise.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.dtos.BookValueCountDTO;
+import me.vasujain.shelfwise.enums.BookValueField;
+import me.vasujain.shelfwise.events.BooksChangedEvent;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.projections.BookValueFields;
+import me.vasujain.shelfwise.services.BookValueDictionary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link BookValueDictionary} holding one sorted map of distinct values per {@link BookValueField}.
+ *
+ * <p>Values are compared ignoring case and surrounding whitespace, like the database collation
+ * does, and keep the spelling they were first seen with. Each value carries the number of books
+ * using it and disappears when that drops to zero. The dictionaries are loaded at startup and kept
+ * current through {@link BooksChangedEvent}s, so dropdowns never sort the books table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryBookValueDictionary implements BookValueDictionary {
+
+    private final BookRepository bookRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<BookValueField, Dictionary> dictionaries = newDictionaries();
+    private final Map<UUID, String[]> valuesByBook = new HashMap<>();
+
+    @Override
+    public List<String> values(BookValueField field) {
+        lock.readLock().lock();
+        try {
+            return dictionaries.get(field).values();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<BookValueCountDTO> values(BookValueField field, String prefix, Pageable pageable) {
+        String key = normalize(prefix);
+        List<BookValueCountDTO> content = new ArrayList<>(pageable.getPageSize());
+        int total;
+        lock.readLock().lock();
+        try {
+            NavigableMap<String, Entry> matches = key.isEmpty()
+                    ? dictionaries.get(field).entries
+                    : dictionaries.get(field).entries.subMap(key, true, key + Character.MAX_VALUE, false);
+            total = matches.size();
+            Iterator<Entry> iterator = matches.values().iterator();
+            for (long skipped = 0; skipped < pageable.getOffset() && iterator.hasNext(); skipped++) {
+                iterator.next();
+            }
+            while (iterator.hasNext() && content.size() < pageable.getPageSize()) {
+                Entry entry = iterator.next();
+                content.add(new BookValueCountDTO(entry.display, entry.count));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public void index(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                put(book.getId(), book.getPublisher(), book.getAuthorPrimary(), book.getVendorName(), book.getLanguage());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load() {
+        List<BookValueFields> rows = bookRepository.findValueFieldsBy();
+        lock.writeLock().lock();
+        try {
+            for (BookValueFields row : rows) {
+                put(row.getId(), row.getPublisher(), row.getAuthorPrimary(), row.getVendorName(), row.getLanguage());
+            }
+            log.info("Book value dictionaries loaded: {} publishers, {} authors, {} vendors, {} languages",
+                    dictionaries.get(BookValueField.PUBLISHER).entries.size(),
+                    dictionaries.get(BookValueField.AUTHOR).entries.size(),
+                    dictionaries.get(BookValueField.VENDOR).entries.size(),
+                    dictionaries.get(BookValueField.LANGUAGE).entries.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        index(event.getBooks());
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    /**
+     * Moves a book's count from its previous values to its current ones. Must be called with the write lock held.
+     */
+    private void put(UUID id, String publisher, String author, String vendor, String language) {
+        String[] values = new String[BookValueField.values().length];
+        values[BookValueField.PUBLISHER.ordinal()] = publisher;
+        values[BookValueField.AUTHOR.ordinal()] = author;
+        values[BookValueField.VENDOR.ordinal()] = vendor;
+        values[BookValueField.LANGUAGE.ordinal()] = language;
+
+        String[] previous = valuesByBook.put(id, values);
+        for (BookValueField field : BookValueField.values()) {
+            String before = previous == null ? null : previous[field.ordinal()];
+            String after = values[field.ordinal()];
+            if (!Objects.equals(normalize(before), normalize(after))) {
+                dictionaries.get(field).remove(before);
+                dictionaries.get(field).add(after);
+            }
+        }
+    }
+
+    private static Map<BookValueField, Dictionary> newDictionaries() {
+        Map<BookValueField, Dictionary> dictionaries = new EnumMap<>(BookValueField.class);
+        for (BookValueField field : BookValueField.values()) {
+            dictionaries.put(field, new Dictionary());
+        }
+        return dictionaries;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A distinct value and the number of books carrying it.
+     */
+    private static final class Entry {
+        private final String display;
+        private int count;
+
+        private Entry(String display) {
+            this.display = display;
+        }
+    }
+
+    private static final class Dictionary {
+
+        private final NavigableMap<String, Entry> entries = new TreeMap<>();
+        // Full value list handed out to dropdowns, rebuilt by the first reader after a value is added or removed
+        private volatile List<String> snapshot;
+
+        List<String> values() {
+            List<String> values = snapshot;
+            if (values == null) {
+                values = entries.values().stream().map(entry -> entry.display).toList();
+                snapshot = values;
+            }
+            return values;
+        }
+
+        void add(String value) {
+            if (!StringUtils.hasText(value)) {
+                return;
+            }
+            Entry entry = entries.computeIfAbsent(normalize(value), key -> new Entry(value.trim()));
+            if (entry.count++ == 0) {
+                snapshot = null;
+            }
+        }
+
+        void remove(String value) {
+            String key = normalize(value);
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            if (--entry.count <= 0) {
+                entries.remove(key);
+                snapshot = null;
+            }
+        }
+    }
+}
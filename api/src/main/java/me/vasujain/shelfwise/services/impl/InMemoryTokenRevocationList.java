@@ -0,0 +1,76 @@
+package me.vasujain.shelfwise.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.services.JwtService;
+import me.vasujain.shelfwise.services.TokenRevocationList;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Keeps revocations in memory, so checking a token costs no query. Revocations are not shared
+ * between instances of the application: when it runs on more than one, principals should be loaded
+ * from the database instead ({@code app.security.stateless-principal: false}).
+ *
+ * <p>Revocations of a user are compared with the issue times of tokens to the millisecond, so a token
+ * issued right after a revocation, as by logging in again, is honoured.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryTokenRevocationList implements TokenRevocationList {
+
+    private final JwtService jwtService;
+
+    @Value("${jwt.access-token.expiration:3600}")
+    private long accessTokenExpiration;
+
+    /** Employee ID to the epoch millisecond before which the user's tokens are revoked. */
+    private Cache<String, Long> revokedUsers;
+
+    /** IDs of revoked tokens. */
+    private Cache<String, Boolean> revokedTokens;
+
+    @PostConstruct
+    public void init() {
+        Duration lifetime = Duration.ofSeconds(accessTokenExpiration);
+        revokedUsers = Caffeine.newBuilder().expireAfterWrite(lifetime).build();
+        revokedTokens = Caffeine.newBuilder().expireAfterWrite(lifetime).build();
+    }
+
+    @Override
+    public void revokeUser(String employeeId) {
+        log.info("Revoking the access tokens issued to user {}", employeeId);
+        revokedUsers.put(employeeId, Instant.now().toEpochMilli());
+    }
+
+    @Override
+    public void revokeToken(Claims claims) {
+        if (claims.getId() != null) {
+            revokedTokens.put(claims.getId(), Boolean.TRUE);
+        } else {
+            // Tokens issued before they carried an ID can only be revoked with the rest of the user's
+            revokeUser(claims.getSubject());
+        }
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        if (claims.getId() != null && revokedTokens.getIfPresent(claims.getId()) != null) {
+            return true;
+        }
+        Long revokedBefore = revokedUsers.getIfPresent(claims.getSubject());
+        if (revokedBefore == null) {
+            return false;
+        }
+        Instant issuedAt = jwtService.readIssuedAt(claims);
+        return issuedAt == null || issuedAt.toEpochMilli() < revokedBefore;
+    }
+}
@@ -2,26 +2,55 @@ package me.vasujain.shelfwise.services.impl;
 
 
 import me.vasujain.shelfwise.services.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.enums.UserStatus;
 import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.models.UserPrincipal;
+import me.vasujain.shelfwise.util.TokenDigests;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * The signing key and parser are built once. Tokens that passed verification are cached by the SHA-256
+ * digest of the token until they expire, so a request carrying a token seen before costs a hash and a
+ * lookup instead of a parse and an HMAC check. Hits and misses are published as {@code cache.gets} for
+ * the {@code jwt.verified-tokens} cache.
+ */
 @Service
 public class JwtServiceImpl implements JwtService {
 
+    private static final String VERIFIED_TOKENS_CACHE = "jwt.verified-tokens";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String STATUS_CLAIM = "status";
+    private static final String TOKEN_TYPE_CLAIM = "token_type";
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+    private static final String ACCESS_TOKEN = "access";
+    private static final String REFRESH_TOKEN = "refresh";
+
     @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
     private String secretKey;
 
@@ -31,19 +60,57 @@ public class JwtServiceImpl implements JwtService {
     @Value("${jwt.refresh-token.expiration:86400}")
     private long refreshTokenExpiration;
 
+    @Value("${jwt.verified-token-cache.max-size:10000}")
+    private long verifiedTokenCacheSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, VERIFIED_TOKENS_CACHE);
+    }
+
+    public Claims verifyToken(String token) {
+        String digest = TokenDigests.sha256(token);
+        Claims claims = verifiedTokens.get(digest, key -> extractAllClaims(token));
+        if (claims.getExpiration() != null && claims.getExpiration().before(new Date())) {
+            // Expired entries are evicted lazily; parsing again raises the ExpiredJwtException
+            verifiedTokens.invalidate(digest);
+            return extractAllClaims(token);
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
 
     public String generateAccessToken(UserDetails userDetails) {
         Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN);
         if (userDetails instanceof User user) {
-            extraClaims.put("role", user.getUserRole().name());
+            extraClaims.put(USER_ID_CLAIM, user.getId().toString());
+            extraClaims.put(ROLE_CLAIM, user.getUserRole().name());
+            extraClaims.put(STATUS_CLAIM, user.getUserStatus().name());
             extraClaims.put("fullName", user.getFullName());
             extraClaims.put("email", user.getEmail());
         }
@@ -51,7 +118,9 @@ public class JwtServiceImpl implements JwtService {
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails, refreshTokenExpiration * 1000);
+        Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN);
+        return generateToken(extraClaims, userDetails, refreshTokenExpiration * 1000);
     }
 
     public String generateToken(
@@ -59,39 +128,83 @@ public class JwtServiceImpl implements JwtService {
             UserDetails userDetails,
             long expiration
     ) {
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verifyToken(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (userDetails.getUsername().equals(username)) && !isTokenExpired(claims);
+    }
+
+    public boolean isAccessToken(Claims claims) {
+        return ACCESS_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Instant readIssuedAt(Claims claims) {
+        Long millis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (millis != null) {
+            return Instant.ofEpochMilli(millis);
+        }
+        return claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+    }
+
+    public UserPrincipal readPrincipal(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        String status = claims.get(STATUS_CLAIM, String.class);
+        if (userId == null || role == null || status == null) {
+            return null;
+        }
+        return new UserPrincipal(UUID.fromString(userId), claims.getSubject(),
+                UserRole.valueOf(role), UserStatus.valueOf(status));
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) getSignInKey())  // This replaces the deprecated setSigningKey
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)     // This replaces the deprecated parseClaimsJws
                 .getPayload();                // This replaces the deprecated getBody
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Keeps a verified token until the expiration time it carries.
+     */
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return Long.MAX_VALUE;
+            }
+            Duration remaining = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+            return remaining.isNegative() ? 0 : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
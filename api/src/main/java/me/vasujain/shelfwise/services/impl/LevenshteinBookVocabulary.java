@@ -0,0 +1,280 @@
+package me.vasujain.shelfwise.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.events.BooksChangedEvent;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.projections.BookSuggestionFields;
+import me.vasujain.shelfwise.services.BookVocabulary;
+import org.apache.lucene.analysis.Analyzer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link BookVocabulary} backed by a trie of the words in book titles and primary authors, searched
+ * with a Levenshtein distance row per trie node.
+ *
+ * <p>Words sharing a prefix share the distance computation for it, and a whole subtree is skipped as
+ * soon as no cell of its row is within the edit budget, which for most query terms happens two or
+ * three characters down. A transposition of adjacent characters counts as a single edit. Each word
+ * carries the number of books using it and is no longer returned once that drops to zero. The trie
+ * is loaded at startup and updated through {@link BooksChangedEvent}s.
+ *
+ * <p>A search visits at most {@code app.search.fuzzy.max-visited-nodes} trie nodes, so a long term
+ * against a dense vocabulary cannot hold up a query, and keeps only the closest, most used words.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LevenshteinBookVocabulary implements BookVocabulary {
+
+    private static final int MIN_LENGTH_ONE_EDIT = 4;
+    private static final int MIN_LENGTH_TWO_EDITS = 8;
+    private static final Comparator<Candidate> CLOSEST_FIRST = Comparator.comparingInt(Candidate::distance)
+            .thenComparing(Comparator.comparingInt(Candidate::count).reversed());
+
+    private final BookRepository bookRepository;
+
+    @Value("${app.search.fuzzy.max-expansions:5}")
+    private int maxExpansions;
+
+    @Value("${app.search.fuzzy.max-visited-nodes:20000}")
+    private int maxVisitedNodes;
+
+    private final Analyzer analyzer = BookTextAnalysis.createAnalyzer();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<UUID, Set<String>> wordsByBook = new HashMap<>();
+    private int wordCount;
+
+    @Override
+    public List<String> variants(String term) {
+        return expand(term).variants();
+    }
+
+    /**
+     * Finds the variants of a term, reporting how much of the trie was searched.
+     */
+    Expansion expand(String term) {
+        int maxDistance = term.length() >= MIN_LENGTH_TWO_EDITS ? 2 : term.length() >= MIN_LENGTH_ONE_EDIT ? 1 : 0;
+        if (maxDistance == 0 || maxExpansions <= 0) {
+            return new Expansion(List.of(), 0);
+        }
+
+        long start = System.nanoTime();
+        int[] firstRow = new int[term.length() + 1];
+        for (int j = 0; j < firstRow.length; j++) {
+            firstRow[j] = j;
+        }
+        Search search = new Search(term, maxDistance, maxExpansions, maxVisitedNodes);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < root.labels.length; i++) {
+                search.visit(root.children[i], root.labels[i], (char) 0, firstRow, null);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<String> variants = search.closest();
+        if (search.visited >= maxVisitedNodes) {
+            log.debug("Stopped expanding '{}' after visiting {} nodes", term, search.visited);
+        }
+        log.debug("Expanded '{}' to {} in {} µs", term, variants, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return new Expansion(variants, search.visited);
+    }
+
+    @Override
+    public void index(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                put(book.getId(), book.getTitle(), book.getAuthorPrimary());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load() {
+        List<BookSuggestionFields> rows = bookRepository.findSuggestionFieldsBy();
+        lock.writeLock().lock();
+        try {
+            for (BookSuggestionFields row : rows) {
+                put(row.getId(), row.getTitle(), row.getAuthorPrimary());
+            }
+            log.info("Book vocabulary loaded with {} words from {} books", wordCount, rows.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        index(event.getBooks());
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    /**
+     * Replaces the words counted for a book. Must be called with the write lock held.
+     */
+    private void put(UUID id, String title, String author) {
+        Set<String> words = new LinkedHashSet<>(BookTextAnalysis.terms(analyzer, title));
+        words.addAll(BookTextAnalysis.terms(analyzer, author));
+        Set<String> previous = wordsByBook.put(id, words);
+        if (previous != null) {
+            for (String word : previous) {
+                if (!words.contains(word)) {
+                    Node node = find(word);
+                    if (--node.count == 0) {
+                        wordCount--;
+                    }
+                }
+            }
+        }
+        for (String word : words) {
+            if (previous == null || !previous.contains(word)) {
+                Node node = insert(word);
+                if (node.count++ == 0) {
+                    wordCount++;
+                }
+            }
+        }
+    }
+
+    private Node find(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    private Node insert(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.childOrCreate(word.charAt(i));
+        }
+        node.word = word;
+        return node;
+    }
+
+    record Expansion(List<String> variants, int visitedNodes) {
+    }
+
+    private record Candidate(String word, int distance, int count) {
+    }
+
+    /**
+     * Walks the trie for one term within a budget of visited nodes, keeping the closest words found.
+     */
+    private static final class Search {
+        private final String term;
+        private final int maxDistance;
+        private final int limit;
+        private final int maxVisited;
+        // Worst kept candidate first, so it is the one dropped when a closer word is found
+        private final PriorityQueue<Candidate> closest;
+        private int visited;
+
+        Search(String term, int maxDistance, int limit, int maxVisited) {
+            this.term = term;
+            this.maxDistance = maxDistance;
+            this.limit = limit;
+            this.maxVisited = maxVisited;
+            this.closest = new PriorityQueue<>(limit + 1, CLOSEST_FIRST.reversed());
+        }
+
+        /**
+         * Computes the distance row of a trie node from its parent's (and grandparent's, for
+         * transpositions) and collects matching words below it.
+         */
+        void visit(Node node, char label, char parentLabel, int[] previous, int[] beforePrevious) {
+            if (visited >= maxVisited) {
+                return;
+            }
+            visited++;
+            int[] row = new int[previous.length];
+            row[0] = previous[0] + 1;
+            int rowMin = row[0];
+            for (int j = 1; j < row.length; j++) {
+                char expected = term.charAt(j - 1);
+                int distance = Math.min(previous[j - 1] + (expected == label ? 0 : 1), Math.min(previous[j], row[j - 1]) + 1);
+                if (beforePrevious != null && j > 1 && expected == parentLabel && term.charAt(j - 2) == label) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                row[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+
+            int distance = row[row.length - 1];
+            if (node.count > 0 && distance > 0 && distance <= maxDistance) {
+                closest.add(new Candidate(node.word, distance, node.count));
+                if (closest.size() > limit) {
+                    closest.poll();
+                }
+            }
+            if (rowMin <= maxDistance) {
+                for (int i = 0; i < node.labels.length; i++) {
+                    visit(node.children[i], node.labels[i], label, row, previous);
+                }
+            }
+        }
+
+        List<String> closest() {
+            return closest.stream().sorted(CLOSEST_FIRST).map(Candidate::word).toList();
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private String word;
+        private int count;
+
+        Node child(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            return position >= 0 ? children[position] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            position = -position - 1;
+            Node node = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newLabels[position] = label;
+            newChildren[position] = node;
+            System.arraycopy(labels, position, newLabels, position + 1, labels.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            labels = newLabels;
+            children = newChildren;
+            return node;
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package me.vasujain.shelfwise.services.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.events.BooksChangedEvent;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.services.BookSearchEngine;
+import me.vasujain.shelfwise.services.BookVocabulary;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link BookSearchEngine} backed by an on-disk Lucene index.
+ *
+ * <p>Documents are kept in sync through {@link BooksChangedEvent}s published by the catalog
+ * write paths, are visible to searches within about a second through a near-real-time reader,
+ * and are ranked with BM25. The index is committed periodically and on shutdown; it can always
+ * be rebuilt from the books table, which happens on startup when it was built with a different
+ * version of {@link BookTextAnalysis}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LuceneBookSearchEngine implements BookSearchEngine {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    // Text fields and their relative weight in the ranking
+    private static final Map<String, Float> TEXT_FIELDS = Map.of(
+            "title", 3.0f,
+            "subtitle", 1.5f,
+            "authorPrimary", 2.5f,
+            "authorSecondary", 1.5f,
+            "publisher", 1.0f,
+            "keywords", 1.5f,
+            "notes", 0.5f
+    );
+
+    // Book properties that can be used to order search results, mapped to their sort fields
+    private static final Map<String, SortField.Type> SORTABLE_FIELDS = Map.of(
+            "title", SortField.Type.STRING,
+            "authorPrimary", SortField.Type.STRING,
+            "publisher", SortField.Type.STRING,
+            "accessionNumber", SortField.Type.STRING,
+            "publicationYear", SortField.Type.LONG,
+            "registrationDate", SortField.Type.LONG,
+            "createdAt", SortField.Type.LONG
+    );
+
+    // Weight of a misspelling variant relative to the term that was typed
+    private static final float VARIANT_WEIGHT = 0.3f;
+
+    // Phonetic keys of the title, subtitle, primary author and keywords, matching across Devanagari and romanised spellings
+    private static final String PHONETIC_FIELD = "phonetic";
+    private static final float PHONETIC_WEIGHT = 0.2f;
+
+    // Commit user data entry recording the text analysis the index was built with
+    private static final String ANALYSIS_VERSION_KEY = "analysisVersion";
+
+    // Rebuild that last wrote a document; documents left over from an earlier one are deleted when a rebuild ends
+    private static final String GENERATION_FIELD = "generation";
+
+    private final BookRepository bookRepository;
+    private final BookVocabulary bookVocabulary;
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.index-dir:search-index}")
+    private String indexDir;
+
+    @Value("${app.search.refresh-interval-ms:1000}")
+    private long refreshIntervalMs;
+
+    private Analyzer analyzer;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    private final AtomicBoolean open = new AtomicBoolean(false);
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private volatile String generation = UUID.randomUUID().toString();
+    // Books indexed from change events while a rebuild runs, newer than what the rebuild read
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Book search index is disabled; searches will use the database.");
+            return;
+        }
+        try {
+            Path path = Paths.get(indexDir).toAbsolutePath().normalize();
+            Files.createDirectories(path);
+
+            analyzer = BookTextAnalysis.createAnalyzer();
+            Analyzer indexAnalyzer = new PerFieldAnalyzerWrapper(analyzer,
+                    Map.of(PHONETIC_FIELD, BookTextAnalysis.createPhoneticAnalyzer()));
+
+            FSDirectory directory = FSDirectory.open(path);
+            String indexedVersion = DirectoryReader.indexExists(directory)
+                    ? SegmentInfos.readLatestCommit(directory).getUserData().get(ANALYSIS_VERSION_KEY)
+                    : null;
+
+            IndexWriterConfig config = new IndexWriterConfig(indexAnalyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                    .setSimilarity(new BM25Similarity());
+            writer = new IndexWriter(directory, config);
+            if (!BookTextAnalysis.VERSION.equals(indexedVersion) && writer.getDocStats().numDocs > 0) {
+                // Terms analysed differently cannot be matched; an empty index is rebuilt on startup
+                log.info("Book search index was built with text analysis version {}, current is {}; discarding it",
+                        indexedVersion, BookTextAnalysis.VERSION);
+                writer.deleteAll();
+            }
+            writer.setLiveCommitData(Map.of(ANALYSIS_VERSION_KEY, BookTextAnalysis.VERSION).entrySet());
+
+            searcherManager = new SearcherManager(writer, new SearcherFactory() {
+                @Override
+                public IndexSearcher newSearcher(org.apache.lucene.index.IndexReader reader,
+                                                 org.apache.lucene.index.IndexReader previousReader) {
+                    IndexSearcher searcher = new IndexSearcher(reader);
+                    searcher.setSimilarity(new BM25Similarity());
+                    return searcher;
+                }
+            });
+
+            double maxStaleSec = refreshIntervalMs / 1000.0;
+            reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, maxStaleSec, Math.min(0.025, maxStaleSec));
+            reopenThread.setName("book-search-reopen");
+            reopenThread.setDaemon(true);
+            reopenThread.start();
+
+            open.set(true);
+            log.info("Opened book search index at {} with {} documents", path, writer.getDocStats().numDocs);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not open the book search index at {}. Falling back to database search.", indexDir, e);
+            open.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!open.getAndSet(false)) {
+            return;
+        }
+        try {
+            reopenThread.close();
+            searcherManager.close();
+            writer.commit();
+            writer.close();
+            log.info("Closed book search index");
+        } catch (IOException e) {
+            log.error("Error while closing the book search index", e);
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return open.get() && !rebuilding.get();
+    }
+
+    @Override
+    public long size() {
+        return open.get() ? writer.getDocStats().numDocs : 0;
+    }
+
+    @Override
+    public Optional<Page<UUID>> search(String query, Pageable pageable) {
+        if (!isAvailable() || !StringUtils.hasText(query)) {
+            return Optional.empty();
+        }
+        Optional<Sort> sort = toLuceneSort(pageable.getSort());
+        if (sort.isEmpty()) {
+            return Optional.empty();
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            Query luceneQuery = buildQuery(searcher, query.trim());
+            int wanted = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+            TopDocs topDocs = searcher.search(luceneQuery, Math.max(wanted, 1), sort.get(), false);
+
+            long total = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                    ? topDocs.totalHits.value
+                    : searcher.count(luceneQuery);
+
+            List<UUID> ids = new ArrayList<>(pageable.getPageSize());
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = (int) pageable.getOffset(); i < hits.length; i++) {
+                ids.add(UUID.fromString(searcher.storedFields().document(hits[i].doc).get("id")));
+            }
+            return Optional.of(new PageImpl<>(ids, pageable, total));
+        } catch (IOException | RuntimeException e) {
+            log.error("Book search index query failed for '{}'. Falling back to database search.", query, e);
+            return Optional.empty();
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Could not release index searcher", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void index(Collection<Book> books) {
+        if (!open.get() || books.isEmpty()) {
+            return;
+        }
+        try {
+            for (Book book : books) {
+                String id = book.getId().toString();
+                synchronized (changedDuringRebuild) {
+                    if (rebuilding.get()) {
+                        changedDuringRebuild.add(id);
+                    }
+                    writer.updateDocument(new Term("id", id), toDocument(book));
+                }
+            }
+            log.debug("Indexed {} book(s)", books.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to index {} book(s); run a search index rebuild to resynchronise", books.size(), e);
+        }
+    }
+
+    @Override
+    public long rebuild() {
+        if (!open.get()) {
+            throw new IllegalStateException("Book search index is not available.");
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A search index rebuild is already in progress.");
+        }
+        long start = System.currentTimeMillis();
+        long count = 0;
+        String rebuildGeneration = UUID.randomUUID().toString();
+        synchronized (changedDuringRebuild) {
+            changedDuringRebuild.clear();
+            generation = rebuildGeneration;
+        }
+        try {
+            log.info("Rebuilding book search index from the database...");
+            // Documents are replaced in place, so the index stays complete and a book indexed from a
+            // change event meanwhile is neither duplicated nor overwritten with the older copy read here
+            Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, org.springframework.data.domain.Sort.by("id"));
+            Slice<Book> slice;
+            do {
+                slice = bookRepository.findAll(pageable);
+                for (Book book : slice) {
+                    String id = book.getId().toString();
+                    synchronized (changedDuringRebuild) {
+                        if (!changedDuringRebuild.contains(id)) {
+                            writer.updateDocument(new Term("id", id), toDocument(book));
+                        }
+                    }
+                }
+                count += slice.getNumberOfElements();
+                pageable = slice.nextPageable();
+            } while (slice.hasNext());
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(GENERATION_FIELD, rebuildGeneration)), BooleanClause.Occur.MUST_NOT)
+                    .build());
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("Rebuilt book search index with {} books in {} ms", count, System.currentTimeMillis() - start);
+            return count;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to rebuild the book search index", e);
+        } finally {
+            synchronized (changedDuringRebuild) {
+                rebuilding.set(false);
+                changedDuringRebuild.clear();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        index(event.getBooks());
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void commitPendingChanges() {
+        if (!open.get() || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.error("Failed to commit book search index", e);
+        }
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private Document toDocument(Book book) {
+        Document doc = new Document();
+        String id = book.getId().toString();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new SortedDocValuesField("id_sort", new BytesRef(id)));
+        doc.add(new StringField(GENERATION_FIELD, generation, Field.Store.NO));
+
+        addText(doc, "title", book.getTitle());
+        addText(doc, "subtitle", book.getSubtitle());
+        addText(doc, "authorPrimary", book.getAuthorPrimary());
+        addText(doc, "authorSecondary", book.getAuthorSecondary());
+        addText(doc, "publisher", book.getPublisher());
+        addText(doc, "keywords", book.getKeywords());
+        addText(doc, "notes", book.getNotes());
+        addText(doc, PHONETIC_FIELD, book.getTitle());
+        addText(doc, PHONETIC_FIELD, book.getSubtitle());
+        addText(doc, PHONETIC_FIELD, book.getAuthorPrimary());
+        addText(doc, PHONETIC_FIELD, book.getKeywords());
+
+        if (book.getAccessionNumber() != null) {
+            doc.add(new StringField("accessionNumber_kw", book.getAccessionNumber().toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+        if (book.getIsbn() != null) {
+            doc.add(new StringField("isbn_kw", normalizeIsbn(book.getIsbn()), Field.Store.NO));
+        }
+        if (book.getPublicationYear() != null) {
+            doc.add(new IntPoint("publicationYear", book.getPublicationYear()));
+        }
+
+        addSortKey(doc, "title", book.getTitle());
+        addSortKey(doc, "authorPrimary", book.getAuthorPrimary());
+        addSortKey(doc, "publisher", book.getPublisher());
+        addSortKey(doc, "accessionNumber", book.getAccessionNumber());
+        if (book.getPublicationYear() != null) {
+            doc.add(new NumericDocValuesField("publicationYear_sort", book.getPublicationYear()));
+        }
+        if (book.getRegistrationDate() != null) {
+            doc.add(new NumericDocValuesField("registrationDate_sort", book.getRegistrationDate().toEpochSecond(ZoneOffset.UTC)));
+        }
+        if (book.getCreatedAt() != null) {
+            doc.add(new NumericDocValuesField("createdAt_sort", book.getCreatedAt().toEpochSecond(ZoneOffset.UTC)));
+        }
+        return doc;
+    }
+
+    private void addText(Document doc, String field, String value) {
+        if (StringUtils.hasText(value)) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private void addSortKey(Document doc, String field, String value) {
+        if (value != null) {
+            String key = value.toLowerCase(Locale.ROOT);
+            // Doc values are limited to 32k bytes; a sort key never needs to be that long
+            doc.add(new SortedDocValuesField(field + "_sort", new BytesRef(key.length() > 256 ? key.substring(0, 256) : key)));
+        }
+    }
+
+    /**
+     * Builds a query in which every analysed term of the input, a prefix of it or a close spelling
+     * variant from the catalog vocabulary must appear in at least one text field (exact terms score
+     * highest), or the whole input matches an accession number, ISBN or publication year exactly.
+     * Devanagari terms, and terms found in no text field such as most romanised Hindi spellings, may
+     * also match by their phonetic key in the title, subtitle, author or keywords in either script;
+     * known words are not, as the key would equate distinct English words such as "men" and "main".
+     */
+    private Query buildQuery(IndexSearcher searcher, String query) throws IOException {
+        BooleanQuery.Builder root = new BooleanQuery.Builder();
+
+        List<String> terms = BookTextAnalysis.terms(analyzer, query);
+        if (!terms.isEmpty()) {
+            BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+            for (String term : terms) {
+                BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+                List<String> variants = bookVocabulary.variants(term);
+                TEXT_FIELDS.forEach((field, boost) -> {
+                    anyField.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+                    anyField.add(new BoostQuery(new ConstantScoreQuery(new PrefixQuery(new Term(field, term))), boost * 0.2f), BooleanClause.Occur.SHOULD);
+                    for (String variant : variants) {
+                        anyField.add(new BoostQuery(new TermQuery(new Term(field, variant)), boost * VARIANT_WEIGHT), BooleanClause.Occur.SHOULD);
+                    }
+                });
+                if (BookTextAnalysis.isDevanagari(term) || !isIndexed(searcher, term)) {
+                    anyField.add(new BoostQuery(new TermQuery(new Term(PHONETIC_FIELD, BookTextAnalysis.phoneticKey(term))), PHONETIC_WEIGHT), BooleanClause.Occur.SHOULD);
+                }
+                allTerms.add(anyField.build(), BooleanClause.Occur.MUST);
+            }
+            root.add(allTerms.build(), BooleanClause.Occur.SHOULD);
+        }
+
+        root.add(new BoostQuery(new TermQuery(new Term("accessionNumber_kw", query.toLowerCase(Locale.ROOT))), 10f), BooleanClause.Occur.SHOULD);
+        String isbn = normalizeIsbn(query);
+        if (!isbn.isEmpty()) {
+            root.add(new BoostQuery(new TermQuery(new Term("isbn_kw", isbn)), 10f), BooleanClause.Occur.SHOULD);
+        }
+        try {
+            root.add(IntPoint.newExactQuery("publicationYear", Integer.parseInt(query)), BooleanClause.Occur.SHOULD);
+        } catch (NumberFormatException e) {
+            // Ignore if the query is not a valid year
+        }
+        return root.build();
+    }
+
+    private boolean isIndexed(IndexSearcher searcher, String term) throws IOException {
+        for (String field : TEXT_FIELDS.keySet()) {
+            if (searcher.getIndexReader().docFreq(new Term(field, term)) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Optional<Sort> toLuceneSort(org.springframework.data.domain.Sort sort) {
+        List<SortField> fields = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : sort) {
+            if (RELEVANCE.equals(order.getProperty())) {
+                fields.add(SortField.FIELD_SCORE);
+                continue;
+            }
+            SortField.Type type = SORTABLE_FIELDS.get(order.getProperty());
+            if (type == null) {
+                return Optional.empty();
+            }
+            fields.add(new SortField(order.getProperty() + "_sort", type, order.isDescending()));
+        }
+        if (fields.isEmpty()) {
+            fields.add(SortField.FIELD_SCORE);
+        }
+        fields.add(new SortField("id_sort", SortField.Type.STRING));
+        return Optional.of(new Sort(fields.toArray(new SortField[0])));
+    }
+
+    private String normalizeIsbn(String value) {
+        return value.replaceAll("[^0-9Xx]", "").toUpperCase(Locale.ROOT);
+    }
+}
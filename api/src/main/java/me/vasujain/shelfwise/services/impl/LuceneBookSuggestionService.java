@@ -0,0 +1,319 @@
+package me.vasujain.shelfwise.services.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.dtos.BookSuggestionDTO;
+import me.vasujain.shelfwise.enums.SuggestionType;
+import me.vasujain.shelfwise.events.BooksChangedEvent;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.projections.BookSuggestionFields;
+import me.vasujain.shelfwise.services.BookSuggestionService;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.suggest.InputIterator;
+import org.apache.lucene.search.suggest.Lookup;
+import org.apache.lucene.search.suggest.analyzing.AnalyzingInfixSuggester;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BookSuggestionService} backed by one Lucene {@link AnalyzingInfixSuggester} per
+ * {@link SuggestionType}, held in memory.
+ *
+ * <p>Each distinct value is weighted by the number of books carrying it. The suggester indexes the
+ * words of every value once, so a prefix matches the start of any word without storing a path per
+ * word start, and keeps its entries sorted by weight, so the top completions of a prefix are found
+ * without visiting every match. The suggesters are loaded at startup and kept current through
+ * {@link BooksChangedEvent}s, so suggestions never query the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LuceneBookSuggestionService implements BookSuggestionService {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final BookRepository bookRepository;
+
+    private final Map<SuggestionType, Suggester> suggesters = newSuggesters();
+    private final Map<UUID, String[]> valuesByBook = new HashMap<>();
+
+    @Override
+    public List<BookSuggestionDTO> suggest(String prefix, SuggestionType type, int limit) {
+        List<BookSuggestionDTO> suggestions = new ArrayList<>();
+        if (!StringUtils.hasText(prefix)) {
+            return suggestions;
+        }
+        for (SuggestionType candidate : SuggestionType.values()) {
+            if (type == null || type == candidate) {
+                for (Lookup.LookupResult result : suggesters.get(candidate).complete(prefix, limit)) {
+                    suggestions.add(new BookSuggestionDTO(result.key.toString(), candidate, (int) result.value));
+                }
+            }
+        }
+
+        if (type == null) {
+            suggestions.sort(Comparator.comparingInt(BookSuggestionDTO::getBookCount).reversed());
+        }
+        return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+    }
+
+    @Override
+    public synchronized void index(Collection<Book> books) {
+        for (Book book : books) {
+            put(book.getId(), book.getTitle(), book.getAuthorPrimary(), book.getPublisher());
+        }
+        suggesters.values().forEach(Suggester::flush);
+    }
+
+    @Override
+    public synchronized void load() {
+        List<BookSuggestionFields> rows = bookRepository.findSuggestionFieldsBy();
+        valuesByBook.clear();
+        suggesters.values().forEach(Suggester::clear);
+        for (BookSuggestionFields row : rows) {
+            put(row.getId(), row.getTitle(), row.getAuthorPrimary(), row.getPublisher());
+        }
+        suggesters.values().forEach(Suggester::build);
+        log.info("Book suggestions loaded: {} titles, {} authors, {} publishers in {} KB",
+                suggesters.get(SuggestionType.TITLE).entries.size(),
+                suggesters.get(SuggestionType.AUTHOR).entries.size(),
+                suggesters.get(SuggestionType.PUBLISHER).entries.size(),
+                suggesters.values().stream().mapToLong(Suggester::ramBytesUsed).sum() / 1024);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        index(event.getBooks());
+    }
+
+    @PreDestroy
+    public void close() {
+        suggesters.values().forEach(Suggester::close);
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    /**
+     * Moves a book's weight from its previous values to its current ones. Must be called while synchronized.
+     */
+    private void put(UUID id, String title, String author, String publisher) {
+        String[] values = new String[SuggestionType.values().length];
+        values[SuggestionType.TITLE.ordinal()] = title;
+        values[SuggestionType.AUTHOR.ordinal()] = author;
+        values[SuggestionType.PUBLISHER.ordinal()] = publisher;
+
+        String[] previous = valuesByBook.put(id, values);
+        for (SuggestionType type : SuggestionType.values()) {
+            String before = previous == null ? null : previous[type.ordinal()];
+            String after = values[type.ordinal()];
+            if (!Objects.equals(before, after)) {
+                suggesters.get(type).remove(before);
+                suggesters.get(type).add(after);
+            }
+        }
+    }
+
+    private static Map<SuggestionType, Suggester> newSuggesters() {
+        Map<SuggestionType, Suggester> suggesters = new EnumMap<>(SuggestionType.class);
+        for (SuggestionType type : SuggestionType.values()) {
+            suggesters.put(type, new Suggester());
+        }
+        return suggesters;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * A distinct value and the number of books carrying it.
+     */
+    private static final class Entry {
+        private final String key;
+        private final String display;
+        private int weight;
+
+        private Entry(String key, String display) {
+            this.key = key;
+            this.display = display;
+        }
+    }
+
+    /**
+     * The values of one suggestion type and their weights, mirrored into a Lucene suggester.
+     */
+    private static final class Suggester {
+
+        private final AnalyzingInfixSuggester lookup;
+        private final Map<String, Entry> entries = new HashMap<>();
+        // Entries whose weight changed since the suggester was last updated, by display text. A value
+        // removed and added again before a flush has two entries, of which the last must be written
+        private final Map<String, Entry> pending = new LinkedHashMap<>();
+
+        Suggester() {
+            try {
+                lookup = new AnalyzingInfixSuggester(new ByteBuffersDirectory(), BookTextAnalysis.createAnalyzer());
+                lookup.build(new EntryIterator(List.<Entry>of().iterator()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create the book suggester", e);
+            }
+        }
+
+        void add(String value) {
+            String key = normalize(value);
+            if (key.isEmpty()) {
+                return;
+            }
+            Entry entry = entries.computeIfAbsent(key, k -> new Entry(k, value.trim()));
+            entry.weight++;
+            pending.put(entry.display, entry);
+        }
+
+        void remove(String value) {
+            Entry entry = entries.get(normalize(value));
+            if (entry == null) {
+                return;
+            }
+            entry.weight--;
+            if (entry.weight <= 0) {
+                entries.remove(entry.key);
+            }
+            pending.put(entry.display, entry);
+        }
+
+        void clear() {
+            entries.clear();
+            pending.clear();
+        }
+
+        /**
+         * Replaces the suggester's contents with the current entries.
+         */
+        void build() {
+            try {
+                lookup.build(new EntryIterator(List.copyOf(entries.values()).iterator()));
+                pending.clear();
+            } catch (IOException e) {
+                log.error("Failed to build book suggestions", e);
+            }
+        }
+
+        /**
+         * Writes the changed weights to the suggester and makes them visible. Values no longer carried
+         * by any book keep a weight of zero, which is never suggested, until the next {@link #build()}.
+         */
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                for (Entry entry : pending.values()) {
+                    lookup.update(new BytesRef(entry.display), null, Math.max(entry.weight, 0), null);
+                }
+                lookup.refresh();
+            } catch (IOException e) {
+                log.error("Failed to update book suggestions", e);
+            } finally {
+                pending.clear();
+            }
+        }
+
+        List<Lookup.LookupResult> complete(String prefix, int limit) {
+            try {
+                List<Lookup.LookupResult> results = lookup.lookup(prefix, (BooleanQuery) null, limit, true, false);
+                return results.stream().filter(result -> result.value > 0).toList();
+            } catch (IOException e) {
+                log.error("Book suggestion lookup failed for '{}'", prefix, e);
+                return List.of();
+            }
+        }
+
+        long ramBytesUsed() {
+            return lookup.ramBytesUsed();
+        }
+
+        void close() {
+            try {
+                lookup.close();
+            } catch (IOException e) {
+                log.warn("Could not close the book suggester", e);
+            }
+        }
+    }
+
+    /**
+     * Feeds entries to {@link AnalyzingInfixSuggester#build(InputIterator)}.
+     */
+    private static final class EntryIterator implements InputIterator {
+
+        private final Iterator<Entry> entries;
+        private Entry current;
+
+        EntryIterator(Iterator<Entry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public BytesRef next() {
+            if (!entries.hasNext()) {
+                return null;
+            }
+            current = entries.next();
+            return new BytesRef(current.display);
+        }
+
+        @Override
+        public long weight() {
+            return current.weight;
+        }
+
+        @Override
+        public BytesRef payload() {
+            return null;
+        }
+
+        @Override
+        public boolean hasPayloads() {
+            return false;
+        }
+
+        @Override
+        public Set<BytesRef> contexts() {
+            return null;
+        }
+
+        @Override
+        public boolean hasContexts() {
+            return false;
+        }
+    }
+}
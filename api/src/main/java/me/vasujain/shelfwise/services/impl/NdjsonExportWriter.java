@@ -0,0 +1,58 @@
+package me.vasujain.shelfwise.services.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+/**
+ * Writes an export as newline-delimited JSON, one object per row keyed by the column names. Numbers
+ * and booleans are written as such; dates, enums and IDs as strings in the same form as in the CSV.
+ */
+final class NdjsonExportWriter implements ExportWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final JsonGenerator generator;
+    private String[] headers;
+
+    NdjsonExportWriter(OutputStream out) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void writeHeader(String[] headers) {
+        this.headers = headers;
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < headers.length; i++) {
+            generator.writeFieldName(headers[i]);
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof BigDecimal decimal) {
+                generator.writeNumber(decimal);
+            } else if (value instanceof Integer || value instanceof Long) {
+                generator.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Boolean bool) {
+                generator.writeBoolean(bool);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
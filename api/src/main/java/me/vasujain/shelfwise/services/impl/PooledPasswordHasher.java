@@ -0,0 +1,59 @@
+package me.vasujain.shelfwise.services.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.services.PasswordHasher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordHasher} running the password encoder on a fixed pool of daemon threads, one per
+ * core unless configured otherwise, in front of a bounded queue.
+ */
+@Service
+@Slf4j
+public class PooledPasswordHasher implements PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public PooledPasswordHasher(@Qualifier("bcryptPasswordEncoder") PasswordEncoder passwordEncoder,
+                                @Value("${app.password-hashing.threads:0}") int threads,
+                                @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        log.info("Password hashing pool started with {} threads", poolSize);
+    }
+
+    @Override
+    public CompletableFuture<String> hash(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+    }
+
+    @Override
+    public int parallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
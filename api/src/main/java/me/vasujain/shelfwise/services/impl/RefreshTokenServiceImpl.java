@@ -0,0 +1,125 @@
+package me.vasujain.shelfwise.services.impl;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.exceptions.InvalidTokenException;
+import me.vasujain.shelfwise.models.RefreshToken;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.RefreshTokenRepository;
+import me.vasujain.shelfwise.services.JwtService;
+import me.vasujain.shelfwise.services.RefreshTokenService;
+import me.vasujain.shelfwise.util.TokenDigests;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps refresh tokens in their own table, by digest, so that issuing and refreshing them never
+ * writes the user's row, and a refresh is one lookup by a unique index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+
+    @Value("${jwt.refresh-token.expiration:86400}")
+    private long refreshTokenExpiration;
+
+    @Value("${app.refresh-tokens.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Override
+    public String issue(User user) {
+        return save(user, UUID.randomUUID());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        try {
+            jwtService.verifyToken(refreshToken);
+        } catch (JwtException e) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+        RefreshToken stored = refreshTokenRepository.findByTokenDigest(TokenDigests.sha256(refreshToken))
+                .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshTokenRepository.markUsed(stored.getId(), now) == 0) {
+            // A token is only presented again if someone kept a copy, so end the session it came from
+            log.warn("Refresh token reused for user {}; revoking its family {}",
+                    stored.getUser().getEmployeeId(), stored.getFamilyId());
+            refreshTokenRepository.deleteByFamilyId(stored.getFamilyId());
+            throw new InvalidTokenException("Refresh token has already been used, please log in again");
+        }
+
+        User user = stored.getUser();
+        if (stored.getExpiresAt().isBefore(now) || !user.isEnabled() || !user.isAccountNonLocked()) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+        return new Rotation(user, save(user, stored.getFamilyId()));
+    }
+
+    @Override
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenDigest(TokenDigests.sha256(refreshToken))
+                .ifPresent(stored -> refreshTokenRepository.deleteByFamilyId(stored.getFamilyId()));
+    }
+
+    @Override
+    public void revokeAll(User user) {
+        refreshTokenRepository.deleteByUser(user);
+    }
+
+    /**
+     * Deletes expired tokens {@code app.refresh-tokens.purge-batch-size} at a time, each batch in a
+     * transaction of its own, so that the purge never holds many rows locked.
+     */
+    @Override
+    @Scheduled(fixedRate = 1, timeUnit = TimeUnit.HOURS)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        List<UUID> expired;
+        do {
+            expired = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, purgeBatchSize));
+            if (!expired.isEmpty()) {
+                refreshTokenRepository.deleteAllByIdInBatch(expired);
+                purged += expired.size();
+            }
+        } while (expired.size() == purgeBatchSize);
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+        return purged;
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private String save(User user, UUID familyId) {
+        String token = jwtService.generateRefreshToken(user);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenDigest(TokenDigests.sha256(token))
+                .user(user)
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plusSeconds(refreshTokenExpiration))
+                .build());
+        return token;
+    }
+}
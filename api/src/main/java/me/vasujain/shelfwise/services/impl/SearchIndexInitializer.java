@@ -0,0 +1,47 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.services.BookSearchEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * CommandLineRunner component that makes sure the book search index is populated on startup.
+ * The index is rebuilt from the database when it is empty while books exist, or when the
+ * application is started with the {@code --rebuild-search-index} argument.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexInitializer implements CommandLineRunner {
+
+    private static final String REBUILD_ARG = "--rebuild-search-index";
+
+    private final BookSearchEngine bookSearchEngine;
+    private final BookRepository bookRepository;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!bookSearchEngine.isAvailable()) {
+            log.info("Book search index is not available; skipping index initialisation.");
+            return;
+        }
+
+        try {
+            boolean forced = Arrays.asList(args).contains(REBUILD_ARG);
+            if (forced || (bookSearchEngine.size() == 0 && bookRepository.count() > 0)) {
+                log.info("Application startup: rebuilding book search index ({}).", forced ? "requested" : "index is empty");
+                bookSearchEngine.rebuild();
+            } else {
+                log.info("Application startup: book search index holds {} documents.", bookSearchEngine.size());
+            }
+        } catch (Exception e) {
+            log.error("Error occurred while initialising the book search index: {}", e.getMessage(), e);
+            // Don't throw the exception to allow application to start even if this fails
+        }
+    }
+}
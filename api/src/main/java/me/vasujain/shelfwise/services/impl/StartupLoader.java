@@ -0,0 +1,52 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.services.BookIdentifierIndex;
+import me.vasujain.shelfwise.services.BookSuggestionService;
+import me.vasujain.shelfwise.services.BookValueDictionary;
+import me.vasujain.shelfwise.services.BookVocabulary;
+import me.vasujain.shelfwise.services.ExportSnapshotStore;
+import me.vasujain.shelfwise.services.ImportJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the startup work of the application once it has started: loading its in-memory structures and
+ * resuming interrupted background jobs. Each task runs on its own: one that fails is logged and left to
+ * the path that serves requests without it, and the application still starts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StartupLoader {
+
+    private final BookIdentifierIndex bookIdentifierIndex;
+    private final BookSuggestionService bookSuggestionService;
+    private final BookVocabulary bookVocabulary;
+    private final BookValueDictionary bookValueDictionary;
+    private final ImportJobService importJobService;
+    private final ExportSnapshotStore exportSnapshotStore;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Until it is loaded, identifier searches are answered by the regular search path
+        run("loading the book identifier index", bookIdentifierIndex::load);
+        run("loading book suggestions", bookSuggestionService::load);
+        run("loading book vocabulary", bookVocabulary::load);
+        run("loading book value dictionaries", bookValueDictionary::load);
+        run("resuming interrupted import jobs", importJobService::resumeInterruptedJobs);
+        run("loading export snapshots", exportSnapshotStore::load);
+    }
+
+    private static void run(String task, Runnable work) {
+        try {
+            log.info("Application startup: {}.", task);
+            work.run();
+        } catch (Exception e) {
+            log.error("Error occurred while {}: {}", task, e.getMessage(), e);
+            // Don't throw the exception to allow application to start even if this fails
+        }
+    }
+}
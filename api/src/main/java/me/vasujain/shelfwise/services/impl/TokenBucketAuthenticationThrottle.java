@@ -0,0 +1,137 @@
+package me.vasujain.shelfwise.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.exceptions.TooManyRequestsException;
+import me.vasujain.shelfwise.services.AuthenticationThrottle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Keeps a token bucket in memory for each principal at each client address, for each principal across
+ * all addresses, and for each client address: a bucket holds up to {@code capacity} attempts and is
+ * refilled with {@code refill-per-minute} attempts a minute. Buckets idle long enough to have refilled
+ * are dropped.
+ *
+ * <p>The client address is the remote address of the connection; behind a proxy, set
+ * {@code server.forward-headers-strategy} so that it is the address of the client.
+ */
+@Service
+@Slf4j
+public class TokenBucketAuthenticationThrottle implements AuthenticationThrottle {
+
+    private static final long MAX_BUCKETS = 100_000;
+
+    private final Limit principalLimit;
+    private final Limit principalTotalLimit;
+    private final Limit addressLimit;
+    private final Cache<PrincipalAtAddress, TokenBucket> principalBuckets;
+    private final Cache<String, TokenBucket> principalTotalBuckets;
+    private final Cache<String, TokenBucket> addressBuckets;
+
+    public TokenBucketAuthenticationThrottle(
+            @Value("${app.auth-throttle.per-principal.capacity:10}") int principalCapacity,
+            @Value("${app.auth-throttle.per-principal.refill-per-minute:5}") int principalRefill,
+            @Value("${app.auth-throttle.per-principal-total.capacity:50}") int principalTotalCapacity,
+            @Value("${app.auth-throttle.per-principal-total.refill-per-minute:20}") int principalTotalRefill,
+            @Value("${app.auth-throttle.per-address.capacity:30}") int addressCapacity,
+            @Value("${app.auth-throttle.per-address.refill-per-minute:30}") int addressRefill) {
+        this.principalLimit = new Limit(principalCapacity, principalRefill);
+        this.principalTotalLimit = new Limit(principalTotalCapacity, principalTotalRefill);
+        this.addressLimit = new Limit(addressCapacity, addressRefill);
+        this.principalBuckets = buckets(principalLimit);
+        this.principalTotalBuckets = buckets(principalTotalLimit);
+        this.addressBuckets = buckets(addressLimit);
+    }
+
+    @Override
+    public void acquire(String principal) {
+        String address = clientAddress();
+        if (address != null) {
+            take(addressBuckets, addressLimit, address, "Too many attempts from this address");
+        }
+        take(principalBuckets, principalLimit, new PrincipalAtAddress(principal, address), "Too many attempts for this account");
+        // Bounds guessing a password from many addresses, with room left for the account's owner
+        take(principalTotalBuckets, principalTotalLimit, principal, "Too many attempts for this account");
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private static <K> Cache<K, TokenBucket> buckets(Limit limit) {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_BUCKETS)
+                .expireAfterAccess(limit.timeToRefill())
+                .build();
+    }
+
+    private static <K> void take(Cache<K, TokenBucket> buckets, Limit limit, K key, String message) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(limit));
+        long waitNanos = bucket.take();
+        if (waitNanos > 0) {
+            log.warn("{}: {}", message, key);
+            throw new TooManyRequestsException(message + ", try again later", Math.max(1, Duration.ofNanos(waitNanos).toSeconds()));
+        }
+    }
+
+    private static String clientAddress() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    /**
+     * @param address The client address, or null outside of a request.
+     */
+    private record PrincipalAtAddress(String principal, String address) {
+
+        @Override
+        public String toString() {
+            return address == null ? principal : principal + " from " + address;
+        }
+    }
+
+    private record Limit(int capacity, int refillPerMinute) {
+
+        long nanosPerToken() {
+            return Duration.ofMinutes(1).toNanos() / refillPerMinute;
+        }
+
+        Duration timeToRefill() {
+            return Duration.ofNanos(nanosPerToken() * capacity);
+        }
+    }
+
+    private static final class TokenBucket {
+        private final Limit limit;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(Limit limit) {
+            this.limit = limit;
+            this.tokens = limit.capacity();
+            this.refilledAt = System.nanoTime();
+        }
+
+        /**
+         * @return 0 if a token was taken, or else the nanoseconds until the next one.
+         */
+        synchronized long take() {
+            long now = System.nanoTime();
+            tokens = Math.min(limit.capacity(), tokens + (double) (now - refilledAt) / limit.nanosPerToken());
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return (long) ((1 - tokens) * limit.nanosPerToken());
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package me.vasujain.shelfwise.services.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.vasujain.shelfwise.events.BooksChangedEvent;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.projections.BookIdentifiers;
+import me.vasujain.shelfwise.services.BookIdentifierIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link BookIdentifierIndex} backed by in-memory trigram posting lists.
+ *
+ * <p>Every book gets a dense ordinal, and each trigram of its normalized accession number and
+ * ISBN maps to a sorted list of ordinals. A fragment is resolved by intersecting the lists of its
+ * trigrams and verifying the few remaining candidates, so lookups never touch the database.
+ * Accession numbers are matched case-insensitively; ISBNs ignore hyphens and spaces.
+ *
+ * <p>The index is kept in sync through {@link BooksChangedEvent}s. When a snapshot file is
+ * configured, the identifier table is written to it on shutdown and restored on the next start,
+ * after which only books updated since the snapshot are read back from the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrigramBookIdentifierIndex implements BookIdentifierIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x53574944;
+    private static final int SNAPSHOT_VERSION = 1;
+    /** Books saved around the time the snapshot was written are read back as well. */
+    private static final long SNAPSHOT_OVERLAP_SECONDS = 60;
+
+    private final BookRepository bookRepository;
+
+    @Value("${app.search.identifier-index.snapshot-file:}")
+    private String snapshotFile;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Postings accessionPostings = new Postings();
+    private final Postings isbnPostings = new Postings();
+    private volatile boolean loaded;
+
+    @Override
+    public Optional<List<Match>> findBySubstring(String fragment) {
+        String accession = normalizeAccession(fragment);
+        String isbn = normalizeIsbn(fragment);
+        if (!loaded || accession.length() < 3) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Integer> candidates = new LinkedHashSet<>();
+            for (int ordinal : accessionPostings.candidates(accession)) {
+                if (entries.get(ordinal).accessionKey().contains(accession)) {
+                    candidates.add(ordinal);
+                }
+            }
+            if (isbn.length() >= 3) {
+                for (int ordinal : isbnPostings.candidates(isbn)) {
+                    if (entries.get(ordinal).isbnKey().contains(isbn)) {
+                        candidates.add(ordinal);
+                    }
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(candidates.size());
+            for (int ordinal : candidates) {
+                Entry entry = entries.get(ordinal);
+                matches.add(new Match(entry.id(), entry.accessionNumber(), rank(entry, accession, isbn)));
+            }
+            return Optional.of(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Collection<Book> books) {
+        lock.writeLock().lock();
+        try {
+            for (Book book : books) {
+                put(book.getId(), book.getAccessionNumber(), book.getIsbn());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load() {
+        LocalDateTime since = restoreSnapshot();
+        List<BookIdentifiers> rows = since == null
+                ? bookRepository.findIdentifiersBy()
+                : bookRepository.findIdentifiersByUpdatedAtAfter(since);
+
+        lock.writeLock().lock();
+        try {
+            for (BookIdentifiers row : rows) {
+                put(row.getId(), row.getAccessionNumber(), row.getIsbn());
+            }
+            loaded = true;
+            log.info("Book identifier index loaded with {} books ({} read from the database)", entries.size(), rows.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        index(event.getBooks());
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!loaded || !StringUtils.hasText(snapshotFile)) {
+            return;
+        }
+
+        Path target = Paths.get(snapshotFile);
+        lock.readLock().lock();
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeLong(entry.id().getMostSignificantBits());
+                    out.writeLong(entry.id().getLeastSignificantBits());
+                    out.writeUTF(entry.accessionNumber());
+                    out.writeUTF(entry.isbn());
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Book identifier index snapshot written to {} ({} books)", target, entries.size());
+        } catch (IOException e) {
+            log.error("Failed to write book identifier index snapshot to {}", target, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    /**
+     * Restores the snapshot file into the index.
+     *
+     * @return The time from which the database still has to be read, or null when no usable snapshot exists.
+     */
+    private LocalDateTime restoreSnapshot() {
+        if (!StringUtils.hasText(snapshotFile) || !Files.isRegularFile(Paths.get(snapshotFile))) {
+            return null;
+        }
+
+        Path source = Paths.get(snapshotFile);
+        lock.writeLock().lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring book identifier index snapshot {} written by an incompatible version", source);
+                return null;
+            }
+            long writtenAt = in.readLong();
+            int count = in.readInt();
+            clear();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                put(id, in.readUTF(), in.readUTF());
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(writtenAt), ZoneId.systemDefault())
+                    .minusSeconds(SNAPSHOT_OVERLAP_SECONDS);
+        } catch (IOException e) {
+            log.warn("Failed to read book identifier index snapshot {}, loading from the database instead", source, e);
+            clear();
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        ordinals.clear();
+        entries.clear();
+        accessionPostings.clear();
+        isbnPostings.clear();
+    }
+
+    /**
+     * Adds or replaces a single book. Must be called with the write lock held.
+     */
+    private void put(UUID id, String accessionNumber, String isbn) {
+        Entry entry = new Entry(id, accessionNumber == null ? "" : accessionNumber, isbn == null ? "" : isbn,
+                normalizeAccession(accessionNumber), normalizeIsbn(isbn));
+        Integer ordinal = ordinals.get(id);
+        if (ordinal == null) {
+            ordinal = entries.size();
+            ordinals.put(id, ordinal);
+            entries.add(entry);
+        } else {
+            Entry previous = entries.get(ordinal);
+            if (previous.equals(entry)) {
+                return;
+            }
+            accessionPostings.remove(previous.accessionKey(), ordinal);
+            isbnPostings.remove(previous.isbnKey(), ordinal);
+            entries.set(ordinal, entry);
+        }
+        accessionPostings.add(entry.accessionKey(), ordinal);
+        isbnPostings.add(entry.isbnKey(), ordinal);
+    }
+
+    private static int rank(Entry entry, String accession, String isbn) {
+        if (entry.accessionKey().equals(accession) || (!isbn.isEmpty() && entry.isbnKey().equals(isbn))) {
+            return 0;
+        }
+        if (entry.accessionKey().startsWith(accession) || (!isbn.isEmpty() && entry.isbnKey().startsWith(isbn))) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private static String normalizeAccession(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeIsbn(String value) {
+        return value == null ? "" : value.replaceAll("[^0-9A-Za-z]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    private record Entry(UUID id, String accessionNumber, String isbn, String accessionKey, String isbnKey) {
+    }
+
+    /**
+     * Trigram to sorted ordinal list mapping for one identifier field.
+     */
+    private static final class Postings {
+
+        private final Map<Long, OrdinalList> lists = new HashMap<>();
+
+        void add(String key, int ordinal) {
+            for (int i = 0; i + 3 <= key.length(); i++) {
+                lists.computeIfAbsent(trigram(key, i), t -> new OrdinalList()).add(ordinal);
+            }
+        }
+
+        void remove(String key, int ordinal) {
+            for (int i = 0; i + 3 <= key.length(); i++) {
+                long trigram = trigram(key, i);
+                OrdinalList list = lists.get(trigram);
+                if (list != null && list.remove(ordinal) && list.size == 0) {
+                    lists.remove(trigram);
+                }
+            }
+        }
+
+        void clear() {
+            lists.clear();
+        }
+
+        /**
+         * Ordinals whose key contains every trigram of the fragment; candidates still need verifying.
+         */
+        int[] candidates(String fragment) {
+            List<OrdinalList> required = new ArrayList<>();
+            for (int i = 0; i + 3 <= fragment.length(); i++) {
+                OrdinalList list = lists.get(trigram(fragment, i));
+                if (list == null) {
+                    return new int[0];
+                }
+                required.add(list);
+            }
+            required.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            int[] result = Arrays.copyOf(required.get(0).ordinals, required.get(0).size);
+            int length = result.length;
+            for (int i = 1; i < required.size() && length > 0; i++) {
+                OrdinalList list = required.get(i);
+                int kept = 0;
+                for (int j = 0; j < length; j++) {
+                    if (list.contains(result[j])) {
+                        result[kept++] = result[j];
+                    }
+                }
+                length = kept;
+            }
+            return Arrays.copyOf(result, length);
+        }
+    }
+
+    /**
+     * Growable sorted int array; ordinals are mostly appended in increasing order.
+     */
+    private static final class OrdinalList {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] < ordinal) {
+                grow();
+                ordinals[size++] = ordinal;
+                return;
+            }
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            grow();
+            System.arraycopy(ordinals, position, ordinals, position + 1, size - position);
+            ordinals[position] = ordinal;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+
+        private void grow() {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+        }
+    }
+}
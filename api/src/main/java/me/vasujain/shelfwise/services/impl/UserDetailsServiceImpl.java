@@ -1,6 +1,6 @@
 package me.vasujain.shelfwise.services.impl;
 
-import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -11,11 +11,11 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String employeeId) throws UsernameNotFoundException {
-        return userRepository.findByEmployeeId(employeeId)
+        return userCache.findByEmployeeId(employeeId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with employee ID: " + employeeId));
     }
 }
\ No newline at end of file
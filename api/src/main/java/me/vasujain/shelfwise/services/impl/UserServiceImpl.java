@@ -8,9 +8,16 @@ import me.vasujain.shelfwise.exceptions.DuplicateEmployeeIdException;
 import me.vasujain.shelfwise.exceptions.UserNotFoundException;
 import me.vasujain.shelfwise.models.User;
 import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.response.CursorPage;
+import me.vasujain.shelfwise.services.RefreshTokenService;
+import me.vasujain.shelfwise.services.TokenRevocationList;
+import me.vasujain.shelfwise.services.UserCache;
 import me.vasujain.shelfwise.services.UserService;
 import me.vasujain.shelfwise.services.AuthenticationService;
+import me.vasujain.shelfwise.services.AuthenticationThrottle;
 import me.vasujain.shelfwise.mapper.UserMapper;
+import me.vasujain.shelfwise.util.CursorPageRequest;
+import me.vasujain.shelfwise.util.KeysetPaging;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +28,8 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
@@ -37,6 +46,10 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final AuthenticationService authenticationService;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserCache userCache;
+    private final AuthenticationThrottle authenticationThrottle;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     public UserDTO registerUser(UserCreateDTO userCreateDTO) {
@@ -74,13 +87,15 @@ public class UserServiceImpl implements UserService {
                 .remarks(userCreateDTO.getRemarks())
                 .password(passwordEncoder.encode(userCreateDTO.getPassword()))
                 .build();
-        return userMapper.toDto(userRepository.save(user));
+        return userMapper.toDto(saveAndEvict(user));
     }
 
     @Override
     public UserDTO updateUser(UUID id, UserUpdateDTO userUpdateDTO) {
         log.info("Updating user with ID: {}", id);
         User user = getUserEntity(id);
+        UserRole previousRole = user.getUserRole();
+        UserStatus previousStatus = user.getUserStatus();
         if (StringUtils.hasText(userUpdateDTO.getFullName())) {
             user.setFullName(userUpdateDTO.getFullName());
         }
@@ -140,7 +155,10 @@ public class UserServiceImpl implements UserService {
         if (StringUtils.hasText(userUpdateDTO.getRemarks())) {
             user.setRemarks(userUpdateDTO.getRemarks());
         }
-        return userMapper.toDto(userRepository.save(user));
+        if (user.getUserRole() != previousRole || user.getUserStatus() != previousStatus) {
+            revokeTokens(user);
+        }
+        return userMapper.toDto(saveAndEvict(user));
     }
 
     @Override
@@ -165,6 +183,12 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll(pageable).map(userMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> getAllUsers(CursorPageRequest request) {
+        return KeysetPaging.scroll(userRepository, null, request).map(userMapper::toDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<UserDTO> search(String query, Pageable pageable) {
@@ -177,19 +201,24 @@ public class UserServiceImpl implements UserService {
     public UserDTO updateUserStatus(UUID userId, UserStatus status) {
         log.info("Updating status for user ID: {} to {}", userId, status);
         User user = getUserEntity(userId);
-        user.setUserStatus(status);
-        return userMapper.toDto(userRepository.save(user));
+        if (user.getUserStatus() != status) {
+            user.setUserStatus(status);
+            revokeTokens(user);
+        }
+        return userMapper.toDto(saveAndEvict(user));
     }
 
     @Override
     public UserDTO updatePassword(UUID userId, PasswordUpdateDTO passwordUpdateDTO) {
         log.info("Updating password for user ID: {}", userId);
         User user = getUserEntity(userId);
+        authenticationThrottle.acquire(user.getEmployeeId());
         if (!passwordEncoder.matches(passwordUpdateDTO.getCurrentPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Current password is incorrect.");
         }
         user.setPassword(passwordEncoder.encode(passwordUpdateDTO.getNewPassword()));
-        return userMapper.toDto(userRepository.save(user));
+        refreshTokenService.revokeAll(user);
+        return userMapper.toDto(saveAndEvict(user));
     }
 
     @Override
@@ -197,20 +226,25 @@ public class UserServiceImpl implements UserService {
         log.info("Soft deleting user with ID: {}", id);
         User user = getUserEntity(id);
         user.setUserStatus(UserStatus.INACTIVE); // Soft delete
-        userRepository.save(user);
+        revokeTokens(user);
+        saveAndEvict(user);
     }
 
     @Override
     public void changePassword(PasswordUpdateDTO passwordUpdateDTO) {
-        User currentUser = authenticationService.getAuthenticatedUser();
+        // The authenticated user may be the detached copy shared through the user cache, so the one changed is read here
+        User currentUser = getUserEntity(authenticationService.getAuthenticatedUser().getId());
         log.info("Changing password for user ID: {}", currentUser.getId());
+        authenticationThrottle.acquire(currentUser.getEmployeeId());
 
         if (!passwordEncoder.matches(passwordUpdateDTO.getCurrentPassword(), currentUser.getPassword())) {
             throw new IllegalArgumentException("Incorrect old password.");
         }
 
         currentUser.setPassword(passwordEncoder.encode(passwordUpdateDTO.getNewPassword()));
-        userRepository.save(currentUser);
+        // Sessions started with the old password can no longer be refreshed
+        refreshTokenService.revokeAll(currentUser);
+        saveAndEvict(currentUser);
     }
 
     @Override
@@ -225,13 +259,44 @@ public class UserServiceImpl implements UserService {
         }
 
         userToReset.setPassword(passwordEncoder.encode(passwordResetDTO.getNewPassword()));
-        userRepository.save(userToReset);
+        // A reset is for a password that may be known to someone else, so end the user's sessions at once
+        revokeTokens(userToReset);
+        saveAndEvict(userToReset);
     }
 
     // ===============================
     // PRIVATE HELPER METHODS
     // ===============================
 
+    /**
+     * Ends the user's sessions after a change to their role or status, which their tokens still carry,
+     * or a reset of their password.
+     */
+    private void revokeTokens(User user) {
+        refreshTokenService.revokeAll(user);
+        String employeeId = user.getEmployeeId();
+        // Until the change commits, logins still read the old user, so their tokens are revoked with the rest
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenRevocationList.revokeUser(employeeId);
+                }
+            });
+        } else {
+            tokenRevocationList.revokeUser(employeeId);
+        }
+    }
+
+    /**
+     * Saves a user and drops it from the user cache, which would otherwise keep serving it unchanged.
+     */
+    private User saveAndEvict(User user) {
+        User saved = userRepository.save(user);
+        userCache.evict(saved.getEmployeeId());
+        return saved;
+    }
+
     private User getUserEntity(UUID id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + id));
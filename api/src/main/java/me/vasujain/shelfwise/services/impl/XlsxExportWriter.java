@@ -0,0 +1,196 @@
+package me.vasujain.shelfwise.services.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes an export as an Excel workbook without holding it in memory: the worksheet XML is written
+ * into the zip archive row by row, with strings inline rather than in a shared string table, and the
+ * workbook part listing the sheets comes last. Rows beyond what a sheet can hold continue on a new
+ * sheet, which repeats the header.
+ */
+final class XlsxExportWriter implements ExportWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final int MAX_CELL_LENGTH = 32_767;
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private String[] headers;
+    private int sheets;
+    private int rowsInSheet;
+
+    XlsxExportWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeHeader(String[] headers) throws IOException {
+        this.headers = headers;
+        startSheet();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        if (rowsInSheet == MAX_ROWS_PER_SHEET) {
+            endSheet();
+            startSheet();
+        }
+        writer.write("<row>");
+        for (Object value : values) {
+            if (value == null) {
+                writer.write("<c/>");
+            } else if (value instanceof BigDecimal || value instanceof Integer || value instanceof Long) {
+                writer.write("<c><v>");
+                writer.write(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+                writer.write("</v></c>");
+            } else if (value instanceof Boolean bool) {
+                writer.write(bool ? "<c t=\"b\"><v>1</v></c>" : "<c t=\"b\"><v>0</v></c>");
+            } else {
+                writeStringCell(value.toString(), 0);
+            }
+        }
+        writer.write("</row>");
+        rowsInSheet++;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        endSheet();
+        writeEntry("[Content_Types].xml", contentTypes());
+        writeEntry("_rels/.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+                </Relationships>""");
+        writeEntry("xl/workbook.xml", workbook());
+        writeEntry("xl/_rels/workbook.xml.rels", workbookRelationships());
+        writeEntry("xl/styles.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <styleSheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">\
+                <fonts count="2"><font><sz val="11"/><name val="Calibri"/></font><font><b/><sz val="11"/><name val="Calibri"/></font></fonts>\
+                <fills count="2"><fill><patternFill patternType="none"/></fill><fill><patternFill patternType="gray125"/></fill></fills>\
+                <borders count="1"><border><left/><right/><top/><bottom/><diagonal/></border></borders>\
+                <cellStyleXfs count="1"><xf numFmtId="0" fontId="0" fillId="0" borderId="0"/></cellStyleXfs>\
+                <cellXfs count="2"><xf numFmtId="0" fontId="0" fillId="0" borderId="0" xfId="0"/>\
+                <xf numFmtId="0" fontId="1" fillId="0" borderId="0" xfId="0" applyFont="1"/></cellXfs>\
+                </styleSheet>""");
+        zip.finish();
+        zip.flush();
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private void startSheet() throws IOException {
+        sheets++;
+        rowsInSheet = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                + "<sheetViews><sheetView workbookViewId=\"0\"><pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\" state=\"frozen\"/></sheetView></sheetViews>"
+                + "<sheetData><row>");
+        for (String header : headers) {
+            writeStringCell(header, 1);
+        }
+        writer.write("</row>");
+        rowsInSheet++;
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeStringCell(String text, int style) throws IOException {
+        writer.write(style == 0 ? "<c t=\"inlineStr\"><is><t xml:space=\"preserve\">" : "<c t=\"inlineStr\" s=\"" + style + "\"><is><t xml:space=\"preserve\">");
+        int length = Math.min(text.length(), MAX_CELL_LENGTH);
+        // Don't cut a surrogate pair in two
+        if (length < text.length() && Character.isHighSurrogate(text.charAt(length - 1))) {
+            length--;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                default -> {
+                    if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                        writer.write(c);
+                        writer.write(text.charAt(++i));
+                    } else if (isXmlChar(c)) {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write("</t></is></c>");
+    }
+
+    /**
+     * Control characters other than tab and line breaks, unpaired surrogates, U+FFFE and U+FFFF are not
+     * allowed in XML.
+     */
+    private static boolean isXmlChar(char c) {
+        return c == '\t' || c == '\n' || c == '\r' || (c >= 0x20 && c < 0xD800) || (c >= 0xE000 && c <= 0xFFFD);
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private String contentTypes() {
+        StringBuilder xml = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+                <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+                <Default Extension="xml" ContentType="application/xml"/>\
+                <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+                <Override PartName="/xl/styles.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml"/>""");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(sheet)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder xml = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+                xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships"><sheets>""");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            xml.append("<sheet name=\"Sheet").append(sheet).append("\" sheetId=\"").append(sheet)
+                    .append("\" r:id=\"rId").append(sheet).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRelationships() {
+        StringBuilder xml = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">""");
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            xml.append("<Relationship Id=\"rId").append(sheet)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet")
+                    .append(sheet).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheets + 1)
+                .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>");
+        return xml.append("</Relationships>").toString();
+    }
+}
@@ -0,0 +1,83 @@
+package me.vasujain.shelfwise.util;
+
+import me.vasujain.shelfwise.exceptions.ServerBusyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs a password encoder on a fixed pool of threads in front of a bounded queue, and waits for the
+ * result. However many requests check passwords at once, only the pool's threads spend CPU on it,
+ * leaving the other cores to the rest of the API. When the queue is full, the check is refused at once
+ * with a {@link ServerBusyException} instead of waiting.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param delegate      The encoder doing the work.
+     * @param threads       The size of the pool.
+     * @param queueCapacity The checks waiting for a thread beyond which new ones are refused.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-checks-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private <T> T run(Supplier<T> work) {
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServerBusyException("Too many password checks are in progress, try again shortly");
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package me.vasujain.shelfwise.util;
+
+import org.apache.commons.csv.CSVRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Binds CSV records to objects through columns declared once per type. For each file the binder is
+ * compiled against the header into a {@link Plan}, which reads the columns of a record by index, so a
+ * row costs no header lookups. Values are parsed with {@link FieldParsers}; those that cannot be parsed
+ * are collected as {@link FieldError}s for the caller to report.
+ *
+ * <p>Blank cells, and cells of columns missing from the file, leave the target untouched. Date columns
+ * also take {@code 0} as blank.
+ *
+ * @param <T> The type of the objects bound.
+ */
+public final class CsvRecordBinder<T> {
+
+    private final List<Column<T, ?>> columns;
+
+    private CsvRecordBinder(List<Column<T, ?>> columns) {
+        this.columns = columns;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @param headerMap The header of the file, as returned by {@code CSVParser.getHeaderMap()}.
+     */
+    public Plan<T> compile(Map<String, Integer> headerMap) {
+        int[] indexes = new int[columns.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = headerMap.getOrDefault(columns.get(i).header(), -1);
+        }
+        return new Plan<>(columns, indexes, headerMap);
+    }
+
+    /**
+     * @param column The index of the column, or -1 for a column missing from the file.
+     * @return The trimmed value of the column in the record, or {@code null} if it is missing or blank.
+     */
+    public static String value(CSVRecord record, int column) {
+        if (column < 0 || column >= record.size()) {
+            return null;
+        }
+        String value = record.get(column);
+        return value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * A binder compiled against the header of one file.
+     */
+    public static final class Plan<T> {
+        private final List<Column<T, ?>> columns;
+        private final int[] indexes;
+        private final Map<String, Integer> headerMap;
+
+        private Plan(List<Column<T, ?>> columns, int[] indexes, Map<String, Integer> headerMap) {
+            this.columns = columns;
+            this.indexes = indexes;
+            this.headerMap = headerMap;
+        }
+
+        /**
+         * @return The index of a column of the file, or -1 if the file has no such column.
+         */
+        public int column(String header) {
+            return headerMap.getOrDefault(header, -1);
+        }
+
+        /**
+         * Sets the columns of the record on the target.
+         *
+         * @return The values that could not be parsed; empty if there were none.
+         */
+        public List<FieldError> bind(CSVRecord record, T target) {
+            List<FieldError> errors = null;
+            for (int i = 0; i < indexes.length; i++) {
+                String value = value(record, indexes[i]);
+                Column<T, ?> column = columns.get(i);
+                if (value != null && !(column.zeroIsBlank() && value.equals("0")) && !column.bind(target, value)) {
+                    if (errors == null) {
+                        errors = new ArrayList<>(2);
+                    }
+                    errors.add(new FieldError(column.header(), value, column.expected()));
+                }
+            }
+            return errors == null ? List.of() : errors;
+        }
+    }
+
+    /**
+     * A value that could not be parsed.
+     *
+     * @param column   The header of its column.
+     * @param value    The value as found in the file.
+     * @param expected What the column holds.
+     */
+    public record FieldError(String column, String value, String expected) {
+
+        @Override
+        public String toString() {
+            return String.format("%s '%s' is not %s", column, value, expected);
+        }
+    }
+
+    public static final class Builder<T> {
+        private final List<Column<T, ?>> columns = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> string(String header, BiConsumer<T, String> setter) {
+            return column(header, Function.identity(), setter, "text", false);
+        }
+
+        public Builder<T> integer(String header, BiConsumer<T, Integer> setter) {
+            return column(header, FieldParsers::parseInteger, setter, "a whole number", false);
+        }
+
+        public Builder<T> decimal(String header, BiConsumer<T, BigDecimal> setter) {
+            return column(header, FieldParsers::parseDecimal, setter, "a number", false);
+        }
+
+        public Builder<T> bool(String header, BiConsumer<T, Boolean> setter) {
+            return column(header, FieldParsers::parseBoolean, setter, "true or false", false);
+        }
+
+        public Builder<T> date(String header, BiConsumer<T, LocalDate> setter) {
+            return column(header, FieldParsers::parseDate, setter, "a date", true);
+        }
+
+        public Builder<T> dateTime(String header, BiConsumer<T, LocalDateTime> setter) {
+            return column(header, FieldParsers::parseDateTime, setter, "a date and time", true);
+        }
+
+        public <E extends Enum<E>> Builder<T> enumeration(String header, Class<E> type, BiConsumer<T, E> setter) {
+            return column(header, FieldParsers.enumParser(type), setter,
+                    "one of " + Arrays.toString(type.getEnumConstants()), false);
+        }
+
+        public CsvRecordBinder<T> build() {
+            return new CsvRecordBinder<>(List.copyOf(columns));
+        }
+
+        private <V> Builder<T> column(String header, Function<String, V> parser, BiConsumer<T, V> setter,
+                                      String expected, boolean zeroIsBlank) {
+            columns.add(new Column<>(header, parser, setter, expected, zeroIsBlank));
+            return this;
+        }
+    }
+
+    private record Column<T, V>(String header, Function<String, V> parser, BiConsumer<T, V> setter,
+                                String expected, boolean zeroIsBlank) {
+
+        /**
+         * @return false if the value could not be parsed.
+         */
+        boolean bind(T target, String value) {
+            V parsed = parser.apply(value);
+            if (parsed == null) {
+                return false;
+            }
+            setter.accept(target, parsed);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package me.vasujain.shelfwise.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Request for a page of results read with keyset pagination.
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class CursorPageRequest {
+    /** Continuation token returned with the previous page; blank for the first page. */
+    private final String cursor;
+    private final int size;
+    private final Sort sort;
+    /** Whether to run the additional count query for the total number of results. */
+    private final boolean withCount;
+}
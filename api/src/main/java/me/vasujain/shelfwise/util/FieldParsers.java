@@ -0,0 +1,216 @@
+package me.vasujain.shelfwise.util;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Parsers for the values found in imported files. They take trimmed, non-blank text and return
+ * {@code null} when it is not a valid value, so that a bad value costs no exception and a good one
+ * no more than the value itself.
+ *
+ * <p>Dates are read as {@code yyyy-M-d} or {@code M/d/yyyy}; date-times as ISO
+ * {@code yyyy-MM-ddTHH:mm[:ss[.fffffffff]]}, with a space allowed for the {@code T}, or as a date
+ * alone, taken at the start of the day.
+ */
+public final class FieldParsers {
+
+    private FieldParsers() {
+    }
+
+    public static Integer parseInteger(String text) {
+        int length = text.length();
+        int start = text.charAt(0) == '-' || text.charAt(0) == '+' ? 1 : 0;
+        if (start == length || length - start > 10) {
+            return null;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            value = value * 10 + digit;
+        }
+        value = start == 1 && text.charAt(0) == '-' ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? null : (int) value;
+    }
+
+    public static BigDecimal parseDecimal(String text) {
+        int length = text.length();
+        int start = text.charAt(0) == '-' || text.charAt(0) == '+' ? 1 : 0;
+        boolean digits = false;
+        boolean point = false;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return null;
+            }
+        }
+        return digits ? new BigDecimal(text) : null;
+    }
+
+    public static Boolean parseBoolean(String text) {
+        return switch (text.toLowerCase()) {
+            case "true", "yes", "y", "1" -> Boolean.TRUE;
+            case "false", "no", "n", "0" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    public static LocalDate parseDate(String text) {
+        Scanner scanner = new Scanner(text);
+        LocalDate date = scanner.date();
+        return date != null && scanner.atEnd() ? date : null;
+    }
+
+    /**
+     * Reads a number of seconds since the epoch as the date it falls on (UTC). Only for sources known to
+     * write dates that way: any run of digits is accepted, so a year or a {@code yyyyMMdd} date would be
+     * read as a day of 1970.
+     */
+    public static LocalDate parseEpochSeconds(String text) {
+        if (text.length() > 12) {
+            return null;
+        }
+        long seconds = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            seconds = seconds * 10 + digit;
+        }
+        return LocalDate.ofEpochDay(seconds / 86400);
+    }
+
+    public static LocalDateTime parseDateTime(String text) {
+        Scanner scanner = new Scanner(text);
+        LocalDate date = scanner.date();
+        if (date == null) {
+            return null;
+        }
+        if (scanner.atEnd()) {
+            return date.atStartOfDay();
+        }
+        if (!scanner.skip('T') && !scanner.skip(' ')) {
+            return null;
+        }
+        int hour = scanner.number(2, 2);
+        int minute = scanner.skip(':') ? scanner.number(2, 2) : -1;
+        int second = 0;
+        int nanos = 0;
+        if (scanner.skip(':')) {
+            second = scanner.number(2, 2);
+            if (scanner.skip('.')) {
+                int from = scanner.position;
+                int fraction = scanner.number(1, 9);
+                if (fraction < 0) {
+                    return null;
+                }
+                nanos = fraction;
+                for (int digits = scanner.position - from; digits < 9; digits++) {
+                    nanos *= 10;
+                }
+            }
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || !scanner.atEnd()) {
+            return null;
+        }
+        return date.atTime(hour, minute, second, nanos);
+    }
+
+    /**
+     * @return A parser of the names of the constants of an enum, ignoring case.
+     */
+    public static <E extends Enum<E>> Function<String, E> enumParser(Class<E> type) {
+        Map<String, E> constants = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (E constant : type.getEnumConstants()) {
+            constants.put(constant.name(), constant);
+        }
+        return constants::get;
+    }
+
+    // ===============================
+    // PRIVATE HELPER METHODS
+    // ===============================
+
+    private static LocalDate validDate(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Reads numbers and separators from the start of a text, left to right.
+     */
+    private static final class Scanner {
+        private final String text;
+        private int position;
+
+        Scanner(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Reads {@code yyyy-M-d} or {@code M/d/yyyy}.
+         */
+        LocalDate date() {
+            int first = number(1, 4);
+            if (first < 0) {
+                return null;
+            }
+            if (position == 4 && skip('-')) {
+                int month = number(1, 2);
+                int day = skip('-') ? number(1, 2) : -1;
+                return validDate(first, month, day);
+            }
+            if (position <= 2 && skip('/')) {
+                int day = number(1, 2);
+                int year = skip('/') ? number(4, 4) : -1;
+                return validDate(year, first, day);
+            }
+            return null;
+        }
+
+        /**
+         * @return The number made of the next {@code min} to {@code max} digits, or -1 if there are fewer.
+         */
+        int number(int min, int max) {
+            int value = 0;
+            int digits = 0;
+            while (digits < max && position < text.length()) {
+                int digit = text.charAt(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                position++;
+                digits++;
+            }
+            return digits < min ? -1 : value;
+        }
+
+        boolean skip(char separator) {
+            if (position < text.length() && text.charAt(position) == separator) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean atEnd() {
+            return position == text.length();
+        }
+    }
+}
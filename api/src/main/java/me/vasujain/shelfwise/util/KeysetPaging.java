@@ -0,0 +1,240 @@
+package me.vasujain.shelfwise.util;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import me.vasujain.shelfwise.response.CursorPage;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination over a Specification.
+ *
+ * <p>Instead of skipping {@code page * size} rows, each page continues after the sort key of the
+ * last row of the previous page, so deep pages cost the same as the first one. The sort is always
+ * completed with the entity ID as a tiebreaker, and the continuation token handed to clients
+ * encodes the sort key values of the last row. Sort columns may be null: NULL sorts below every
+ * value, as MySQL orders it, so it comes first in ascending and last in descending order.
+ */
+public final class KeysetPaging {
+
+    private static final String ID = "id";
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final char ENTRY_SEPARATOR = '\u001e';
+    private static final String ENUM_PACKAGE = "me.vasujain.shelfwise.enums.";
+    private static final String NULL_TYPE = "z";
+
+    private KeysetPaging() {
+    }
+
+    public static <T> CursorPage<T> scroll(JpaSpecificationExecutor<T> repository, Specification<T> spec, CursorPageRequest request) {
+        return scroll(repository, spec, request, new String[0]);
+    }
+
+    /**
+     * Like {@link #scroll(JpaSpecificationExecutor, Specification, CursorPageRequest)}, fetching the
+     * given associations together with each row.
+     */
+    public static <T> CursorPage<T> scroll(JpaSpecificationExecutor<T> repository, Specification<T> spec, CursorPageRequest request,
+                                           String... fetch) {
+        Specification<T> filter = spec != null ? spec : (root, query, cb) -> null;
+        Sort sort = withTiebreaker(request.getSort());
+        Map<String, Object> position = decode(request.getCursor(), sort);
+
+        // One row beyond the page tells whether there is a next page
+        List<T> rows = repository.findBy(withFetches(filter.and(after(position, sort)), fetch), query -> query
+                .sortBy(sort)
+                .limit(request.getSize() + 1)
+                .all());
+
+        boolean hasNext = rows.size() > request.getSize();
+        List<T> content = hasNext ? rows.subList(0, request.getSize()) : rows;
+        String nextCursor = hasNext ? encode(keysOf(content.get(content.size() - 1), sort)) : null;
+        Long total = request.isWithCount() ? repository.count(filter) : null;
+        return new CursorPage<>(List.copyOf(content), nextCursor, request.getSize(), total);
+    }
+
+    /**
+     * Fetch-joins the given associations into the row query. The fluent query API ignores projected
+     * properties, so they are added to the Specification instead.
+     */
+    private static <T> Specification<T> withFetches(Specification<T> spec, String... fetch) {
+        if (fetch.length == 0) {
+            return spec;
+        }
+        return (root, query, cb) -> {
+            for (String association : fetch) {
+                root.fetch(association, JoinType.LEFT);
+            }
+            return spec.toPredicate(root, query, cb);
+        };
+    }
+
+    private static Sort withTiebreaker(Sort sort) {
+        if (sort.getOrderFor(ID) != null) {
+            return sort;
+        }
+        Sort.Direction direction = sort.stream().findFirst().map(Sort.Order::getDirection).orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, ID));
+    }
+
+    /**
+     * Rows sorting after the given sort key values: for some sort column, the row is after the value
+     * and equal to the values of every column before it.
+     */
+    private static <T> Specification<T> after(Map<String, Object> position, Sort sort) {
+        if (position.isEmpty()) {
+            return (root, query, cb) -> null;
+        }
+        return (root, query, cb) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalBefore = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                Path<Comparable<Object>> path = path(root, order.getProperty());
+                Object value = position.get(order.getProperty());
+                Predicate after = after(cb, path, value, order.isAscending());
+                if (after != null) {
+                    List<Predicate> alternative = new ArrayList<>(equalBefore);
+                    alternative.add(after);
+                    alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+                }
+                equalBefore.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+            }
+            return cb.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Values sorting after the given one, or null when none can.
+     */
+    @SuppressWarnings("unchecked")
+    private static Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> path, Object value, boolean ascending) {
+        if (value == null) {
+            return ascending ? cb.isNotNull(path) : null;
+        }
+        Comparable<Object> comparable = (Comparable<Object>) value;
+        return ascending
+                ? cb.greaterThan(path, comparable)
+                : cb.or(cb.lessThan(path, comparable), cb.isNull(path));
+    }
+
+    private static <T, Y> Path<Y> path(Root<T> root, String property) {
+        Path<?> path = root;
+        for (String segment : property.split("\\.")) {
+            path = path.get(segment);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> typed = (Path<Y>) path;
+        return typed;
+    }
+
+    private static Map<String, Object> keysOf(Object row, Sort sort) {
+        BeanWrapper wrapper = new BeanWrapperImpl(row);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        sort.forEach(order -> keys.put(order.getProperty(), wrapper.getPropertyValue(order.getProperty())));
+        return keys;
+    }
+
+    // ===============================
+    // CONTINUATION TOKENS
+    // ===============================
+
+    private static String encode(Map<String, Object> keys) {
+        StringBuilder token = new StringBuilder();
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            Object value = key.getValue();
+            if (!token.isEmpty()) {
+                token.append(ENTRY_SEPARATOR);
+            }
+            token.append(key.getKey()).append(FIELD_SEPARATOR)
+                    .append(typeOf(value)).append(FIELD_SEPARATOR)
+                    .append(value instanceof Enum<?> constant ? constant.name() : String.valueOf(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token, checking that it was issued for the same sort.
+     */
+    private static Map<String, Object> decode(String cursor, Sort sort) {
+        if (!StringUtils.hasText(cursor)) {
+            return Map.of();
+        }
+
+        Set<String> expected = new HashSet<>();
+        sort.forEach(order -> expected.add(order.getProperty()));
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String entry : token.split(String.valueOf(ENTRY_SEPARATOR))) {
+                String[] parts = entry.split(String.valueOf(FIELD_SEPARATOR), 3);
+                keys.put(parts[0], valueOf(parts[1], parts[2]));
+            }
+        } catch (RuntimeException | ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+        if (!keys.keySet().equals(expected)) {
+            throw new IllegalArgumentException("Pagination cursor does not match the requested sort order");
+        }
+        return keys;
+    }
+
+    private static String typeOf(Object value) {
+        if (value == null) return NULL_TYPE;
+        if (value instanceof Enum<?> constant) {
+            return "e:" + constant.getDeclaringClass().getSimpleName();
+        }
+        if (value instanceof String) return "s";
+        if (value instanceof UUID) return "u";
+        if (value instanceof Integer) return "i";
+        if (value instanceof Long) return "l";
+        if (value instanceof BigDecimal) return "n";
+        if (value instanceof Boolean) return "b";
+        if (value instanceof LocalDate) return "d";
+        if (value instanceof LocalDateTime) return "t";
+        throw new IllegalArgumentException("Unsupported sort key type for keyset pagination: "
+                + value.getClass().getSimpleName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object valueOf(String type, String value) throws ReflectiveOperationException {
+        if (type.startsWith("e:")) {
+            Class<?> enumType = Class.forName(ENUM_PACKAGE + type.substring(2));
+            if (!enumType.isEnum()) {
+                throw new IllegalArgumentException("Not an enum: " + type);
+            }
+            return Enum.valueOf((Class<? extends Enum>) enumType, value);
+        }
+        return switch (type) {
+            case NULL_TYPE -> null;
+            case "s" -> value;
+            case "u" -> UUID.fromString(value);
+            case "i" -> Integer.valueOf(value);
+            case "l" -> Long.valueOf(value);
+            case "n" -> new BigDecimal(value);
+            case "b" -> Boolean.valueOf(value);
+            case "d" -> LocalDate.parse(value);
+            case "t" -> LocalDateTime.parse(value);
+            default -> throw new IllegalArgumentException("Unknown sort key type: " + type);
+        };
+    }
+}
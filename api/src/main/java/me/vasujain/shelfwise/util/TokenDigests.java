@@ -0,0 +1,28 @@
+package me.vasujain.shelfwise.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Digests under which tokens are cached and stored, so that the bearer tokens themselves are neither
+ * kept in memory nor written to the database.
+ */
+public final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    /**
+     * @return The SHA-256 digest of the token, as 64 lowercase hexadecimal characters.
+     */
+    public static String sha256(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package me.vasujain.shelfwise.controllers;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.vasujain.shelfwise.enums.TransactionStatus;
+import me.vasujain.shelfwise.enums.TransactionType;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.models.BookTransaction;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the transaction listings. Every row maps its book, borrower and issuer, so a listing
+ * that stops fetching them grows by a select per row and fails here.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class BookTransactionControllerStatementTest {
+
+    private static final int TRANSACTIONS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Book book;
+
+    private User borrower;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        List<User> members = new ArrayList<>();
+        List<User> admins = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            members.add(user("M-" + i, UserRole.MEMBER));
+            admins.add(user("A-" + i, UserRole.ADMIN));
+        }
+        userRepository.saveAll(members);
+        userRepository.saveAll(admins);
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            books.add(Book.builder().accessionNumber("T-" + i).title("Ledger " + i).authorPrimary("Author " + i).build());
+        }
+        bookRepository.saveAll(books);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions.add(BookTransaction.builder()
+                    .book(books.get(i))
+                    .user(members.get(i % 2))
+                    .issuedBy(admins.get(i % 2))
+                    .transactionType(TransactionType.ISSUE)
+                    .issueDate(now.minusDays(30 + i))
+                    .dueDate(now.minusDays(16 + i))
+                    .status(TransactionStatus.ACTIVE)
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+
+        book = books.get(0);
+        borrower = members.get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Other tests clear books and users without knowing about transactions
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void pagedListingsTakeRowsAndCount() throws Exception {
+        assertStatements("/api/transactions?size=4", 4, 2);
+        assertStatements("/api/transactions/active?size=4", 4, 2);
+        assertStatements("/api/transactions/overdue?size=4", 4, 2);
+        assertStatements("/api/transactions/search?query=ledger&size=4", 4, 2);
+        assertStatements("/api/transactions/user/" + borrower.getId() + "?size=2", 2, 2);
+        assertStatements("/api/transactions/user/" + borrower.getId() + "/active?size=2", 2, 2);
+    }
+
+    @Test
+    void cursorListingsTakeOneStatement() throws Exception {
+        assertStatements("/api/transactions?cursor=&size=4", 4, 1);
+        assertStatements("/api/transactions/active?cursor=&size=4", 4, 1);
+        assertStatements("/api/transactions/overdue?cursor=&size=4", 4, 1);
+        assertStatements("/api/transactions/search?query=ledger&cursor=&size=4", 4, 1);
+        assertStatements("/api/transactions/user/" + borrower.getId() + "?cursor=&size=2", 2, 1);
+        assertStatements("/api/transactions/book/" + book.getId() + "?cursor=", 1, 1);
+    }
+
+    @Test
+    void historyTakesOneStatement() throws Exception {
+        assertStatements("/api/transactions/user/" + borrower.getId() + "/history", TRANSACTIONS / 2, 1);
+    }
+
+    private void assertStatements(String uri, int rows, long budget) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(rows)))
+                .andExpect(jsonPath("$.data[0].bookTitle").exists());
+
+        assertThat(statistics.getPrepareStatementCount()).as(uri).isEqualTo(budget);
+    }
+
+    private static User user(String employeeId, UserRole role) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("User " + employeeId)
+                .userRole(role)
+                .password("{noop}secret")
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package me.vasujain.shelfwise.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class DataExportControllerTest {
+
+    private static final String CSV = "text/csv";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void defaultsToCsv() throws Exception {
+        assertNegotiated(null, CSV);
+        assertNegotiated("*/*", CSV);
+    }
+
+    @Test
+    void refusesHeadersAcceptingNoFormat() throws Exception {
+        mockMvc.perform(get("/api/export/books").header(HttpHeaders.ACCEPT, "application/pdf"))
+                .andExpect(status().isNotAcceptable());
+        mockMvc.perform(get("/api/export/books").header(HttpHeaders.ACCEPT, "*/*;q=0"))
+                .andExpect(status().isNotAcceptable());
+        mockMvc.perform(get("/api/export/books").header(HttpHeaders.ACCEPT, "text/csv;q=0, application/*;q=0"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void prefersTheHighestQuality() throws Exception {
+        assertNegotiated("text/csv;q=0.5, application/x-ndjson", NDJSON);
+        assertNegotiated("application/x-ndjson;q=0.1, text/csv", CSV);
+        assertNegotiated("*/*;q=0.8, " + XLSX, XLSX);
+        assertNegotiated("application/*;q=0.9, text/csv;q=0.2", NDJSON);
+    }
+
+    @Test
+    void excludesFormatsRatedZeroEvenUnderWildcards() throws Exception {
+        assertNegotiated("*/*, text/csv;q=0", NDJSON);
+        assertNegotiated("text/*, text/csv;q=0, application/x-ndjson;q=0.3", NDJSON);
+    }
+
+    @Test
+    void breaksTiesBySpecificity() throws Exception {
+        assertNegotiated("*/*, application/x-ndjson", NDJSON);
+        assertNegotiated("application/*, " + XLSX, XLSX);
+    }
+
+    @Test
+    void formatParameterOverridesTheHeader() throws Exception {
+        mockMvc.perform(get("/api/export/books").param("format", "xlsx").header(HttpHeaders.ACCEPT, CSV))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, XLSX));
+    }
+
+    private void assertNegotiated(String accept, String expected) throws Exception {
+        var request = get("/api/export/books");
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept);
+        }
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, expected));
+    }
+}
@@ -0,0 +1,211 @@
+package me.vasujain.shelfwise.filters;
+
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.enums.UserStatus;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.models.UserPrincipal;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.JwtService;
+import me.vasujain.shelfwise.services.TokenRevocationList;
+import me.vasujain.shelfwise.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User member;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        member = userRepository.save(user("MEMBER-" + UUID.randomUUID(), UserRole.MEMBER, UserStatus.ACTIVE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+    }
+
+    @Test
+    void authorizesFromTheClaimsWithoutLoadingTheUser() throws Exception {
+        // The admin was never saved, so only the token can vouch for them
+        User admin = unsaved(UserRole.ADMIN, UserStatus.ACTIVE);
+
+        getMember(jwtService.generateAccessToken(admin)).andExpect(status().isOk());
+    }
+
+    @Test
+    void readsThePrincipalOfAccessTokensOnly() {
+        UserPrincipal principal = jwtService.readPrincipal(jwtService.verifyToken(jwtService.generateAccessToken(member)));
+
+        assertThat(principal).isEqualTo(UserPrincipal.of(member));
+        assertThat(jwtService.readPrincipal(jwtService.verifyToken(jwtService.generateRefreshToken(member)))).isNull();
+    }
+
+    @Test
+    void refusesRefreshTokensAsBearerTokens() throws Exception {
+        // A saved admin, whom the database lookup would otherwise find
+        User admin = userRepository.save(user("ADMIN-" + UUID.randomUUID(), UserRole.ADMIN, UserStatus.ACTIVE));
+
+        getMember(jwtService.generateRefreshToken(admin)).andExpect(status().isUnauthorized());
+        getMember(jwtService.generateToken(Map.of(), admin, 60_000)).andExpect(status().isUnauthorized());
+        getMember(jwtService.generateAccessToken(admin)).andExpect(status().isOk());
+    }
+
+    @Test
+    void refusesMembersOnAdminRoutes() throws Exception {
+        getMember(jwtService.generateAccessToken(member)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refusesPrincipalsThatMayNotSignIn() throws Exception {
+        User suspended = unsaved(UserRole.ADMIN, UserStatus.SUSPENDED);
+        User inactive = unsaved(UserRole.ADMIN, UserStatus.INACTIVE);
+
+        getMember(jwtService.generateAccessToken(suspended)).andExpect(status().isUnauthorized());
+        getMember(jwtService.generateAccessToken(inactive)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refusesARevokedToken() throws Exception {
+        User admin = unsaved(UserRole.ADMIN, UserStatus.ACTIVE);
+        String revoked = jwtService.generateAccessToken(admin);
+        String other = jwtService.generateAccessToken(admin);
+
+        tokenRevocationList.revokeToken(jwtService.verifyToken(revoked));
+
+        getMember(revoked).andExpect(status().isUnauthorized());
+        getMember(other).andExpect(status().isOk());
+    }
+
+    @Test
+    void statusChangesRevokeTheUsersTokens() throws Exception {
+        User admin = userRepository.save(user("ADMIN-" + UUID.randomUUID(), UserRole.ADMIN, UserStatus.ACTIVE));
+        String token = jwtService.generateAccessToken(admin);
+        getMember(token).andExpect(status().isOk());
+
+        userService.updateUserStatus(admin.getId(), UserStatus.SUSPENDED);
+        userService.updateUserStatus(admin.getId(), UserStatus.ACTIVE);
+
+        // The token still says ACTIVE, but was issued before the change
+        getMember(token).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void revokesTokensIssuedWhileAChangeIsCommitting() throws Exception {
+        User admin = userRepository.save(user("ADMIN-" + UUID.randomUUID(), UserRole.ADMIN, UserStatus.ACTIVE));
+
+        String issuedDuringChange = new TransactionTemplate(transactionManager).execute(status -> {
+            userService.updateUserStatus(admin.getId(), UserStatus.SUSPENDED);
+            // A login racing the change still reads the user as committed, active
+            String token = jwtService.generateAccessToken(admin);
+            LockSupport.parkNanos(Duration.ofMillis(5).toNanos());
+            return token;
+        });
+
+        getMember(issuedDuringChange).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void honoursTokensIssuedAfterARevocationInTheSameSecond() throws Exception {
+        User admin = unsaved(UserRole.ADMIN, UserStatus.ACTIVE);
+        // Start at the beginning of a second, so that the revocation and both logins share it
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000);
+        String before = jwtService.generateAccessToken(admin);
+        Thread.sleep(5);
+        tokenRevocationList.revokeUser(admin.getEmployeeId());
+        Thread.sleep(5);
+        String after = jwtService.generateAccessToken(admin);
+
+        getMember(before).andExpect(status().isUnauthorized());
+        getMember(after).andExpect(status().isOk());
+    }
+
+    @Test
+    void loadsTheUserWhenStatelessPrincipalsAreOff() throws Exception {
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", false);
+        User stranger = unsaved(UserRole.ADMIN, UserStatus.ACTIVE);
+        User demoted = userRepository.save(user("ADMIN-" + UUID.randomUUID(), UserRole.ADMIN, UserStatus.ACTIVE));
+        String demotedToken = jwtService.generateAccessToken(demoted);
+        demoted.setUserRole(UserRole.MEMBER);
+        userRepository.save(demoted);
+        User admin = userRepository.save(user("ADMIN-" + UUID.randomUUID(), UserRole.ADMIN, UserStatus.ACTIVE));
+
+        getMember(jwtService.generateAccessToken(stranger)).andExpect(status().isUnauthorized());
+        getMember(demotedToken).andExpect(status().isUnauthorized());
+        getMember(jwtService.generateAccessToken(admin)).andExpect(status().isOk());
+    }
+
+    private ResultActions getMember(String accessToken) throws Exception {
+        return mockMvc.perform(get("/api/users/{id}", member.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken));
+    }
+
+    /**
+     * A user that exists only in the tokens issued to it.
+     */
+    private static User unsaved(UserRole role, UserStatus status) {
+        User user = user(role.name() + "-" + UUID.randomUUID(), role, status);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private static User user(String employeeId, UserRole role, UserStatus status) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("Test " + employeeId)
+                .userRole(role)
+                .userStatus(status)
+                .password("{noop}secret")
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package me.vasujain.shelfwise.repositories;
+
+import me.vasujain.shelfwise.enums.BookStatus;
+import me.vasujain.shelfwise.enums.TransactionStatus;
+import me.vasujain.shelfwise.enums.TransactionType;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.models.BookTransaction;
+import me.vasujain.shelfwise.models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookCopyUpdateTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactions;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        transactions = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Other tests clear books and users without knowing about transactions
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void issuingTheLastCopyMarksTheBookIssued() {
+        UUID id = saveBook(2, false).getId();
+
+        assertThat(issueCopy(id)).isEqualTo(1);
+        assertThat(bookRepository.findById(id)).get()
+                .satisfies(book -> {
+                    assertThat(book.getAvailableCopies()).isEqualTo(1);
+                    assertThat(book.getBookStatus()).isEqualTo(BookStatus.AVAILABLE);
+                });
+
+        assertThat(issueCopy(id)).isEqualTo(1);
+        assertThat(issueCopy(id)).isZero();
+        assertThat(bookRepository.findById(id)).get()
+                .satisfies(book -> {
+                    assertThat(book.getAvailableCopies()).isZero();
+                    assertThat(book.getBookStatus()).isEqualTo(BookStatus.ISSUED);
+                });
+    }
+
+    @Test
+    void referenceOnlyBooksAreNotIssued() {
+        UUID id = saveBook(3, true).getId();
+
+        assertThat(issueCopy(id)).isZero();
+        assertThat(bookRepository.findById(id)).get().extracting(Book::getAvailableCopies).isEqualTo(3);
+    }
+
+    @Test
+    void returningACopyMakesAnIssuedBookAvailable() {
+        UUID id = saveBook(1, false).getId();
+        issueCopy(id);
+
+        int updated = transactions.execute(status -> bookRepository.returnCopy(id, BookStatus.AVAILABLE, BookStatus.ISSUED));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(bookRepository.findById(id)).get()
+                .satisfies(book -> {
+                    assertThat(book.getAvailableCopies()).isEqualTo(1);
+                    assertThat(book.getBookStatus()).isEqualTo(BookStatus.AVAILABLE);
+                });
+    }
+
+    @Test
+    void concurrentIssuesTakeOnlyTheCopiesThereAre() throws Exception {
+        UUID id = saveBook(2, false).getId();
+        int desks = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(desks);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < desks; i++) {
+                Callable<Integer> issue = () -> {
+                    start.await();
+                    return issueCopy(id);
+                };
+                results.add(executor.submit(issue));
+            }
+            start.countDown();
+
+            int issued = 0;
+            for (Future<Integer> result : results) {
+                issued += result.get();
+            }
+            assertThat(issued).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(bookRepository.findById(id)).get()
+                .satisfies(book -> {
+                    assertThat(book.getAvailableCopies()).isZero();
+                    assertThat(book.getBookStatus()).isEqualTo(BookStatus.ISSUED);
+                });
+    }
+
+    @Test
+    void aTransactionIsClosedOnlyOnce() {
+        User member = userRepository.save(user("M-1", UserRole.MEMBER));
+        User admin = userRepository.save(user("A-1", UserRole.ADMIN));
+        BookTransaction transaction = transactionRepository.save(BookTransaction.builder()
+                .book(saveBook(1, false))
+                .user(member)
+                .issuedBy(admin)
+                .transactionType(TransactionType.ISSUE)
+                .issueDate(LocalDateTime.now().minusDays(3))
+                .dueDate(LocalDateTime.now().plusDays(11))
+                .status(TransactionStatus.ACTIVE)
+                .build());
+
+        List<Integer> closed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            closed.add(transactions.execute(status -> transactionRepository.closeTransaction(transaction.getId(),
+                    TransactionStatus.ACTIVE, TransactionStatus.COMPLETED, LocalDateTime.now(), admin, null)));
+        }
+
+        assertThat(closed).containsExactly(1, 0, 0);
+        assertThat(transactionRepository.findById(transaction.getId())).get()
+                .extracting(BookTransaction::getStatus).isEqualTo(TransactionStatus.COMPLETED);
+    }
+
+    private int issueCopy(UUID id) {
+        return transactions.execute(status -> bookRepository.issueCopy(id, BookStatus.AVAILABLE, BookStatus.ISSUED));
+    }
+
+    private Book saveBook(int copies, boolean referenceOnly) {
+        return bookRepository.save(Book.builder()
+                .accessionNumber("C-" + UUID.randomUUID())
+                .title("Copies")
+                .authorPrimary("Author")
+                .totalCopies(copies)
+                .availableCopies(copies)
+                .isReferenceOnly(referenceOnly)
+                .build());
+    }
+
+    private static User user(String employeeId, UserRole role) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("User " + employeeId)
+                .userRole(role)
+                .password("{noop}secret")
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package me.vasujain.shelfwise.repositories;
+
+import me.vasujain.shelfwise.dtos.BookSummaryDTO;
+import me.vasujain.shelfwise.enums.BookStatus;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.support.RecordingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookSummaryRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private List<Book> books;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        books = bookRepository.saveAll(List.of(
+                book("S-1", "Godan", BookStatus.AVAILABLE),
+                book("S-2", "Gaban", BookStatus.ISSUED),
+                book("S-3", "Nirmala", BookStatus.AVAILABLE)));
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void readsOnlySummaryColumns() {
+        Page<BookSummaryDTO> page = bookRepository.findSummaries(null, PageRequest.of(0, 2, Sort.by("title")));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(BookSummaryDTO::getAccessionNumber, BookSummaryDTO::getTitle,
+                        BookSummaryDTO::getAuthorPrimary, BookSummaryDTO::getBookStatus)
+                .containsExactly(tuple("S-2", "Gaban", "Premchand", BookStatus.ISSUED),
+                        tuple("S-1", "Godan", "Premchand", BookStatus.AVAILABLE));
+        String select = RecordingStatementInspector.statements().get(0).toLowerCase(Locale.ROOT);
+        assertThat(select).contains("accession_number").doesNotContain("notes").doesNotContain("subtitle");
+    }
+
+    @Test
+    void filtersWithSpecification() {
+        Specification<Book> available = (root, query, cb) -> cb.equal(root.get("bookStatus"), BookStatus.AVAILABLE);
+
+        Page<BookSummaryDTO> page = bookRepository.findSummaries(available, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "title")));
+
+        assertThat(page.getContent()).extracting(BookSummaryDTO::getTitle).containsExactly("Nirmala", "Godan");
+    }
+
+    @Test
+    void findsSummariesById() {
+        List<BookSummaryDTO> summaries = bookRepository.findSummariesByIdIn(List.of(books.get(0).getId(), books.get(2).getId()));
+
+        assertThat(summaries).extracting(BookSummaryDTO::getTitle).containsExactlyInAnyOrder("Godan", "Nirmala");
+        assertThat(bookRepository.findSummariesByIdIn(List.of())).isEmpty();
+    }
+
+    private static Book book(String accessionNumber, String title, BookStatus status) {
+        return Book.builder()
+                .accessionNumber(accessionNumber)
+                .title(title)
+                .authorPrimary("Premchand")
+                .subtitle("Subtitle of " + title)
+                .notes("Notes on " + title)
+                .bookStatus(status)
+                .build();
+    }
+}
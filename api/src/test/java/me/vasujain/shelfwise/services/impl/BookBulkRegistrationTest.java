@@ -0,0 +1,155 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.BookCreateDTO;
+import me.vasujain.shelfwise.enums.BookStatus;
+import me.vasujain.shelfwise.enums.BookType;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.services.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookBulkRegistrationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    private Object chunkSize;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        bookRepository.save(Book.builder().accessionNumber("BULK-0").title("Already there").build());
+
+        chunkSize = ReflectionTestUtils.getField(target(), "chunkSize");
+        ReflectionTestUtils.setField(target(), "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(target(), "chunkSize", chunkSize);
+    }
+
+    @Test
+    void registersValidBooksAndReportsTheRest() throws IOException {
+        Map<String, Object> result = bookService.registerBulkBooks(json("""
+                [
+                  {"accessionNumber": "BULK-1", "title": "Godan", "bookStatus": "AVAILABLE", "bookType": "GENERAL", "publicationYear": 1936},
+                  {"accessionNumber": "BULK-0", "title": "Stored before", "bookStatus": "AVAILABLE", "bookType": "GENERAL"},
+                  {"accessionNumber": "BULK-2", "title": "Gaban", "bookStatus": "AVAILABLE", "bookType": "GENERAL", "purchaseDate": "2024-01-15"},
+                  {"accessionNumber": "BULK-1", "title": "Repeated in the upload", "bookStatus": "AVAILABLE", "bookType": "GENERAL"},
+                  {"accessionNumber": "BULK-3", "title": "Too old", "bookStatus": "AVAILABLE", "bookType": "GENERAL", "publicationYear": 10},
+                  {"accessionNumber": "BULK-4", "title": "Unreadable", "bookStatus": "AVAILABLE", "bookType": "GENERAL", "publicationYear": "soon"},
+                  {"title": "No accession number", "bookStatus": "AVAILABLE", "bookType": "GENERAL"},
+                  {"accessionNumber": "BULK-5", "title": "Nirmala", "bookStatus": "AVAILABLE", "bookType": "GENERAL"}
+                ]
+                """));
+
+        assertThat(result.get("booksCreated")).isEqualTo(3);
+        assertThat(failed(result)).containsExactlyInAnyOrder("BULK-0", "BULK-1", "BULK-3", "BULK-4", "MISSING_ACCESSION_NUMBER");
+        assertThat(bookRepository.findAll()).extracting(Book::getAccessionNumber)
+                .containsExactlyInAnyOrder("BULK-0", "BULK-1", "BULK-2", "BULK-5");
+        assertThat(bookRepository.findByAccessionNumber("BULK-1")).get().extracting(Book::getTitle).isEqualTo("Godan");
+    }
+
+    @Test
+    void readsPurchaseDatesAsDatesOrEpochSeconds() throws IOException {
+        bookService.registerBulkBooks(json("""
+                [
+                  {"accessionNumber": "BULK-1", "title": "Godan", "bookStatus": "AVAILABLE", "bookType": "GENERAL", "purchaseDate": "1/15/2024"},
+                  {"accessionNumber": "BULK-2", "title": "Gaban", "bookStatus": "AVAILABLE", "bookType": "GENERAL", "purchaseDate": "1705276800"},
+                  {"accessionNumber": "BULK-3", "title": "Nirmala", "bookStatus": "AVAILABLE", "bookType": "GENERAL", "purchaseDate": "0"}
+                ]
+                """));
+
+        assertThat(bookRepository.findByAccessionNumber("BULK-1")).get().extracting(Book::getPurchaseDate)
+                .isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(bookRepository.findByAccessionNumber("BULK-2")).get().extracting(Book::getPurchaseDate)
+                .isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(bookRepository.findByAccessionNumber("BULK-3")).get().extracting(Book::getPurchaseDate)
+                .isNull();
+    }
+
+    @Test
+    void keepsTheBooksReadBeforeMalformedJson() {
+        InputStream upload = json("""
+                [
+                  {"accessionNumber": "BULK-1", "title": "Godan", "bookStatus": "AVAILABLE", "bookType": "GENERAL"},
+                  {"accessionNumber": "BULK-2", "title": "Gaban", "bookStatus": "AVAILABLE", "bookType": "GENERAL"},
+                  {"accessionNumber": "BULK-3", "title": "Nirmala", "bookStatus": "AVAILABLE", "bookType": "GENERAL"},
+                  {"accessionNumber": "BULK-4", "title":
+                """);
+
+        assertThatThrownBy(() -> bookService.registerBulkBooks(upload))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid JSON at line")
+                .hasMessageEndingWith("3 books before it were created.");
+        assertThat(bookRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsAnythingButAnArray() {
+        assertThatThrownBy(() -> bookService.registerBulkBooks(json("{\"accessionNumber\": \"BULK-1\"}")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The file must contain a JSON array of books");
+        assertThat(bookRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void listUploadsGoThroughTheSameBatches() {
+        Map<String, Object> result = bookService.registerBulkBooks(List.of(
+                book("BULK-1"), book("BULK-2"), book("BULK-0"), book("BULK-3"), book("BULK-2")));
+
+        assertThat(result.get("booksCreated")).isEqualTo(3);
+        assertThat(failed(result)).containsExactlyInAnyOrder("BULK-0", "BULK-2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> failed(Map<String, Object> result) {
+        return (List<String>) result.get("failedAccessionNumbers");
+    }
+
+    private static BookCreateDTO book(String accessionNumber) {
+        BookCreateDTO book = new BookCreateDTO();
+        book.setAccessionNumber(accessionNumber);
+        book.setTitle("Title of " + accessionNumber);
+        book.setBookStatus(BookStatus.AVAILABLE);
+        book.setBookType(BookType.GENERAL);
+        return book;
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object target() {
+        return AopTestUtils.getTargetObject(bookService);
+    }
+}
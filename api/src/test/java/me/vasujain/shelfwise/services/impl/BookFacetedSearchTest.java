@@ -0,0 +1,105 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.BookFacetedSearchDTO;
+import me.vasujain.shelfwise.dtos.BookSearchDTO;
+import me.vasujain.shelfwise.enums.BookType;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.services.BookService;
+import me.vasujain.shelfwise.support.RecordingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookFacetedSearchTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        List<Book> books = new ArrayList<>();
+        // Publisher i carries i + 1 books, so "Publisher 29" is the most frequent
+        for (int i = 0; i < 30; i++) {
+            for (int copy = 0; copy <= i; copy++) {
+                books.add(book(books.size(), "Publisher " + i, BookType.GENERAL, 1950 + i));
+            }
+        }
+        books.add(book(books.size(), null, BookType.REFERENCE, null));
+        books.add(book(books.size(), "", BookType.REFERENCE, 1999));
+        bookRepository.saveAll(books);
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void countsAllFacetsInOneStatement() {
+        BookSearchDTO criteria = new BookSearchDTO();
+        criteria.setBookType(BookType.GENERAL);
+        criteria.setPublicationYearFrom(1960);
+
+        BookFacetedSearchDTO result = bookService.facetedSearch(criteria, PageRequest.of(0, 10, Sort.by("title")));
+
+        assertThat(result.getTotalElements()).isEqualTo(410);
+        assertThat(result.getBooks()).hasSize(10);
+        List<String> statements = RecordingStatementInspector.statements();
+        List<String> grouped = statements.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("group by"))
+                .toList();
+        assertThat(grouped).hasSize(1);
+        assertThat(grouped.get(0).toLowerCase(Locale.ROOT)).contains("union all");
+        // The total, the page and the facets
+        assertThat(statements).hasSize(3);
+    }
+
+    @Test
+    void limitsFacetsToMostFrequentValues() {
+        BookFacetedSearchDTO result = bookService.facetedSearch(new BookSearchDTO(), PageRequest.of(0, 10));
+
+        assertThat(result.getFacets().getPublisher()).hasSize(25);
+        assertThat(result.getFacets().getPublisher().entrySet()).first().isEqualTo(entry("Publisher 29", 30L));
+        assertThat(result.getFacets().getPublisher()).doesNotContainKey("Publisher 0");
+        assertThat(result.getFacets().getPublicationYear()).containsExactly(
+                entry("1950-1959", 55L), entry("1960-1969", 155L), entry("1970-1979", 255L), entry("1990-1999", 1L),
+                entry("Unknown", 1L));
+    }
+
+    @Test
+    void facetIgnoresFiltersOnItsOwnField() {
+        BookSearchDTO criteria = new BookSearchDTO();
+        criteria.setBookType(BookType.REFERENCE);
+
+        BookFacetedSearchDTO result = bookService.facetedSearch(criteria, PageRequest.of(0, 10));
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getFacets().getBookType()).containsExactly(entry("GENERAL", 465L), entry("REFERENCE", 2L));
+        assertThat(result.getFacets().getPublisher()).containsExactly(entry("Unknown", 2L));
+        assertThat(result.getFacets().getPublicationYear()).containsExactly(entry("1990-1999", 1L), entry("Unknown", 1L));
+    }
+
+    private static Book book(int number, String publisher, BookType bookType, Integer publicationYear) {
+        return Book.builder()
+                .accessionNumber("F-" + number)
+                .title("Title " + number)
+                .publisher(publisher)
+                .bookType(bookType)
+                .publicationYear(publicationYear)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.BookDTO;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.services.BookIdentifierIndex;
+import me.vasujain.shelfwise.services.BookService;
+import me.vasujain.shelfwise.support.RecordingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookIdentifierSearchTest {
+
+    private static final int BOOKS = 600;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookIdentifierIndex bookIdentifierIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(Book.builder()
+                    .accessionNumber(String.format("B-1001-%04d", i))
+                    .isbn(String.format("978-93-86-%05d-0", i))
+                    .title(String.format("Title %04d", BOOKS - i))
+                    .build());
+        }
+        books.add(Book.builder().accessionNumber("C-2002-0001").title("Other").build());
+        bookRepository.saveAll(books);
+        bookIdentifierIndex.load();
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void broadFragmentSortedByFieldIsMatchedWithoutBindingEveryId() {
+        Page<BookDTO> page = bookService.search("B-1001", PageRequest.of(0, 20, Sort.by("title")));
+
+        assertThat(page.getTotalElements()).isEqualTo(BOOKS);
+        assertThat(page.getContent()).extracting(BookDTO::getTitle)
+                .containsExactly(page.getContent().stream().map(BookDTO::getTitle).sorted().toArray(String[]::new))
+                .first().isEqualTo("Title 0001");
+        assertThat(RecordingStatementInspector.statements())
+                .allSatisfy(sql -> assertThat(sql.chars().filter(c -> c == '?').count()).isLessThan(50));
+    }
+
+    @Test
+    void broadIsbnFragmentMatchesHyphenatedIsbns() {
+        Page<BookDTO> page = bookService.search("9789386", PageRequest.of(0, 10, Sort.by("title")));
+
+        assertThat(page.getTotalElements()).isEqualTo(BOOKS);
+    }
+
+    @Test
+    void narrowFragmentSortedByFieldUsesMatchedIds() {
+        Page<BookDTO> page = bookService.search("1001-000", PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "title")));
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).extracting(BookDTO::getAccessionNumber).startsWith("B-1001-0000");
+    }
+}
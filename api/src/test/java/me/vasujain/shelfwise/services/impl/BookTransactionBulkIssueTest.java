@@ -0,0 +1,184 @@
+package me.vasujain.shelfwise.services.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.vasujain.shelfwise.dtos.BookIssueDTO;
+import me.vasujain.shelfwise.dtos.DataImportResultDTO;
+import me.vasujain.shelfwise.enums.BookStatus;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.BookTransactionService;
+import me.vasujain.shelfwise.services.UserCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = BookTransactionBulkIssueTest.LIBRARIAN, roles = "ADMIN")
+class BookTransactionBulkIssueTest {
+
+    static final String LIBRARIAN = "BULK-ADMIN";
+
+    @Autowired
+    private BookTransactionService transactionService;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Object chunkSize;
+
+    private List<User> members;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        userRepository.save(user(LIBRARIAN, UserRole.ADMIN));
+        userCache.evict(LIBRARIAN);
+        members = userRepository.saveAll(List.of(user("BULK-1", UserRole.MEMBER), user("BULK-2", UserRole.MEMBER)));
+
+        chunkSize = ReflectionTestUtils.getField(target(), "chunkSize");
+        ReflectionTestUtils.setField(target(), "chunkSize", 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(target(), "chunkSize", chunkSize);
+        // Other tests clear books and users without knowing about transactions
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void issuesEveryRowAcrossChunks() {
+        List<Book> books = saveBooks(7, 1);
+        List<BookIssueDTO> rows = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            rows.add(row(books.get(i).getId(), members.get(i % 2).getId()));
+        }
+        rows.add(3, row(UUID.randomUUID(), members.get(0).getId()));
+
+        DataImportResultDTO result = transactionService.issueBooks(rows, true);
+
+        assertThat(result.getSuccessfulImports()).isEqualTo(7);
+        assertThat(result.getFailedRecordIdentifiers()).containsExactly(String.valueOf(rows.get(3).getBookId()));
+        assertThat(transactionRepository.count()).isEqualTo(7);
+        assertThat(bookRepository.findAll()).allSatisfy(book -> {
+            assertThat(book.getAvailableCopies()).isZero();
+            assertThat(book.getBookStatus()).isEqualTo(BookStatus.ISSUED);
+        });
+        assertThat(userRepository.findAllById(List.of(members.get(0).getId(), members.get(1).getId())))
+                .extracting(User::getBooksIssued).containsExactlyInAnyOrder(4, 3);
+    }
+
+    @Test
+    void takesTheSameStatementsPerChunkWhateverItsRows() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Book> books = saveBooks(6, 3);
+        userCache.findByEmployeeId(LIBRARIAN);
+
+        statistics.clear();
+        transactionService.issueBooks(rowsFor(books.subList(0, 3), 1), true);
+        long oneRowPerBook = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        transactionService.issueBooks(rowsFor(books.subList(3, 6), 2), true);
+        long twoRowsPerBook = statistics.getPrepareStatementCount();
+
+        // Three rows make one chunk, six make two: the statements follow the chunks, not the rows
+        assertThat(twoRowsPerBook).isEqualTo(2 * oneRowPerBook);
+        assertThat(transactionRepository.count()).isEqualTo(9);
+    }
+
+    @Test
+    void checksAvailabilityOutsideImports() {
+        Book lent = saveBooks(1, 1).get(0);
+        lent.setAvailableCopies(0);
+        lent.setBookStatus(BookStatus.ISSUED);
+        bookRepository.save(lent);
+
+        DataImportResultDTO result = transactionService.issueBooks(List.of(row(lent.getId(), members.get(0).getId())));
+
+        assertThat(result.getSuccessfulImports()).isZero();
+        assertThat(result.getFailedRecordIdentifiers()).containsExactly(String.valueOf(lent.getId()));
+        assertThat(transactionRepository.count()).isZero();
+    }
+
+    private List<BookIssueDTO> rowsFor(List<Book> books, int rowsPerBook) {
+        List<BookIssueDTO> rows = new ArrayList<>();
+        for (int i = 0; i < rowsPerBook; i++) {
+            for (Book book : books) {
+                rows.add(row(book.getId(), members.get(0).getId()));
+            }
+        }
+        return rows;
+    }
+
+    private List<Book> saveBooks(int count, int copies) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            books.add(Book.builder()
+                    .accessionNumber("BULK-" + UUID.randomUUID())
+                    .title("Bulk " + i)
+                    .authorPrimary("Author")
+                    .totalCopies(copies)
+                    .availableCopies(copies)
+                    .build());
+        }
+        return bookRepository.saveAll(books);
+    }
+
+    private Object target() {
+        return AopTestUtils.getTargetObject(transactionService);
+    }
+
+    private static BookIssueDTO row(UUID bookId, UUID userId) {
+        BookIssueDTO row = new BookIssueDTO();
+        row.setBookId(bookId);
+        row.setUserId(userId);
+        row.setIssueDate(LocalDate.now());
+        row.setDueDate(LocalDate.now().plusDays(14));
+        return row;
+    }
+
+    private static User user(String employeeId, UserRole role) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("User " + employeeId)
+                .userRole(role)
+                .password("{noop}secret")
+                .build();
+    }
+}
@@ -0,0 +1,219 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.BookIssueDTO;
+import me.vasujain.shelfwise.dtos.BookReturnDTO;
+import me.vasujain.shelfwise.dtos.BookTransactionDTO;
+import me.vasujain.shelfwise.enums.BookStatus;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.exceptions.BookAlreadyIssuedException;
+import me.vasujain.shelfwise.exceptions.BookIsReferenceOnlyException;
+import me.vasujain.shelfwise.exceptions.BookNotFoundException;
+import me.vasujain.shelfwise.exceptions.UserNotFoundException;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.BookTransactionService;
+import me.vasujain.shelfwise.services.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = BookTransactionIssueTest.LIBRARIAN, roles = "ADMIN")
+class BookTransactionIssueTest {
+
+    static final String LIBRARIAN = "ISSUE-ADMIN";
+
+    @Autowired
+    private BookTransactionService transactionService;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    private Object maxBooksPerUser;
+
+    private User member;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        userRepository.save(user(LIBRARIAN, UserRole.ADMIN));
+        userCache.evict(LIBRARIAN);
+        member = userRepository.save(user("ISSUE-1", UserRole.MEMBER));
+
+        maxBooksPerUser = ReflectionTestUtils.getField(target(), "maxBooksPerUser");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(target(), "maxBooksPerUser", maxBooksPerUser);
+        // Other tests clear books and users without knowing about transactions
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void issuingAndReturningMoveBothCounters() {
+        Book book = saveBook(2, false);
+
+        BookTransactionDTO issued = transactionService.issueBook(issue(book.getId(), member.getId()));
+
+        assertThat(bookRepository.findById(book.getId())).get().extracting(Book::getAvailableCopies).isEqualTo(1);
+        assertThat(userRepository.findById(member.getId())).get().extracting(User::getBooksIssued).isEqualTo(1);
+
+        BookReturnDTO returned = new BookReturnDTO();
+        returned.setTransactionId(issued.getId());
+        transactionService.returnBook(returned);
+
+        assertThat(bookRepository.findById(book.getId())).get().extracting(Book::getAvailableCopies).isEqualTo(2);
+        assertThat(userRepository.findById(member.getId())).get().extracting(User::getBooksIssued).isEqualTo(0);
+    }
+
+    @Test
+    void refusedCopiesAreReportedWithTheirReason() {
+        UUID referenceOnly = saveBook(1, true).getId();
+        UUID noCopies = saveBook(0, false).getId();
+        UUID available = saveBook(1, false).getId();
+
+        assertThatThrownBy(() -> transactionService.issueBook(issue(referenceOnly, member.getId())))
+                .isInstanceOf(BookIsReferenceOnlyException.class);
+        assertThatThrownBy(() -> transactionService.issueBook(issue(noCopies, member.getId())))
+                .isInstanceOf(BookAlreadyIssuedException.class);
+        assertThatThrownBy(() -> transactionService.issueBook(issue(UUID.randomUUID(), member.getId())))
+                .isInstanceOf(BookNotFoundException.class);
+        assertThatThrownBy(() -> transactionService.issueBook(issue(available, UUID.randomUUID())))
+                .isInstanceOf(UserNotFoundException.class);
+
+        // The copy taken before the user was found to be missing is put back with the rollback
+        assertThat(bookRepository.findById(available)).get()
+                .satisfies(book -> {
+                    assertThat(book.getAvailableCopies()).isEqualTo(1);
+                    assertThat(book.getBookStatus()).isEqualTo(BookStatus.AVAILABLE);
+                });
+    }
+
+    @Test
+    void usersCannotBorrowMoreThanTheLimit() {
+        ReflectionTestUtils.setField(target(), "maxBooksPerUser", 2);
+        List<Book> books = List.of(saveBook(1, false), saveBook(1, false), saveBook(1, false));
+
+        transactionService.issueBook(issue(books.get(0).getId(), member.getId()));
+        transactionService.issueBook(issue(books.get(1).getId(), member.getId()));
+
+        assertThatThrownBy(() -> transactionService.issueBook(issue(books.get(2).getId(), member.getId())))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(bookRepository.findById(books.get(2).getId())).get().extracting(Book::getAvailableCopies).isEqualTo(1);
+        assertThat(userRepository.findById(member.getId())).get().extracting(User::getBooksIssued).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentIssuesToOneUserStopAtTheLimit() throws Exception {
+        ReflectionTestUtils.setField(target(), "maxBooksPerUser", 3);
+        int desks = 8;
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < desks; i++) {
+            books.add(saveBook(1, false));
+        }
+
+        SecurityContext context = SecurityContextHolder.getContext();
+        ExecutorService executor = Executors.newFixedThreadPool(desks);
+        CountDownLatch start = new CountDownLatch(1);
+        int issued = 0;
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Book book : books) {
+                Callable<BookTransactionDTO> issue = () -> {
+                    SecurityContextHolder.setContext(context);
+                    start.await();
+                    return transactionService.issueBook(issue(book.getId(), member.getId()));
+                };
+                results.add(executor.submit(issue));
+            }
+            start.countDown();
+
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                    issued++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(issued).isEqualTo(3);
+        assertThat(userRepository.findById(member.getId())).get().extracting(User::getBooksIssued).isEqualTo(3);
+        assertThat(transactionRepository.count()).isEqualTo(3);
+    }
+
+    private Object target() {
+        return AopTestUtils.getTargetObject(transactionService);
+    }
+
+    private Book saveBook(int copies, boolean referenceOnly) {
+        return bookRepository.save(Book.builder()
+                .accessionNumber("ISSUE-" + UUID.randomUUID())
+                .title("Issue")
+                .authorPrimary("Author")
+                .totalCopies(Math.max(copies, 1))
+                .availableCopies(copies)
+                .isReferenceOnly(referenceOnly)
+                .build());
+    }
+
+    private static BookIssueDTO issue(UUID bookId, UUID userId) {
+        BookIssueDTO issue = new BookIssueDTO();
+        issue.setBookId(bookId);
+        issue.setUserId(userId);
+        issue.setIssueDate(LocalDate.now());
+        issue.setDueDate(LocalDate.now().plusDays(14));
+        return issue;
+    }
+
+    private static User user(String employeeId, UserRole role) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("User " + employeeId)
+                .userRole(role)
+                .password("{noop}secret")
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package me.vasujain.shelfwise.services.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.enums.UserStatus;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.UserCache;
+import me.vasujain.shelfwise.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CaffeineUserCacheTest {
+
+    private static final String EMPLOYEE_ID = "CACHED-1";
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        userCache.evict(EMPLOYEE_ID);
+        user = userRepository.save(User.builder()
+                .employeeId(EMPLOYEE_ID)
+                .fullName("Hori")
+                .userRole(UserRole.MEMBER)
+                .password("{noop}secret")
+                .build());
+    }
+
+    @Test
+    void answersRepeatReadsFromTheCache() {
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        User first = userCache.findByEmployeeId(EMPLOYEE_ID).orElseThrow();
+        User second = userCache.findByEmployeeId(EMPLOYEE_ID).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(userDetailsService.loadUserByUsername(EMPLOYEE_ID)).isSameAs(first);
+        assertThat(gets("miss") - misses).isEqualTo(1);
+        assertThat(gets("hit") - hits).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheMissingUsers() {
+        userCache.evict("CACHED-2");
+        assertThat(userCache.findByEmployeeId("CACHED-2")).isEmpty();
+
+        userRepository.save(User.builder()
+                .employeeId("CACHED-2")
+                .fullName("Dhaniya")
+                .userRole(UserRole.MEMBER)
+                .password("{noop}secret")
+                .build());
+
+        assertThat(userCache.findByEmployeeId("CACHED-2")).isPresent();
+    }
+
+    @Test
+    void userServiceWritesAreSeenAtOnce() {
+        userCache.findByEmployeeId(EMPLOYEE_ID).orElseThrow();
+
+        userService.updateUserStatus(user.getId(), UserStatus.SUSPENDED);
+
+        assertThat(userCache.findByEmployeeId(EMPLOYEE_ID)).get()
+                .extracting(User::getUserStatus).isEqualTo(UserStatus.SUSPENDED);
+    }
+
+    @Test
+    void evictsAgainOnceTheTransactionCompletes() {
+        User before = userCache.findByEmployeeId(EMPLOYEE_ID).orElseThrow();
+
+        User readDuringTransaction = new TransactionTemplate(transactionManager).execute(status -> {
+            User changed = userRepository.findByEmployeeId(EMPLOYEE_ID).orElseThrow();
+            changed.setFullName("Hori Mahato");
+            userRepository.save(changed);
+            userCache.evict(EMPLOYEE_ID);
+            // A read made before the commit
+            return userCache.findByEmployeeId(EMPLOYEE_ID).orElseThrow();
+        });
+
+        User after = userCache.findByEmployeeId(EMPLOYEE_ID).orElseThrow();
+        assertThat(readDuringTransaction).isNotSameAs(before);
+        assertThat(after).isNotSameAs(readDuringTransaction);
+        assertThat(after.getFullName()).isEqualTo("Hori Mahato");
+    }
+
+    @Test
+    void cachesDetachedUsersEvenInsideATransaction() {
+        User cached = new TransactionTemplate(transactionManager).execute(status -> {
+            User read = userCache.findByEmployeeId(EMPLOYEE_ID).orElseThrow();
+            assertThat(entityManager.contains(read)).isFalse();
+
+            User managed = userRepository.findById(user.getId()).orElseThrow();
+            assertThat(managed).isNotSameAs(read);
+            managed.setFullName("Hori Mahato");
+            status.setRollbackOnly();
+            return read;
+        });
+
+        // The change made in the rolled back transaction never reached the shared user
+        assertThat(cached.getFullName()).isEqualTo("Hori");
+        assertThat(userCache.findByEmployeeId(EMPLOYEE_ID)).get().isSameAs(cached);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "users")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,162 @@
+package me.vasujain.shelfwise.services.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.vasujain.shelfwise.enums.TransactionStatus;
+import me.vasujain.shelfwise.enums.TransactionType;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.models.BookTransaction;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.DataExportService;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DataExportServiceImplTest {
+
+    private static final int TRANSACTIONS = 5;
+
+    @Autowired
+    private DataExportService dataExportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        User admin = userRepository.save(user("EX-ADMIN", UserRole.ADMIN));
+        List<BookTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Book book = bookRepository.save(Book.builder()
+                    .accessionNumber("EX-" + i)
+                    .title("Title, with \"quotes\" " + i)
+                    .authorPrimary("Author " + i)
+                    .publicationYear(1990 + i)
+                    .build());
+            User member = userRepository.save(user("EX-MEMBER-" + i, UserRole.MEMBER));
+            transactions.add(BookTransaction.builder()
+                    .book(book)
+                    .user(member)
+                    .issuedBy(admin)
+                    .transactionType(TransactionType.ISSUE)
+                    .issueDate(LocalDateTime.of(2024, 1, 10 + i, 9, 30))
+                    .dueDate(LocalDateTime.of(2024, 1, 24 + i, 9, 30))
+                    .status(TransactionStatus.ACTIVE)
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Other tests clear books and users without knowing about transactions
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void exportsBooksWithTheirColumns() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dataExportService.exportBooksToCsv(out);
+
+        try (CSVParser csv = parse(out)) {
+            assertThat(csv.getHeaderNames()).startsWith("id", "accessionNumber", "isbn", "title").endsWith("notes");
+            List<CSVRecord> records = csv.getRecords();
+            assertThat(records).hasSize(TRANSACTIONS);
+            assertThat(records).extracting(record -> record.get("title"))
+                    .contains("Title, with \"quotes\" 0", "Title, with \"quotes\" 4");
+            assertThat(records).extracting(record -> record.get("publicationYear")).contains("1990", "1994");
+        }
+    }
+
+    @Test
+    void exportsTransactionsWithTheKeysTheyReferTo() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dataExportService.exportTransactionsToCsv(out);
+
+        try (CSVParser csv = parse(out)) {
+            List<CSVRecord> records = csv.getRecords();
+            assertThat(records).hasSize(TRANSACTIONS);
+            CSVRecord first = records.stream().filter(record -> record.get("bookAccessionNumber").equals("EX-0"))
+                    .findFirst().orElseThrow();
+            assertThat(first.get("userEmployeeId")).isEqualTo("EX-MEMBER-0");
+            assertThat(first.get("issuedByEmployeeId")).isEqualTo("EX-ADMIN");
+            assertThat(first.get("returnedToEmployeeId")).isEmpty();
+            assertThat(first.get("issueDate")).isEqualTo("2024-01-10");
+            assertThat(first.get("status")).isEqualTo("ACTIVE");
+        }
+    }
+
+    @Test
+    void exportsTransactionsWithOneStatement() throws IOException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        dataExportService.exportTransactionsToCsv(new ByteArrayOutputStream());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void writesTheHeaderOfEmptyTables() throws IOException {
+        transactionRepository.deleteAllInBatch();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dataExportService.exportTransactionsToCsv(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines())
+                .singleElement().asString().startsWith("id,bookAccessionNumber,userEmployeeId");
+    }
+
+    private static CSVParser parse(ByteArrayOutputStream out) throws IOException {
+        return CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
+                .parse(new StringReader(out.toString(StandardCharsets.UTF_8)));
+    }
+
+    private static User user(String employeeId, UserRole role) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("User " + employeeId)
+                .userRole(role)
+                .password("{noop}secret")
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.DataImportResultDTO;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.models.BookTransaction;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.DataImportService;
+import me.vasujain.shelfwise.services.ImportProgressListener;
+import me.vasujain.shelfwise.services.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Accession numbers and employee IDs in a CSV are matched the way the database compares them: ignoring case
+ * and surrounding spaces.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = DataImportKeyMatchingTest.LIBRARIAN, roles = "ADMIN")
+class DataImportKeyMatchingTest {
+
+    static final String LIBRARIAN = "KEYS-ADMIN";
+
+    @Autowired
+    private DataImportService dataImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        bookRepository.save(Book.builder().accessionNumber("ACC-1").title("Godan").authorPrimary("Premchand").build());
+        userRepository.save(user(LIBRARIAN, UserRole.ADMIN));
+        userRepository.save(user("EMP-1", UserRole.MEMBER));
+        userCache.evict(LIBRARIAN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Other tests clear books and users without knowing about transactions
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void rejectsBooksDifferingOnlyInCaseFromStoredOnes() throws Exception {
+        FailureRecorder failures = new FailureRecorder();
+        DataImportResultDTO result = dataImportService.importBooksFromCsv(csv("""
+                accessionNumber,title
+                acc-1,Godan again
+                ACC-2,Gaban
+                acc-2,Gaban again
+                """), failures);
+
+        assertThat(result.getSuccessfulImports()).isEqualTo(1);
+        assertThat(result.getFailedRecordIdentifiers()).containsExactly("acc-1", "acc-2");
+        assertThat(bookRepository.findAll()).extracting(Book::getAccessionNumber)
+                .containsExactlyInAnyOrder("ACC-1", "ACC-2");
+        // Caught before the insert rather than by the unique key
+        assertThat(failures.reasons).containsExactly("Accession number already exists", "Accession number already exists");
+    }
+
+    @Test
+    void rejectsUsersDifferingOnlyInCaseFromStoredOnes() throws Exception {
+        FailureRecorder failures = new FailureRecorder();
+        DataImportResultDTO result = dataImportService.importUsersFromCsv(csv("""
+                employeeId,fullName,userRole,password
+                emp-1,Hori,MEMBER,secret-1
+                EMP-2,Dhaniya,MEMBER,secret-2
+                emp-2,Dhaniya again,MEMBER,secret-3
+                """), false, failures);
+
+        assertThat(result.getSuccessfulImports()).isEqualTo(1);
+        assertThat(result.getFailedRecordIdentifiers()).containsExactly("emp-1", "emp-2");
+        assertThat(failures.reasons).containsExactly("Employee ID already exists", "Employee ID already exists");
+    }
+
+    @Test
+    void issuesTransactionsWhoseKeysDifferInCase() throws Exception {
+        DataImportResultDTO result = dataImportService.importTransactionsFromCsv(csv("""
+                bookAccessionNumber,userEmployeeId,issueDate,dueDate
+                acc-1,emp-1,2024-01-10,2024-01-24
+                """), ImportProgressListener.NONE);
+
+        assertThat(result.getSuccessfulImports()).isEqualTo(1);
+        assertThat(transactionRepository.findAll()).singleElement()
+                .extracting(BookTransaction::getTransactionNotes).isNull();
+    }
+
+    private static class FailureRecorder implements ImportProgressListener {
+
+        private final List<String> reasons = new ArrayList<>();
+
+        @Override
+        public void onRowFailed(long rowNumber, String identifier, String reason) {
+            reasons.add(reason);
+        }
+    }
+
+    private static ByteArrayResource csv(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User user(String employeeId, UserRole role) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("User " + employeeId)
+                .userRole(role)
+                .password("{noop}secret")
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.enums.ExportType;
+import me.vasujain.shelfwise.services.DataExportService;
+import me.vasujain.shelfwise.services.ExportSnapshotStore.Snapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class FileExportSnapshotStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private DataExportService dataExportService;
+
+    private final AtomicInteger exports = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataExportService = mock(DataExportService.class);
+        doAnswer(invocation -> {
+            ExportType type = invocation.getArgument(0);
+            OutputStream out = invocation.getArgument(1);
+            out.write(("id\n" + type + "-" + exports.incrementAndGet() + "\n").getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(dataExportService).exportToCsv(any(), any());
+    }
+
+    @Test
+    void servesNothingWhenDisabled() throws IOException {
+        FileExportSnapshotStore store = store(false, Duration.ofHours(6));
+        store.refresh(ExportType.BOOKS);
+
+        assertThat(store.acquire(ExportType.BOOKS)).isEmpty();
+    }
+
+    @Test
+    void servesTheLatestSnapshot() throws IOException {
+        FileExportSnapshotStore store = store(true, Duration.ofHours(6));
+        assertThat(store.acquire(ExportType.BOOKS)).isEmpty();
+
+        store.refresh(ExportType.BOOKS);
+        store.refresh(ExportType.BOOKS);
+
+        try (Snapshot snapshot = store.acquire(ExportType.BOOKS).orElseThrow()) {
+            assertThat(Files.readString(snapshot.file())).isEqualTo("id\nBOOKS-2\n");
+            assertThat(snapshot.size()).isEqualTo(Files.size(snapshot.file()));
+            assertThat(snapshot.file().getFileName().toString())
+                    .isEqualTo("books-" + snapshot.createdAt().toEpochMilli() + ".csv");
+        }
+        assertThat(csvFiles()).hasSize(1);
+        assertThat(store.acquire(ExportType.USERS)).isEmpty();
+    }
+
+    @Test
+    void keepsAReplacedSnapshotUntilItsLastReaderCloses() throws IOException {
+        FileExportSnapshotStore store = store(true, Duration.ofHours(6));
+        store.refresh(ExportType.USERS);
+        Snapshot first = store.acquire(ExportType.USERS).orElseThrow();
+        Snapshot second = store.acquire(ExportType.USERS).orElseThrow();
+
+        store.refresh(ExportType.USERS);
+        assertThat(first.file()).exists();
+
+        first.close();
+        first.close();
+        assertThat(second.file()).exists();
+
+        second.close();
+        assertThat(second.file()).doesNotExist();
+        assertThat(csvFiles()).hasSize(1);
+    }
+
+    @Test
+    void deletesLeakedSnapshotsAfterTheirRetention() throws Exception {
+        FileExportSnapshotStore store = store(true, Duration.ZERO);
+        store.refresh(ExportType.TRANSACTIONS);
+        Snapshot leaked = store.acquire(ExportType.TRANSACTIONS).orElseThrow();
+        store.refresh(ExportType.TRANSACTIONS);
+        Thread.sleep(10);
+
+        store.cleanup();
+
+        assertThat(leaked.file()).doesNotExist();
+        try (Snapshot current = store.acquire(ExportType.TRANSACTIONS).orElseThrow()) {
+            assertThat(current.file()).exists();
+        }
+    }
+
+    @Test
+    void removesStrayFilesOnceExpired() throws IOException {
+        FileExportSnapshotStore store = store(true, Duration.ofHours(6));
+        store.refresh(ExportType.BOOKS);
+        Path stale = Files.writeString(directory.resolve("books-1.csv.tmp"), "partial");
+        Path recent = Files.writeString(directory.resolve("users-2.csv.tmp"), "partial");
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        store.cleanup();
+
+        assertThat(stale).doesNotExist();
+        assertThat(recent).exists();
+        assertThat(csvFiles()).hasSize(1);
+    }
+
+    @Test
+    void loadAdoptsExistingFilesAndMakesTheMissingOnes() throws IOException {
+        Path older = Files.writeString(directory.resolve("books-1000.csv"), "id\nold\n");
+        Path newer = Files.writeString(directory.resolve("books-2000.csv"), "id\nnew\n");
+        Files.setLastModifiedTime(older, FileTime.from(Instant.now().minus(Duration.ofMinutes(5))));
+        FileExportSnapshotStore store = store(true, Duration.ofHours(6));
+
+        store.load();
+
+        try (Snapshot books = store.acquire(ExportType.BOOKS).orElseThrow()) {
+            assertThat(books.file()).isEqualTo(newer);
+        }
+        assertThat(store.acquire(ExportType.USERS)).isPresent();
+        assertThat(store.acquire(ExportType.TRANSACTIONS)).isPresent();
+        verify(dataExportService, never()).exportToCsv(eq(ExportType.BOOKS), any());
+    }
+
+    @Test
+    void keepsTheCurrentSnapshotWhenARefreshFails() throws IOException {
+        FileExportSnapshotStore store = store(true, Duration.ofHours(6));
+        store.refresh(ExportType.BOOKS);
+        doThrow(new IOException("Database unavailable")).when(dataExportService).exportToCsv(eq(ExportType.BOOKS), any());
+
+        assertThatThrownBy(() -> store.refresh(ExportType.BOOKS)).isInstanceOf(IOException.class);
+
+        try (Snapshot snapshot = store.acquire(ExportType.BOOKS).orElseThrow()) {
+            assertThat(Files.readString(snapshot.file())).isEqualTo("id\nBOOKS-1\n");
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    private FileExportSnapshotStore store(boolean enabled, Duration retention) {
+        return new FileExportSnapshotStore(dataExportService, enabled, directory.toString(), retention);
+    }
+
+    private List<Path> csvFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".csv")).toList();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.BookValueCountDTO;
+import me.vasujain.shelfwise.enums.BookValueField;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.projections.BookValueFields;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryBookValueDictionaryTest {
+
+    private static final UUID FIRST = UUID.randomUUID();
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private InMemoryBookValueDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findValueFieldsBy()).thenReturn(List.of(
+                row(FIRST, "Rajkamal Prakashan", "Premchand", "Hindi"),
+                row(UUID.randomUUID(), " rajkamal prakashan ", "Premchand", "Hindi"),
+                row(UUID.randomUUID(), "Penguin", "Amitav Ghosh", "English"),
+                row(UUID.randomUUID(), "penguin", "R. K. Narayan", "english"),
+                row(UUID.randomUUID(), "Lokbharti", null, "")));
+        dictionary = new InMemoryBookValueDictionary(bookRepository);
+        dictionary.load();
+    }
+
+    @Test
+    void listsDistinctValuesAlphabeticallyIgnoringCaseAndWhitespace() {
+        assertThat(dictionary.values(BookValueField.PUBLISHER))
+                .containsExactly("Lokbharti", "Penguin", "Rajkamal Prakashan");
+        assertThat(dictionary.values(BookValueField.AUTHOR))
+                .containsExactly("Amitav Ghosh", "Premchand", "R. K. Narayan");
+        assertThat(dictionary.values(BookValueField.LANGUAGE)).containsExactly("English", "Hindi");
+        assertThat(dictionary.values(BookValueField.VENDOR)).isEmpty();
+    }
+
+    @Test
+    void pagesValuesWithPrefixAndCounts() {
+        Page<BookValueCountDTO> page = dictionary.values(BookValueField.PUBLISHER, "P", PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent()).extracting(BookValueCountDTO::getValue, BookValueCountDTO::getBookCount)
+                .containsExactly(tuple("Penguin", 2));
+
+        Page<BookValueCountDTO> second = dictionary.values(BookValueField.PUBLISHER, null, PageRequest.of(1, 2));
+        assertThat(second.getTotalElements()).isEqualTo(3);
+        assertThat(second.getContent()).extracting(BookValueCountDTO::getValue).containsExactly("Rajkamal Prakashan");
+    }
+
+    @Test
+    void movesCountsWhenBooksChange() {
+        dictionary.index(List.of(Book.builder().id(FIRST).publisher("Penguin").authorPrimary("Premchand")
+                .language("Hindi").build()));
+
+        assertThat(dictionary.values(BookValueField.PUBLISHER, "p", PageRequest.of(0, 10)).getContent())
+                .extracting(BookValueCountDTO::getBookCount).containsExactly(3);
+        assertThat(dictionary.values(BookValueField.PUBLISHER, "raj", PageRequest.of(0, 10)).getContent())
+                .extracting(BookValueCountDTO::getBookCount).containsExactly(1);
+    }
+
+    @Test
+    void dropsValueNoLongerCarriedByAnyBook() {
+        UUID added = UUID.randomUUID();
+        dictionary.index(List.of(Book.builder().id(added).publisher("Vani Prakashan").build()));
+        assertThat(dictionary.values(BookValueField.PUBLISHER)).contains("Vani Prakashan");
+
+        dictionary.index(List.of(Book.builder().id(added).publisher("Lokbharti").build()));
+
+        assertThat(dictionary.values(BookValueField.PUBLISHER)).doesNotContain("Vani Prakashan");
+        assertThat(dictionary.values(BookValueField.PUBLISHER, "lok", PageRequest.of(0, 10)).getContent())
+                .extracting(BookValueCountDTO::getBookCount).containsExactly(2);
+    }
+
+    private static BookValueFields row(UUID id, String publisher, String author, String language) {
+        return new BookValueFields() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getPublisher() {
+                return publisher;
+            }
+
+            @Override
+            public String getAuthorPrimary() {
+                return author;
+            }
+
+            @Override
+            public String getVendorName() {
+                return null;
+            }
+
+            @Override
+            public String getLanguage() {
+                return language;
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package me.vasujain.shelfwise.services.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.services.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtServiceImplTest {
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void verifiesATokenOnceAndAnswersRepeatsFromTheCache() {
+        String token = jwtService.generateAccessToken(user("JWT-1"));
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        Claims first = jwtService.verifyToken(token);
+        Claims second = jwtService.verifyToken(token);
+
+        assertThat(first.getSubject()).isEqualTo("JWT-1");
+        assertThat(second).isSameAs(first);
+        assertThat(jwtService.extractUsername(token)).isEqualTo("JWT-1");
+        assertThat(gets("miss") - misses).isEqualTo(1);
+        assertThat(gets("hit") - hits).isEqualTo(2);
+    }
+
+    @Test
+    void refusesTamperedTokensEveryTime() {
+        String token = jwtService.generateAccessToken(user("JWT-1"));
+        String forged = jwtService.generateAccessToken(user("JWT-2"));
+        // The payload of one token with the signature of another
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        assertThatThrownBy(() -> jwtService.verifyToken(tampered)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> jwtService.verifyToken(tampered)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void refusesExpiredTokens() {
+        String token = jwtService.generateToken(Map.of(), user("JWT-1"), -1000);
+
+        assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void refusesCachedTokensOnceTheyExpire() throws InterruptedException {
+        String token = jwtService.generateToken(Map.of(), user("JWT-1"), 1500);
+        Claims claims = jwtService.verifyToken(token);
+
+        Thread.sleep(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()) + 100);
+
+        assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void checksVerifiedClaimsAgainstTheUser() {
+        User user = user("JWT-1");
+        Claims claims = jwtService.verifyToken(jwtService.generateAccessToken(user));
+
+        assertThat(jwtService.isTokenValid(claims, user)).isTrue();
+        assertThat(jwtService.isTokenValid(claims, user("JWT-2"))).isFalse();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "jwt.verified-tokens")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private static User user(String employeeId) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .employeeId(employeeId)
+                .fullName("Test " + employeeId)
+                .userRole(UserRole.MEMBER)
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.projections.BookSuggestionFields;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LevenshteinBookVocabularyTest {
+
+    private static final String ALPHABET = "abcdef";
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private LevenshteinBookVocabulary vocabulary;
+
+    @BeforeEach
+    void setUp() {
+        vocabulary = new LevenshteinBookVocabulary(bookRepository);
+        ReflectionTestUtils.setField(vocabulary, "maxExpansions", 5);
+        ReflectionTestUtils.setField(vocabulary, "maxVisitedNodes", 20000);
+    }
+
+    @Test
+    void findsMisspellingsAndTranspositions() {
+        vocabulary.index(List.of(book("Godan", "Premchand"), book("Gaban", "Premchand")));
+
+        assertThat(vocabulary.variants("premchnd")).containsExactly("premchand");
+        assertThat(vocabulary.variants("godna")).containsExactly("godan");
+        assertThat(vocabulary.variants("gdan")).containsExactly("godan");
+        assertThat(vocabulary.variants("godan")).isEmpty();
+        assertThat(vocabulary.variants("gda")).isEmpty();
+    }
+
+    @Test
+    void returnsClosestThenMostUsedWordsUpToLimit() {
+        List<Book> books = new ArrayList<>();
+        for (char c = 'a'; c <= 'h'; c++) {
+            // "story" + c is used by fewer books the later the letter
+            for (int copies = 0; copies < 'i' - c; copies++) {
+                books.add(book("story" + c, null));
+            }
+        }
+        books.add(book("stories", null));
+        vocabulary.index(books);
+
+        assertThat(vocabulary.variants("storys"))
+                .containsExactly("storya", "storyb", "storyc", "storyd", "storye");
+    }
+
+    @Test
+    void boundsNodesVisitedForDenseVocabulary() {
+        when(bookRepository.findSuggestionFieldsBy()).thenReturn(denseVocabulary());
+        vocabulary.load();
+
+        ReflectionTestUtils.setField(vocabulary, "maxVisitedNodes", Integer.MAX_VALUE);
+        LevenshteinBookVocabulary.Expansion unbounded = vocabulary.expand("abcdefab");
+        ReflectionTestUtils.setField(vocabulary, "maxVisitedNodes", 2000);
+        LevenshteinBookVocabulary.Expansion bounded = vocabulary.expand("abcdefab");
+
+        assertThat(unbounded.visitedNodes()).isGreaterThan(2000);
+        assertThat(unbounded.variants()).hasSize(5);
+        assertThat(bounded.visitedNodes()).isEqualTo(2000);
+        assertThat(bounded.variants()).hasSizeLessThanOrEqualTo(5);
+    }
+
+    /**
+     * Every six-letter word over a six-letter alphabet, eight words to a title.
+     */
+    private static List<BookSuggestionFields> denseVocabulary() {
+        List<BookSuggestionFields> rows = new ArrayList<>();
+        StringBuilder title = new StringBuilder();
+        int words = (int) Math.pow(ALPHABET.length(), 6);
+        for (int n = 0; n < words; n++) {
+            StringBuilder word = new StringBuilder();
+            for (int i = 0, rest = n; i < 6; i++, rest /= ALPHABET.length()) {
+                word.append(ALPHABET.charAt(rest % ALPHABET.length()));
+            }
+            title.append(word).append(' ');
+            if (n % 8 == 7) {
+                rows.add(row(title.toString()));
+                title.setLength(0);
+            }
+        }
+        return rows;
+    }
+
+    private static BookSuggestionFields row(String title) {
+        UUID id = UUID.randomUUID();
+        return new BookSuggestionFields() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getAuthorPrimary() {
+                return null;
+            }
+
+            @Override
+            public String getPublisher() {
+                return null;
+            }
+        };
+    }
+
+    private static Book book(String title, String author) {
+        return Book.builder().id(UUID.randomUUID()).title(title).authorPrimary(author).build();
+    }
+}
@@ -0,0 +1,163 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.events.BooksChangedEvent;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.services.BookVocabulary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LuceneBookSearchEngineTest {
+
+    @TempDir
+    Path indexDir;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookVocabulary bookVocabulary = mock(BookVocabulary.class);
+    private LuceneBookSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(bookVocabulary.variants(anyString())).thenReturn(List.of());
+        engine = new LuceneBookSearchEngine(bookRepository, bookVocabulary);
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "indexDir", indexDir.toString());
+        ReflectionTestUtils.setField(engine, "refreshIntervalMs", 1000L);
+        engine.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void rebuildReplacesIndexWithDatabaseContents() {
+        Book kept = book("Godan");
+        Book removed = book("Gaban");
+        engine.index(List.of(kept, removed));
+        returnFromDatabase(kept);
+
+        assertThat(engine.rebuild()).isEqualTo(1);
+
+        assertThat(engine.size()).isEqualTo(1);
+        assertThat(search("godan")).containsExactly(kept.getId());
+        assertThat(search("gaban")).isEmpty();
+    }
+
+    @Test
+    void rebuildKeepsBooksChangedWhileItRuns() {
+        Book renamed = book("Nirmala");
+        Book other = book("Karmabhoomi");
+        engine.index(List.of(renamed, other));
+
+        // The rebuild reads the old title; the rename is committed and indexed before it writes the page
+        Book staleCopy = copyOf(renamed, "Nirmala");
+        renamed.setTitle("Rangbhoomi");
+        when(bookRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            engine.onBooksChanged(new BooksChangedEvent(List.of(renamed)));
+            return new PageImpl<>(List.of(staleCopy, other), invocation.getArgument(0), 2);
+        });
+
+        assertThat(engine.rebuild()).isEqualTo(2);
+
+        assertThat(engine.size()).isEqualTo(2);
+        assertThat(search("rangbhoomi")).containsExactly(renamed.getId());
+        assertThat(search("nirmala")).isEmpty();
+        assertThat(search("karmabhoomi")).containsExactly(other.getId());
+    }
+
+    @Test
+    void rebuildKeepsBooksAddedWhileItRuns() {
+        Book existing = book("Sevasadan");
+        Book added = book("Premashram");
+        when(bookRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            engine.index(List.of(added));
+            return new PageImpl<>(List.of(existing), invocation.getArgument(0), 1);
+        });
+
+        engine.rebuild();
+
+        assertThat(search("sevasadan")).containsExactly(existing.getId());
+        assertThat(search("premashram")).containsExactly(added.getId());
+    }
+
+    @Test
+    void knownWordsDoNotMatchBySound() {
+        Book men = book("Men at Work");
+        Book main = book("Main Street");
+        Book self = book("The Self");
+        Book shelf = book("Shelf Life");
+        returnFromDatabase(men, main, self, shelf);
+        engine.rebuild();
+
+        assertThat(search("men")).containsExactly(men.getId());
+        assertThat(search("main")).containsExactly(main.getId());
+        assertThat(search("self")).containsExactly(self.getId());
+    }
+
+    @Test
+    void romanisedAndDevanagariSpellingsMatchEachOther() {
+        Book devanagari = book("गोदान");
+        devanagari.setAuthorPrimary("प्रेमचंद");
+        Book romanised = book("Nirmala");
+        romanised.setAuthorPrimary("Premchand");
+        returnFromDatabase(devanagari, romanised);
+        engine.rebuild();
+
+        assertThat(search("premacanda")).containsExactlyInAnyOrder(devanagari.getId(), romanised.getId());
+        assertThat(search("प्रेमचंद")).containsExactlyInAnyOrder(devanagari.getId(), romanised.getId());
+        assertThat(search("godaan")).containsExactly(devanagari.getId());
+    }
+
+    @Test
+    void wordFoundInCatalogMatchesAsSpelled() {
+        Book exact = book("Premchand Ki Kahaniyan");
+        Book phonetic = book("प्रेमचंद की कहानियाँ");
+        returnFromDatabase(exact, phonetic);
+        engine.rebuild();
+
+        assertThat(search("premchand")).containsExactly(exact.getId());
+    }
+
+    private void returnFromDatabase(Book... books) {
+        when(bookRepository.findAll(any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(books), invocation.getArgument(0), books.length));
+    }
+
+    private List<UUID> search(String query) {
+        return engine.search(query, PageRequest.of(0, 10)).orElseThrow().getContent();
+    }
+
+    private static Book book(String title) {
+        return Book.builder()
+                .id(UUID.randomUUID())
+                .accessionNumber("ACC-" + title)
+                .title(title)
+                .build();
+    }
+
+    private static Book copyOf(Book book, String title) {
+        return Book.builder()
+                .id(book.getId())
+                .accessionNumber(book.getAccessionNumber())
+                .title(title)
+                .build();
+    }
+}
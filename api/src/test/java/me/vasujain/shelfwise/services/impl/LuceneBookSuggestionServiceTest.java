@@ -0,0 +1,140 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.BookSuggestionDTO;
+import me.vasujain.shelfwise.enums.SuggestionType;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.projections.BookSuggestionFields;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LuceneBookSuggestionServiceTest {
+
+    private static final UUID GODAN = UUID.randomUUID();
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private LuceneBookSuggestionService service;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findSuggestionFieldsBy()).thenReturn(List.of(
+                row(GODAN, "Godan", "Premchand", "Rajkamal Prakashan"),
+                row(UUID.randomUUID(), "Gaban", "Premchand", "Rajkamal Prakashan"),
+                row(UUID.randomUUID(), "Gaban", "Premchand", "Lokbharti"),
+                row(UUID.randomUUID(), "The Guide", "R. K. Narayan", "Indian Thought Publications"),
+                row(UUID.randomUUID(), "Café Society", "Émile Zola", "Penguin"),
+                row(UUID.randomUUID(), "A Very Long Title Whose Final Words Come Well After The Eighth Word Gardens",
+                        "Anon", "Penguin")));
+        service = new LuceneBookSuggestionService(bookRepository);
+        service.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void suggestsValuesStartingWithPrefixByBookCount() {
+        assertThat(service.suggest("ga", SuggestionType.TITLE, 10))
+                .extracting(BookSuggestionDTO::getText, BookSuggestionDTO::getBookCount)
+                .first().isEqualTo(tuple("Gaban", 2));
+        assertThat(texts(service.suggest("go", SuggestionType.TITLE, 10))).containsExactly("Godan");
+    }
+
+    @Test
+    void prefixMatchesStartOfAnyWord() {
+        assertThat(texts(service.suggest("guid", SuggestionType.TITLE, 10))).containsExactly("The Guide");
+        assertThat(texts(service.suggest("garde", SuggestionType.TITLE, 10)))
+                .containsExactly("A Very Long Title Whose Final Words Come Well After The Eighth Word Gardens");
+        assertThat(texts(service.suggest("prak", SuggestionType.PUBLISHER, 10))).containsExactly("Rajkamal Prakashan");
+    }
+
+    @Test
+    void prefixIgnoresCaseAndDiacritics() {
+        assertThat(texts(service.suggest("CAFE", SuggestionType.TITLE, 10))).containsExactly("Café Society");
+        assertThat(texts(service.suggest("emile", SuggestionType.AUTHOR, 10))).containsExactly("Émile Zola");
+    }
+
+    @Test
+    void suggestsAcrossTypesByBookCountUpToLimit() {
+        List<BookSuggestionDTO> suggestions = service.suggest("pr", null, 2);
+
+        assertThat(suggestions).extracting(BookSuggestionDTO::getText, BookSuggestionDTO::getType).containsExactly(
+                tuple("Premchand", SuggestionType.AUTHOR),
+                tuple("Rajkamal Prakashan", SuggestionType.PUBLISHER));
+    }
+
+    @Test
+    void indexMovesBookToItsNewValues() {
+        service.index(List.of(Book.builder().id(GODAN).title("Nirmala").authorPrimary("Premchand")
+                .publisher("Lokbharti").build()));
+
+        assertThat(texts(service.suggest("go", SuggestionType.TITLE, 10))).isEmpty();
+        assertThat(texts(service.suggest("nir", SuggestionType.TITLE, 10))).containsExactly("Nirmala");
+        assertThat(service.suggest("lok", SuggestionType.PUBLISHER, 10))
+                .extracting(BookSuggestionDTO::getBookCount).containsExactly(2);
+        assertThat(service.suggest("raj", SuggestionType.PUBLISHER, 10))
+                .extracting(BookSuggestionDTO::getBookCount).containsExactly(1);
+    }
+
+    @Test
+    void valueMovedBetweenBooksInOneBatchKeepsItsLastWeight() {
+        UUID other = UUID.randomUUID();
+        service.index(List.of(Book.builder().id(other).title("Nirmala").build()));
+
+        for (int i = 0; i < 20; i++) {
+            // Godan drops to no books and comes back on another within the same flush
+            boolean even = i % 2 == 0;
+            service.index(List.of(
+                    Book.builder().id(even ? GODAN : other).title("Nirmala").build(),
+                    Book.builder().id(even ? other : GODAN).title("Godan").build()));
+
+            assertThat(service.suggest("go", SuggestionType.TITLE, 10))
+                    .extracting(BookSuggestionDTO::getText, BookSuggestionDTO::getBookCount)
+                    .containsExactly(tuple("Godan", 1));
+        }
+    }
+
+    @Test
+    void blankPrefixSuggestsNothing() {
+        assertThat(service.suggest(" ", null, 10)).isEmpty();
+    }
+
+    private static List<String> texts(List<BookSuggestionDTO> suggestions) {
+        return suggestions.stream().map(BookSuggestionDTO::getText).toList();
+    }
+
+    private static BookSuggestionFields row(UUID id, String title, String author, String publisher) {
+        return new BookSuggestionFields() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getAuthorPrimary() {
+                return author;
+            }
+
+            @Override
+            public String getPublisher() {
+                return publisher;
+            }
+        };
+    }
+}
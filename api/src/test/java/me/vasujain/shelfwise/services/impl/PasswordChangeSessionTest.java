@@ -0,0 +1,134 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.PasswordResetDTO;
+import me.vasujain.shelfwise.dtos.PasswordUpdateDTO;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.exceptions.InvalidTokenException;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.RefreshTokenRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.JwtService;
+import me.vasujain.shelfwise.services.RefreshTokenService;
+import me.vasujain.shelfwise.services.TokenRevocationList;
+import me.vasujain.shelfwise.services.UserCache;
+import me.vasujain.shelfwise.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = PasswordChangeSessionTest.ADMIN)
+class PasswordChangeSessionTest {
+
+    static final String ADMIN = "SESSION-ADMIN";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User admin;
+    private User member;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        userCache.evict(ADMIN);
+        admin = userRepository.save(user(ADMIN, UserRole.SUPER_ADMIN));
+        member = userRepository.save(user("SESSION-" + UUID.randomUUID(), UserRole.MEMBER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Other tests clear users without knowing about refresh tokens
+        refreshTokenRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void changingYourPasswordRevokesYourRefreshTokensOnEveryDevice() {
+        String laptop = refreshTokenService.issue(admin);
+        String phone = refreshTokenService.issue(admin);
+        String memberToken = refreshTokenService.issue(member);
+
+        userService.changePassword(new PasswordUpdateDTO("secret", "new-password", "new-password"));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(laptop)).isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(phone)).isInstanceOf(InvalidTokenException.class);
+        assertThat(refreshTokenService.rotate(memberToken).user().getId()).isEqualTo(member.getId());
+    }
+
+    @Test
+    void aFailedChangeKeepsTheSessions() {
+        String laptop = refreshTokenService.issue(admin);
+
+        assertThatThrownBy(() -> userService.changePassword(new PasswordUpdateDTO("wrong", "new-password", "new-password")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(refreshTokenService.rotate(laptop).user().getId()).isEqualTo(admin.getId());
+    }
+
+    @Test
+    void updatingAPasswordRevokesTheUsersRefreshTokens() {
+        String refreshToken = refreshTokenService.issue(member);
+
+        userService.updatePassword(member.getId(), new PasswordUpdateDTO("secret", "new-password", "new-password"));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken)).isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void aResetEndsTheUsersSessions() {
+        String refreshToken = refreshTokenService.issue(member);
+        String accessToken = jwtService.generateAccessToken(member);
+
+        userService.resetPassword(member.getId(), new PasswordResetDTO("new-password"));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(refreshToken)).isInstanceOf(InvalidTokenException.class);
+        assertThat(tokenRevocationList.isRevoked(jwtService.verifyToken(accessToken))).isTrue();
+    }
+
+    private User user(String employeeId, UserRole role) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("Test " + employeeId)
+                .userRole(role)
+                .password(passwordEncoder.encode("secret"))
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package me.vasujain.shelfwise.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledPasswordHasherTest {
+
+    private PooledPasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void hashesOnThePool() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        List<String> threads = new ArrayList<>();
+        hasher = new PooledPasswordHasher(new RecordingEncoder(encoder, threads), 2, 8);
+
+        String hash = hasher.hash("secret").join();
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(threads).singleElement().asString().startsWith("password-hashing-");
+        assertThat(hasher.parallelism()).isEqualTo(2);
+    }
+
+    @Test
+    void defaultsToOneThreadPerCore() {
+        hasher = new PooledPasswordHasher(new BCryptPasswordEncoder(4), 0, 8);
+
+        assertThat(hasher.parallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    void hashesOnTheCallerOnceTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new ArrayList<>();
+        hasher = new PooledPasswordHasher(new RecordingEncoder(new BlockingEncoder(release), threads), 1, 1);
+
+        CompletableFuture<String> running = hasher.hash("first");
+        CompletableFuture<String> queued = hasher.hash("second");
+        CompletableFuture<String> overflow = hasher.hash("third");
+        release.countDown();
+
+        assertThat(overflow.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:third");
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:second");
+        synchronized (threads) {
+            assertThat(threads).contains(Thread.currentThread().getName());
+        }
+    }
+
+    @Test
+    void completesExceptionallyWhenEncodingFails() {
+        hasher = new PooledPasswordHasher(new BCryptPasswordEncoder(4), 1, 8);
+
+        assertThatThrownBy(() -> hasher.hash(null).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    private record RecordingEncoder(PasswordEncoder delegate, List<String> threads) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            synchronized (threads) {
+                threads.add(Thread.currentThread().getName());
+            }
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+    }
+
+    /**
+     * Holds pool threads until released, so that the queue fills up; the caller is never held.
+     */
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (Thread.currentThread().getName().startsWith("password-hashing-")) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketAuthenticationThrottleTest {
+
+    private final TokenBucketAuthenticationThrottle throttle = new TokenBucketAuthenticationThrottle(3, 1, 4, 1, 5, 1);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void limitsAnAccountFromOneAddress() {
+        from("10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("EMP-1");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("EMP-1"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageStartingWith("Too many attempts for this account")
+                .extracting(e -> ((TooManyRequestsException) e).getRetryAfterSeconds())
+                .isIn(59L, 60L);
+    }
+
+    @Test
+    void anAccountLimitedAtOneAddressCanStillSignInFromAnother() {
+        from("10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("EMP-1");
+        }
+        assertThatThrownBy(() -> throttle.acquire("EMP-1")).isInstanceOf(TooManyRequestsException.class);
+
+        from("10.0.0.2");
+
+        assertThatCode(() -> throttle.acquire("EMP-1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void limitsAnAccountAcrossAddresses() {
+        for (int i = 0; i < 4; i++) {
+            from("10.0.1." + i);
+            throttle.acquire("EMP-1");
+        }
+
+        from("10.0.1.9");
+        assertThatThrownBy(() -> throttle.acquire("EMP-1"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageStartingWith("Too many attempts for this account");
+        assertThatCode(() -> throttle.acquire("EMP-2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void limitsAnAddressAcrossAccounts() {
+        from("10.0.0.1");
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("EMP-" + i);
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("EMP-9"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageStartingWith("Too many attempts from this address");
+
+        from("10.0.0.2");
+        assertThatCode(() -> throttle.acquire("EMP-9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void limitsOnlyTheAccountOutsideOfARequest() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("EMP-1");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("EMP-1"))
+                .hasMessageStartingWith("Too many attempts for this account");
+        assertThatCode(() -> throttle.acquire("EMP-2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucketAuthenticationThrottle fast = new TokenBucketAuthenticationThrottle(1, 600, 10, 600, 10, 600);
+        fast.acquire("EMP-1");
+        assertThatThrownBy(() -> fast.acquire("EMP-1")).isInstanceOf(TooManyRequestsException.class);
+
+        // 600 a minute is one every 100ms
+        Thread.sleep(150);
+
+        assertThatCode(() -> fast.acquire("EMP-1")).doesNotThrowAnyException();
+    }
+
+    private static void from(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(address);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
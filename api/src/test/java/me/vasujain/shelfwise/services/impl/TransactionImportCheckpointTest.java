@@ -0,0 +1,190 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.DataImportResultDTO;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.DataImportService;
+import me.vasujain.shelfwise.services.ImportProgressListener;
+import me.vasujain.shelfwise.services.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Issued transaction rows and the checkpoint after them are committed together, so that a job resumed
+ * after its last checkpoint never issues a row twice.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = TransactionImportCheckpointTest.LIBRARIAN, roles = "ADMIN")
+class TransactionImportCheckpointTest {
+
+    static final String LIBRARIAN = "CHECKPOINT-ADMIN";
+
+    private static final String CSV = """
+            bookAccessionNumber,userEmployeeId,issueDate,dueDate
+            CP-1,CP-MEMBER,2024-01-10,2024-01-24
+            CP-2,CP-MEMBER,2024-01-10,2024-01-24
+            CP-3,CP-MEMBER,2024-01-10,2024-01-24
+            """;
+
+    @Autowired
+    private DataImportService dataImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+
+        for (int i = 1; i <= 3; i++) {
+            bookRepository.save(Book.builder().accessionNumber("CP-" + i).title("Book " + i).authorPrimary("Author").build());
+        }
+        userRepository.save(user(LIBRARIAN, UserRole.ADMIN));
+        userRepository.save(user("CP-MEMBER", UserRole.MEMBER));
+        userCache.evict(LIBRARIAN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Other tests clear books and users without knowing about transactions
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void checkpointsInTheTransactionThatIssuedTheRows() throws Exception {
+        List<String> seen = new ArrayList<>();
+        CheckpointListener listener = new CheckpointListener(0, 2) {
+            @Override
+            public void onCheckpoint(long processedRows, int successfulRows) {
+                // Sees the rows of the batch before they are committed
+                seen.add(processedRows + ":" + successfulRows + ":"
+                        + TransactionSynchronizationManager.isActualTransactionActive() + ":" + transactionRepository.count());
+            }
+        };
+
+        DataImportResultDTO result = dataImportService.importTransactionsFromCsv(csv(), listener);
+
+        assertThat(result.getSuccessfulImports()).isEqualTo(3);
+        assertThat(seen).containsExactly("2:2:true:2", "3:3:true:3");
+    }
+
+    @Test
+    void rowsOfAFailedCheckpointAreNotIssued() throws Exception {
+        CheckpointListener listener = new CheckpointListener(0, 2) {
+            private boolean failed;
+
+            @Override
+            public void onCheckpoint(long processedRows, int successfulRows) {
+                super.onCheckpoint(processedRows, successfulRows);
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException("Progress could not be saved");
+                }
+            }
+        };
+
+        DataImportResultDTO result = dataImportService.importTransactionsFromCsv(csv(), listener);
+
+        // The first batch was rolled back with its checkpoint, so a resumed job would issue it exactly once
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        assertThat(availableCopies("CP-1")).isEqualTo(1);
+        assertThat(availableCopies("CP-3")).isZero();
+        assertThat(result.getSuccessfulImports()).isEqualTo(1);
+        assertThat(listener.failedRows).containsExactly(1L, 2L);
+        assertThat(listener.checkpoints).containsExactly(2L, 2L, 3L);
+    }
+
+    @Test
+    void resumedImportsSkipCheckpointedRows() throws Exception {
+        DataImportResultDTO first = dataImportService.importTransactionsFromCsv(csv(), new CheckpointListener(0, 2) {
+            @Override
+            public boolean isCancelled() {
+                return checkpoints.contains(2L);
+            }
+        });
+        DataImportResultDTO resumed = dataImportService.importTransactionsFromCsv(csv(), new CheckpointListener(2, 2));
+
+        assertThat(first.getSuccessfulImports()).isEqualTo(2);
+        assertThat(resumed.getSuccessfulImports()).isEqualTo(1);
+        assertThat(transactionRepository.count()).isEqualTo(3);
+    }
+
+    private int availableCopies(String accessionNumber) {
+        return bookRepository.findByAccessionNumber(accessionNumber).map(Book::getAvailableCopies).orElseThrow();
+    }
+
+    private static ByteArrayResource csv() {
+        return new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User user(String employeeId, UserRole role) {
+        return User.builder()
+                .employeeId(employeeId)
+                .fullName("User " + employeeId)
+                .userRole(role)
+                .password("{noop}secret")
+                .build();
+    }
+
+    private static class CheckpointListener implements ImportProgressListener {
+
+        private final long resumeAfter;
+        private final int interval;
+        final List<Long> checkpoints = new ArrayList<>();
+        final List<Long> failedRows = new ArrayList<>();
+
+        CheckpointListener(long resumeAfter, int interval) {
+            this.resumeAfter = resumeAfter;
+            this.interval = interval;
+        }
+
+        @Override
+        public long resumeAfter() {
+            return resumeAfter;
+        }
+
+        @Override
+        public int checkpointInterval() {
+            return interval;
+        }
+
+        @Override
+        public void onRowFailed(long rowNumber, String identifier, String reason) {
+            failedRows.add(rowNumber);
+        }
+
+        @Override
+        public void onCheckpoint(long processedRows, int successfulRows) {
+            checkpoints.add(processedRows);
+        }
+    }
+}
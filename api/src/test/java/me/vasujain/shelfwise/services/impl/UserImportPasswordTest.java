@@ -0,0 +1,103 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.DataImportResultDTO;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.DataImportService;
+import me.vasujain.shelfwise.services.ImportProgressListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserImportPasswordTest {
+
+    private static final PasswordEncoder MIGRATED_ENCODER = new BCryptPasswordEncoder(4);
+
+    @Autowired
+    private DataImportService dataImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void hashesEveryImportedPassword() throws Exception {
+        DataImportResultDTO result = importUsers(false, """
+                employeeId,fullName,userRole,password
+                PW-1,Hori,MEMBER,secret-1
+                PW-2,Dhaniya,MEMBER,secret-2
+                PW-3,Gobar,MEMBER,secret-3
+                """);
+
+        assertThat(result.getSuccessfulImports()).isEqualTo(3);
+        for (int i = 1; i <= 3; i++) {
+            String stored = password("PW-" + i);
+            assertThat(stored).isNotEqualTo("secret-" + i);
+            assertThat(passwordEncoder.matches("secret-" + i, stored)).isTrue();
+        }
+    }
+
+    @Test
+    void storesTrustedHashesAsGiven() throws Exception {
+        String trusted = MIGRATED_ENCODER.encode("migrated");
+
+        DataImportResultDTO result = importUsers(true, """
+                employeeId,fullName,userRole,password
+                PW-1,Hori,MEMBER,{bcrypt}%s
+                PW-2,Dhaniya,MEMBER,{bcrypt}not-a-hash
+                PW-3,Gobar,MEMBER,plain
+                """.formatted(trusted));
+
+        assertThat(result.getSuccessfulImports()).isEqualTo(2);
+        assertThat(result.getFailedRecordIdentifiers()).containsExactly("PW-2");
+        assertThat(password("PW-1")).isEqualTo(trusted);
+        assertThat(passwordEncoder.matches("migrated", password("PW-1"))).isTrue();
+        assertThat(passwordEncoder.matches("plain", password("PW-3"))).isTrue();
+    }
+
+    @Test
+    void hashesPrefixedValuesUnlessTrusted() throws Exception {
+        String hash = MIGRATED_ENCODER.encode("migrated");
+        String value = "{bcrypt}" + hash;
+
+        importUsers(false, """
+                employeeId,fullName,userRole,password
+                PW-1,Hori,MEMBER,%s
+                """.formatted(value));
+
+        assertThat(password("PW-1")).isNotEqualTo(hash);
+        assertThat(passwordEncoder.matches(value, password("PW-1"))).isTrue();
+    }
+
+    private DataImportResultDTO importUsers(boolean acceptPreHashedPasswords, String csv) throws Exception {
+        return dataImportService.importUsersFromCsv(new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8)),
+                acceptPreHashedPasswords, ImportProgressListener.NONE);
+    }
+
+    private String password(String employeeId) {
+        return userRepository.findByEmployeeId(employeeId).map(User::getPassword).orElseThrow();
+    }
+}
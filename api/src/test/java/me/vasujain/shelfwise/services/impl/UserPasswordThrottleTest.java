@@ -0,0 +1,100 @@
+package me.vasujain.shelfwise.services.impl;
+
+import me.vasujain.shelfwise.dtos.PasswordResetDTO;
+import me.vasujain.shelfwise.dtos.PasswordUpdateDTO;
+import me.vasujain.shelfwise.dtos.UserCreateDTO;
+import me.vasujain.shelfwise.enums.UserRole;
+import me.vasujain.shelfwise.exceptions.TooManyRequestsException;
+import me.vasujain.shelfwise.models.User;
+import me.vasujain.shelfwise.repositories.BookTransactionRepository;
+import me.vasujain.shelfwise.repositories.UserRepository;
+import me.vasujain.shelfwise.services.UserCache;
+import me.vasujain.shelfwise.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = UserPasswordThrottleTest.ADMIN)
+class UserPasswordThrottleTest {
+
+    static final String ADMIN = "THROTTLE-ADMIN";
+
+    /** app.auth-throttle.per-principal.capacity */
+    private static final int CAPACITY = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookTransactionRepository transactionRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        userCache.evict(ADMIN);
+        userRepository.save(User.builder()
+                .employeeId(ADMIN)
+                .fullName("Admin")
+                .userRole(UserRole.SUPER_ADMIN)
+                .password("{noop}secret")
+                .build());
+    }
+
+    @Test
+    void adminsRegisterAndResetWithoutSpendingTheirAllowance() {
+        for (int i = 0; i <= CAPACITY; i++) {
+            userService.registerUser(member("THROTTLE-" + i));
+        }
+        User member = userRepository.findByEmployeeId("THROTTLE-0").orElseThrow();
+
+        for (int i = 0; i <= CAPACITY; i++) {
+            userService.resetPassword(member.getId(), new PasswordResetDTO("new-password-" + i));
+        }
+
+        assertThat(userRepository.count()).isEqualTo(CAPACITY + 2);
+    }
+
+    @Test
+    void passwordUpdatesSpendTheAllowanceOfTheAccountChecked() {
+        UUID memberId = userService.registerUser(member("THROTTLE-" + UUID.randomUUID())).getId();
+        PasswordUpdateDTO wrong = new PasswordUpdateDTO("not-the-password", "new-password", "new-password");
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThatThrownBy(() -> userService.updatePassword(memberId, wrong))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> userService.updatePassword(memberId, wrong))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        // The admin's own allowance is untouched
+        assertThatThrownBy(() -> userService.changePassword(wrong))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static UserCreateDTO member(String employeeId) {
+        UserCreateDTO user = new UserCreateDTO();
+        user.setEmployeeId(employeeId);
+        user.setFullName("Member " + employeeId);
+        user.setEmail(employeeId.toLowerCase() + "@example.com");
+        user.setUserRole(UserRole.MEMBER);
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,79 @@
+package me.vasujain.shelfwise.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxExportWriterTest {
+
+    private static final int MAX_CELL_LENGTH = 32_767;
+
+    @Test
+    void escapesMarkupAndKeepsSupplementaryCharacters() throws Exception {
+        assertThat(cells("<a> & 📚\ttab")).containsExactly("Header", "<a> & 📚\ttab");
+    }
+
+    @Test
+    void dropsCharactersXmlCannotHold() throws Exception {
+        String text = "a\u0001b\uD800c\uDC00d\uFFFEe\uFFFFf\uDBFF";
+
+        assertThat(cells(text)).containsExactly("Header", "abcdef");
+    }
+
+    @Test
+    void truncatesLongTextWithoutSplittingASurrogatePair() throws Exception {
+        String text = "x".repeat(MAX_CELL_LENGTH - 1) + "📚" + "tail";
+
+        String cell = cells(text).get(1);
+
+        assertThat(cell).hasSize(MAX_CELL_LENGTH - 1).matches("x+");
+    }
+
+    @Test
+    void truncatesLongTextAtTheCellLimit() throws Exception {
+        String text = "📚".repeat(MAX_CELL_LENGTH);
+
+        String cell = cells(text).get(1);
+
+        assertThat(cell).hasSize(MAX_CELL_LENGTH - 1);
+        assertThat(cell.codePointCount(0, cell.length())).isEqualTo((MAX_CELL_LENGTH - 1) / 2);
+    }
+
+    /**
+     * Writes a header and one row holding the text, and reads the cells of the first sheet back.
+     */
+    private static List<String> cells(String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XlsxExportWriter writer = new XlsxExportWriter(out);
+        writer.writeHeader(new String[]{"Header"});
+        writer.writeRow(new Object[]{text});
+        writer.finish();
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    // Parsing fails on characters that are not allowed in XML
+                    Document sheet = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                            .parse(new ByteArrayInputStream(zip.readAllBytes()));
+                    NodeList texts = sheet.getElementsByTagName("t");
+                    List<String> cells = new ArrayList<>();
+                    for (int i = 0; i < texts.getLength(); i++) {
+                        cells.add(texts.item(i).getTextContent());
+                    }
+                    return cells;
+                }
+            }
+        }
+        throw new AssertionError("The workbook has no first sheet");
+    }
+}
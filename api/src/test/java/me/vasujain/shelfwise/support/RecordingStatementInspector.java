@@ -0,0 +1,29 @@
+package me.vasujain.shelfwise.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate prepares, for tests asserting the shape of the queries a call sends.
+ * Enabled for the test profile in {@code application-test.yaml}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+}
@@ -0,0 +1,143 @@
+package me.vasujain.shelfwise.util;
+
+import me.vasujain.shelfwise.enums.BookCondition;
+import me.vasujain.shelfwise.enums.BookStatus;
+import me.vasujain.shelfwise.enums.BookType;
+import me.vasujain.shelfwise.models.Book;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second bound from a book CSV by {@link CsvRecordBinder}, against the header-name lookups and
+ * exception-driven date parsing it replaced. Half of the purchase dates are written {@code M/d/yyyy}, which
+ * the old parsing only reached after a failed ISO parse.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) me.vasujain.shelfwise.util.CsvRecordBinderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvRecordBinderBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final String HEADER = "accessionNumber,isbn,title,authorPrimary,publisher,publicationYear,language,price,"
+            + "purchaseDate,bookCondition,bookStatus,totalCopies,availableCopies,bookType,isReferenceOnly,registrationDate\n";
+
+    private static final CsvRecordBinder<Book> BINDER = CsvRecordBinder.<Book>builder()
+            .string("accessionNumber", Book::setAccessionNumber)
+            .string("isbn", Book::setIsbn)
+            .string("title", Book::setTitle)
+            .string("authorPrimary", Book::setAuthorPrimary)
+            .string("publisher", Book::setPublisher)
+            .integer("publicationYear", Book::setPublicationYear)
+            .string("language", Book::setLanguage)
+            .decimal("price", Book::setPrice)
+            .date("purchaseDate", Book::setPurchaseDate)
+            .enumeration("bookCondition", BookCondition.class, Book::setBookCondition)
+            .enumeration("bookStatus", BookStatus.class, Book::setBookStatus)
+            .integer("totalCopies", Book::setTotalCopies)
+            .integer("availableCopies", Book::setAvailableCopies)
+            .enumeration("bookType", BookType.class, Book::setBookType)
+            .bool("isReferenceOnly", Book::setIsReferenceOnly)
+            .dateTime("registrationDate", Book::setRegistrationDate)
+            .build();
+
+    private List<CSVRecord> records;
+    private CsvRecordBinder.Plan<Book> plan;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < ROWS; i++) {
+            String purchaseDate = i % 2 == 0 ? "2021-03-" + (1 + i % 28) : "3/" + (1 + i % 28) + "/2021";
+            csv.append("ACC-").append(i).append(",978316148410").append(i % 10).append(",Title ").append(i)
+                    .append(",Author ").append(i % 500).append(",Publisher ").append(i % 50).append(',').append(1950 + i % 70)
+                    .append(",English,").append(100 + i % 900).append(".50,").append(purchaseDate)
+                    .append(",GOOD,AVAILABLE,3,2,GENERAL,").append(i % 3 == 0).append(",2024-01-15T10:30:00.123456\n");
+        }
+        CSVParser parser = new CSVParser(new StringReader(csv.toString()),
+                CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim());
+        records = parser.getRecords();
+        plan = BINDER.compile(parser.getHeaderMap());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void compiledBinder(Blackhole blackhole) {
+        for (CSVRecord record : records) {
+            Book book = new Book();
+            blackhole.consume(plan.bind(record, book));
+            blackhole.consume(book);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void headerLookups(Blackhole blackhole) {
+        for (CSVRecord record : records) {
+            Book book = new Book();
+            book.setAccessionNumber(record.get("accessionNumber"));
+            book.setIsbn(record.get("isbn"));
+            book.setTitle(record.get("title"));
+            book.setAuthorPrimary(record.get("authorPrimary"));
+            book.setPublisher(record.get("publisher"));
+            book.setPublicationYear(Integer.parseInt(record.get("publicationYear")));
+            book.setLanguage(record.get("language"));
+            book.setPrice(new BigDecimal(record.get("price")));
+            book.setPurchaseDate(parseWithFallbacks(record.get("purchaseDate")));
+            book.setBookCondition(BookCondition.valueOf(record.get("bookCondition")));
+            book.setBookStatus(BookStatus.valueOf(record.get("bookStatus")));
+            book.setTotalCopies(Integer.parseInt(record.get("totalCopies")));
+            book.setAvailableCopies(Integer.parseInt(record.get("availableCopies")));
+            book.setBookType(BookType.valueOf(record.get("bookType")));
+            book.setIsReferenceOnly(Boolean.parseBoolean(record.get("isReferenceOnly")));
+            book.setRegistrationDate(LocalDateTime.parse(record.get("registrationDate"), DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            blackhole.consume(book);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CsvRecordBinderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static LocalDate parseWithFallbacks(String value) {
+        try {
+            return LocalDate.parse(value, DateTimeFormatter.ofPattern("yyyy-M-d"));
+        } catch (DateTimeParseException e) {
+            return LocalDate.parse(value, DateTimeFormatter.ofPattern("M/d/yyyy"));
+        }
+    }
+}
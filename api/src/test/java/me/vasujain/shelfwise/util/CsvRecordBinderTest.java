@@ -0,0 +1,172 @@
+package me.vasujain.shelfwise.util;
+
+import me.vasujain.shelfwise.enums.BookStatus;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRecordBinderTest {
+
+    private static final CsvRecordBinder<Row> BINDER = CsvRecordBinder.<Row>builder()
+            .string("title", (row, value) -> row.title = value)
+            .integer("pages", (row, value) -> row.pages = value)
+            .decimal("price", (row, value) -> row.price = value)
+            .bool("reference", (row, value) -> row.reference = value)
+            .date("purchaseDate", (row, value) -> row.purchaseDate = value)
+            .dateTime("issuedAt", (row, value) -> row.issuedAt = value)
+            .enumeration("status", BookStatus.class, (row, value) -> row.status = value)
+            .build();
+
+    @Test
+    void bindsEveryColumnByItsType() throws IOException {
+        try (CSVParser parser = parse("""
+                title,pages,price,reference,purchaseDate,issuedAt,status
+                Godan, 312 ,499.50,yes,1/15/2024,2024-01-15 10:30,available
+                """)) {
+            Row row = new Row();
+
+            List<CsvRecordBinder.FieldError> errors = BINDER.compile(parser.getHeaderMap()).bind(record(parser), row);
+
+            assertThat(errors).isEmpty();
+            assertThat(row.title).isEqualTo("Godan");
+            assertThat(row.pages).isEqualTo(312);
+            assertThat(row.price).isEqualByComparingTo("499.5");
+            assertThat(row.reference).isTrue();
+            assertThat(row.purchaseDate).isEqualTo(LocalDate.of(2024, 1, 15));
+            assertThat(row.issuedAt).isEqualTo(LocalDateTime.of(2024, 1, 15, 10, 30));
+            assertThat(row.status).isEqualTo(BookStatus.AVAILABLE);
+        }
+    }
+
+    @Test
+    void collectsTheValuesThatCannotBeParsed() throws IOException {
+        try (CSVParser parser = parse("""
+                title,pages,price,reference,purchaseDate,issuedAt,status
+                Godan,3000000000,free,maybe,2023-02-29,2024-01-15T24:00,shelved
+                """)) {
+            Row row = new Row();
+
+            List<CsvRecordBinder.FieldError> errors = BINDER.compile(parser.getHeaderMap()).bind(record(parser), row);
+
+            assertThat(errors).extracting(CsvRecordBinder.FieldError::column)
+                    .containsExactly("pages", "price", "reference", "purchaseDate", "issuedAt", "status");
+            assertThat(errors.get(0)).hasToString("pages '3000000000' is not a whole number");
+            assertThat(errors.get(5).expected()).startsWith("one of [AVAILABLE, ISSUED");
+            assertThat(row.title).isEqualTo("Godan");
+            assertThat(row.pages).isNull();
+            assertThat(row.purchaseDate).isNull();
+        }
+    }
+
+    @Test
+    void bareNumbersAreNotDates() throws IOException {
+        try (CSVParser parser = parse("""
+                purchaseDate
+                20200115
+                """)) {
+            Row row = new Row();
+
+            List<CsvRecordBinder.FieldError> errors = BINDER.compile(parser.getHeaderMap()).bind(record(parser), row);
+
+            assertThat(errors).singleElement().hasToString("purchaseDate '20200115' is not a date");
+            assertThat(row.purchaseDate).isNull();
+        }
+    }
+
+    @Test
+    void blankAndMissingCellsLeaveTheTargetUntouched() throws IOException {
+        try (CSVParser parser = parse("""
+                Title,Pages,PurchaseDate
+                ,  ,0
+                """)) {
+            Row row = new Row();
+            row.title = "Kept";
+            row.pages = 10;
+            row.purchaseDate = LocalDate.of(2020, 1, 1);
+            row.status = BookStatus.LOST;
+
+            List<CsvRecordBinder.FieldError> errors = BINDER.compile(parser.getHeaderMap()).bind(record(parser), row);
+
+            assertThat(errors).isEmpty();
+            assertThat(row.title).isEqualTo("Kept");
+            assertThat(row.pages).isEqualTo(10);
+            assertThat(row.purchaseDate).isEqualTo(LocalDate.of(2020, 1, 1));
+            assertThat(row.status).isEqualTo(BookStatus.LOST);
+        }
+    }
+
+    @Test
+    void zeroIsOnlyBlankForDates() throws IOException {
+        try (CSVParser parser = parse("""
+                pages,reference,purchaseDate
+                0,0,0
+                """)) {
+            Row row = new Row();
+
+            BINDER.compile(parser.getHeaderMap()).bind(record(parser), row);
+
+            assertThat(row.pages).isZero();
+            assertThat(row.reference).isFalse();
+            assertThat(row.purchaseDate).isNull();
+        }
+    }
+
+    @Test
+    void columnsAreLookedUpIgnoringCase() throws IOException {
+        try (CSVParser parser = parse("""
+                TITLE,Pages
+                Godan,312
+                """)) {
+            CsvRecordBinder.Plan<Row> plan = BINDER.compile(parser.getHeaderMap());
+            Row row = new Row();
+
+            plan.bind(record(parser), row);
+
+            assertThat(row.title).isEqualTo("Godan");
+            assertThat(row.pages).isEqualTo(312);
+            assertThat(plan.column("pages")).isEqualTo(1);
+            assertThat(plan.column("price")).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void shortRecordsReadAsMissingCells() throws IOException {
+        try (CSVParser parser = CSVParser.parse("title,pages\nGodan\n",
+                CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).setAllowMissingColumnNames(true).build())) {
+            CSVRecord record = record(parser);
+
+            assertThat(CsvRecordBinder.value(record, 0)).isEqualTo("Godan");
+            assertThat(CsvRecordBinder.value(record, 1)).isNull();
+            assertThat(CsvRecordBinder.value(record, -1)).isNull();
+        }
+    }
+
+    private static CSVParser parse(String content) throws IOException {
+        return new CSVParser(new StringReader(content),
+                CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim());
+    }
+
+    private static CSVRecord record(CSVParser parser) {
+        return parser.iterator().next();
+    }
+
+    private static final class Row {
+        String title;
+        Integer pages;
+        BigDecimal price;
+        Boolean reference;
+        LocalDate purchaseDate;
+        LocalDateTime issuedAt;
+        BookStatus status;
+    }
+}
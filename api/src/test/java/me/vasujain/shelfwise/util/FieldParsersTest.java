@@ -0,0 +1,130 @@
+package me.vasujain.shelfwise.util;
+
+import me.vasujain.shelfwise.enums.BookStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldParsersTest {
+
+    @Test
+    void integersStopAtTheRangeOfAnInt() {
+        assertThat(FieldParsers.parseInteger("42")).isEqualTo(42);
+        assertThat(FieldParsers.parseInteger("+7")).isEqualTo(7);
+        assertThat(FieldParsers.parseInteger("2147483647")).isEqualTo(Integer.MAX_VALUE);
+        assertThat(FieldParsers.parseInteger("-2147483648")).isEqualTo(Integer.MIN_VALUE);
+        assertThat(FieldParsers.parseInteger("2147483648")).isNull();
+        assertThat(FieldParsers.parseInteger("-2147483649")).isNull();
+        assertThat(FieldParsers.parseInteger("99999999999")).isNull();
+    }
+
+    @Test
+    void integersRejectAnythingButDigits() {
+        assertThat(FieldParsers.parseInteger("-")).isNull();
+        assertThat(FieldParsers.parseInteger("12a")).isNull();
+        assertThat(FieldParsers.parseInteger("1.5")).isNull();
+        assertThat(FieldParsers.parseInteger("1 000")).isNull();
+    }
+
+    @Test
+    void decimalsTakeOnePoint() {
+        assertThat(FieldParsers.parseDecimal("499.50")).isEqualByComparingTo("499.5");
+        assertThat(FieldParsers.parseDecimal("-.5")).isEqualTo(new BigDecimal("-0.5"));
+        assertThat(FieldParsers.parseDecimal("12.")).isEqualByComparingTo("12");
+        assertThat(FieldParsers.parseDecimal(".")).isNull();
+        assertThat(FieldParsers.parseDecimal("1.2.3")).isNull();
+        assertThat(FieldParsers.parseDecimal("1e3")).isNull();
+    }
+
+    @Test
+    void booleansTakeTheUsualWords() {
+        assertThat(FieldParsers.parseBoolean("Yes")).isTrue();
+        assertThat(FieldParsers.parseBoolean("1")).isTrue();
+        assertThat(FieldParsers.parseBoolean("N")).isFalse();
+        assertThat(FieldParsers.parseBoolean("FALSE")).isFalse();
+        assertThat(FieldParsers.parseBoolean("maybe")).isNull();
+    }
+
+    @Test
+    void datesAreReadInBothLayouts() {
+        assertThat(FieldParsers.parseDate("2024-01-15")).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(FieldParsers.parseDate("2024-1-5")).isEqualTo(LocalDate.of(2024, 1, 5));
+        assertThat(FieldParsers.parseDate("1/15/2024")).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(FieldParsers.parseDate("12/31/1999")).isEqualTo(LocalDate.of(1999, 12, 31));
+        assertThat(FieldParsers.parseDate("15/1/2024")).isNull();
+        assertThat(FieldParsers.parseDate("1/15/24")).isNull();
+        assertThat(FieldParsers.parseDate("2024-01-15x")).isNull();
+    }
+
+    @Test
+    void datesMustExist() {
+        assertThat(FieldParsers.parseDate("2024-02-29")).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(FieldParsers.parseDate("2023-02-29")).isNull();
+        assertThat(FieldParsers.parseDate("1900-02-29")).isNull();
+        assertThat(FieldParsers.parseDate("4/31/2024")).isNull();
+        assertThat(FieldParsers.parseDate("2024-13-01")).isNull();
+        assertThat(FieldParsers.parseDate("2024-00-10")).isNull();
+        assertThat(FieldParsers.parseDate("2024-01-00")).isNull();
+    }
+
+    @Test
+    void datesAreNotReadFromBareNumbers() {
+        assertThat(FieldParsers.parseDate("2020")).isNull();
+        assertThat(FieldParsers.parseDate("20200115")).isNull();
+        assertThat(FieldParsers.parseDate("1705276800")).isNull();
+    }
+
+    @Test
+    void epochSecondsAreReadAsTheirDay() {
+        assertThat(FieldParsers.parseEpochSeconds("1705276800")).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(FieldParsers.parseEpochSeconds("1705363199")).isEqualTo(LocalDate.of(2024, 1, 15));
+        assertThat(FieldParsers.parseEpochSeconds("86400")).isEqualTo(LocalDate.of(1970, 1, 2));
+        assertThat(FieldParsers.parseEpochSeconds("-86400")).isNull();
+        assertThat(FieldParsers.parseEpochSeconds("2024-01-15")).isNull();
+        assertThat(FieldParsers.parseEpochSeconds("1234567890123")).isNull();
+    }
+
+    @Test
+    void dateTimesTakeATOrASpace() {
+        LocalDateTime expected = LocalDateTime.of(2024, 1, 15, 10, 30);
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:30")).isEqualTo(expected);
+        assertThat(FieldParsers.parseDateTime("2024-01-15 10:30:00")).isEqualTo(expected);
+        assertThat(FieldParsers.parseDateTime("2024-01-15")).isEqualTo(LocalDate.of(2024, 1, 15).atStartOfDay());
+        assertThat(FieldParsers.parseDateTime("2024-01-15_10:30")).isNull();
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10")).isNull();
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:30Z")).isNull();
+    }
+
+    @Test
+    void dateTimesCheckEveryField() {
+        assertThat(FieldParsers.parseDateTime("2024-01-15T23:59:59")).isEqualTo(LocalDateTime.of(2024, 1, 15, 23, 59, 59));
+        assertThat(FieldParsers.parseDateTime("2024-01-15T24:00")).isNull();
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:60")).isNull();
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:30:60")).isNull();
+        assertThat(FieldParsers.parseDateTime("2024-01-15T1:30")).isNull();
+        assertThat(FieldParsers.parseDateTime("2023-02-29T10:30")).isNull();
+    }
+
+    @Test
+    void fractionsOfASecondAreScaledToNanos() {
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:30:00.5").getNano()).isEqualTo(500_000_000);
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:30:00.123").getNano()).isEqualTo(123_000_000);
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:30:00.000000007").getNano()).isEqualTo(7);
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:30:00.1234567891")).isNull();
+        assertThat(FieldParsers.parseDateTime("2024-01-15T10:30:00.")).isNull();
+    }
+
+    @Test
+    void enumsAreMatchedIgnoringCase() {
+        Function<String, BookStatus> parser = FieldParsers.enumParser(BookStatus.class);
+
+        assertThat(parser.apply("available")).isEqualTo(BookStatus.AVAILABLE);
+        assertThat(parser.apply("AVAILABLE")).isEqualTo(BookStatus.AVAILABLE);
+        assertThat(parser.apply("shelved")).isNull();
+    }
+}
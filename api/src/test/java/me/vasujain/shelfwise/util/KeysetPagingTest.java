@@ -0,0 +1,90 @@
+package me.vasujain.shelfwise.util;
+
+import me.vasujain.shelfwise.models.Book;
+import me.vasujain.shelfwise.repositories.BookRepository;
+import me.vasujain.shelfwise.response.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class KeysetPagingTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        List<Book> books = new ArrayList<>();
+        Integer[] years = {2001, null, 1999, 2001, null, 1985, 2010, null, 1999};
+        String[] titles = {"Kamayani", null, "Godan", "Gaban", "Nirmala", null, "Rashmirathi", "Madhushala", "Tamas"};
+        for (int i = 0; i < years.length; i++) {
+            books.add(Book.builder()
+                    .accessionNumber("K-" + i)
+                    .title(titles[i])
+                    .publicationYear(years[i])
+                    .build());
+        }
+        bookRepository.saveAll(books);
+    }
+
+    @Test
+    void pagesThroughNullableSortKeyAscending() {
+        assertPagesMatchSortedQuery(Sort.by(Sort.Direction.ASC, "publicationYear"));
+    }
+
+    @Test
+    void pagesThroughNullableSortKeyDescending() {
+        assertPagesMatchSortedQuery(Sort.by(Sort.Direction.DESC, "publicationYear"));
+    }
+
+    @Test
+    void pagesThroughSeveralNullableSortKeys() {
+        assertPagesMatchSortedQuery(Sort.by(Sort.Order.asc("publicationYear"), Sort.Order.desc("title")));
+        assertPagesMatchSortedQuery(Sort.by(Sort.Order.desc("title"), Sort.Order.asc("publicationYear")));
+    }
+
+    @Test
+    void rejectsCursorIssuedForAnotherSort() {
+        CursorPage<Book> first = KeysetPaging.scroll(bookRepository, null,
+                CursorPageRequest.of("", 2, Sort.by("publicationYear"), false));
+
+        assertThatThrownBy(() -> KeysetPaging.scroll(bookRepository, null,
+                CursorPageRequest.of(first.getNextCursor(), 2, Sort.by("title"), false)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetPaging.scroll(bookRepository, null,
+                CursorPageRequest.of("not-a-cursor", 2, Sort.by("title"), false)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertPagesMatchSortedQuery(Sort sort) {
+        Sort withId = sort.and(Sort.by(sort.iterator().next().getDirection(), "id"));
+        List<UUID> expected = bookRepository.findAll(withId).stream().map(Book::getId).toList();
+
+        List<UUID> scrolled = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorPage<Book> page = KeysetPaging.scroll(bookRepository, null, CursorPageRequest.of(cursor, 2, sort, true));
+            page.getContent().forEach(book -> scrolled.add(book.getId()));
+            assertThat(page.getTotalElements()).isEqualTo(9);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertThat(pages).isEqualTo(5);
+        assertThat(scrolled).containsExactlyElementsOf(expected);
+    }
+}